@@ -18,6 +18,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.BackgroundDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -29,6 +30,7 @@ import org.sonar.check.Rule;
  * And/But/conjunction steps following a Given are acceptable.
  */
 @Rule(key = "background-given-only")
+@NodeLocal
 public class BackgroundGivenOnlyCheck extends BaseCheck {
 
     @Override
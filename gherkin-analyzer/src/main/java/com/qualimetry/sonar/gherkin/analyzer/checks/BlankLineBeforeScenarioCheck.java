@@ -18,6 +18,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 
 /**
@@ -27,22 +28,17 @@ import org.sonar.check.Rule;
  * by visually separating scenarios from the preceding content. This follows
  * the same pattern as {@link ExamplesSeparatorLineCheck} for Examples sections.
  * <p>
- * Uses the raw content approach ({@code getContext().getRawContent()}) to
+ * Uses the raw content approach ({@code getContext().getLines()}) to
  * inspect the line before the scenario keyword.
  */
 @Rule(key = "blank-line-before-scenario")
 public class BlankLineBeforeScenarioCheck extends BaseCheck {
 
-    private String[] lines;
+    private LineIndex lines;
 
     @Override
     public void visitFeatureFile(FeatureFile file) {
-        String rawContent = getContext().getRawContent();
-        if (rawContent != null) {
-            lines = rawContent.split("\\r?\\n", -1);
-        } else {
-            lines = null;
-        }
+        lines = getContext().getLines();
     }
 
     @Override
@@ -69,9 +65,8 @@ public class BlankLineBeforeScenarioCheck extends BaseCheck {
 
         // Check the line before the scenario (or its first tag) - 0-based index
         int prevIndex = effectiveLine - 2;
-        if (prevIndex >= 0 && prevIndex < lines.length) {
-            String prevLine = lines[prevIndex].trim();
-            if (!prevLine.isEmpty()) {
+        if (prevIndex >= 0 && prevIndex < lines.getLineCount()) {
+            if (!lines.isBlank(prevIndex + 1)) {
                 addIssue(scenario.position(),
                         "Add a blank line before this Scenario.");
             }
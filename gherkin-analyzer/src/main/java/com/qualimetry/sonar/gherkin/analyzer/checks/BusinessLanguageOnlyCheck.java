@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 import java.util.Set;
@@ -31,6 +32,7 @@ import java.util.regex.Pattern;
  * couple the tests to the implementation and make them brittle.
  */
 @Rule(key = "business-language-only")
+@NodeLocal
 public class BusinessLanguageOnlyCheck extends BaseCheck {
 
     // Technical UI/implementation terms; excludes ordinary user-facing words like "page" and "button"
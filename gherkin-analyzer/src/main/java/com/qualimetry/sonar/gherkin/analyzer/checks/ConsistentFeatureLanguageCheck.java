@@ -74,10 +74,21 @@ public class ConsistentFeatureLanguageCheck extends BaseCheck {
                         getRuleKey(),
                         occ.uri(),
                         occ.position().line(),
-                        "Use the language \"" + expectedLanguage
-                                + "\" for consistency. This Feature uses \"" + occ.language() + "\"."));
+                        issueMessage(expectedLanguage, occ.language())));
             }
         }
         return issues;
     }
+
+    /**
+     * Builds the message reported on a Feature in an unexpected language.
+     *
+     * @param expectedLanguage the language of the first Feature
+     * @param language         the language of the reported Feature
+     * @return the issue message
+     */
+    public static String issueMessage(String expectedLanguage, String language) {
+        return "Use the language \"" + expectedLanguage
+                + "\" for consistency. This Feature uses \"" + language + "\".";
+    }
 }
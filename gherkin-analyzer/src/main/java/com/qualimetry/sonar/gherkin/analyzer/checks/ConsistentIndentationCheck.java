@@ -25,6 +25,7 @@ import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TextPosition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -62,7 +63,7 @@ public class ConsistentIndentationCheck extends BaseCheck {
     private int indentation = DEFAULT_INDENTATION;
 
     private boolean insideRule;
-    private String[] rawLines;
+    private LineIndex lines;
 
     public void setIndentation(int indentation) {
         this.indentation = indentation;
@@ -71,12 +72,7 @@ public class ConsistentIndentationCheck extends BaseCheck {
     @Override
     public void visitFeatureFile(FeatureFile file) {
         insideRule = false;
-        String rawContent = getContext().getRawContent();
-        if (rawContent != null) {
-            rawLines = rawContent.split("\n", -1);
-        } else {
-            rawLines = null;
-        }
+        lines = getContext().getLines();
     }
 
     @Override
@@ -138,16 +134,14 @@ public class ConsistentIndentationCheck extends BaseCheck {
     }
 
     private void checkIndentation(TextPosition position, int expectedLevel) {
-        if (rawLines == null || position == null) {
+        if (lines == null || position == null) {
             return;
         }
-        int lineIndex = position.line() - 1;
-        if (lineIndex < 0 || lineIndex >= rawLines.length) {
+        if (position.line() < 1 || position.line() > lines.getLineCount()) {
             return;
         }
 
-        String line = rawLines[lineIndex];
-        int actualIndent = countLeadingSpaces(line);
+        int actualIndent = lines.getLeadingSpaces(position.line());
         int expectedSpaces = expectedLevel * indentation;
 
         if (actualIndent != expectedSpaces) {
@@ -156,16 +150,4 @@ public class ConsistentIndentationCheck extends BaseCheck {
                             expectedSpaces, expectedLevel, actualIndent));
         }
     }
-
-    private static int countLeadingSpaces(String line) {
-        int count = 0;
-        for (int i = 0; i < line.length(); i++) {
-            if (line.charAt(i) == ' ') {
-                count++;
-            } else {
-                break;
-            }
-        }
-        return count;
-    }
 }
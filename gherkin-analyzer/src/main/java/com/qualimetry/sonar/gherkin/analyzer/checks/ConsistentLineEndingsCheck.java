@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -42,15 +43,12 @@ public class ConsistentLineEndingsCheck extends BaseCheck {
         this.lineEnding = lineEnding != null ? lineEnding : DEFAULT_LINE_ENDING;
     }
 
+    private String expectedSequence;
+    private int lineNum;
+
     @Override
     public void visitFeatureFile(FeatureFile file) {
-        String rawContent = getContext().getRawContent();
-        if (rawContent == null || rawContent.isEmpty()) {
-            return;
-        }
-
         // Determine expected line ending sequence
-        String expectedSequence;
         if ("CRLF".equalsIgnoreCase(lineEnding)) {
             expectedSequence = "\r\n";
         } else if ("CR".equalsIgnoreCase(lineEnding)) {
@@ -60,42 +58,37 @@ public class ConsistentLineEndingsCheck extends BaseCheck {
             expectedSequence = "\n";
         }
 
-        // Split content by all possible line endings to detect inconsistencies
-        // We'll scan character by character to find mismatches
-        int lineNum = 1;
-        int i = 0;
-        while (i < rawContent.length()) {
-            char ch = rawContent.charAt(i);
-            
-            if (ch == '\n') {
-                // Found LF
-                if (!"\n".equals(expectedSequence)) {
+        lineNum = 1;
+    }
+
+    @Override
+    public void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+        // Lines are split on LF only, with each LF or CRLF terminator
+        // classified. A lone CR inside a line also ends a line, so line
+        // numbers here count CR terminators as well.
+        for (int i = 0; i < content.length(); i++) {
+            if (content.charAt(i) == '\r') {
+                // Found CR alone
+                if (!"\r".equals(expectedSequence)) {
                     addLineIssue(lineNum,
-                            String.format("Expected %s line ending, but found LF.", lineEnding));
+                            String.format("Expected %s line ending, but found CR.", lineEnding));
                 }
                 lineNum++;
-                i++;
-            } else if (ch == '\r') {
-                // Could be CR or CRLF
-                if (i + 1 < rawContent.length() && rawContent.charAt(i + 1) == '\n') {
-                    // Found CRLF
-                    if (!"\r\n".equals(expectedSequence)) {
-                        addLineIssue(lineNum,
-                                String.format("Expected %s line ending, but found CRLF.", lineEnding));
-                    }
-                    i += 2; // Skip both characters
-                } else {
-                    // Found CR alone
-                    if (!"\r".equals(expectedSequence)) {
-                        addLineIssue(lineNum,
-                                String.format("Expected %s line ending, but found CR.", lineEnding));
-                    }
-                    i++;
-                }
-                lineNum++;
-            } else {
-                i++;
             }
         }
+
+        if (terminator == LineIndex.Terminator.LF) {
+            if (!"\n".equals(expectedSequence)) {
+                addLineIssue(lineNum,
+                        String.format("Expected %s line ending, but found LF.", lineEnding));
+            }
+            lineNum++;
+        } else if (terminator == LineIndex.Terminator.CRLF) {
+            if (!"\r\n".equals(expectedSequence)) {
+                addLineIssue(lineNum,
+                        String.format("Expected %s line ending, but found CRLF.", lineEnding));
+            }
+            lineNum++;
+        }
     }
 }
@@ -20,6 +20,7 @@ import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TextPosition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -31,6 +32,7 @@ import org.sonar.check.RuleProperty;
  * step or scenario is doing too much. The default limit is 10 columns.
  */
 @Rule(key = "data-table-max-columns")
+@NodeLocal
 public class DataTableMaxColumnsCheck extends BaseCheck {
 
     private static final int DEFAULT_MAX_COLUMNS = 10;
@@ -60,10 +62,10 @@ public class DataTableMaxColumnsCheck extends BaseCheck {
     }
 
     private void checkTable(DataTableDefinition table, TextPosition position, String elementType) {
-        if (table.rows().isEmpty()) {
+        if (table.rowCount() == 0) {
             return;
         }
-        int columnCount = table.rows().get(0).size();
+        int columnCount = table.cellCount(0);
         if (columnCount > maxColumns) {
             addIssue(position,
                     elementType + " data table has " + columnCount + " columns, which exceeds the limit of "
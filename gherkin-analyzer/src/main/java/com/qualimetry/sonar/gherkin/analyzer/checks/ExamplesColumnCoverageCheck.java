@@ -15,6 +15,7 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.checks;
 
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.DataTableDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
@@ -22,7 +23,6 @@ import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
 import org.sonar.check.Rule;
 
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -59,13 +59,11 @@ public class ExamplesColumnCoverageCheck extends BaseCheck {
         if (currentScenario == null || !currentScenario.isOutline()) {
             return;
         }
-        if (examples.table() == null || examples.table().rows().isEmpty()) {
+        DataTableDefinition table = examples.table();
+        if (table == null || table.rowCount() == 0) {
             return;
         }
 
-        // Header columns are in row 0
-        Set<String> headerColumns = new HashSet<>(examples.table().rows().get(0));
-
         // Collect all variables referenced in step text
         Set<String> referencedVariables = new LinkedHashSet<>();
         for (StepDefinition step : currentScenario.steps()) {
@@ -75,9 +73,9 @@ public class ExamplesColumnCoverageCheck extends BaseCheck {
             }
         }
 
-        // Report variables missing from the Examples header
+        // Report variables missing from the Examples header, in row 0
         for (String variable : referencedVariables) {
-            if (!headerColumns.contains(variable)) {
+            if (table.indexOf(0, variable) < 0) {
                 addIssue(examples.position(),
                         "Add a \"" + variable + "\" column to this Examples table.");
             }
@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -27,11 +28,12 @@ import org.sonar.check.Rule;
  * combines header (row 0) and data rows (rows 1+), so at least 2 rows are required.
  */
 @Rule(key = "examples-minimum-rows")
+@NodeLocal
 public class ExamplesMinimumRowsCheck extends BaseCheck {
 
     @Override
     public void visitExamples(ExamplesDefinition examples) {
-        if (examples.table() == null || examples.table().rows().size() < 2) {
+        if (examples.table() == null || examples.table().rowCount() < 2) {
             addIssue(examples.position(),
                     "Add at least one data row to this Examples table.");
         }
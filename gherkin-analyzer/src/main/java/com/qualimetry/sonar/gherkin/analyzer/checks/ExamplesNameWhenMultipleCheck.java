@@ -18,6 +18,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -30,6 +31,7 @@ import org.sonar.check.Rule;
  * This rule only triggers when there are 2+ Examples sections.
  */
 @Rule(key = "examples-name-when-multiple")
+@NodeLocal
 public class ExamplesNameWhenMultipleCheck extends BaseCheck {
 
     @Override
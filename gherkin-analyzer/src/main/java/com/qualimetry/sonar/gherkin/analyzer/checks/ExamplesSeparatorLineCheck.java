@@ -18,6 +18,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 
 /**
@@ -29,16 +30,11 @@ import org.sonar.check.Rule;
 @Rule(key = "examples-separator-line")
 public class ExamplesSeparatorLineCheck extends BaseCheck {
 
-    private String[] lines;
+    private LineIndex lines;
 
     @Override
     public void visitFeatureFile(FeatureFile file) {
-        String rawContent = getContext().getRawContent();
-        if (rawContent != null) {
-            lines = rawContent.split("\\r?\\n", -1);
-        } else {
-            lines = null;
-        }
+        lines = getContext().getLines();
     }
 
     @Override
@@ -52,9 +48,8 @@ public class ExamplesSeparatorLineCheck extends BaseCheck {
         }
         // Check the line before Examples (0-based index = examplesLine - 2)
         int prevIndex = examplesLine - 2;
-        if (prevIndex >= 0 && prevIndex < lines.length) {
-            String prevLine = lines[prevIndex].trim();
-            if (!prevLine.isEmpty()) {
+        if (prevIndex >= 0 && prevIndex < lines.getLineCount()) {
+            if (!lines.isBlank(prevIndex + 1)) {
                 addIssue(examples.position(),
                         "Add a blank line before this Examples section.");
             }
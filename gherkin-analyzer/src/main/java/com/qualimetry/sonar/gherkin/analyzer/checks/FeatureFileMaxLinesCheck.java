@@ -15,8 +15,8 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.checks;
 
-import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -44,13 +44,12 @@ public class FeatureFileMaxLinesCheck extends BaseCheck {
     }
 
     @Override
-    public void visitFeatureFile(FeatureFile file) {
-        String rawContent = getContext().getRawContent();
-        if (rawContent == null) {
+    public void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+        if (terminator != LineIndex.Terminator.NONE) {
             return;
         }
 
-        int lineCount = countLines(rawContent);
+        int lineCount = countLines(line, content);
 
         if (lineCount > maxLines) {
             addFileIssue(
@@ -59,19 +58,12 @@ public class FeatureFileMaxLinesCheck extends BaseCheck {
         }
     }
 
-    private static int countLines(String content) {
-        if (content.isEmpty()) {
-            return 0;
-        }
-        int count = 1;
-        for (int i = 0; i < content.length(); i++) {
-            if (content.charAt(i) == '\n') {
-                count++;
-            }
-        }
+    private static int countLines(int lastLine, CharSequence lastContent) {
+        int count = lastLine;
         // If the content ends with a newline, the last "line" is empty  - 
-        // don't count it as an additional line.
-        if (content.endsWith("\n")) {
+        // don't count it as an additional line. This also makes an empty
+        // file count as zero lines.
+        if (lastContent.length() == 0) {
             count--;
         }
         return count;
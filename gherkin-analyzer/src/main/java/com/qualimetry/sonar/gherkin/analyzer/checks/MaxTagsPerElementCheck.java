@@ -22,6 +22,7 @@ import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TextPosition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -35,6 +36,7 @@ import java.util.List;
  * over-classification. The default limit is 8 tags per element.
  */
 @Rule(key = "max-tags-per-element")
+@NodeLocal
 public class MaxTagsPerElementCheck extends BaseCheck {
 
     private static final int DEFAULT_MAX_TAGS = 8;
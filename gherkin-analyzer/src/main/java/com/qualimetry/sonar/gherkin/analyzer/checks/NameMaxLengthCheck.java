@@ -20,6 +20,7 @@ import com.qualimetry.sonar.gherkin.analyzer.parser.model.RuleDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TextPosition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -30,6 +31,7 @@ import org.sonar.check.RuleProperty;
  * The default threshold is 120 characters.
  */
 @Rule(key = "name-max-length")
+@NodeLocal
 public class NameMaxLengthCheck extends BaseCheck {
 
     private static final int DEFAULT_MAX_LENGTH = 120;
@@ -15,8 +15,8 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.checks;
 
-import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 
 /**
@@ -30,14 +30,9 @@ import org.sonar.check.Rule;
 public class NewlineAtEndOfFileCheck extends BaseCheck {
 
     @Override
-    public void visitFeatureFile(FeatureFile file) {
-        String rawContent = getContext().getRawContent();
-        if (rawContent == null) {
-            return;
-        }
-
-        // Check if the file ends with a newline character
-        if (!rawContent.isEmpty() && !rawContent.endsWith("\n")) {
+    public void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+        // The last line is empty exactly when the file ends with a newline
+        if (terminator == LineIndex.Terminator.NONE && content.length() > 0) {
             addFileIssue("Add a newline at the end of this file.");
         }
     }
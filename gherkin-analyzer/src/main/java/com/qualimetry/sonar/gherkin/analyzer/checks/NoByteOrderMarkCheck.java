@@ -15,8 +15,8 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.checks;
 
-import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 
 /**
@@ -29,14 +29,13 @@ import org.sonar.check.Rule;
 public class NoByteOrderMarkCheck extends BaseCheck {
 
     @Override
-    public void visitFeatureFile(FeatureFile file) {
-        String rawContent = getContext().getRawContent();
-        if (rawContent == null || rawContent.isEmpty()) {
+    public void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+        if (line != 1 || content.length() == 0) {
             return;
         }
 
         // Check if the content starts with the UTF-8 BOM character
-        if (rawContent.charAt(0) == '\uFEFF') {
+        if (content.charAt(0) == '\uFEFF') {
             addLineIssue(1, "Remove the UTF-8 Byte Order Mark (BOM) from the beginning of this file.");
         }
     }
@@ -15,8 +15,8 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.checks;
 
-import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 
 import java.util.Set;
@@ -35,31 +35,34 @@ public class NoCommentedOutStepsCheck extends BaseCheck {
             Set.of("Given", "When", "Then", "And", "But", "*");
 
     @Override
-    public void visitFeatureFile(FeatureFile file) {
-        String rawContent = getContext().getRawContent();
-        if (rawContent == null) {
+    public void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+        // Only comment lines are copied out of the shared content
+        if (!isComment(content)) {
             return;
         }
+        String commentText = content.toString().trim().substring(1).trim();
 
-        String[] lines = rawContent.split("\\r?\\n", -1);
-        for (int i = 0; i < lines.length; i++) {
-            String trimmed = lines[i].trim();
-            if (trimmed.startsWith("#")) {
-                String commentText = trimmed.substring(1).trim();
+        // Exclude language declarations
+        if (commentText.startsWith("language:")) {
+            return;
+        }
 
-                // Exclude language declarations
-                if (commentText.startsWith("language:")) {
-                    continue;
-                }
+        for (String keyword : STEP_KEYWORDS) {
+            if (commentText.startsWith(keyword + " ")
+                    || commentText.equals(keyword)) {
+                addLineIssue(line, "Remove or restore this commented-out step.");
+                break;
+            }
+        }
+    }
 
-                for (String keyword : STEP_KEYWORDS) {
-                    if (commentText.startsWith(keyword + " ")
-                            || commentText.equals(keyword)) {
-                        addLineIssue(i + 1, "Remove or restore this commented-out step.");
-                        break;
-                    }
-                }
+    private static boolean isComment(CharSequence line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c > ' ') {
+                return c == '#';
             }
         }
+        return false;
     }
 }
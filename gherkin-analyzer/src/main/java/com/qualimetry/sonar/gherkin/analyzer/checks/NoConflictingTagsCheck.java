@@ -22,6 +22,7 @@ import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TextPosition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -39,6 +40,7 @@ import java.util.stream.Collectors;
  * conflict pairs via the {@code conflictPairs} property.
  */
 @Rule(key = "no-conflicting-tags")
+@NodeLocal
 public class NoConflictingTagsCheck extends BaseCheck {
 
     @RuleProperty(
@@ -19,6 +19,7 @@ import com.qualimetry.sonar.gherkin.analyzer.parser.model.BackgroundDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 import java.util.HashSet;
@@ -32,6 +33,7 @@ import java.util.Set;
  * distinct piece of behaviour to the test.
  */
 @Rule(key = "no-duplicate-steps")
+@NodeLocal
 public class NoDuplicateStepsCheck extends BaseCheck {
 
     @Override
@@ -21,6 +21,7 @@ import com.qualimetry.sonar.gherkin.analyzer.parser.model.RuleDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 import java.util.HashSet;
@@ -36,6 +37,7 @@ import java.util.Set;
  * on the same element's own tag list.
  */
 @Rule(key = "no-duplicate-tags")
+@NodeLocal
 public class NoDuplicateTagsCheck extends BaseCheck {
 
     @Override
@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -27,6 +28,7 @@ import org.sonar.check.Rule;
  * without removing the delimiters. This is always a mistake.
  */
 @Rule(key = "no-empty-doc-strings")
+@NodeLocal
 public class NoEmptyDocStringsCheck extends BaseCheck {
 
     @Override
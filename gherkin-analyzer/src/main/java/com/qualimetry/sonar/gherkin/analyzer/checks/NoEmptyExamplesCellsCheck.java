@@ -15,12 +15,12 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.checks;
 
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.DataTableDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
-import java.util.List;
-
 /**
  * Checks that data cells in Examples tables are not empty.
  * <p>
@@ -29,22 +29,21 @@ import java.util.List;
  * cause misleading test results.
  */
 @Rule(key = "no-empty-examples-cells")
+@NodeLocal
 public class NoEmptyExamplesCellsCheck extends BaseCheck {
 
     @Override
     public void visitExamples(ExamplesDefinition examples) {
-        if (examples.table() == null || examples.table().rows().size() < 2) {
+        DataTableDefinition table = examples.table();
+        if (table == null || table.rowCount() < 2) {
             return;
         }
 
-        List<List<String>> rows = examples.table().rows();
-        List<String> headers = rows.get(0);
-
-        for (int i = 1; i < rows.size(); i++) {
-            List<String> row = rows.get(i);
-            for (int j = 0; j < row.size(); j++) {
-                if (row.get(j) == null || row.get(j).isBlank()) {
-                    String columnName = j < headers.size() ? headers.get(j) : "column " + (j + 1);
+        int headers = table.cellCount(0);
+        for (int i = 1; i < table.rowCount(); i++) {
+            for (int j = 0; j < table.cellCount(i); j++) {
+                if (table.isBlank(i, j)) {
+                    String columnName = j < headers ? table.cell(0, j) : "column " + (j + 1);
                     addIssue(examples.position(),
                             "Examples table has an empty cell in data row " + i
                                     + ", column \"" + columnName + "\".");
@@ -18,6 +18,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -28,6 +29,7 @@ import org.sonar.check.Rule;
  * Scenario Outline level.
  */
 @Rule(key = "no-examples-tags")
+@NodeLocal
 public class NoExamplesTagsCheck extends BaseCheck {
 
     private boolean inExamples = false;
@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 
 /**
@@ -27,29 +28,35 @@ import org.sonar.check.Rule;
  * improving readability. When two or more consecutive blank lines are
  * detected, an issue is reported on each extra blank line in the group.
  * <p>
- * Uses raw content analysis via {@code getContext().getRawContent()}.
+ * Uses raw content analysis via {@code visitLine}.
  */
 @Rule(key = "no-multiple-empty-lines")
 public class NoMultipleEmptyLinesCheck extends BaseCheck {
 
+    private boolean previousBlank;
+
     @Override
     public void visitFeatureFile(FeatureFile file) {
-        String rawContent = getContext().getRawContent();
-        if (rawContent == null) {
-            return;
-        }
+        previousBlank = false;
+    }
 
-        String[] lines = rawContent.split("\\r?\\n", -1);
-        boolean previousBlank = false;
+    @Override
+    public void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+        boolean currentBlank = isBlank(content);
+        if (currentBlank && previousBlank) {
+            // Report on the first blank line of the consecutive pair
+            addLineIssue(line - 1, "Remove this unnecessary blank line; only one consecutive blank line is allowed.");
+        }
+        previousBlank = currentBlank;
+    }
 
-        for (int i = 0; i < lines.length; i++) {
-            boolean currentBlank = lines[i].trim().isEmpty();
-            if (currentBlank && previousBlank) {
-                // Report on the first blank line of the consecutive pair (i is 0-based
-                // index of the second blank; 1-based that is i+1; one back is i).
-                addLineIssue(i, "Remove this unnecessary blank line; only one consecutive blank line is allowed.");
+    private static boolean isBlank(CharSequence line) {
+        // Same notion of blank as String.trim()
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) > ' ') {
+                return false;
             }
-            previousBlank = currentBlank;
         }
+        return true;
     }
 }
@@ -15,8 +15,8 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.checks;
 
-import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 
 import java.util.regex.Pattern;
@@ -30,7 +30,7 @@ import java.util.regex.Pattern;
  * - the {@code #} and everything after it becomes part of the last tag's text.
  * Tags should either all be active or moved to a proper comment line.
  * <p>
- * Uses raw content analysis via {@code getContext().getRawContent()}.
+ * Uses raw content analysis via {@code visitLine}.
  */
 @Rule(key = "no-partially-commented-tag-lines")
 public class NoPartiallyCommentedTagLinesCheck extends BaseCheck {
@@ -42,18 +42,10 @@ public class NoPartiallyCommentedTagLinesCheck extends BaseCheck {
     private static final Pattern TAG_LINE_WITH_COMMENT = Pattern.compile("^\\s*@.*#");
 
     @Override
-    public void visitFeatureFile(FeatureFile file) {
-        String rawContent = getContext().getRawContent();
-        if (rawContent == null) {
-            return;
-        }
-
-        String[] lines = rawContent.split("\\r?\\n", -1);
-        for (int i = 0; i < lines.length; i++) {
-            if (TAG_LINE_WITH_COMMENT.matcher(lines[i]).find()) {
-                addLineIssue(i + 1,
-                        "Do not mix tags and comments on the same line; move the comment to a separate line.");
-            }
+    public void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+        if (TAG_LINE_WITH_COMMENT.matcher(content).find()) {
+            addLineIssue(line,
+                    "Do not mix tags and comments on the same line; move the comment to a separate line.");
         }
     }
 }
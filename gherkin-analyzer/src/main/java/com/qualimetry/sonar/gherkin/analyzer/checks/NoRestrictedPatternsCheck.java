@@ -21,6 +21,7 @@ import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TextPosition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -38,6 +39,7 @@ import java.util.regex.Pattern;
  * When the pattern is empty (the default), the rule does nothing.
  */
 @Rule(key = "no-restricted-patterns")
+@NodeLocal
 public class NoRestrictedPatternsCheck extends BaseCheck {
 
     private static final String DEFAULT_PATTERN = "";
@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -33,6 +34,7 @@ import java.util.stream.Collectors;
  * the configurable restricted list.
  */
 @Rule(key = "no-restricted-tags")
+@NodeLocal
 public class NoRestrictedTagsCheck extends BaseCheck {
 
     private static final String DEFAULT_RESTRICTED_TAGS = "wip,debug,ignore,manual";
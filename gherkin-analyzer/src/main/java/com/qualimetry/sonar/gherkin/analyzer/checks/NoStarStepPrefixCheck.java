@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -30,6 +31,7 @@ import org.sonar.check.Rule;
  * by {@code NoUnknownStepTypeCheck} to avoid overlapping issues.
  */
 @Rule(key = "no-star-step-prefix")
+@NodeLocal
 public class NoStarStepPrefixCheck extends BaseCheck {
 
     @Override
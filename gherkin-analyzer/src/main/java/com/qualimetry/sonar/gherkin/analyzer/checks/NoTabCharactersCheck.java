@@ -15,8 +15,8 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.checks;
 
-import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 
 /**
@@ -29,21 +29,20 @@ import org.sonar.check.Rule;
 public class NoTabCharactersCheck extends BaseCheck {
 
     @Override
-    public void visitFeatureFile(FeatureFile file) {
-        String rawContent = getContext().getRawContent();
-        if (rawContent == null) {
-            return;
+    public void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+        int tabIndex = indexOfTab(content);
+        if (tabIndex >= 0) {
+            addLineIssue(line,
+                    String.format("Replace tab character at column %d with spaces.", tabIndex + 1));
         }
+    }
 
-        String[] lines = rawContent.split("\n", -1);
-        for (int i = 0; i < lines.length; i++) {
-            String line = lines[i];
-            int lineNum = i + 1;
-            int tabIndex = line.indexOf('\t');
-            if (tabIndex >= 0) {
-                addLineIssue(lineNum,
-                        String.format("Replace tab character at column %d with spaces.", tabIndex + 1));
+    private static int indexOfTab(CharSequence line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '\t') {
+                return i;
             }
         }
+        return -1;
     }
 }
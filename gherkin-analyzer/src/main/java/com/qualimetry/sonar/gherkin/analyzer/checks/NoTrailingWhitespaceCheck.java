@@ -15,8 +15,8 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.checks;
 
-import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 
 /**
@@ -29,29 +29,20 @@ import org.sonar.check.Rule;
 public class NoTrailingWhitespaceCheck extends BaseCheck {
 
     @Override
-    public void visitFeatureFile(FeatureFile file) {
-        String rawContent = getContext().getRawContent();
-        if (rawContent == null) {
-            return;
-        }
-
-        String[] lines = rawContent.split("\n", -1);
-        for (int i = 0; i < lines.length; i++) {
-            String line = lines[i];
-            int lineNum = i + 1;
+    public void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+        int length = content.length();
 
-            // Strip trailing \r left over from CRLF line endings so the check
-            // works identically on LF and CRLF files.
-            if (line.endsWith("\r")) {
-                line = line.substring(0, line.length() - 1);
-            }
+        // Ignore a trailing \r on the last line, like the \r of CRLF line
+        // endings, so the check works identically on LF and CRLF files.
+        if (length > 0 && content.charAt(length - 1) == '\r') {
+            length--;
+        }
 
-            // Check for trailing whitespace (spaces or tabs)
-            if (line.length() > 0) {
-                char lastChar = line.charAt(line.length() - 1);
-                if (lastChar == ' ' || lastChar == '\t') {
-                    addLineIssue(lineNum, "Remove trailing whitespace.");
-                }
+        // Check for trailing whitespace (spaces or tabs)
+        if (length > 0) {
+            char lastChar = content.charAt(length - 1);
+            if (lastChar == ' ' || lastChar == '\t') {
+                addLineIssue(line, "Remove trailing whitespace.");
             }
         }
     }
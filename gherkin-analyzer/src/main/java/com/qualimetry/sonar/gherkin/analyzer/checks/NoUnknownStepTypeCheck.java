@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -28,6 +29,7 @@ import org.sonar.check.Rule;
  * so that their intent is clear.
  */
 @Rule(key = "no-unknown-step-type")
+@NodeLocal
 public class NoUnknownStepTypeCheck extends BaseCheck {
 
     @Override
@@ -58,7 +58,7 @@ public class NoUnusedVariablesCheck extends BaseCheck {
         if (currentScenario == null || !currentScenario.isOutline()) {
             return;
         }
-        if (examples.table() == null || examples.table().rows().isEmpty()) {
+        if (examples.table() == null || examples.table().rowCount() == 0) {
             return;
         }
 
@@ -15,8 +15,8 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.checks;
 
-import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
 import org.sonar.check.Rule;
 
 import java.util.regex.Pattern;
@@ -28,7 +28,7 @@ import java.util.regex.Pattern;
  * consecutive {@code @}-prefixed tokens must be separated by exactly one space.
  * Multiple spaces or tabs between tags make the tag line harder to read.
  * <p>
- * Uses raw content analysis via {@code getContext().getRawContent()}.
+ * Uses raw content analysis via {@code visitLine}.
  */
 @Rule(key = "one-space-between-tags")
 public class OneSpaceBetweenTagsCheck extends BaseCheck {
@@ -53,19 +53,10 @@ public class OneSpaceBetweenTagsCheck extends BaseCheck {
     private static final Pattern MISSING_SPACING = Pattern.compile("@[^@\\s]+@");
 
     @Override
-    public void visitFeatureFile(FeatureFile file) {
-        String rawContent = getContext().getRawContent();
-        if (rawContent == null) {
-            return;
-        }
-
-        String[] lines = rawContent.split("\\r?\\n", -1);
-        for (int i = 0; i < lines.length; i++) {
-            String line = lines[i];
-            if (TAG_LINE.matcher(line).find()
-                    && (EXTRA_SPACING.matcher(line).find() || MISSING_SPACING.matcher(line).find())) {
-                addLineIssue(i + 1, "Use exactly one space between tags on this line.");
-            }
+    public void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+        if (TAG_LINE.matcher(content).find()
+                && (EXTRA_SPACING.matcher(content).find() || MISSING_SPACING.matcher(content).find())) {
+            addLineIssue(line, "Use exactly one space between tags on this line.");
         }
     }
 }
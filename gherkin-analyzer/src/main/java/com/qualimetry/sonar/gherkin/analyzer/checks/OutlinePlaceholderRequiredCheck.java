@@ -18,6 +18,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 import java.util.regex.Pattern;
@@ -30,6 +31,7 @@ import java.util.regex.Pattern;
  * which is almost certainly a mistake.
  */
 @Rule(key = "outline-placeholder-required")
+@NodeLocal
 public class OutlinePlaceholderRequiredCheck extends BaseCheck {
 
     private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("<([^>]+)>");
@@ -18,6 +18,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -31,6 +32,7 @@ import org.sonar.check.RuleProperty;
  * without meaningful parameterization benefit.
  */
 @Rule(key = "outline-single-example-row")
+@NodeLocal
 public class OutlineSingleExampleRowCheck extends BaseCheck {
 
     private static final int DEFAULT_MAX_DATA_ROWS = 1;
@@ -60,7 +62,7 @@ public class OutlineSingleExampleRowCheck extends BaseCheck {
                 continue;
             }
             // rows includes the header row; data rows = total - 1
-            int dataRows = examples.table().rows().size() - 1;
+            int dataRows = examples.table().rowCount() - 1;
             if (dataRows > maxDataRows) {
                 allBelowThreshold = false;
                 break;
@@ -18,6 +18,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -29,6 +30,7 @@ import org.sonar.check.Rule;
  * repeating the primary keyword.
  */
 @Rule(key = "prefer-and-but-keywords")
+@NodeLocal
 public class PreferAndButKeywordsCheck extends BaseCheck {
 
     @Override
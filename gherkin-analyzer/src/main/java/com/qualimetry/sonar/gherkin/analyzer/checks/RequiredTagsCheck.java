@@ -18,6 +18,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -32,6 +33,7 @@ import java.util.regex.Pattern;
  * meaningful pattern such as {@code smoke|regression|integration}.
  */
 @Rule(key = "required-tags")
+@NodeLocal
 public class RequiredTagsCheck extends BaseCheck {
 
     private static final String DEFAULT_PATTERN = ".*";
@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -27,6 +28,7 @@ import org.sonar.check.Rule;
  * infer the purpose from the step sequence alone.
  */
 @Rule(key = "scenario-description-recommended")
+@NodeLocal
 public class ScenarioDescriptionRecommendedCheck extends BaseCheck {
 
     @Override
@@ -18,6 +18,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -28,6 +29,7 @@ import org.sonar.check.Rule;
  * should be split into separate scenarios.
  */
 @Rule(key = "single-when-per-scenario")
+@NodeLocal
 public class SingleWhenPerScenarioCheck extends BaseCheck {
 
     @Override
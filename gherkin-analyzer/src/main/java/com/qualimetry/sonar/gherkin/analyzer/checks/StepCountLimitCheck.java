@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -28,6 +29,7 @@ import org.sonar.check.RuleProperty;
  * it into smaller, more focused scenarios.
  */
 @Rule(key = "step-count-limit")
+@NodeLocal
 public class StepCountLimitCheck extends BaseCheck {
 
     private static final int DEFAULT_MAX_STEPS = 12;
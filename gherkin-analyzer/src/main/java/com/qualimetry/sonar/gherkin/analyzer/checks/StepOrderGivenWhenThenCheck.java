@@ -19,6 +19,7 @@ import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -30,6 +31,7 @@ import org.sonar.check.Rule;
  * preceding keyword.
  */
 @Rule(key = "step-order-given-when-then")
+@NodeLocal
 public class StepOrderGivenWhenThenCheck extends BaseCheck {
 
     private static final int PHASE_GIVEN = 0;
@@ -18,6 +18,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.BackgroundDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -28,6 +29,7 @@ import org.sonar.check.Rule;
  * an incomplete test specification that should be finished or removed.
  */
 @Rule(key = "step-required")
+@NodeLocal
 public class StepRequiredCheck extends BaseCheck {
 
     @Override
@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -27,6 +28,7 @@ import org.sonar.check.RuleProperty;
  * is doing too much. Consider splitting long steps into multiple shorter steps.
  */
 @Rule(key = "step-sentence-max-length")
+@NodeLocal
 public class StepSentenceMaxLengthCheck extends BaseCheck {
 
     private static final int DEFAULT_MAX_LENGTH = 100;
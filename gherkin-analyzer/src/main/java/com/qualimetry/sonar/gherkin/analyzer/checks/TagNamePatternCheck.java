@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -29,6 +30,7 @@ import java.util.regex.Pattern;
  * contain only lowercase letters, digits, and hyphens.
  */
 @Rule(key = "tag-name-pattern")
+@NodeLocal
 public class TagNamePatternCheck extends BaseCheck {
 
     private static final String DEFAULT_PATTERN = "^[a-z][-a-z0-9]*$";
@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -29,6 +30,7 @@ import java.util.regex.Pattern;
  * to restrict tags to a specific set of values or naming conventions.
  */
 @Rule(key = "tag-permitted-values")
+@NodeLocal
 public class TagPermittedValuesCheck extends BaseCheck {
 
     private static final String DEFAULT_PATTERN = ".*";
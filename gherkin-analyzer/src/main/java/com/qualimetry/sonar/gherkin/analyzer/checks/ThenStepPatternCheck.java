@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
@@ -31,6 +32,7 @@ import java.util.regex.Pattern;
  * particular sentence structure.
  */
 @Rule(key = "then-step-pattern")
+@NodeLocal
 public class ThenStepPatternCheck extends BaseCheck {
 
     private static final String DEFAULT_PATTERN = ".*";
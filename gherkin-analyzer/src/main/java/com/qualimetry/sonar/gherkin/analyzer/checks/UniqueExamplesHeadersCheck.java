@@ -15,14 +15,12 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.checks;
 
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.DataTableDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-
 /**
  * Checks that column headers in Examples tables are unique.
  * <p>
@@ -31,22 +29,35 @@ import java.util.Set;
  * a placeholder that matches multiple headers. This is always a defect.
  */
 @Rule(key = "unique-examples-headers")
+@NodeLocal
 public class UniqueExamplesHeadersCheck extends BaseCheck {
 
     @Override
     public void visitExamples(ExamplesDefinition examples) {
-        if (examples.table() == null || examples.table().rows().isEmpty()) {
+        DataTableDefinition table = examples.table();
+        if (table == null || table.rowCount() == 0) {
             return;
         }
 
-        List<String> headers = examples.table().rows().get(0);
-        Set<String> seen = new HashSet<>();
-        for (String header : headers) {
-            String trimmed = header.trim();
-            if (!seen.add(trimmed)) {
+        int headers = table.cellCount(0);
+        for (int column = 1; column < headers; column++) {
+            if (isDuplicate(table, column)) {
                 addIssue(examples.position(),
-                        "Remove duplicate Examples header \"" + trimmed + "\".");
+                        "Remove duplicate Examples header \"" + table.cell(0, column).trim() + "\".");
+            }
+        }
+    }
+
+    /**
+     * Compares the header with the ones before it. Examples headers are few,
+     * so this avoids creating a string per header.
+     */
+    private static boolean isDuplicate(DataTableDefinition table, int column) {
+        for (int previous = 0; previous < column; previous++) {
+            if (table.trimmedCellEquals(0, previous, 0, column)) {
+                return true;
             }
         }
+        return false;
     }
 }
@@ -72,11 +72,21 @@ public class UniqueFeatureNameCheck extends BaseCheck {
                             getRuleKey(),
                             occ.uri(),
                             occ.position().line(),
-                            "Rename this Feature. The name \"" + entry.getKey()
-                                    + "\" is already used in " + occurrences.get(0).uri() + "."));
+                            issueMessage(entry.getKey(), occurrences.get(0).uri())));
                 }
             }
         }
         return issues;
     }
+
+    /**
+     * Builds the message reported on a duplicate Feature name.
+     *
+     * @param name     the duplicated Feature name
+     * @param firstUri the URI of the file where the name is first used
+     * @return the issue message
+     */
+    public static String issueMessage(String name, String firstUri) {
+        return "Rename this Feature. The name \"" + name + "\" is already used in " + firstUri + ".";
+    }
 }
@@ -68,11 +68,21 @@ public class UniqueScenarioNameCheck extends BaseCheck {
                             getRuleKey(),
                             occ.uri(),
                             occ.position().line(),
-                            "Rename this Scenario. The name \"" + entry.getKey()
-                                    + "\" is already used in " + occurrences.get(0).uri() + "."));
+                            issueMessage(entry.getKey(), occurrences.get(0).uri())));
                 }
             }
         }
         return issues;
     }
+
+    /**
+     * Builds the message reported on a duplicate Scenario name.
+     *
+     * @param name     the duplicated Scenario name
+     * @param firstUri the URI of the file where the name is first used
+     * @return the issue message
+     */
+    public static String issueMessage(String name, String firstUri) {
+        return "Rename this Scenario. The name \"" + name + "\" is already used in " + firstUri + ".";
+    }
 }
@@ -17,6 +17,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import io.cucumber.gherkin.GherkinDialect;
 import io.cucumber.gherkin.GherkinDialectProvider;
 import org.sonar.check.Rule;
@@ -33,6 +34,7 @@ import java.util.List;
  * {@code Szenariogrundriss}, French {@code Plan du scénario}).
  */
 @Rule(key = "use-scenario-outline-for-examples")
+@NodeLocal
 public class UseScenarioOutlineForExamplesCheck extends BaseCheck {
 
     @Override
@@ -18,6 +18,7 @@ package com.qualimetry.sonar.gherkin.analyzer.checks;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
 import org.sonar.check.Rule;
 
 /**
@@ -28,6 +29,7 @@ import org.sonar.check.Rule;
  * action is tested; missing Then means no outcome is verified.
  */
 @Rule(key = "when-then-required")
+@NodeLocal
 public class WhenThenRequiredCheck extends BaseCheck {
 
     @Override
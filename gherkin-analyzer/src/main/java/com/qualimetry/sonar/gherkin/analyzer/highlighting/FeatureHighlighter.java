@@ -42,7 +42,9 @@ import java.util.List;
  * </ul>
  * <p>
  * The sensor maps {@link HighlightType} values to SonarQube's {@code TypeOfText}
- * enum for saving via the highlighting API.
+ * enum for saving via the highlighting API. Editors that need a compact
+ * encoding can stream the tokens with {@link #highlight(FeatureFile, TokenConsumer)}
+ * instead, in source order and without intermediate objects.
  */
 public final class FeatureHighlighter {
 
@@ -54,137 +56,160 @@ public final class FeatureHighlighter {
      * Computes highlighting ranges for the given feature file.
      *
      * @param featureFile the parsed feature file tree
-     * @return list of highlighting ranges
+     * @return list of highlighting ranges, in source order
      */
     public static List<HighlightRange> highlight(FeatureFile featureFile) {
         List<HighlightRange> ranges = new ArrayList<>();
+        highlight(featureFile, (line, column, length, type) ->
+                ranges.add(new HighlightRange(line, column, line, column + length - 1, type)));
+        return ranges;
+    }
 
+    /**
+     * Streams the highlighting tokens of the given feature file, in source
+     * order, straight from the tree.
+     *
+     * @param featureFile the parsed feature file tree
+     * @param consumer    receives each token
+     */
+    public static void highlight(FeatureFile featureFile, TokenConsumer consumer) {
+        Emitter emitter = new Emitter(featureFile.comments(), consumer);
         if (featureFile.feature() != null) {
-            highlightFeature(featureFile.feature(), ranges);
-        }
-
-        for (Comment comment : featureFile.comments()) {
-            highlightComment(comment, ranges);
+            highlightFeature(featureFile.feature(), emitter);
         }
-
-        return ranges;
+        emitter.flushComments(Integer.MAX_VALUE);
     }
 
-    private static void highlightFeature(FeatureDefinition feature, List<HighlightRange> ranges) {
-        addKeywordRange(feature.position(), feature.keyword(), ranges);
-
-        for (TagDefinition tag : feature.tags()) {
-            addTagRange(tag, ranges);
-        }
+    private static void highlightFeature(FeatureDefinition feature, Emitter emitter) {
+        highlightTags(feature.tags(), emitter);
+        addKeywordRange(feature.position(), feature.keyword(), emitter);
 
         if (feature.background() != null) {
-            highlightBackground(feature.background(), ranges);
+            highlightBackground(feature.background(), emitter);
         }
 
         for (ScenarioDefinition scenario : feature.scenarios()) {
-            highlightScenario(scenario, ranges);
+            highlightScenario(scenario, emitter);
         }
 
         for (RuleDefinition rule : feature.rules()) {
-            highlightRule(rule, ranges);
+            highlightRule(rule, emitter);
         }
     }
 
-    private static void highlightRule(RuleDefinition rule, List<HighlightRange> ranges) {
-        addKeywordRange(rule.position(), rule.keyword(), ranges);
-
-        for (TagDefinition tag : rule.tags()) {
-            addTagRange(tag, ranges);
-        }
+    private static void highlightRule(RuleDefinition rule, Emitter emitter) {
+        highlightTags(rule.tags(), emitter);
+        addKeywordRange(rule.position(), rule.keyword(), emitter);
 
         if (rule.background() != null) {
-            highlightBackground(rule.background(), ranges);
+            highlightBackground(rule.background(), emitter);
         }
 
         for (ScenarioDefinition scenario : rule.scenarios()) {
-            highlightScenario(scenario, ranges);
+            highlightScenario(scenario, emitter);
         }
     }
 
-    private static void highlightScenario(ScenarioDefinition scenario, List<HighlightRange> ranges) {
-        addKeywordRange(scenario.position(), scenario.keyword(), ranges);
-
-        for (TagDefinition tag : scenario.tags()) {
-            addTagRange(tag, ranges);
-        }
+    private static void highlightScenario(ScenarioDefinition scenario, Emitter emitter) {
+        highlightTags(scenario.tags(), emitter);
+        addKeywordRange(scenario.position(), scenario.keyword(), emitter);
 
         for (StepDefinition step : scenario.steps()) {
-            highlightStep(step, ranges);
+            highlightStep(step, emitter);
         }
 
         for (ExamplesDefinition examples : scenario.examples()) {
-            addKeywordRange(examples.position(), examples.keyword(), ranges);
-            for (TagDefinition tag : examples.tags()) {
-                addTagRange(tag, ranges);
-            }
+            highlightTags(examples.tags(), emitter);
+            addKeywordRange(examples.position(), examples.keyword(), emitter);
         }
     }
 
-    private static void highlightBackground(BackgroundDefinition background, List<HighlightRange> ranges) {
-        addKeywordRange(background.position(), background.keyword(), ranges);
+    private static void highlightBackground(BackgroundDefinition background, Emitter emitter) {
+        addKeywordRange(background.position(), background.keyword(), emitter);
 
         for (StepDefinition step : background.steps()) {
-            highlightStep(step, ranges);
+            highlightStep(step, emitter);
         }
     }
 
-    private static void highlightStep(StepDefinition step, List<HighlightRange> ranges) {
+    private static void highlightStep(StepDefinition step, Emitter emitter) {
         // Step keywords include trailing space (e.g., "Given "); trim for highlighting
-        String keyword = step.keyword().trim();
-        if (!keyword.isEmpty()) {
-            ranges.add(new HighlightRange(
-                    step.position().line(),
-                    step.position().column(),
-                    step.position().line(),
-                    step.position().column() + keyword.length() - 1,
-                    HighlightType.KEYWORD));
-        }
+        addKeywordRange(step.position(), step.keyword(), emitter);
     }
 
-    private static void addKeywordRange(TextPosition position, String keyword, List<HighlightRange> ranges) {
+    private static void addKeywordRange(TextPosition position, String keyword, Emitter emitter) {
         // Structural keywords may include trailing colon/space; trim for clean highlighting
         String trimmed = keyword.trim();
         if (!trimmed.isEmpty()) {
-            ranges.add(new HighlightRange(
-                    position.line(),
-                    position.column(),
-                    position.line(),
-                    position.column() + trimmed.length() - 1,
-                    HighlightType.KEYWORD));
+            emitter.token(position.line(), position.column(), trimmed.length(), HighlightType.KEYWORD);
         }
     }
 
-    private static void addTagRange(TagDefinition tag, List<HighlightRange> ranges) {
-        // Tag name is stored without '@', but in the source it starts with '@'
-        // Position points to the '@' character
-        int length = tag.name().length() + 1; // +1 for the '@' prefix
-        ranges.add(new HighlightRange(
-                tag.position().line(),
-                tag.position().column(),
-                tag.position().line(),
-                tag.position().column() + length - 1,
-                HighlightType.ANNOTATION));
+    private static void highlightTags(List<TagDefinition> tags, Emitter emitter) {
+        for (TagDefinition tag : tags) {
+            // Tag name is stored without '@', but in the source it starts with '@'
+            // Position points to the '@' character
+            emitter.token(tag.position().line(), tag.position().column(),
+                    tag.name().length() + 1, HighlightType.ANNOTATION);
+        }
     }
 
-    private static void highlightComment(Comment comment, List<HighlightRange> ranges) {
-        // Comment text from the parser includes leading whitespace and '#'
-        // Position points to the '#' character
-        // Highlight from '#' to end of the comment text (stripping leading whitespace)
-        String text = comment.text();
-        if (text != null) {
+    /**
+     * Receives highlighting tokens, which never span lines.
+     */
+    @FunctionalInterface
+    public interface TokenConsumer {
+
+        /**
+         * Called once per token.
+         *
+         * @param line   1-based line
+         * @param column 1-based start column
+         * @param length the token length, in characters
+         * @param type   the type of highlighting to apply
+         */
+        void accept(int line, int column, int length, HighlightType type);
+    }
+
+    /**
+     * Forwards tree tokens to a consumer, interleaving the comments, which
+     * the tree keeps apart, so that tokens arrive in source order.
+     */
+    private static final class Emitter {
+
+        private final List<Comment> comments;
+        private final TokenConsumer consumer;
+        private int nextComment;
+
+        Emitter(List<Comment> comments, TokenConsumer consumer) {
+            this.comments = comments;
+            this.consumer = consumer;
+        }
+
+        void token(int line, int column, int length, HighlightType type) {
+            flushComments(line);
+            consumer.accept(line, column, length, type);
+        }
+
+        /**
+         * Emits the comments located before the given line.
+         */
+        void flushComments(int line) {
+            while (nextComment < comments.size() && comments.get(nextComment).position().line() < line) {
+                highlightComment(comments.get(nextComment++));
+            }
+        }
+
+        private void highlightComment(Comment comment) {
+            // Comment text from the parser includes leading whitespace and '#',
+            // and its position points to the start of the line
+            // Highlight from '#' to end of the comment text (skipping leading whitespace)
+            String text = comment.text();
             String stripped = text.stripLeading();
             if (!stripped.isEmpty()) {
-                ranges.add(new HighlightRange(
-                        comment.position().line(),
-                        comment.position().column(),
-                        comment.position().line(),
-                        comment.position().column() + stripped.length() - 1,
-                        HighlightType.COMMENT));
+                int indent = text.length() - stripped.length();
+                consumer.accept(comment.position().line(), comment.position().column() + indent,
+                        stripped.length(), HighlightType.COMMENT);
             }
         }
     }
@@ -51,17 +51,39 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Parses Gherkin {@code .feature} files using the official Cucumber parser
  * ({@code io.cucumber:gherkin}) and converts the resulting message types
  * into the internal tree model used by the analyzer.
  * <p>
- * This class is stateless and thread-safe. A single instance can be reused
- * across multiple file parses.
+ * With {@link Engine#NATIVE} the content is instead parsed by a single-pass
+ * parser that builds the same tree directly, without the intermediate
+ * token, AST and message objects of the Cucumber parser.
+ * <p>
+ * This class is thread-safe. A single instance can be reused across
+ * multiple file parses, and should be: the keywords, keyword types, tag
+ * names, languages and doc string media types of its trees are interned in
+ * a symbol table of the parser, so that the trees of many files share them.
  */
 public class FeatureParser {
 
+    /**
+     * The parser implementation a {@link FeatureParser} uses.
+     */
+    public enum Engine {
+        /** The official Cucumber parser, with its result converted to the tree model. */
+        CUCUMBER,
+        /**
+         * A single-pass parser producing the same trees as {@link #CUCUMBER}
+         * with less time and garbage. Files with an {@code # encoding:}
+         * header, or with characters it does not handle identically, are
+         * still parsed by the Cucumber parser.
+         */
+        NATIVE
+    }
+
     private static final io.cucumber.gherkin.GherkinParser GHERKIN_PARSER =
             io.cucumber.gherkin.GherkinParser.builder()
                     .includeGherkinDocument(true)
@@ -69,11 +91,38 @@ public class FeatureParser {
                     .includeSource(false)
                     .build();
 
+    private final Engine engine;
+    private final SymbolTable symbols = new SymbolTable();
+
+    /**
+     * Creates a parser using the Cucumber parser.
+     */
+    public FeatureParser() {
+        this(Engine.CUCUMBER);
+    }
+
+    /**
+     * Creates a parser using the given engine.
+     *
+     * @param engine the parser implementation
+     */
+    public FeatureParser(Engine engine) {
+        this.engine = Objects.requireNonNull(engine, "engine must not be null");
+    }
+
+    /**
+     * Returns the parser implementation this parser uses.
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
     /**
      * Parses a Gherkin feature file from a string content.
      * <p>
-     * This is a convenience overload that wraps the string in a
-     * {@link ByteArrayInputStream} and delegates to {@link #parse(String, InputStream)}.
+     * With the Cucumber engine, this is a convenience overload that wraps the
+     * string in a {@link ByteArrayInputStream} and delegates to
+     * {@link #parse(String, InputStream)}.
      *
      * @param uri     the URI or path identifying the file
      * @param content the file content as a string
@@ -81,7 +130,13 @@ public class FeatureParser {
      * @throws IOException if an I/O error occurs during parsing
      */
     public FeatureFile parse(String uri, String content) throws IOException {
-        return parse(uri, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        if (engine == Engine.NATIVE) {
+            FeatureFile file = NativeFeatureParser.parse(uri, content, symbols);
+            if (file != null) {
+                return file;
+            }
+        }
+        return parseCucumber(uri, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
     }
 
     /**
@@ -95,6 +150,37 @@ public class FeatureParser {
      * @throws IOException if reading the input stream fails
      */
     public FeatureFile parse(String uri, InputStream content) throws IOException {
+        if (engine == Engine.NATIVE) {
+            byte[] bytes = content.readAllBytes();
+            FeatureFile file = NativeFeatureParser.parse(uri, new String(bytes, StandardCharsets.UTF_8), symbols);
+            return file != null ? file : parseCucumber(uri, new ByteArrayInputStream(bytes));
+        }
+        return parseCucumber(uri, content);
+    }
+
+    /**
+     * Parses a Gherkin feature file after an edit, re-parsing only the
+     * Background, Scenario or Rule that contains the edit when possible.
+     * <p>
+     * The result equals that of {@link #parse(String, String)}; subtrees the
+     * edit did not touch are shared with {@code previous}. Edits that may
+     * change the structure of the file fall back to a full parse.
+     *
+     * @param uri             the URI or path identifying the file
+     * @param content         the new file content
+     * @param previous        the tree previously parsed from
+     *                        {@code previousContent} by this parser
+     * @param previousContent the file content before the edit
+     * @return a {@link FeatureFile} representing the parsed tree
+     * @throws IOException if an I/O error occurs during parsing
+     */
+    public FeatureFile reparse(String uri, String content, FeatureFile previous, String previousContent)
+            throws IOException {
+        FeatureFile file = IncrementalFeatureParser.reparse(this, uri, content, previous, previousContent);
+        return file != null ? file : parse(uri, content);
+    }
+
+    private FeatureFile parseCucumber(String uri, InputStream content) throws IOException {
         List<Envelope> envelopes = GHERKIN_PARSER.parse(uri, content).toList();
 
         GherkinDocument doc = envelopes.stream()
@@ -119,6 +205,7 @@ public class FeatureParser {
 
         String language = doc.getFeature()
                 .map(Feature::getLanguage)
+                .map(symbols::intern)
                 .orElse("en");
 
         return new FeatureFile(feature, comments, language, uri);
@@ -150,8 +237,8 @@ public class FeatureParser {
 
         return new FeatureDefinition(
                 position,
-                feature.getKeyword(),
-                feature.getLanguage(),
+                symbols.intern(feature.getKeyword()),
+                symbols.intern(feature.getLanguage()),
                 feature.getName(),
                 feature.getDescription(),
                 tags,
@@ -175,7 +262,7 @@ public class FeatureParser {
 
         return new ScenarioDefinition(
                 position,
-                scenario.getKeyword(),
+                symbols.intern(scenario.getKeyword()),
                 scenario.getName(),
                 scenario.getDescription(),
                 tags,
@@ -192,7 +279,7 @@ public class FeatureParser {
 
         return new BackgroundDefinition(
                 position,
-                background.getKeyword(),
+                symbols.intern(background.getKeyword()),
                 background.getName(),
                 background.getDescription(),
                 steps);
@@ -217,7 +304,7 @@ public class FeatureParser {
 
         return new RuleDefinition(
                 position,
-                rule.getKeyword(),
+                symbols.intern(rule.getKeyword()),
                 rule.getName(),
                 rule.getDescription(),
                 tags,
@@ -229,6 +316,7 @@ public class FeatureParser {
         TextPosition position = convertLocation(step.getLocation());
         String keywordType = step.getKeywordType()
                 .map(StepKeywordType::name)
+                .map(symbols::intern)
                 .orElse("UNKNOWN");
         DataTableDefinition dataTable = step.getDataTable()
                 .map(this::convertDataTable)
@@ -239,7 +327,7 @@ public class FeatureParser {
 
         return new StepDefinition(
                 position,
-                step.getKeyword(),
+                symbols.intern(step.getKeyword()),
                 keywordType,
                 step.getText(),
                 dataTable,
@@ -252,7 +340,7 @@ public class FeatureParser {
         if (name.startsWith("@")) {
             name = name.substring(1);
         }
-        return new TagDefinition(position, name);
+        return new TagDefinition(position, symbols.intern(name));
     }
 
     private ExamplesDefinition convertExamples(Examples examples) {
@@ -264,22 +352,17 @@ public class FeatureParser {
         DataTableDefinition table = null;
         if (examples.getTableHeader().isPresent()) {
             TableRow header = examples.getTableHeader().get();
-            List<List<String>> rows = new ArrayList<>();
-            rows.add(header.getCells().stream()
-                    .map(TableCell::getValue)
-                    .toList());
+            DataTableDefinition.Builder rows = DataTableDefinition.builder();
+            addRow(rows, header);
             for (TableRow bodyRow : examples.getTableBody()) {
-                rows.add(bodyRow.getCells().stream()
-                        .map(TableCell::getValue)
-                        .toList());
+                addRow(rows, bodyRow);
             }
-            TextPosition tablePosition = convertLocation(header.getLocation());
-            table = new DataTableDefinition(tablePosition, rows);
+            table = rows.build(convertLocation(header.getLocation()));
         }
 
         return new ExamplesDefinition(
                 position,
-                examples.getKeyword(),
+                symbols.intern(examples.getKeyword()),
                 examples.getName(),
                 examples.getDescription(),
                 tags,
@@ -288,24 +371,29 @@ public class FeatureParser {
 
     private DataTableDefinition convertDataTable(DataTable dataTable) {
         TextPosition position = convertLocation(dataTable.getLocation());
-        List<List<String>> rows = dataTable.getRows().stream()
-                .map(row -> row.getCells().stream()
-                        .map(TableCell::getValue)
-                        .toList())
-                .toList();
+        DataTableDefinition.Builder rows = DataTableDefinition.builder();
+        for (TableRow row : dataTable.getRows()) {
+            addRow(rows, row);
+        }
+        return rows.build(position);
+    }
 
-        return new DataTableDefinition(position, rows);
+    private static void addRow(DataTableDefinition.Builder rows, TableRow row) {
+        for (TableCell cell : row.getCells()) {
+            rows.cell(cell.getValue());
+        }
+        rows.endRow();
     }
 
     private DocStringDefinition convertDocString(DocString docString) {
         TextPosition position = convertLocation(docString.getLocation());
-        String contentType = docString.getMediaType().orElse("");
+        String contentType = symbols.intern(docString.getMediaType().orElse(""));
 
         return new DocStringDefinition(
                 position,
                 contentType,
                 docString.getContent(),
-                docString.getDelimiter());
+                symbols.intern(docString.getDelimiter()));
     }
 
     private Comment convertComment(io.cucumber.messages.types.Comment cucumberComment) {
@@ -316,6 +404,6 @@ public class FeatureParser {
     private TextPosition convertLocation(Location location) {
         int line = Math.toIntExact(location.getLine());
         int column = location.getColumn().map(Math::toIntExact).orElse(1);
-        return new TextPosition(line, column);
+        return TextPosition.of(line, column);
     }
 }
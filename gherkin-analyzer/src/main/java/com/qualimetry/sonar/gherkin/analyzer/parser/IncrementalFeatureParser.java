@@ -0,0 +1,335 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.parser;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.BackgroundDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.Comment;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.DataTableDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.DocStringDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.RuleDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.TextPosition;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Re-parses a feature file after an edit by parsing only the top-level block
+ * (the Background, a Scenario of the Feature, or a Rule) that contains it.
+ * <p>
+ * The edit is found by comparing the new content with the content the
+ * previous tree was parsed from. The block's new text is parsed on its own,
+ * behind a bare Feature line in the file's language, and spliced into a new
+ * {@link FeatureDefinition}: the blocks before it are shared with the
+ * previous tree, and those after it are shared too unless the edit added or
+ * removed lines, in which case they are copied with their lines shifted.
+ * <p>
+ * {@link #reparse} returns {@code null}, for a full parse, whenever the
+ * edit may change more than the block: an edit in the Feature header or
+ * across two blocks, a block that no longer parses on its own or that now
+ * parses as something else than a single block of the same kind, an
+ * {@code # encoding:} header, or line breaks merging at the block's ends.
+ */
+final class IncrementalFeatureParser {
+
+    private static final Pattern ENCODING = Pattern.compile("(?i)#\\s*encoding");
+
+    /** Lines of the header put before the block text. */
+    private static final int HEADER_LINES = 2;
+
+    private enum Kind { BACKGROUND, SCENARIO, RULE }
+
+    /** A top-level block of a feature and the line its tags or keyword start on. */
+    private record Block(Kind kind, int index, int line) {
+    }
+
+    private IncrementalFeatureParser() {
+    }
+
+    /**
+     * Parses the new content of a file from its previous tree.
+     *
+     * @param parser          the parser for the edited block
+     * @param uri             the URI or path identifying the file
+     * @param content         the new file content
+     * @param previous        the tree parsed from {@code previousContent}
+     * @param previousContent the content before the edit
+     * @return the new tree, or {@code null} if the file needs a full parse
+     * @throws IOException if the parser fails
+     */
+    static FeatureFile reparse(FeatureParser parser, String uri, String content,
+                               FeatureFile previous, String previousContent) throws IOException {
+        FeatureDefinition feature = previous.feature();
+        if (feature == null || !uri.equals(previous.uri())) {
+            return null;
+        }
+        List<Block> blocks = blocks(feature);
+        if (blocks.isEmpty()) {
+            return null;
+        }
+
+        int oldLength = previousContent.length();
+        int newLength = content.length();
+        int common = Math.min(oldLength, newLength);
+        int prefix = 0;
+        while (prefix < common && previousContent.charAt(prefix) == content.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix == oldLength && prefix == newLength) {
+            return previous;
+        }
+        int suffix = 0;
+        while (suffix < common - prefix
+                && previousContent.charAt(oldLength - 1 - suffix) == content.charAt(newLength - 1 - suffix)) {
+            suffix++;
+        }
+        int changeEnd = oldLength - suffix;
+
+        // Find the block whose lines hold the whole change
+        int line = 1;
+        int offset = 0;
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            offset = skipLines(previousContent, offset, block.line() - line);
+            line = block.line();
+            if (prefix < offset || i == 0 && ENCODING.matcher(previousContent).region(0, offset).find()) {
+                return null;
+            }
+            Block next = i + 1 < blocks.size() ? blocks.get(i + 1) : null;
+            int end = next != null ? skipLines(previousContent, offset, next.line() - line) : oldLength;
+            if (changeEnd < end || end == oldLength) {
+                return splice(parser, uri, content, previous, block,
+                        offset, end + newLength - oldLength, next != null ? next.line() : -1);
+            }
+        }
+        return null;
+    }
+
+    private static FeatureFile splice(FeatureParser parser, String uri, String content, FeatureFile previous,
+                                      Block block, int start, int end, int nextLine) throws IOException {
+        String region = content.substring(start, end);
+        boolean last = end == content.length();
+        // The block must still start and end on line boundaries
+        if (start > 0 && content.charAt(start - 1) == '\r' && region.startsWith("\n")
+                || !last && (region.isEmpty() || !isLineBreak(region.charAt(region.length() - 1))
+                || region.endsWith("\r") && content.charAt(end) == '\n')) {
+            return null;
+        }
+
+        FeatureDefinition feature = previous.feature();
+        String header = "# language: " + feature.language() + "\n" + feature.keyword() + ":\n";
+        FeatureFile partial = parser.parse(uri, header + region);
+        FeatureDefinition parsed = partial.feature();
+        if (parsed == null || !parsed.tags().isEmpty() || !parsed.description().isEmpty()
+                || !hasSingle(parsed, block.kind())) {
+            return null;
+        }
+
+        int offset = block.line() - 1 - HEADER_LINES;
+        int delta = last ? 0 : countLines(region) - (nextLine - block.line());
+
+        BackgroundDefinition background = feature.background();
+        List<ScenarioDefinition> scenarios = feature.scenarios();
+        List<RuleDefinition> rules = feature.rules();
+        switch (block.kind()) {
+            case BACKGROUND -> {
+                background = shift(parsed.background(), offset);
+                scenarios = shiftScenarios(scenarios, 0, delta);
+                rules = shiftRules(rules, 0, delta);
+            }
+            case SCENARIO -> {
+                scenarios = shiftScenarios(scenarios, block.index() + 1, delta);
+                scenarios.set(block.index(), shift(parsed.scenarios().get(0), offset));
+                rules = shiftRules(rules, 0, delta);
+            }
+            case RULE -> {
+                rules = shiftRules(rules, block.index() + 1, delta);
+                rules.set(block.index(), shift(parsed.rules().get(0), offset));
+            }
+        }
+
+        List<Comment> comments = new ArrayList<>();
+        for (Comment comment : previous.comments()) {
+            if (comment.position().line() < block.line()) {
+                comments.add(comment);
+            }
+        }
+        for (Comment comment : partial.comments()) {
+            comments.add(new Comment(shift(comment.position(), offset), comment.text()));
+        }
+        if (!last) {
+            for (Comment comment : previous.comments()) {
+                if (comment.position().line() >= nextLine) {
+                    comments.add(delta == 0 ? comment : new Comment(shift(comment.position(), delta), comment.text()));
+                }
+            }
+        }
+
+        FeatureDefinition spliced = new FeatureDefinition(feature.position(), feature.keyword(), feature.language(),
+                feature.name(), feature.description(), feature.tags(), background, scenarios, rules);
+        return new FeatureFile(spliced, comments, previous.language(), uri);
+    }
+
+    private static List<Block> blocks(FeatureDefinition feature) {
+        List<Block> blocks = new ArrayList<>();
+        if (feature.background() != null) {
+            blocks.add(new Block(Kind.BACKGROUND, 0, feature.background().position().line()));
+        }
+        List<ScenarioDefinition> scenarios = feature.scenarios();
+        for (int i = 0; i < scenarios.size(); i++) {
+            blocks.add(new Block(Kind.SCENARIO, i, firstLine(scenarios.get(i).position(), scenarios.get(i).tags())));
+        }
+        List<RuleDefinition> rules = feature.rules();
+        for (int i = 0; i < rules.size(); i++) {
+            blocks.add(new Block(Kind.RULE, i, firstLine(rules.get(i).position(), rules.get(i).tags())));
+        }
+        return blocks;
+    }
+
+    private static int firstLine(TextPosition position, List<TagDefinition> tags) {
+        return tags.isEmpty() ? position.line() : tags.get(0).position().line();
+    }
+
+    private static boolean hasSingle(FeatureDefinition feature, Kind kind) {
+        return switch (kind) {
+            case BACKGROUND -> feature.background() != null
+                    && feature.scenarios().isEmpty() && feature.rules().isEmpty();
+            case SCENARIO -> feature.background() == null
+                    && feature.scenarios().size() == 1 && feature.rules().isEmpty();
+            case RULE -> feature.background() == null
+                    && feature.scenarios().isEmpty() && feature.rules().size() == 1;
+        };
+    }
+
+    // ----------------------------------------------------------------
+    // Lines
+    // ----------------------------------------------------------------
+
+    /**
+     * Returns the offset after {@code count} more line breaks from
+     * {@code offset}, or the text length if there are fewer.
+     */
+    private static int skipLines(String text, int offset, int count) {
+        int length = text.length();
+        while (count > 0 && offset < length) {
+            char c = text.charAt(offset++);
+            if (c == '\r' && offset < length && text.charAt(offset) == '\n') {
+                offset++;
+            }
+            if (isLineBreak(c)) {
+                count--;
+            }
+        }
+        return offset;
+    }
+
+    private static int countLines(String text) {
+        int lines = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n')) {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r';
+    }
+
+    // ----------------------------------------------------------------
+    // Line shifting: copies of subtrees moved by a number of lines
+    // ----------------------------------------------------------------
+
+    private static List<ScenarioDefinition> shiftScenarios(List<ScenarioDefinition> scenarios, int from, int delta) {
+        List<ScenarioDefinition> shifted = new ArrayList<>(scenarios);
+        if (delta != 0) {
+            for (int i = from; i < shifted.size(); i++) {
+                shifted.set(i, shift(shifted.get(i), delta));
+            }
+        }
+        return shifted;
+    }
+
+    private static List<RuleDefinition> shiftRules(List<RuleDefinition> rules, int from, int delta) {
+        List<RuleDefinition> shifted = new ArrayList<>(rules);
+        if (delta != 0) {
+            for (int i = from; i < shifted.size(); i++) {
+                shifted.set(i, shift(shifted.get(i), delta));
+            }
+        }
+        return shifted;
+    }
+
+    private static RuleDefinition shift(RuleDefinition rule, int delta) {
+        return new RuleDefinition(shift(rule.position(), delta), rule.keyword(), rule.name(), rule.description(),
+                shiftTags(rule.tags(), delta),
+                rule.background() != null ? shift(rule.background(), delta) : null,
+                shiftScenarios(rule.scenarios(), 0, delta));
+    }
+
+    private static BackgroundDefinition shift(BackgroundDefinition background, int delta) {
+        return new BackgroundDefinition(shift(background.position(), delta), background.keyword(),
+                background.name(), background.description(), shiftSteps(background.steps(), delta));
+    }
+
+    private static ScenarioDefinition shift(ScenarioDefinition scenario, int delta) {
+        List<ExamplesDefinition> examples = new ArrayList<>(scenario.examples().size());
+        for (ExamplesDefinition example : scenario.examples()) {
+            examples.add(new ExamplesDefinition(shift(example.position(), delta), example.keyword(), example.name(),
+                    example.description(), shiftTags(example.tags(), delta), shift(example.table(), delta)));
+        }
+        return new ScenarioDefinition(shift(scenario.position(), delta), scenario.keyword(), scenario.name(),
+                scenario.description(), shiftTags(scenario.tags(), delta), shiftSteps(scenario.steps(), delta),
+                examples, scenario.isOutline());
+    }
+
+    private static List<StepDefinition> shiftSteps(List<StepDefinition> steps, int delta) {
+        List<StepDefinition> shifted = new ArrayList<>(steps.size());
+        for (StepDefinition step : steps) {
+            DocStringDefinition docString = step.docString();
+            shifted.add(new StepDefinition(shift(step.position(), delta), step.keyword(), step.keywordType(),
+                    step.text(), shift(step.dataTable(), delta),
+                    docString != null ? new DocStringDefinition(shift(docString.position(), delta),
+                            docString.contentType(), docString.content(), docString.delimiter()) : null));
+        }
+        return shifted;
+    }
+
+    private static DataTableDefinition shift(DataTableDefinition table, int delta) {
+        return table != null ? table.withPosition(shift(table.position(), delta)) : null;
+    }
+
+    private static List<TagDefinition> shiftTags(List<TagDefinition> tags, int delta) {
+        List<TagDefinition> shifted = new ArrayList<>(tags.size());
+        for (TagDefinition tag : tags) {
+            shifted.add(new TagDefinition(shift(tag.position(), delta), tag.name()));
+        }
+        return shifted;
+    }
+
+    private static TextPosition shift(TextPosition position, int delta) {
+        return TextPosition.of(position.line() + delta, position.column());
+    }
+}
@@ -0,0 +1,852 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.parser;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.BackgroundDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.Comment;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.DataTableDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.DocStringDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.RuleDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.TextPosition;
+import io.cucumber.gherkin.GherkinDialect;
+import io.cucumber.gherkin.GherkinDialectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses Gherkin {@code .feature} files in a single pass over the content,
+ * building the internal tree model directly.
+ * <p>
+ * The grammar, the keywords of every Gherkin language and the text rules
+ * (trimming, descriptions, doc string indentation and escapes, table cell
+ * escapes, tag columns) follow the Cucumber parser, so both produce equal
+ * trees: a file the Cucumber parser rejects yields a {@link FeatureFile}
+ * without feature or comments here too. Where the Cucumber parser relies on
+ * regular expression corner cases (an {@code # encoding:} header, the
+ * U+2028 and U+2029 separators, unpaired surrogates) {@link #parse} returns
+ * {@code null} and the caller falls back to it.
+ * <p>
+ * An instance holds the state of one parse; use {@link #parse}.
+ */
+final class NativeFeatureParser {
+
+    private static final GherkinDialectProvider DIALECT_PROVIDER = new GherkinDialectProvider();
+    private static final Map<String, Dialect> DIALECTS = new ConcurrentHashMap<>();
+    private static final Dialect DEFAULT_DIALECT = dialect("en");
+
+    private static final Pattern LANGUAGE = Pattern.compile("^\\s*#\\s*language\\s*:\\s*([a-zA-Z\\-_]+)\\s*$");
+    private static final Pattern ENCODING = Pattern.compile("^\\s*#\\s*encoding\\s*:\\s*([0-9a-zA-Z\\-]+)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMMENT_OR_EMPTY = Pattern.compile("^\\s*#|^\\s*$");
+    private static final Pattern TAG_COMMENT = Pattern.compile("\\s#");
+
+    private static final String DOUBLE_QUOTES = "\"\"\"";
+    private static final String BACKTICKS = "```";
+
+    // Token types, as bits so that the tokens expected in a state form a mask
+    private static final int EOF = 1;
+    private static final int EMPTY = 1 << 1;
+    private static final int COMMENT = 1 << 2;
+    private static final int TAG = 1 << 3;
+    private static final int TABLE_ROW = 1 << 4;
+    private static final int DOC_STRING = 1 << 5;
+    private static final int STEP = 1 << 6;
+    private static final int FEATURE = 1 << 7;
+    private static final int BACKGROUND = 1 << 8;
+    private static final int EXAMPLES = 1 << 9;
+    private static final int SCENARIO = 1 << 10;
+    private static final int RULE = 1 << 11;
+    private static final int OTHER = 1 << 12;
+    // A tag line, resolved by looking ahead to the keyword line it belongs to
+    private static final int SCENARIO_TAGS = 1 << 13;
+    private static final int EXAMPLES_TAGS = 1 << 14;
+    private static final int RULE_TAGS = 1 << 15;
+
+    /** Thrown for any input the Cucumber parser reports a parse error for. */
+    private static final RuntimeException SYNTAX_ERROR = new RuntimeException(null, null, false, false) {
+    };
+
+    private final String uri;
+    private final String text;
+    private int[] starts;
+    private int[] ends;
+    private int lineCount;
+    private final List<Comment> comments = new ArrayList<>();
+    private Dialect dialect = DEFAULT_DIALECT;
+
+    /** The line being matched, 0-based. */
+    private int index;
+    /** The token that ended the last block, for its parent to continue with. */
+    private int token;
+    /** The keyword of the last matched keyword line, or the doc string separator. */
+    private String keyword;
+    /** The type of the last matched step keyword. */
+    private String stepType;
+
+    // Bounds of the loaded line and of its text without surrounding whitespace
+    private int loaded = -1;
+    private int start;
+    private int end;
+    private int trimStart;
+    private int trimEnd;
+
+    private StringBuilder buffer;
+    private final SymbolTable symbols;
+
+    private NativeFeatureParser(String uri, String text, SymbolTable symbols) {
+        this.uri = uri;
+        this.text = text;
+        this.symbols = symbols;
+        int capacity = text.length() / 24 + 16;
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+    }
+
+    /**
+     * Parses a Gherkin feature file.
+     *
+     * @param uri     the URI or path identifying the file
+     * @param content the file content
+     * @return the parsed file, or {@code null} if the content needs the
+     *         Cucumber parser
+     */
+    static FeatureFile parse(String uri, String content) {
+        return parse(uri, content, new SymbolTable());
+    }
+
+    /**
+     * Parses a Gherkin feature file, interning the tag names and doc string
+     * media types of the tree in the given table. Keywords come from the
+     * dialects, so they are shared already.
+     *
+     * @param uri     the URI or path identifying the file
+     * @param content the file content
+     * @param symbols the symbol table of the calling parser
+     * @return the parsed file, or {@code null} if the content needs the
+     *         Cucumber parser
+     */
+    static FeatureFile parse(String uri, String content, SymbolTable symbols) {
+        NativeFeatureParser parser = new NativeFeatureParser(uri, content, symbols);
+        if (!parser.splitLines() || parser.hasEncodingHeader()) {
+            return null;
+        }
+        try {
+            FeatureDefinition feature = parser.document();
+            return new FeatureFile(feature, parser.comments,
+                    feature != null ? feature.language() : "en", uri);
+        } catch (RuntimeException e) {
+            if (e != SYNTAX_ERROR) {
+                throw e;
+            }
+            return new FeatureFile(null, List.of(), "en", uri);
+        }
+    }
+
+    // ----------------------------------------------------------------
+    // Grammar
+    // ----------------------------------------------------------------
+
+    private FeatureDefinition document() {
+        List<TagDefinition> tags = new ArrayList<>();
+        boolean first = true;
+        while (true) {
+            int type = classify(TAG | FEATURE);
+            if (type == FEATURE) {
+                return feature(tags);
+            } else if (type == EOF && first) {
+                return null;
+            } else if (type == COMMENT) {
+                // The language header is only recognized before any tag
+                if (first && language()) {
+                    first = false;
+                } else {
+                    comment();
+                }
+                index++;
+            } else if (type == EMPTY) {
+                index++;
+            } else if (type == TAG) {
+                lineTags(tags);
+                first = false;
+                index++;
+            } else {
+                throw SYNTAX_ERROR;
+            }
+        }
+    }
+
+    private FeatureDefinition feature(List<TagDefinition> tags) {
+        TextPosition position = position();
+        String featureKeyword = keyword;
+        String name = title();
+        index++;
+        String description = description(BACKGROUND | TAG | SCENARIO | RULE, false);
+
+        BackgroundDefinition background = token == BACKGROUND ? background() : null;
+        List<ScenarioDefinition> scenarios = new ArrayList<>();
+        while (token == SCENARIO || token == SCENARIO_TAGS) {
+            scenarios.add(scenario());
+        }
+        List<RuleDefinition> rules = new ArrayList<>();
+        while (token == RULE || token == RULE_TAGS) {
+            rules.add(rule());
+        }
+        if (token != EOF) {
+            throw SYNTAX_ERROR;
+        }
+        return new FeatureDefinition(position, featureKeyword, dialect.language(), name, description,
+                tags, background, scenarios, rules);
+    }
+
+    private RuleDefinition rule() {
+        List<TagDefinition> tags = token == RULE_TAGS ? tags(RULE) : List.of();
+        TextPosition position = position();
+        String ruleKeyword = keyword;
+        String name = title();
+        index++;
+        String description = description(BACKGROUND | TAG | SCENARIO | RULE, false);
+
+        BackgroundDefinition background = token == BACKGROUND ? background() : null;
+        List<ScenarioDefinition> scenarios = new ArrayList<>();
+        while (token == SCENARIO || token == SCENARIO_TAGS) {
+            scenarios.add(scenario());
+        }
+        return new RuleDefinition(position, ruleKeyword, name, description, tags, background, scenarios);
+    }
+
+    private BackgroundDefinition background() {
+        TextPosition position = position();
+        String backgroundKeyword = keyword;
+        String name = title();
+        index++;
+        String description = description(STEP | TAG | SCENARIO | RULE, false);
+        List<StepDefinition> steps = steps(false);
+        return new BackgroundDefinition(position, backgroundKeyword, name, description, steps);
+    }
+
+    private ScenarioDefinition scenario() {
+        List<TagDefinition> tags = token == SCENARIO_TAGS ? tags(SCENARIO) : List.of();
+        TextPosition position = position();
+        String scenarioKeyword = keyword;
+        String name = title();
+        index++;
+        String description = description(STEP | TAG | EXAMPLES | SCENARIO | RULE, true);
+        List<StepDefinition> steps = steps(true);
+
+        List<ExamplesDefinition> examples = new ArrayList<>();
+        while (token == EXAMPLES || token == EXAMPLES_TAGS) {
+            examples.add(examples());
+        }
+        return new ScenarioDefinition(position, scenarioKeyword, name, description, tags, steps,
+                examples, !examples.isEmpty());
+    }
+
+    private ExamplesDefinition examples() {
+        List<TagDefinition> tags = token == EXAMPLES_TAGS ? tags(EXAMPLES) : List.of();
+        TextPosition position = position();
+        String examplesKeyword = keyword;
+        String name = title();
+        index++;
+        int expected = TABLE_ROW | TAG | EXAMPLES | SCENARIO | RULE;
+        String description = description(expected, true);
+        DataTableDefinition table = token == TABLE_ROW ? table(expected, true) : null;
+        return new ExamplesDefinition(position, examplesKeyword, name, description, tags, table);
+    }
+
+    /**
+     * Reads the steps starting at the current token, with their data tables
+     * and doc strings.
+     *
+     * @param inScenario whether the steps belong to a scenario, which an
+     *                   Examples section may follow
+     */
+    private List<StepDefinition> steps(boolean inScenario) {
+        int next = STEP | TAG | SCENARIO | RULE | (inScenario ? EXAMPLES : 0);
+        List<StepDefinition> steps = new ArrayList<>();
+        while (token == STEP) {
+            TextPosition position = position();
+            String stepKeyword = keyword;
+            String keywordType = stepType;
+            String stepText = text.substring(trimStart + stepKeyword.length(), trimEnd).trim();
+            index++;
+
+            DataTableDefinition dataTable = null;
+            DocStringDefinition docString = null;
+            advance(next | TABLE_ROW | DOC_STRING, inScenario);
+            if (token == TABLE_ROW) {
+                dataTable = table(next | TABLE_ROW, inScenario);
+            } else if (token == DOC_STRING) {
+                docString = docString();
+                advance(next, inScenario);
+            }
+            steps.add(new StepDefinition(position, stepKeyword, keywordType, stepText, dataTable, docString));
+        }
+        return steps;
+    }
+
+    /**
+     * Reads the table rows starting at the current one. Comments and empty
+     * lines between rows do not end the table.
+     */
+    private DataTableDefinition table(int expected, boolean inScenario) {
+        TextPosition position = position();
+        DataTableDefinition.Builder table = DataTableDefinition.builder();
+        int width = -1;
+        do {
+            int cells = cells(table);
+            if (width >= 0 && cells != width) {
+                throw SYNTAX_ERROR;
+            }
+            width = cells;
+            index++;
+            advance(expected, inScenario);
+        } while (token == TABLE_ROW);
+        return table.build(position);
+    }
+
+    private DocStringDefinition docString() {
+        TextPosition position = position();
+        String separator = keyword;
+        String escapedSeparator = separator.equals(DOUBLE_QUOTES) ? "\\\"\\\"\\\"" : "\\`\\`\\`";
+        int indent = trimStart - start;
+        String mediaType = symbols.intern(text.substring(trimStart + separator.length(), trimEnd).trim());
+        index++;
+
+        StringBuilder content = buffer();
+        for (boolean first = true; ; first = false, index++) {
+            if (index >= lineCount) {
+                throw SYNTAX_ERROR;
+            }
+            load(index);
+            if (text.startsWith(separator, trimStart)) {
+                break;
+            }
+            if (!first) {
+                content.append('\n');
+            }
+            // Lines indented less than the separator lose all their indentation
+            int from = trimStart - start < indent ? trimStart : start + indent;
+            int to = trimStart - start < indent ? trimEnd : end;
+            if (text.indexOf('\\', from) >= 0 && text.indexOf('\\', from) < to) {
+                content.append(text.substring(from, to).replace(escapedSeparator, separator));
+            } else {
+                content.append(text, from, to);
+            }
+        }
+        index++;
+        return new DocStringDefinition(position, mediaType, content.toString(), separator);
+    }
+
+    /**
+     * Reads the tag lines starting at the current one, up to the keyword
+     * line they belong to.
+     */
+    private List<TagDefinition> tags(int target) {
+        List<TagDefinition> tags = new ArrayList<>();
+        while (true) {
+            int type = classify(TAG | target);
+            if (type == target) {
+                return tags;
+            } else if (type == TAG) {
+                lineTags(tags);
+            } else if (type == COMMENT) {
+                comment();
+            } else if (type != EMPTY) {
+                throw SYNTAX_ERROR;
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Reads the description that may follow a keyword line, and the comments
+     * and empty lines around it, then matches the next token against
+     * {@code expected}.
+     *
+     * @return the description, or an empty string if there is none
+     */
+    private String description(int expected, boolean inScenario) {
+        int first = -1;
+        int last = -1;
+        boolean afterComment = false;
+        while (true) {
+            int type = classify(expected);
+            if (type == COMMENT) {
+                comment();
+                afterComment = true;
+            } else if (type == OTHER || type == EMPTY && first >= 0 && !afterComment) {
+                // Empty lines inside a description belong to it
+                if (afterComment) {
+                    throw SYNTAX_ERROR;
+                }
+                if (first < 0) {
+                    first = index;
+                }
+                last = index;
+            } else if (type != EMPTY) {
+                token = type == TAG ? tagTarget(inScenario) : type;
+                break;
+            }
+            index++;
+        }
+        return first < 0 ? "" : joinDescription(first, last);
+    }
+
+    private String joinDescription(int first, int last) {
+        while (last > first && isBlank(starts[last], ends[last])) {
+            last--;
+        }
+        boolean contiguous = true;
+        for (int line = first; line < last && contiguous; line++) {
+            contiguous = ends[line] + 1 == starts[line + 1] && text.charAt(ends[line]) == '\n';
+        }
+        if (contiguous) {
+            return text.substring(starts[first], ends[last]);
+        }
+        StringBuilder description = buffer();
+        for (int line = first; line <= last; line++) {
+            if (line > first) {
+                description.append('\n');
+            }
+            description.append(text, starts[line], ends[line]);
+        }
+        return description.toString();
+    }
+
+    /**
+     * Skips comments and empty lines, then matches the next token against
+     * {@code expected}; any other line is an error.
+     */
+    private void advance(int expected, boolean inScenario) {
+        while (true) {
+            int type = classify(expected);
+            if (type == COMMENT) {
+                comment();
+            } else if (type == OTHER) {
+                throw SYNTAX_ERROR;
+            } else if (type != EMPTY) {
+                token = type == TAG ? tagTarget(inScenario) : type;
+                return;
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Decides what the tag line at the current index belongs to from the
+     * first line after it that is not a tag line, a comment or empty.
+     */
+    private int tagTarget(boolean inScenario) {
+        if (inScenario && followedBy(dialect.examples())) {
+            return EXAMPLES_TAGS;
+        }
+        if (followedBy(dialect.scenario())) {
+            return SCENARIO_TAGS;
+        }
+        return RULE_TAGS;
+    }
+
+    private boolean followedBy(String[] keywords) {
+        for (int line = index + 1; line < lineCount; line++) {
+            load(line);
+            if (trimStart < trimEnd) {
+                char first = text.charAt(trimStart);
+                if (first != '#' && first != '@') {
+                    return titleKeyword(keywords) != null;
+                }
+            }
+        }
+        return false;
+    }
+
+    // ----------------------------------------------------------------
+    // Tokens
+    // ----------------------------------------------------------------
+
+    /**
+     * Matches the line at the current index. Comments and empty lines are
+     * recognized anywhere; the other token types only when in
+     * {@code expected}. Anything else is {@link #OTHER}.
+     */
+    private int classify(int expected) {
+        if (index >= lineCount) {
+            return EOF;
+        }
+        load(index);
+        if (trimStart == trimEnd) {
+            return EMPTY;
+        }
+        char first = text.charAt(trimStart);
+        if (first == '#') {
+            return COMMENT;
+        }
+        if ((expected & TABLE_ROW) != 0 && first == '|') {
+            return TABLE_ROW;
+        }
+        if ((expected & DOC_STRING) != 0) {
+            if (text.startsWith(DOUBLE_QUOTES, trimStart)) {
+                keyword = DOUBLE_QUOTES;
+                return DOC_STRING;
+            }
+            if (text.startsWith(BACKTICKS, trimStart)) {
+                keyword = BACKTICKS;
+                return DOC_STRING;
+            }
+        }
+        if ((expected & STEP) != 0 && stepKeyword()) {
+            return STEP;
+        }
+        if ((expected & TAG) != 0 && first == '@') {
+            return TAG;
+        }
+        if ((expected & FEATURE) != 0 && (keyword = titleKeyword(dialect.feature())) != null) {
+            return FEATURE;
+        }
+        if ((expected & BACKGROUND) != 0 && (keyword = titleKeyword(dialect.background())) != null) {
+            return BACKGROUND;
+        }
+        if ((expected & EXAMPLES) != 0 && (keyword = titleKeyword(dialect.examples())) != null) {
+            return EXAMPLES;
+        }
+        if ((expected & SCENARIO) != 0 && (keyword = titleKeyword(dialect.scenario())) != null) {
+            return SCENARIO;
+        }
+        if ((expected & RULE) != 0 && (keyword = titleKeyword(dialect.rule())) != null) {
+            return RULE;
+        }
+        return OTHER;
+    }
+
+    private String titleKeyword(String[] keywords) {
+        int length = trimEnd - trimStart;
+        for (String candidate : keywords) {
+            if (length > candidate.length()
+                    && text.charAt(trimStart + candidate.length()) == ':'
+                    && text.startsWith(candidate, trimStart)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean stepKeyword() {
+        String[] keywords = dialect.steps();
+        for (int i = 0; i < keywords.length; i++) {
+            String candidate = keywords[i];
+            if (trimStart + candidate.length() <= trimEnd && text.startsWith(candidate, trimStart)) {
+                keyword = candidate;
+                stepType = dialect.stepTypes()[i];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns the name after the keyword and colon of the current line. */
+    private String title() {
+        return text.substring(trimStart + keyword.length() + 1, trimEnd).trim();
+    }
+
+    private TextPosition position() {
+        return TextPosition.of(index + 1, trimStart - start + 1);
+    }
+
+    private boolean language() {
+        Matcher matcher = LANGUAGE.matcher(text).region(start, end);
+        if (!matcher.matches()) {
+            return false;
+        }
+        Dialect declared = dialect(matcher.group(1));
+        if (declared == null) {
+            throw SYNTAX_ERROR;
+        }
+        dialect = declared;
+        return true;
+    }
+
+    private void comment() {
+        comments.add(new Comment(TextPosition.of(index + 1, 1), text.substring(start, end)));
+    }
+
+    /**
+     * Adds the tags of the current line. Columns are computed as the
+     * Cucumber parser does, which skips empty names without advancing.
+     */
+    private void lineTags(List<TagDefinition> tags) {
+        int indent = trimStart - start;
+        Matcher comment = TAG_COMMENT.matcher(text).region(trimStart, trimEnd);
+        int limit = comment.find() ? comment.start() : trimEnd;
+        int offset = 0;
+        int from = trimStart;
+        while (from <= limit) {
+            int to = from;
+            while (to < limit && text.charAt(to) != '@') {
+                to++;
+            }
+            int nameEnd = to;
+            while (nameEnd > from && isSpace(text.charAt(nameEnd - 1))) {
+                nameEnd--;
+            }
+            if (nameEnd > from) {
+                for (int i = from; i < nameEnd; i++) {
+                    if (isRegexSpace(text.charAt(i))) {
+                        throw SYNTAX_ERROR;
+                    }
+                }
+                int column = indent + text.codePointCount(trimStart, trimStart + offset) + 1;
+                tags.add(new TagDefinition(TextPosition.of(index + 1, column),
+                        symbols.intern(text.substring(from, nameEnd))));
+                offset += to - from + 1;
+            }
+            from = to + 1;
+        }
+    }
+
+    /**
+     * Splits the current table row into cell values and adds them to the
+     * table as a new row. Text before the first and after the last
+     * {@code |} is ignored.
+     *
+     * @return the number of cells in the row
+     */
+    private int cells(DataTableDefinition.Builder table) {
+        StringBuilder cell = buffer();
+        boolean opened = false;
+        boolean escaped = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (escaped) {
+                switch (c) {
+                    case 'n' -> cell.append('\n');
+                    case '\\', '|' -> cell.append(c);
+                    default -> cell.append('\\').append(c);
+                }
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '|') {
+                if (opened) {
+                    cellValue(cell, table);
+                }
+                opened = true;
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        int cells = table.rowWidth();
+        table.endRow();
+        return cells;
+    }
+
+    private static void cellValue(StringBuilder cell, DataTableDefinition.Builder table) {
+        int from = 0;
+        int to = cell.length();
+        while (from < to && isCellSpace(cell.charAt(from))) {
+            from++;
+        }
+        while (to > from && isCellSpace(cell.charAt(to - 1))) {
+            to--;
+        }
+        // The Cucumber trim pattern ends with $, which also matches before
+        // a final line break: spaces before an escaped trailing \n go too
+        if (to == cell.length() && to > from && cell.charAt(to - 1) == '\n') {
+            int spaces = to - 1;
+            while (spaces > from && isCellSpace(cell.charAt(spaces - 1))) {
+                spaces--;
+            }
+            if (spaces < to - 1) {
+                table.append(cell, from, spaces).append('\n').endCell();
+                return;
+            }
+        }
+        table.append(cell, from, to).endCell();
+    }
+
+    // ----------------------------------------------------------------
+    // Lines
+    // ----------------------------------------------------------------
+
+    /**
+     * Splits the content into lines at {@code \n}, {@code \r} and
+     * {@code \r\n}, after a byte order mark.
+     *
+     * @return {@code false} if the content holds characters only the
+     *         Cucumber parser handles exactly
+     */
+    private boolean splitLines() {
+        int length = text.length();
+        int lineStart = length > 0 && text.charAt(0) == '\uFEFF' ? 1 : 0;
+        for (int i = lineStart; i < length; i++) {
+            char c = text.charAt(i);
+            if (c > '\r') {
+                if (c >= '\u2028') {
+                    if (c <= '\u2029') {
+                        return false;
+                    }
+                    if (Character.isHighSurrogate(c) && i + 1 < length
+                            && Character.isLowSurrogate(text.charAt(i + 1))) {
+                        i++;
+                    } else if (Character.isSurrogate(c)) {
+                        return false;
+                    }
+                }
+            } else if (c == '\n' || c == '\r') {
+                addLine(lineStart, i);
+                if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < length) {
+            addLine(lineStart, length);
+        }
+        return true;
+    }
+
+    private void addLine(int lineStart, int lineEnd) {
+        if (lineCount == starts.length) {
+            starts = java.util.Arrays.copyOf(starts, lineCount * 2);
+            ends = java.util.Arrays.copyOf(ends, lineCount * 2);
+        }
+        starts[lineCount] = lineStart;
+        ends[lineCount] = lineEnd;
+        lineCount++;
+    }
+
+    /** Whether the leading comments declare an encoding, which the Cucumber parser decodes with. */
+    private boolean hasEncodingHeader() {
+        Matcher commentOrEmpty = COMMENT_OR_EMPTY.matcher(text);
+        Matcher encoding = ENCODING.matcher(text);
+        for (int line = 0; line < lineCount; line++) {
+            if (!commentOrEmpty.region(starts[line], ends[line]).find()) {
+                return false;
+            }
+            if (encoding.region(starts[line], ends[line]).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void load(int line) {
+        if (line == loaded) {
+            return;
+        }
+        loaded = line;
+        start = starts[line];
+        end = ends[line];
+        int from = start;
+        while (from < end && isSpace(text.charAt(from))) {
+            from++;
+        }
+        int to = end;
+        while (to > from && isSpace(text.charAt(to - 1))) {
+            to--;
+        }
+        trimStart = from;
+        trimEnd = to;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isRegexSpace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private StringBuilder buffer() {
+        if (buffer == null) {
+            buffer = new StringBuilder(64);
+        } else {
+            buffer.setLength(0);
+        }
+        return buffer;
+    }
+
+    /** The whitespace the Cucumber parser trims lines and tags with. */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r'
+                || c == '\u0085' || c == '\u00A0';
+    }
+
+    /** The whitespace the Cucumber parser trims table cells with. */
+    private static boolean isCellSpace(char c) {
+        return c != '\n' && isSpace(c);
+    }
+
+    /** The characters of {@code \s} in a regular expression. */
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // ----------------------------------------------------------------
+    // Dialects
+    // ----------------------------------------------------------------
+
+    private static Dialect dialect(String language) {
+        Dialect dialect = DIALECTS.get(language);
+        if (dialect == null) {
+            // Unknown languages are not cached, so the map stays bounded
+            dialect = DIALECT_PROVIDER.getDialect(language).map(Dialect::of).orElse(null);
+            if (dialect != null) {
+                DIALECTS.putIfAbsent(language, dialect);
+            }
+        }
+        return dialect;
+    }
+
+    /**
+     * The keywords of one Gherkin language, in the order the Cucumber parser
+     * tries them. Scenario keywords include the Scenario Outline ones.
+     */
+    private record Dialect(String language, String[] feature, String[] background, String[] scenario,
+                           String[] examples, String[] rule, String[] steps, String[] stepTypes) {
+
+        static Dialect of(GherkinDialect dialect) {
+            List<String> scenario = new ArrayList<>(dialect.getScenarioKeywords());
+            scenario.addAll(dialect.getScenarioOutlineKeywords());
+            String[] steps = dialect.getStepKeywords().toArray(String[]::new);
+            String[] stepTypes = new String[steps.length];
+            for (int i = 0; i < steps.length; i++) {
+                var types = dialect.getStepKeywordTypes(steps[i]);
+                stepTypes[i] = types.size() == 1 ? types.get(0).name() : "UNKNOWN";
+            }
+            return new Dialect(dialect.getLanguage(),
+                    dialect.getFeatureKeywords().toArray(String[]::new),
+                    dialect.getBackgroundKeywords().toArray(String[]::new),
+                    scenario.toArray(String[]::new),
+                    dialect.getExamplesKeywords().toArray(String[]::new),
+                    dialect.getRuleKeywords().toArray(String[]::new),
+                    steps,
+                    stepTypes);
+        }
+    }
+}
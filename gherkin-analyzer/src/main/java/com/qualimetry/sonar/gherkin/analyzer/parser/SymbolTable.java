@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.parser;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the short strings that repeat across the trees of a
+ * {@link FeatureParser}: keywords such as {@code "Given "}, keyword types,
+ * tag names, languages and doc string media types. Interned, each of them
+ * is held once per parser instead of once per node.
+ * <p>
+ * The table only grows up to {@link #MAX_SYMBOLS} entries of at most
+ * {@link #MAX_LENGTH} characters; past that, strings are returned as they
+ * are. Thread-safe.
+ */
+final class SymbolTable {
+
+    static final int MAX_SYMBOLS = 1 << 16;
+    static final int MAX_LENGTH = 64;
+
+    private final Map<String, String> symbols = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the interned instance of a string.
+     *
+     * @param value the string, or {@code null}
+     * @return an equal string, shared with earlier calls when possible
+     */
+    String intern(String value) {
+        if (value == null || value.length() > MAX_LENGTH) {
+            return value;
+        }
+        String symbol = symbols.get(value);
+        if (symbol != null) {
+            return symbol;
+        }
+        if (symbols.size() >= MAX_SYMBOLS) {
+            return value;
+        }
+        symbol = symbols.putIfAbsent(value, value);
+        return symbol != null ? symbol : value;
+    }
+
+    /**
+     * Returns the number of interned strings (visible for testing).
+     */
+    int size() {
+        return symbols.size();
+    }
+}
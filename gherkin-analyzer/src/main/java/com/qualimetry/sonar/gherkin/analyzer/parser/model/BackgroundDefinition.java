@@ -44,4 +44,18 @@ public record BackgroundDefinition(
         Objects.requireNonNull(steps, "steps must not be null");
         steps = List.copyOf(steps);
     }
+
+    /**
+     * Returns a hash of the content and structure of this background, including
+     * everything nested in it. Lines are hashed relative to the line of the
+     * background, so moving it by whole lines does not change the hash.
+     * <p>
+     * The hash is recomputed on each call; {@link StructuralHashes} hashes
+     * the nodes of one tree once each.
+     *
+     * @return the 64-bit structural hash
+     */
+    public long structuralHash() {
+        return StructuralHash.of(this);
+    }
 }
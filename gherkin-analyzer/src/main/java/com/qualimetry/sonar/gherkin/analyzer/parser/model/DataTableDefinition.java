@@ -15,23 +15,387 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.parser.model;
 
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * Represents a data table attached to a step or an examples section.
  * Each row is a list of cell values (strings). The first row is typically the header.
- *
- * @param position the position of the data table in the source file
- * @param rows     the table rows; each row is an immutable list of cell values
+ * <p>
+ * The cells are stored in columnar form: the values of all cells, row by row,
+ * in a single string, with the offset at which each cell ends. Cell strings
+ * are only created when they are asked for through {@link #cell}, {@link #rows}
+ * or {@link #column}; checks can use {@link #isBlank}, {@link #indexOf} and
+ * {@link #trimmedCellEquals} to inspect large tables without them.
+ * <p>
+ * Tables are immutable and compare by position and cell values.
  */
-public record DataTableDefinition(TextPosition position, List<List<String>> rows) {
+public final class DataTableDefinition {
+
+    private final TextPosition position;
+    /** The values of all cells, row by row. */
+    private final String text;
+    /** The offset in {@link #text} at which each cell ends; each cell starts where the previous one ends. */
+    private final int[] ends;
+    /** The index of the first cell of each row, followed by the number of cells. */
+    private final int[] rowStarts;
+
+    /**
+     * @param position the position of the data table in the source file
+     * @param rows     the table rows; each row is a list of cell values
+     */
+    public DataTableDefinition(TextPosition position, List<List<String>> rows) {
+        this(packed(rows), position);
+    }
+
+    private DataTableDefinition(Builder builder, TextPosition position) {
+        this(position, builder.text.toString(), Arrays.copyOf(builder.ends, builder.cells),
+                Arrays.copyOf(builder.rowStarts, builder.rows + 1));
+    }
+
+    private DataTableDefinition(TextPosition position, String text, int[] ends, int[] rowStarts) {
+        this.position = Objects.requireNonNull(position, "position must not be null");
+        this.text = text;
+        this.ends = ends;
+        this.rowStarts = rowStarts;
+    }
 
-    public DataTableDefinition {
-        Objects.requireNonNull(position, "position must not be null");
+    private static Builder packed(List<List<String>> rows) {
         Objects.requireNonNull(rows, "rows must not be null");
-        rows = rows.stream()
-                .map(List::copyOf)
-                .toList();
+        Builder builder = new Builder();
+        for (List<String> row : rows) {
+            for (String cell : row) {
+                builder.cell(Objects.requireNonNull(cell, "cell must not be null"));
+            }
+            builder.endRow();
+        }
+        return builder;
+    }
+
+    /**
+     * Returns a builder that packs the cells as they are read, without
+     * creating a string per cell.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns this table at another position, sharing its cells.
+     */
+    public DataTableDefinition withPosition(TextPosition position) {
+        return new DataTableDefinition(position, text, ends, rowStarts);
+    }
+
+    /**
+     * Returns the position of the data table in the source file.
+     */
+    public TextPosition position() {
+        return position;
+    }
+
+    /**
+     * Returns the number of rows, including the header.
+     */
+    public int rowCount() {
+        return rowStarts.length - 1;
+    }
+
+    /**
+     * Returns the number of cells in the given row.
+     */
+    public int cellCount(int row) {
+        Objects.checkIndex(row, rowCount());
+        return rowStarts[row + 1] - rowStarts[row];
+    }
+
+    /**
+     * Returns the value of a cell.
+     */
+    public String cell(int row, int column) {
+        int cell = index(row, column);
+        return text.substring(start(cell), ends[cell]);
+    }
+
+    /**
+     * Returns whether a cell is empty or contains only white space, as
+     * {@link String#isBlank()} would.
+     */
+    public boolean isBlank(int row, int column) {
+        int cell = index(row, column);
+        for (int i = start(cell); i < ends[cell]; ) {
+            int c = text.codePointAt(i);
+            if (!Character.isWhitespace(c)) {
+                return false;
+            }
+            i += Character.charCount(c);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the column of the first cell in the given row that equals
+     * {@code value}, or {@code -1} if there is none.
+     */
+    public int indexOf(int row, String value) {
+        int cells = cellCount(row);
+        for (int column = 0; column < cells; column++) {
+            int cell = rowStarts[row] + column;
+            int start = start(cell);
+            if (ends[cell] - start == value.length() && text.startsWith(value, start)) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether two cells are equal once trimmed as {@link String#trim()}
+     * would trim them.
+     */
+    public boolean trimmedCellEquals(int row, int column, int otherRow, int otherColumn) {
+        int cell = index(row, column);
+        int other = index(otherRow, otherColumn);
+        int from = trimStart(cell);
+        int to = trimEnd(cell, from);
+        int otherFrom = trimStart(other);
+        int length = to - from;
+        return trimEnd(other, otherFrom) - otherFrom == length
+                && text.regionMatches(from, text, otherFrom, length);
+    }
+
+    /**
+     * Returns the rows, each a list of cell values. The lists are read-only
+     * views: cell strings are created as they are read.
+     */
+    public List<List<String>> rows() {
+        return new Rows();
+    }
+
+    /**
+     * Returns the values of a column, from the header down. The list is a
+     * read-only view: cell strings are created as they are read.
+     */
+    public List<String> column(int column) {
+        return new Column(column);
+    }
+
+    /**
+     * Returns the offset in {@link #text} at which a cell starts.
+     */
+    private int start(int cell) {
+        return cell == 0 ? 0 : ends[cell - 1];
+    }
+
+    private int index(int row, int column) {
+        return rowStarts[row] + Objects.checkIndex(column, cellCount(row));
+    }
+
+    private int trimStart(int cell) {
+        int from = start(cell);
+        while (from < ends[cell] && text.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private int trimEnd(int cell, int from) {
+        int to = ends[cell];
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    /**
+     * Feeds the cells to {@link StructuralHash} without creating their strings.
+     */
+    void hashCells(StructuralHash hash) {
+        hash.add(rowCount());
+        for (int row = 0; row < rowCount(); row++) {
+            hash.add(rowStarts[row + 1] - rowStarts[row]);
+            for (int cell = rowStarts[row]; cell < rowStarts[row + 1]; cell++) {
+                hash.add(text, start(cell), ends[cell]);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        // The packed form is canonical: equal cells give equal arrays
+        return o == this || o instanceof DataTableDefinition other
+                && position.equals(other.position)
+                && text.equals(other.text)
+                && Arrays.equals(ends, other.ends)
+                && Arrays.equals(rowStarts, other.rowStarts);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * position.hashCode() + text.hashCode()) + Arrays.hashCode(rowStarts);
+    }
+
+    @Override
+    public String toString() {
+        return "DataTableDefinition[position=" + position + ", rows=" + rows() + "]";
+    }
+
+    private final class Rows extends AbstractList<List<String>> implements RandomAccess {
+
+        @Override
+        public List<String> get(int row) {
+            Objects.checkIndex(row, rowCount());
+            return new Row(row);
+        }
+
+        @Override
+        public int size() {
+            return rowCount();
+        }
+    }
+
+    private final class Row extends AbstractList<String> implements RandomAccess {
+
+        private final int row;
+
+        Row(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public String get(int column) {
+            return cell(row, column);
+        }
+
+        @Override
+        public int size() {
+            return cellCount(row);
+        }
+    }
+
+    private final class Column extends AbstractList<String> implements RandomAccess {
+
+        private final int column;
+
+        Column(int column) {
+            this.column = column;
+        }
+
+        @Override
+        public String get(int row) {
+            return cell(row, column);
+        }
+
+        @Override
+        public int size() {
+            return rowCount();
+        }
+    }
+
+    /**
+     * Packs the cells of a table as they are read, row by row. A cell is
+     * either added whole with {@link #cell} or assembled with
+     * {@link #append} and closed with {@link #endCell}.
+     * <p>
+     * Calls follow the table: the cells of a row, then {@link #endRow},
+     * for each row, then {@link #build} once. A builder is not reusable.
+     */
+    public static final class Builder {
+
+        private final StringBuilder text = new StringBuilder();
+        private int[] ends = new int[16];
+        private int[] rowStarts = new int[8];
+        private int cells;
+        private int rows;
+
+        private Builder() {
+        }
+
+        /**
+         * Appends part of a value to the current cell, which stays open
+         * until {@link #endCell}.
+         *
+         * @param value the characters to copy from
+         * @param from  the index of the first character to append
+         * @param to    the index after the last character to append
+         * @return this builder
+         */
+        public Builder append(CharSequence value, int from, int to) {
+            text.append(value, from, to);
+            return this;
+        }
+
+        /**
+         * Appends one character to the current cell, which stays open until
+         * {@link #endCell}.
+         *
+         * @param c the character to append
+         * @return this builder
+         */
+        public Builder append(char c) {
+            text.append(c);
+            return this;
+        }
+
+        /**
+         * Closes the current cell, made of everything appended since the
+         * previous cell was closed; it may be empty.
+         *
+         * @return this builder
+         */
+        public Builder endCell() {
+            if (cells == ends.length) {
+                ends = Arrays.copyOf(ends, cells * 2);
+            }
+            ends[cells++] = text.length();
+            return this;
+        }
+
+        /**
+         * Adds a whole cell to the current row. Must not be called while a
+         * cell is being assembled with {@link #append}.
+         *
+         * @param value the cell value
+         * @return this builder
+         */
+        public Builder cell(CharSequence value) {
+            return append(value, 0, value.length()).endCell();
+        }
+
+        /**
+         * Closes the current row, made of the cells closed since the
+         * previous row; rows may have different widths.
+         *
+         * @return this builder
+         */
+        public Builder endRow() {
+            if (rows + 2 > rowStarts.length) {
+                rowStarts = Arrays.copyOf(rowStarts, rowStarts.length * 2);
+            }
+            rowStarts[++rows] = cells;
+            return this;
+        }
+
+        /**
+         * Returns the number of cells closed in the current row so far;
+         * 0 right after {@link #endRow}.
+         */
+        public int rowWidth() {
+            return cells - rowStarts[rows];
+        }
+
+        /**
+         * Returns the table of the rows closed so far. Cells added after the
+         * last {@link #endRow} are not part of it.
+         *
+         * @param position the position of the data table in the source file
+         * @return the table
+         */
+        public DataTableDefinition build(TextPosition position) {
+            return new DataTableDefinition(this, position);
+        }
     }
 }
@@ -56,4 +56,18 @@ public record ScenarioDefinition(
         steps = List.copyOf(steps);
         examples = List.copyOf(examples);
     }
+
+    /**
+     * Returns a hash of the content and structure of this scenario, including
+     * everything nested in it. Lines are hashed relative to the line of the
+     * scenario, so moving it by whole lines does not change the hash.
+     * <p>
+     * The hash is recomputed on each call; {@link StructuralHashes} hashes
+     * the nodes of one tree once each.
+     *
+     * @return the 64-bit structural hash
+     */
+    public long structuralHash() {
+        return StructuralHash.of(this);
+    }
 }
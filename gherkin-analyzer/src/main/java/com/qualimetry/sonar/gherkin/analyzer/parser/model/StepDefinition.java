@@ -55,4 +55,15 @@ public record StepDefinition(
         Objects.requireNonNull(text, "text must not be null");
         // dataTable and docString are nullable
     }
+
+    /**
+     * Returns a hash of the content and structure of this step, including
+     * everything nested in it. Lines are hashed relative to the line of the
+     * step, so moving it by whole lines does not change the hash.
+     *
+     * @return the 64-bit structural hash
+     */
+    public long structuralHash() {
+        return StructuralHash.of(this);
+    }
 }
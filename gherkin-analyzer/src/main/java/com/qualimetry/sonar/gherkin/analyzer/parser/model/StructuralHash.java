@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.parser.model;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Computes the structural hashes of model nodes.
+ * <p>
+ * A hash covers everything a node holds: keywords, names, descriptions,
+ * tags, steps, tables and doc strings, and every position in the subtree.
+ * Lines are hashed relative to the line of the node itself, so a node that
+ * only moved up or down by whole lines keeps its hash. Each node type starts
+ * from its own seed, so a Background and a Scenario with the same content
+ * hash differently.
+ * <p>
+ * The hash is a 64-bit FNV-1a over the fields, with the length of every
+ * string and list mixed in so that adjacent fields cannot run into each
+ * other.
+ */
+final class StructuralHash {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private static final long BACKGROUND = 1;
+    private static final long SCENARIO = 2;
+    private static final long RULE = 3;
+    private static final long STEP = 4;
+    private static final long NONE = -1;
+
+    private long hash = OFFSET_BASIS;
+    private final int baseLine;
+
+    private StructuralHash(long seed, int baseLine) {
+        this.baseLine = baseLine;
+        add(seed);
+    }
+
+    static long of(BackgroundDefinition background) {
+        StructuralHash hash = new StructuralHash(BACKGROUND, background.position().line());
+        hash.addBackground(background);
+        return hash.hash;
+    }
+
+    static long of(ScenarioDefinition scenario) {
+        StructuralHash hash = new StructuralHash(SCENARIO, scenario.position().line());
+        hash.addScenario(scenario);
+        return hash.hash;
+    }
+
+    static long of(RuleDefinition rule) {
+        return of(rule, StructuralHash::of, StructuralHash::of);
+    }
+
+    /**
+     * Hashes a rule from the hashes of its Background and Scenarios, each
+     * mixed in with its line relative to the rule, so that the children are
+     * hashed by the given functions, which may remember them.
+     */
+    static long of(RuleDefinition rule, ToLongFunction<BackgroundDefinition> backgroundHash,
+                   ToLongFunction<ScenarioDefinition> scenarioHash) {
+        StructuralHash hash = new StructuralHash(RULE, rule.position().line());
+        hash.add(rule.position());
+        hash.add(rule.keyword());
+        hash.add(rule.name());
+        hash.add(rule.description());
+        hash.addTags(rule.tags());
+        if (rule.background() == null) {
+            hash.add(NONE);
+        } else {
+            hash.add(rule.background().position());
+            hash.add(backgroundHash.applyAsLong(rule.background()));
+        }
+        hash.add(rule.scenarios().size());
+        for (ScenarioDefinition scenario : rule.scenarios()) {
+            hash.add(scenario.position());
+            hash.add(scenarioHash.applyAsLong(scenario));
+        }
+        return hash.hash;
+    }
+
+    static long of(StepDefinition step) {
+        StructuralHash hash = new StructuralHash(STEP, step.position().line());
+        hash.addStep(step);
+        return hash.hash;
+    }
+
+    private void addBackground(BackgroundDefinition background) {
+        add(background.position());
+        add(background.keyword());
+        add(background.name());
+        add(background.description());
+        addSteps(background.steps());
+    }
+
+    private void addScenario(ScenarioDefinition scenario) {
+        add(scenario.position());
+        add(scenario.keyword());
+        add(scenario.name());
+        add(scenario.description());
+        add(scenario.isOutline() ? 1 : 0);
+        addTags(scenario.tags());
+        addSteps(scenario.steps());
+        add(scenario.examples().size());
+        for (ExamplesDefinition examples : scenario.examples()) {
+            add(examples.position());
+            add(examples.keyword());
+            add(examples.name());
+            add(examples.description());
+            addTags(examples.tags());
+            addTable(examples.table());
+        }
+    }
+
+    private void addSteps(List<StepDefinition> steps) {
+        add(steps.size());
+        for (StepDefinition step : steps) {
+            addStep(step);
+        }
+    }
+
+    private void addStep(StepDefinition step) {
+        add(step.position());
+        add(step.keyword());
+        add(step.keywordType());
+        add(step.text());
+        addTable(step.dataTable());
+        DocStringDefinition docString = step.docString();
+        if (docString == null) {
+            add(NONE);
+        } else {
+            add(docString.position());
+            add(docString.contentType());
+            add(docString.content());
+            add(docString.delimiter());
+        }
+    }
+
+    private void addTags(List<TagDefinition> tags) {
+        add(tags.size());
+        for (TagDefinition tag : tags) {
+            add(tag.position());
+            add(tag.name());
+        }
+    }
+
+    private void addTable(DataTableDefinition table) {
+        if (table == null) {
+            add(NONE);
+            return;
+        }
+        add(table.position());
+        table.hashCells(this);
+    }
+
+    private void add(TextPosition position) {
+        add(position.line() - baseLine);
+        add(position.column());
+    }
+
+    private void add(String value) {
+        add(value, 0, value.length());
+    }
+
+    void add(String value, int from, int to) {
+        add(to - from);
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ value.charAt(i)) * PRIME;
+        }
+    }
+
+    void add(long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * PRIME;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.parser.model;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the structural hashes of the nodes of one tree, so that each
+ * Background, Scenario and Rule is hashed at most once however often it is
+ * asked for. A Rule is hashed from the remembered hashes of its children.
+ * <p>
+ * The {@code structuralHash()} methods of the nodes recompute the hash on
+ * every call; use one instance of this class per analysis instead when
+ * several nodes of the same tree are hashed. Instances are not thread-safe.
+ */
+public final class StructuralHashes {
+
+    private final Map<Object, Long> hashes = new IdentityHashMap<>();
+
+    /**
+     * Returns the structural hash of a Background.
+     *
+     * @param background the background
+     * @return the same value as {@link BackgroundDefinition#structuralHash()}
+     */
+    public long of(BackgroundDefinition background) {
+        return hashes.computeIfAbsent(background, node -> StructuralHash.of(background));
+    }
+
+    /**
+     * Returns the structural hash of a Scenario.
+     *
+     * @param scenario the scenario
+     * @return the same value as {@link ScenarioDefinition#structuralHash()}
+     */
+    public long of(ScenarioDefinition scenario) {
+        return hashes.computeIfAbsent(scenario, node -> StructuralHash.of(scenario));
+    }
+
+    /**
+     * Returns the structural hash of a Rule, reusing the hashes of its
+     * Background and Scenarios.
+     *
+     * @param rule the rule
+     * @return the same value as {@link RuleDefinition#structuralHash()}
+     */
+    public long of(RuleDefinition rule) {
+        Long hash = hashes.get(rule);
+        if (hash == null) {
+            hash = StructuralHash.of(rule, this::of, this::of);
+            hashes.put(rule, hash);
+        }
+        return hash;
+    }
+}
@@ -15,14 +15,26 @@
  */
 package com.qualimetry.sonar.gherkin.analyzer.parser.model;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Represents a position in a source file with 1-based line and column numbers.
+ * <p>
+ * Positions are immutable, so the parsers share one instance per position
+ * through {@link #of(int, int)}: most nodes start within the first few
+ * columns of the first few thousand lines, and the same positions recur in
+ * every file.
  *
  * @param line   the 1-based line number
  * @param column the 1-based column number
  */
 public record TextPosition(int line, int column) {
 
+    private static final int CACHED_LINES = 4096;
+    private static final int CACHED_COLUMNS = 16;
+    private static final AtomicReferenceArray<TextPosition> CACHE =
+            new AtomicReferenceArray<>(CACHED_LINES * CACHED_COLUMNS);
+
     /**
      * Creates a {@code TextPosition} with validation that line and column
      * are positive (1-based).
@@ -35,4 +47,26 @@ public record TextPosition(int line, int column) {
             throw new IllegalArgumentException("Column must be >= 1, got: " + column);
         }
     }
+
+    /**
+     * Returns a position with the given line and column, shared with other
+     * callers when it is a common one.
+     *
+     * @param line   the 1-based line number
+     * @param column the 1-based column number
+     * @return a position equal to {@code new TextPosition(line, column)}
+     */
+    public static TextPosition of(int line, int column) {
+        if (line < 1 || line > CACHED_LINES || column < 1 || column > CACHED_COLUMNS) {
+            return new TextPosition(line, column);
+        }
+        int index = (line - 1) * CACHED_COLUMNS + column - 1;
+        TextPosition position = CACHE.get(index);
+        if (position == null) {
+            // Two threads may both create it; either instance will do
+            position = new TextPosition(line, column);
+            CACHE.set(index, position);
+        }
+        return position;
+    }
 }
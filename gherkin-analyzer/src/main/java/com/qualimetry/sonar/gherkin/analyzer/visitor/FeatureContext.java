@@ -34,7 +34,8 @@ import java.util.Objects;
  * checks in test mode (e.g., via CheckVerifier) where no SonarQube
  * environment is available. The {@code rawContent} is also nullable
  * but should be provided when raw-content checks (indentation, tabs,
- * trailing whitespace, etc.) are executed.
+ * trailing whitespace, etc.) are executed. Those checks should read lines
+ * through {@link #getLines()}, which splits the content once per context.
  */
 public class FeatureContext {
 
@@ -42,6 +43,7 @@ public class FeatureContext {
     private final InputFile inputFile;
     private final String rawContent;
     private final List<Issue> issues;
+    private LineIndex lines;
 
     /**
      * Creates a context with all fields.
@@ -94,6 +96,17 @@ public class FeatureContext {
         return rawContent;
     }
 
+    /**
+     * Returns the line index of the raw content, built on first use, or
+     * {@code null} if no raw content was provided.
+     */
+    public LineIndex getLines() {
+        if (lines == null && rawContent != null) {
+            lines = LineIndex.of(rawContent);
+        }
+        return lines;
+    }
+
     /**
      * Adds an issue to the collected issues list.
      *
@@ -32,6 +32,9 @@ import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
  * {@code leave*} method is called when leaving it. Default implementations
  * are no-ops so that concrete visitors can override only the methods they
  * care about.
+ * <p>
+ * Besides the tree callbacks, {@link #visitLine} delivers the raw text line
+ * by line, so that text-based rules share one pass over the content.
  */
 public interface FeatureVisitor {
 
@@ -62,6 +65,20 @@ public interface FeatureVisitor {
     default void visitComment(Comment comment) {
     }
 
+    /**
+     * Called for each line of the raw content, in order, right after
+     * {@code visitFeatureFile} and before the Feature tree. Only called when
+     * the raw content is available.
+     *
+     * @param line       the 1-based line number
+     * @param content    the line content without its terminator, as a view
+     *                   that is only valid during the call
+     * @param terminator the line terminator; {@link LineIndex.Terminator#NONE}
+     *                   marks the last line
+     */
+    default void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+    }
+
     default void leaveFeatureFile(FeatureFile file) {
     }
 
@@ -32,6 +32,7 @@ import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
  * The traversal order is:
  * <ol>
  *   <li>{@code visitFeatureFile}</li>
+ *   <li>{@code visitLine} for each raw text line, if the lines are known</li>
  *   <li>If a Feature exists:
  *     <ol>
  *       <li>{@code visitFeature}</li>
@@ -55,15 +56,56 @@ public final class FeatureWalker {
     /**
      * Walks the given {@link FeatureFile} tree, calling the visitor methods
      * in the correct order.
+     * <p>
+     * If the visitor is a {@link BaseCheck} whose context has raw content,
+     * the lines of that content are visited too, so the raw-text checks,
+     * which only read lines through {@code visitLine}, report their issues
+     * for callers that walk one check at a time.
      *
      * @param file    the root of the tree to walk
      * @param visitor the visitor to receive callbacks
      */
     public static void walk(FeatureFile file, FeatureVisitor visitor) {
+        walk(file, visitor, linesOf(visitor));
+    }
+
+    /**
+     * Walks the given {@link FeatureFile} tree and the lines of its raw
+     * content, calling the visitor methods in the correct order.
+     *
+     * @param file    the root of the tree to walk
+     * @param visitor the visitor to receive callbacks
+     * @param lines   the lines of the raw content, or {@code null} to skip
+     *                the line callbacks
+     */
+    public static void walk(FeatureFile file, FeatureVisitor visitor, LineIndex lines) {
+        walk(file, visitor, lines, null);
+    }
+
+    /**
+     * Walks the given {@link FeatureFile} tree and the lines of its raw
+     * content like {@link #walk(FeatureFile, FeatureVisitor, LineIndex)},
+     * letting {@code subtrees} skip the walk of each Background and
+     * Scenario.
+     *
+     * @param file     the root of the tree to walk
+     * @param visitor  the visitor to receive callbacks
+     * @param lines    the lines of the raw content, or {@code null} to skip
+     *                 the line callbacks
+     * @param subtrees decides which Backgrounds and Scenarios are walked, or
+     *                 {@code null} to walk them all
+     */
+    public static void walk(FeatureFile file, FeatureVisitor visitor, LineIndex lines, Subtrees subtrees) {
         visitor.visitFeatureFile(file);
 
+        if (lines != null) {
+            for (int line = 1; line <= lines.getLineCount(); line++) {
+                visitor.visitLine(line, lines.getLine(line), lines.getTerminator(line));
+            }
+        }
+
         if (file.feature() != null) {
-            walkFeature(file.feature(), visitor);
+            walkFeature(file.feature(), visitor, subtrees);
         }
 
         for (Comment comment : file.comments()) {
@@ -73,7 +115,14 @@ public final class FeatureWalker {
         visitor.leaveFeatureFile(file);
     }
 
-    private static void walkFeature(FeatureDefinition feature, FeatureVisitor visitor) {
+    private static LineIndex linesOf(FeatureVisitor visitor) {
+        if (visitor instanceof BaseCheck check && check.getContext() != null) {
+            return check.getContext().getLines();
+        }
+        return null;
+    }
+
+    private static void walkFeature(FeatureDefinition feature, FeatureVisitor visitor, Subtrees subtrees) {
         visitor.visitFeature(feature);
 
         for (TagDefinition tag : feature.tags()) {
@@ -81,21 +130,21 @@ public final class FeatureWalker {
         }
 
         if (feature.background() != null) {
-            walkBackground(feature.background(), visitor);
+            walkBackground(feature.background(), visitor, subtrees);
         }
 
         for (ScenarioDefinition scenario : feature.scenarios()) {
-            walkScenario(scenario, visitor);
+            walkScenario(scenario, visitor, subtrees);
         }
 
         for (RuleDefinition rule : feature.rules()) {
-            walkRule(rule, visitor);
+            walkRule(rule, visitor, subtrees);
         }
 
         visitor.leaveFeature(feature);
     }
 
-    private static void walkRule(RuleDefinition rule, FeatureVisitor visitor) {
+    private static void walkRule(RuleDefinition rule, FeatureVisitor visitor, Subtrees subtrees) {
         visitor.visitRule(rule);
 
         for (TagDefinition tag : rule.tags()) {
@@ -103,17 +152,20 @@ public final class FeatureWalker {
         }
 
         if (rule.background() != null) {
-            walkBackground(rule.background(), visitor);
+            walkBackground(rule.background(), visitor, subtrees);
         }
 
         for (ScenarioDefinition scenario : rule.scenarios()) {
-            walkScenario(scenario, visitor);
+            walkScenario(scenario, visitor, subtrees);
         }
 
         visitor.leaveRule(rule);
     }
 
-    private static void walkScenario(ScenarioDefinition scenario, FeatureVisitor visitor) {
+    private static void walkScenario(ScenarioDefinition scenario, FeatureVisitor visitor, Subtrees subtrees) {
+        if (subtrees != null && !subtrees.enterScenario(scenario)) {
+            return;
+        }
         visitor.visitScenario(scenario);
 
         for (TagDefinition tag : scenario.tags()) {
@@ -132,13 +184,63 @@ public final class FeatureWalker {
         }
 
         visitor.leaveScenario(scenario);
+
+        if (subtrees != null) {
+            subtrees.leaveScenario(scenario);
+        }
     }
 
-    private static void walkBackground(BackgroundDefinition background, FeatureVisitor visitor) {
+    private static void walkBackground(BackgroundDefinition background, FeatureVisitor visitor,
+                                       Subtrees subtrees) {
+        if (subtrees != null && !subtrees.enterBackground(background)) {
+            return;
+        }
         visitor.visitBackground(background);
 
         for (StepDefinition step : background.steps()) {
             visitor.visitStep(step);
         }
+
+        if (subtrees != null) {
+            subtrees.leaveBackground(background);
+        }
+    }
+
+    /**
+     * Decides, during a walk, whether the subtree of each Background and
+     * Scenario is walked. A skipped subtree gets none of its callbacks:
+     * neither the node's own nor those of its tags, steps and examples.
+     */
+    public interface Subtrees {
+
+        /**
+         * Called before the callbacks of a Background.
+         *
+         * @param background the background about to be walked
+         * @return {@code true} to walk it, {@code false} to skip it
+         */
+        boolean enterBackground(BackgroundDefinition background);
+
+        /**
+         * Called after the callbacks of a Background that was walked.
+         *
+         * @param background the background just walked
+         */
+        void leaveBackground(BackgroundDefinition background);
+
+        /**
+         * Called before the callbacks of a Scenario.
+         *
+         * @param scenario the scenario about to be walked
+         * @return {@code true} to walk it, {@code false} to skip it
+         */
+        boolean enterScenario(ScenarioDefinition scenario);
+
+        /**
+         * Called after the callbacks of a Scenario that was walked.
+         *
+         * @param scenario the scenario just walked
+         */
+        void leaveScenario(ScenarioDefinition scenario);
     }
 }
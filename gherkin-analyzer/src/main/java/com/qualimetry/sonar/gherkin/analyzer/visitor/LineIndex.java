@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.visitor;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Line-offset table over the raw content of a feature file, built in a
+ * single scan and shared by all raw-text checks through
+ * {@link FeatureContext#getLines()}.
+ * <p>
+ * Lines are separated by {@code \n}, like {@code content.split("\n", -1)}:
+ * a file ending with a newline has a final empty line, and a lone
+ * {@code \r} does not end a line. The content of a line excludes its
+ * {@code \n} and a {@code \r} directly before it, so it equals the result
+ * of {@code content.split("\\r?\\n", -1)}. Line contents are returned as
+ * views over the raw content, without copying.
+ * <p>
+ * Line numbers are 1-based, like {@link com.qualimetry.sonar.gherkin.analyzer.parser.model.TextPosition}.
+ */
+public final class LineIndex {
+
+    /**
+     * The terminator that ends a line.
+     */
+    public enum Terminator {
+        /** A single {@code \n}. */
+        LF,
+        /** A {@code \r\n} pair. */
+        CRLF,
+        /** No terminator: the last line of the file. */
+        NONE
+    }
+
+    private static final int BLANK = 1;
+    private static final int CRLF = 2;
+
+    private final String content;
+    private final int lineCount;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] leadingSpaces;
+    private final byte[] flags;
+
+    private LineIndex(String content) {
+        this.content = content;
+        int capacity = 16;
+        int[] lineStarts = new int[capacity];
+        int[] lineEnds = new int[capacity];
+        int[] indents = new int[capacity];
+        byte[] lineFlags = new byte[capacity];
+
+        int count = 0;
+        int start = 0;
+        int indent = 0;
+        boolean inIndent = true;
+        boolean blank = true;
+        int length = content.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? content.charAt(i) : '\n';
+            if (c != '\n') {
+                if (inIndent && c == ' ') {
+                    indent++;
+                } else {
+                    inIndent = false;
+                }
+                // Same notion of blank as String.trim()
+                if (c > ' ') {
+                    blank = false;
+                }
+                continue;
+            }
+            if (count == lineStarts.length) {
+                capacity = count * 2;
+                lineStarts = Arrays.copyOf(lineStarts, capacity);
+                lineEnds = Arrays.copyOf(lineEnds, capacity);
+                indents = Arrays.copyOf(indents, capacity);
+                lineFlags = Arrays.copyOf(lineFlags, capacity);
+            }
+            boolean crlf = i < length && i > start && content.charAt(i - 1) == '\r';
+            lineStarts[count] = start;
+            lineEnds[count] = crlf ? i - 1 : i;
+            indents[count] = indent;
+            lineFlags[count] = (byte) ((blank ? BLANK : 0) | (crlf ? CRLF : 0));
+            count++;
+            start = i + 1;
+            indent = 0;
+            inIndent = true;
+            blank = true;
+        }
+        this.lineCount = count;
+        this.starts = lineStarts;
+        this.ends = lineEnds;
+        this.leadingSpaces = indents;
+        this.flags = lineFlags;
+    }
+
+    /**
+     * Builds the line index of the given content.
+     *
+     * @param content the raw file content
+     * @return the line index
+     */
+    public static LineIndex of(String content) {
+        return new LineIndex(Objects.requireNonNull(content, "content must not be null"));
+    }
+
+    /**
+     * Returns the number of lines, which is the number of {@code \n}
+     * characters plus one.
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Returns the content of a line, without its terminator, as a view over
+     * the raw content.
+     *
+     * @param line the 1-based line number
+     * @return the line content
+     */
+    public CharSequence getLine(int line) {
+        int index = toIndex(line);
+        return new LineView(content, starts[index], ends[index]);
+    }
+
+    /**
+     * Returns the offset of the first character of a line in the raw content.
+     *
+     * @param line the 1-based line number
+     * @return the start offset
+     */
+    public int getLineStart(int line) {
+        return starts[toIndex(line)];
+    }
+
+    /**
+     * Returns the length of a line's content, without its terminator.
+     *
+     * @param line the 1-based line number
+     * @return the content length
+     */
+    public int getLineLength(int line) {
+        int index = toIndex(line);
+        return ends[index] - starts[index];
+    }
+
+    /**
+     * Returns the terminator that ends a line.
+     *
+     * @param line the 1-based line number
+     * @return the line terminator
+     */
+    public Terminator getTerminator(int line) {
+        int index = toIndex(line);
+        if (index == lineCount - 1) {
+            return Terminator.NONE;
+        }
+        return (flags[index] & CRLF) != 0 ? Terminator.CRLF : Terminator.LF;
+    }
+
+    /**
+     * Returns the number of space characters at the start of a line.
+     *
+     * @param line the 1-based line number
+     * @return the count of leading spaces
+     */
+    public int getLeadingSpaces(int line) {
+        return leadingSpaces[toIndex(line)];
+    }
+
+    /**
+     * Returns whether a line contains only whitespace, in the sense of
+     * {@link String#trim()}.
+     *
+     * @param line the 1-based line number
+     * @return {@code true} if the line is blank
+     */
+    public boolean isBlank(int line) {
+        return (flags[toIndex(line)] & BLANK) != 0;
+    }
+
+    private int toIndex(int line) {
+        if (line < 1 || line > lineCount) {
+            throw new IndexOutOfBoundsException("Line " + line + " out of range 1.." + lineCount);
+        }
+        return line - 1;
+    }
+
+    /**
+     * Read-only view of a range of the raw content.
+     */
+    private static final class LineView implements CharSequence {
+
+        private final String content;
+        private final int start;
+        private final int end;
+
+        LineView(String content, int start, int end) {
+            this.content = content;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return content.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            if (from < 0 || to > end - start || from > to) {
+                throw new IndexOutOfBoundsException("[" + from + ", " + to + ")");
+            }
+            return new LineView(content, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return content.substring(start, end);
+        }
+    }
+}
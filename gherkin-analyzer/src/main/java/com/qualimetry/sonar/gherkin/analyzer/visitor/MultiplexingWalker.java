@@ -0,0 +1,400 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.visitor;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.BackgroundDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.Comment;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.RuleDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Walks a {@link FeatureFile} tree once and fans each callback out to many
+ * visitors, instead of walking the tree once per visitor.
+ * <p>
+ * Each visitor only receives the callbacks it subscribes to, which are the
+ * {@link FeatureVisitor} methods its class overrides. For each visitor the
+ * callbacks arrive in the same order as with {@link FeatureWalker}; across
+ * visitors, each node is delivered to the visitors in list order.
+ * <p>
+ * Subscriptions are computed once when the walker is created, so a walker
+ * should be reused for many files with the same visitors. A walker is not
+ * thread-safe, because the visitors it wraps are not.
+ * <p>
+ * A walk can also measure the time each visitor spends in its callbacks,
+ * see {@link #walk(FeatureFile, LineIndex, long[])}. Timing costs one
+ * {@link System#nanoTime()} call per delivered callback, so callers that
+ * keep it on should only time a sample of their walks.
+ */
+public final class MultiplexingWalker {
+
+    private static final ClassValue<boolean[]> SUBSCRIPTIONS = new ClassValue<>() {
+        @Override
+        protected boolean[] computeValue(Class<?> type) {
+            return subscriptionsOf(type);
+        }
+    };
+
+    private static final int VISIT_FEATURE_FILE = 0;
+    private static final int VISIT_FEATURE = 1;
+    private static final int VISIT_BACKGROUND = 2;
+    private static final int VISIT_SCENARIO = 3;
+    private static final int VISIT_RULE = 4;
+    private static final int VISIT_STEP = 5;
+    private static final int VISIT_TAG = 6;
+    private static final int VISIT_EXAMPLES = 7;
+    private static final int VISIT_COMMENT = 8;
+    private static final int VISIT_LINE = 9;
+    private static final int LEAVE_FEATURE_FILE = 10;
+    private static final int LEAVE_FEATURE = 11;
+    private static final int LEAVE_SCENARIO = 12;
+    private static final int LEAVE_RULE = 13;
+
+    private static final String[] CALLBACKS = {
+            "visitFeatureFile", "visitFeature", "visitBackground", "visitScenario",
+            "visitRule", "visitStep", "visitTag", "visitExamples", "visitComment",
+            "visitLine", "leaveFeatureFile", "leaveFeature", "leaveScenario", "leaveRule"
+    };
+
+    private final FeatureVisitor[][] subscribers;
+    /** For each callback, the position of each subscriber in the visitor list. */
+    private final int[][] visitorIndexes;
+    private final Dispatcher dispatcher = new Dispatcher();
+
+    /**
+     * Creates a walker for the given visitors.
+     *
+     * @param visitors the visitors to notify, in notification order
+     */
+    public MultiplexingWalker(List<? extends FeatureVisitor> visitors) {
+        List<List<FeatureVisitor>> byCallback = new ArrayList<>();
+        List<List<Integer>> indexesByCallback = new ArrayList<>();
+        for (int i = 0; i < CALLBACKS.length; i++) {
+            byCallback.add(new ArrayList<>());
+            indexesByCallback.add(new ArrayList<>());
+        }
+        for (int v = 0; v < visitors.size(); v++) {
+            FeatureVisitor visitor = visitors.get(v);
+            boolean[] subscribed = SUBSCRIPTIONS.get(visitor.getClass());
+            for (int i = 0; i < CALLBACKS.length; i++) {
+                if (subscribed[i]) {
+                    byCallback.get(i).add(visitor);
+                    indexesByCallback.get(i).add(v);
+                }
+            }
+        }
+        subscribers = new FeatureVisitor[CALLBACKS.length][];
+        visitorIndexes = new int[CALLBACKS.length][];
+        for (int i = 0; i < CALLBACKS.length; i++) {
+            subscribers[i] = byCallback.get(i).toArray(new FeatureVisitor[0]);
+            visitorIndexes[i] = indexesByCallback.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Walks the given file, notifying every subscribed visitor. Line
+     * callbacks are not delivered.
+     *
+     * @param file the root of the tree to walk
+     */
+    public void walk(FeatureFile file) {
+        walk(file, null);
+    }
+
+    /**
+     * Walks the given file and the lines of its raw content, notifying every
+     * subscribed visitor. All line-based visitors share one pass over the
+     * lines, which is skipped when no visitor subscribes to it.
+     *
+     * @param file  the root of the tree to walk
+     * @param lines the lines of the raw content, or {@code null} to skip the
+     *              line callbacks
+     */
+    public void walk(FeatureFile file, LineIndex lines) {
+        walk(file, lines, (FeatureWalker.Subtrees) null);
+    }
+
+    /**
+     * Walks the given file and the lines of its raw content like
+     * {@link #walk(FeatureFile, LineIndex)}, letting {@code subtrees} skip
+     * the walk of each Background and Scenario for all visitors at once.
+     *
+     * @param file     the root of the tree to walk
+     * @param lines    the lines of the raw content, or {@code null} to skip
+     *                 the line callbacks
+     * @param subtrees decides which Backgrounds and Scenarios are walked, or
+     *                 {@code null} to walk them all
+     */
+    public void walk(FeatureFile file, LineIndex lines, FeatureWalker.Subtrees subtrees) {
+        FeatureWalker.walk(file, dispatcher, subscribers[VISIT_LINE].length > 0 ? lines : null, subtrees);
+    }
+
+    /**
+     * Walks the given file and the lines of its raw content like
+     * {@link #walk(FeatureFile, LineIndex)}, and adds the time each visitor
+     * spent in its callbacks to {@code elapsedNanos}.
+     *
+     * @param file         the root of the tree to walk
+     * @param lines        the lines of the raw content, or {@code null} to
+     *                     skip the line callbacks
+     * @param elapsedNanos one counter per visitor, in the order the visitors
+     *                     were given to the constructor
+     */
+    public void walk(FeatureFile file, LineIndex lines, long[] elapsedNanos) {
+        walk(file, lines, null, elapsedNanos);
+    }
+
+    /**
+     * Walks the given file like {@link #walk(FeatureFile, LineIndex, FeatureWalker.Subtrees)},
+     * and adds the time each visitor spent in its callbacks to
+     * {@code elapsedNanos}.
+     *
+     * @param file         the root of the tree to walk
+     * @param lines        the lines of the raw content, or {@code null} to
+     *                     skip the line callbacks
+     * @param subtrees     decides which Backgrounds and Scenarios are
+     *                     walked, or {@code null} to walk them all
+     * @param elapsedNanos one counter per visitor, in the order the visitors
+     *                     were given to the constructor, or {@code null} not
+     *                     to time the walk
+     */
+    public void walk(FeatureFile file, LineIndex lines, FeatureWalker.Subtrees subtrees, long[] elapsedNanos) {
+        dispatcher.elapsed = elapsedNanos;
+        try {
+            walk(file, lines, subtrees);
+        } finally {
+            dispatcher.elapsed = null;
+        }
+    }
+
+    /**
+     * Returns the number of visitors subscribed to a callback (visible for
+     * testing).
+     *
+     * @param callback the {@link FeatureVisitor} method name
+     */
+    int getSubscriberCount(String callback) {
+        for (int i = 0; i < CALLBACKS.length; i++) {
+            if (CALLBACKS[i].equals(callback)) {
+                return subscribers[i].length;
+            }
+        }
+        throw new IllegalArgumentException("Unknown callback: " + callback);
+    }
+
+    private static boolean[] subscriptionsOf(Class<?> type) {
+        boolean[] subscribed = new boolean[CALLBACKS.length];
+        for (Method method : FeatureVisitor.class.getDeclaredMethods()) {
+            int index = indexOf(method.getName());
+            if (index < 0) {
+                continue;
+            }
+            try {
+                Method resolved = type.getMethod(method.getName(), method.getParameterTypes());
+                subscribed[index] = resolved.getDeclaringClass() != FeatureVisitor.class;
+            } catch (NoSuchMethodException e) {
+                // Not possible for a FeatureVisitor; subscribe to be safe
+                subscribed[index] = true;
+            }
+        }
+        return subscribed;
+    }
+
+    private static int indexOf(String callback) {
+        for (int i = 0; i < CALLBACKS.length; i++) {
+            if (CALLBACKS[i].equals(callback)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Single visitor driven by {@link FeatureWalker} that forwards each
+     * callback to its subscribers, timing them during a timed walk.
+     */
+    private final class Dispatcher implements FeatureVisitor {
+
+        /** The per-visitor time counters of a timed walk, else {@code null}. */
+        private long[] elapsed;
+
+        private long start() {
+            return elapsed != null ? System.nanoTime() : 0;
+        }
+
+        /**
+         * Charges the time since {@code start} to a subscriber of a callback.
+         *
+         * @return the time the next subscriber starts at
+         */
+        private long lap(int callback, int subscriber, long start) {
+            if (elapsed == null) {
+                return 0;
+            }
+            long now = System.nanoTime();
+            elapsed[visitorIndexes[callback][subscriber]] += now - start;
+            return now;
+        }
+
+        @Override
+        public void visitFeatureFile(FeatureFile file) {
+            FeatureVisitor[] visitors = subscribers[VISIT_FEATURE_FILE];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].visitFeatureFile(file);
+                start = lap(VISIT_FEATURE_FILE, i, start);
+            }
+        }
+
+        @Override
+        public void visitFeature(FeatureDefinition feature) {
+            FeatureVisitor[] visitors = subscribers[VISIT_FEATURE];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].visitFeature(feature);
+                start = lap(VISIT_FEATURE, i, start);
+            }
+        }
+
+        @Override
+        public void visitBackground(BackgroundDefinition background) {
+            FeatureVisitor[] visitors = subscribers[VISIT_BACKGROUND];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].visitBackground(background);
+                start = lap(VISIT_BACKGROUND, i, start);
+            }
+        }
+
+        @Override
+        public void visitScenario(ScenarioDefinition scenario) {
+            FeatureVisitor[] visitors = subscribers[VISIT_SCENARIO];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].visitScenario(scenario);
+                start = lap(VISIT_SCENARIO, i, start);
+            }
+        }
+
+        @Override
+        public void visitRule(RuleDefinition rule) {
+            FeatureVisitor[] visitors = subscribers[VISIT_RULE];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].visitRule(rule);
+                start = lap(VISIT_RULE, i, start);
+            }
+        }
+
+        @Override
+        public void visitStep(StepDefinition step) {
+            FeatureVisitor[] visitors = subscribers[VISIT_STEP];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].visitStep(step);
+                start = lap(VISIT_STEP, i, start);
+            }
+        }
+
+        @Override
+        public void visitTag(TagDefinition tag) {
+            FeatureVisitor[] visitors = subscribers[VISIT_TAG];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].visitTag(tag);
+                start = lap(VISIT_TAG, i, start);
+            }
+        }
+
+        @Override
+        public void visitExamples(ExamplesDefinition examples) {
+            FeatureVisitor[] visitors = subscribers[VISIT_EXAMPLES];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].visitExamples(examples);
+                start = lap(VISIT_EXAMPLES, i, start);
+            }
+        }
+
+        @Override
+        public void visitComment(Comment comment) {
+            FeatureVisitor[] visitors = subscribers[VISIT_COMMENT];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].visitComment(comment);
+                start = lap(VISIT_COMMENT, i, start);
+            }
+        }
+
+        @Override
+        public void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+            FeatureVisitor[] visitors = subscribers[VISIT_LINE];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].visitLine(line, content, terminator);
+                start = lap(VISIT_LINE, i, start);
+            }
+        }
+
+        @Override
+        public void leaveFeatureFile(FeatureFile file) {
+            FeatureVisitor[] visitors = subscribers[LEAVE_FEATURE_FILE];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].leaveFeatureFile(file);
+                start = lap(LEAVE_FEATURE_FILE, i, start);
+            }
+        }
+
+        @Override
+        public void leaveFeature(FeatureDefinition feature) {
+            FeatureVisitor[] visitors = subscribers[LEAVE_FEATURE];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].leaveFeature(feature);
+                start = lap(LEAVE_FEATURE, i, start);
+            }
+        }
+
+        @Override
+        public void leaveScenario(ScenarioDefinition scenario) {
+            FeatureVisitor[] visitors = subscribers[LEAVE_SCENARIO];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].leaveScenario(scenario);
+                start = lap(LEAVE_SCENARIO, i, start);
+            }
+        }
+
+        @Override
+        public void leaveRule(RuleDefinition rule) {
+            FeatureVisitor[] visitors = subscribers[LEAVE_RULE];
+            long start = start();
+            for (int i = 0; i < visitors.length; i++) {
+                visitors[i].leaveRule(rule);
+                start = lap(LEAVE_RULE, i, start);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.visitor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that the findings of a check are local to each Background and
+ * Scenario, so that an engine may reuse them while the node is unchanged.
+ * <p>
+ * A check may carry this annotation when, for every Background and
+ * Scenario:
+ * <ul>
+ *   <li>the issues it raises between entering the node and leaving it
+ *       (the node's own callbacks and those of its tags, steps and
+ *       examples) depend only on the content of that subtree, on the
+ *       positions in it relative to the node, and on the language of the
+ *       file;</li>
+ *   <li>skipping the walk of the node does not change what it reports
+ *       anywhere else, i.e. it keeps no state from one node to the next;</li>
+ *   <li>it does not subscribe to lines or comments, and reads nothing from
+ *       its context except the language of the file.</li>
+ * </ul>
+ * Callbacks outside of those nodes, such as {@code visitFeature} or the tags
+ * of a Rule, are always delivered.
+ *
+ * @see com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition#structuralHash()
+ * @see FeatureWalker.Subtrees
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface NodeLocal {
+}
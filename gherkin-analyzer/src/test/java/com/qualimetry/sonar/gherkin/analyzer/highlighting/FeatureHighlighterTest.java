@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -236,6 +237,44 @@ class FeatureHighlighterTest {
         assertThat(featureRange.endColumn()).isGreaterThanOrEqualTo(featureRange.startColumn());
     }
 
+    @Test
+    void shouldStreamTokensInSourceOrder() throws IOException {
+        String content = """
+                # header
+                @smoke
+                Feature: Payments
+                  # about the rule
+                  @fast
+                  Rule: Cards
+                    @happy
+                    Scenario Outline: Pay
+                      Given a card
+                      @data
+                      Examples:
+                        | card |
+                        | visa |
+                """;
+        FeatureFile file = parse(content);
+
+        List<int[]> tokens = new ArrayList<>();
+        FeatureHighlighter.highlight(file, (line, column, length, type) ->
+                tokens.add(new int[] {line, column, length, type.ordinal()}));
+
+        assertThat(tokens).extracting(t -> t[0] + ":" + t[1] + ":" + t[2] + ":" + HighlightType.values()[t[3]])
+                .containsExactly(
+                        "1:1:8:COMMENT",
+                        "2:1:6:ANNOTATION",
+                        "3:1:7:KEYWORD",
+                        "4:3:16:COMMENT",
+                        "5:3:5:ANNOTATION",
+                        "6:3:4:KEYWORD",
+                        "7:5:6:ANNOTATION",
+                        "8:5:16:KEYWORD",
+                        "9:7:5:KEYWORD",
+                        "10:7:5:ANNOTATION",
+                        "11:7:8:KEYWORD");
+    }
+
     private FeatureFile parse(String content) throws IOException {
         return parser.parse("test.feature",
                 new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
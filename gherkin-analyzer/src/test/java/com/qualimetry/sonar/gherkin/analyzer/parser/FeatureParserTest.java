@@ -792,4 +792,38 @@ class FeatureParserTest {
         assertThat(examples.table()).isNotNull();
         assertThat(examples.table().position().line()).isEqualTo(23);
     }
+
+    // ------------------------------------------------------------------
+    // Shared symbols and positions
+    // ------------------------------------------------------------------
+
+    @Test
+    void shouldShareSymbolsAndPositionsAcrossFiles() throws IOException {
+        String content = """
+                @smoke
+                Feature: Shared
+                  @smoke
+                  Scenario: One
+                    Given a step
+                      \"""json
+                      {}
+                      \"""
+                """;
+        for (FeatureParser.Engine engine : FeatureParser.Engine.values()) {
+            FeatureParser shared = new FeatureParser(engine);
+            FeatureDefinition first = shared.parse("test://first.feature", content).feature();
+            FeatureDefinition second = shared.parse("test://second.feature", content).feature();
+            StepDefinition firstStep = first.scenarios().get(0).steps().get(0);
+            StepDefinition secondStep = second.scenarios().get(0).steps().get(0);
+
+            assertThat(second).as(engine.name()).isEqualTo(first);
+            assertThat(secondStep.keyword()).as(engine.name()).isSameAs(firstStep.keyword());
+            assertThat(secondStep.docString().contentType()).as(engine.name())
+                    .isSameAs(firstStep.docString().contentType());
+            assertThat(second.tags().get(0).name()).as(engine.name()).isSameAs(first.tags().get(0).name());
+            assertThat(first.scenarios().get(0).tags().get(0).name()).as(engine.name())
+                    .isSameAs(first.tags().get(0).name());
+            assertThat(secondStep.position()).as(engine.name()).isSameAs(firstStep.position());
+        }
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.parser;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link FeatureParser#reparse}: after any edit, the result must
+ * equal a full parse of the new content, whichever engine parses it.
+ */
+class IncrementalFeatureParserTest {
+
+    private static final String[] INSERTED_LINES = {
+            "", "  # comment", "  @tag", "    Given another step", "  Scenario: Inserted",
+            "  Rule: Inserted", "      | a | b |", "      \"\"\"", "  Examples:", "  Background:", "x"
+    };
+
+    private static FeatureFile assertReparsed(FeatureParser parser, FeatureFile previous,
+            String previousContent, String content) throws IOException {
+        FeatureFile reparsed = parser.reparse("test://file", content, previous, previousContent);
+        assertThat(reparsed).as("%s: %s", parser.getEngine(), content)
+                .isEqualTo(parser.parse("test://file", content));
+        return reparsed;
+    }
+
+    private static String scenarios(int count) {
+        StringBuilder content = new StringBuilder("Feature: Many\n\n  Background:\n    Given a background\n");
+        for (int i = 0; i < count; i++) {
+            content.append("\n  @tag").append(i).append("\n  Scenario: Scenario ").append(i)
+                    .append("\n    # step ").append(i)
+                    .append("\n    Given step ").append(i)
+                    .append("\n      | a | b |\n      | 1 | 2 |\n");
+        }
+        return content.toString();
+    }
+
+    @Test
+    void shouldShareBlocksBeforeAndAfterAnInLineEdit() throws IOException {
+        String before = scenarios(300);
+        String after = before.replace("Given step 150\n", "Given step 15O\n");
+        for (FeatureParser.Engine engine : FeatureParser.Engine.values()) {
+            FeatureParser parser = new FeatureParser(engine);
+            FeatureFile previous = parser.parse("test://file", before);
+
+            FeatureDefinition feature = assertReparsed(parser, previous, before, after).feature();
+
+            FeatureDefinition old = previous.feature();
+            assertThat(feature.scenarios().get(150).steps().get(0).text()).as(engine.name()).isEqualTo("step 15O");
+            assertThat(feature.background()).as(engine.name()).isSameAs(old.background());
+            assertThat(feature.scenarios().get(149)).as(engine.name()).isSameAs(old.scenarios().get(149));
+            assertThat(feature.scenarios().get(151)).as(engine.name()).isSameAs(old.scenarios().get(151));
+        }
+    }
+
+    @Test
+    void shouldShiftBlocksAfterAddedLines() throws IOException {
+        String before = scenarios(20);
+        String after = before.replace("Given step 5\n", "Given step 5\n    And more\n    And more\n");
+        for (FeatureParser.Engine engine : FeatureParser.Engine.values()) {
+            FeatureParser parser = new FeatureParser(engine);
+            FeatureFile previous = parser.parse("test://file", before);
+
+            FeatureDefinition feature = assertReparsed(parser, previous, before, after).feature();
+
+            assertThat(feature.scenarios().get(4)).as(engine.name())
+                    .isSameAs(previous.feature().scenarios().get(4));
+            assertThat(feature.scenarios().get(6).position().line()).as(engine.name())
+                    .isEqualTo(previous.feature().scenarios().get(6).position().line() + 2);
+        }
+    }
+
+    @Test
+    void shouldFallBackWhenTheStructureChanges() throws IOException {
+        String before = scenarios(5);
+        for (FeatureParser.Engine engine : FeatureParser.Engine.values()) {
+            FeatureParser parser = new FeatureParser(engine);
+            FeatureFile previous = parser.parse("test://file", before);
+
+            assertReparsed(parser, previous, before, before.replace("Scenario: Scenario 2", "Rule: Scenario 2"));
+            assertReparsed(parser, previous, before,
+                    before.replace("Given step 2\n", "Given step 2\n  Scenario: Split\n"));
+            assertReparsed(parser, previous, before, before.replace("Given step 2\n", "Given step 2\n  @moved\n"));
+            assertReparsed(parser, previous, before, before.replace("Given step 2\n", "\"\"\"\n"));
+            assertReparsed(parser, previous, before, before.replace("Feature: Many", "Feature: Renamed"));
+            assertReparsed(parser, previous, before, "# language: fr\n" + before);
+            assertReparsed(parser, previous, before,
+                    before.replace("| 1 | 2 |\n\n  @tag3", "| 1 | 2 |\n  @tag3"));
+            assertThat(parser.reparse("test://file", before, previous, before)).as(engine.name())
+                    .isSameAs(previous);
+        }
+    }
+
+    @Test
+    void shouldMatchFullParseAfterRandomEdits() throws Exception {
+        Path root = Path.of(getClass().getResource("/").toURI());
+        List<Path> fixtures;
+        try (Stream<Path> files = Files.walk(root)) {
+            fixtures = files.filter(f -> f.toString().endsWith(".feature")).sorted().toList();
+        }
+        for (FeatureParser.Engine engine : FeatureParser.Engine.values()) {
+            FeatureParser parser = new FeatureParser(engine);
+            // Same seed per engine, so both see the same edits
+            Random random = new Random(7);
+            for (Path fixture : fixtures) {
+                String content = Files.readString(fixture);
+                FeatureFile previous = parser.parse("test://file", content);
+                for (int i = 0; i < 10 && !content.isEmpty(); i++) {
+                    String edited = edit(content, random);
+                    FeatureFile reparsed = assertReparsed(parser, previous, content, edited);
+                    // Chain the edits, as the editor does
+                    content = edited;
+                    previous = reparsed;
+                }
+            }
+        }
+    }
+
+    private static String edit(String content, Random random) {
+        int at = random.nextInt(content.length());
+        int lineStart = content.lastIndexOf('\n', at) + 1;
+        return switch (random.nextInt(5)) {
+            case 0 -> content.substring(0, at) + "x" + content.substring(at);
+            case 1 -> content.substring(0, at) + content.substring(at + 1);
+            case 2 -> content.substring(0, at) + "\n" + content.substring(at);
+            case 3 -> content.substring(0, lineStart) + INSERTED_LINES[random.nextInt(INSERTED_LINES.length)]
+                    + "\n" + content.substring(lineStart);
+            default -> {
+                int lineEnd = content.indexOf('\n', at);
+                yield content.substring(0, lineStart) + (lineEnd < 0 ? "" : content.substring(lineEnd + 1));
+            }
+        };
+    }
+}
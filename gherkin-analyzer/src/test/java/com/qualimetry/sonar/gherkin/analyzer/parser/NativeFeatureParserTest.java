@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.parser;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import io.cucumber.gherkin.GherkinDialect;
+import io.cucumber.gherkin.GherkinDialectProvider;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Differential tests for {@link NativeFeatureParser}: every input must give
+ * the same tree as the Cucumber engine of {@link FeatureParser}.
+ */
+class NativeFeatureParserTest {
+
+    private final FeatureParser cucumber = new FeatureParser(FeatureParser.Engine.CUCUMBER);
+    private final FeatureParser nativeParser = new FeatureParser(FeatureParser.Engine.NATIVE);
+
+    private void assertSameTree(String name, String content) throws IOException {
+        FeatureFile expected = cucumber.parse(name, content);
+        assertThat(nativeParser.parse(name, content)).as(name).isEqualTo(expected);
+    }
+
+    private static List<Path> fixtures() throws IOException, URISyntaxException {
+        Path root = Path.of(NativeFeatureParserTest.class.getResource("/").toURI());
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(f -> f.toString().endsWith(".feature")).sorted().toList();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Test resources
+    // ------------------------------------------------------------------
+
+    @Test
+    void shouldMatchCucumberOnAllFixtures() throws Exception {
+        List<Path> fixtures = fixtures();
+        assertThat(fixtures).hasSizeGreaterThan(200);
+        for (Path fixture : fixtures) {
+            String content = Files.readString(fixture);
+            assertThat(NativeFeatureParser.parse(fixture.toString(), content)).as(fixture.toString()).isNotNull();
+            assertSameTree(fixture.toString(), content);
+        }
+    }
+
+    @Test
+    void shouldMatchCucumberOnLineEndingAndIndentationVariants() throws Exception {
+        for (Path fixture : fixtures()) {
+            String content = Files.readString(fixture).replace("\r\n", "\n");
+            assertSameTree(fixture + " (CRLF)", content.replace("\n", "\r\n"));
+            assertSameTree(fixture + " (CR)", content.replace("\n", "\r"));
+            assertSameTree(fixture + " (BOM)", "\uFEFF" + content);
+            assertSameTree(fixture + " (tabs)", content.replace("  ", "\t"));
+            assertSameTree(fixture + " (no final newline)", content.stripTrailing());
+        }
+    }
+
+    @Test
+    void shouldMatchCucumberOnMutatedFixtures() throws Exception {
+        Random random = new Random(42);
+        for (Path fixture : fixtures()) {
+            List<String> lines = Files.readAllLines(fixture);
+            if (lines.size() < 2) {
+                continue;
+            }
+            for (int i = 0; i < 8; i++) {
+                List<String> mutated = new ArrayList<>(lines);
+                int a = random.nextInt(mutated.size());
+                int b = random.nextInt(mutated.size());
+                switch (random.nextInt(3)) {
+                    case 0 -> mutated.remove(a);
+                    case 1 -> mutated.add(b, mutated.get(a));
+                    default -> {
+                        String line = mutated.get(a);
+                        mutated.set(a, mutated.get(b));
+                        mutated.set(b, line);
+                    }
+                }
+                assertSameTree(fixture + " (mutation " + i + ")", String.join("\n", mutated));
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Edge cases
+    // ------------------------------------------------------------------
+
+    @Test
+    void shouldMatchCucumberOnDocStrings() throws IOException {
+        assertSameTree("escapes", """
+                Feature: F
+                  Scenario: S
+                    Given a
+                      \"""json
+                      {"a": "\\"\\"\\"", "b": "\\`\\`\\`"}
+                    less indented
+                          more indented
+                      ```
+                      \"""
+                    And b
+                      ```text
+                      \\`\\`\\` and \\"\\"\\"
+                      ```
+                """);
+        assertSameTree("unclosed", "Feature: F\n  Scenario: S\n    Given a\n      \"\"\"\n      text\n");
+        assertSameTree("table after doc string",
+                "Feature: F\n  Scenario: S\n    Given a\n      \"\"\"\n      x\n      \"\"\"\n      | a |\n");
+        assertSameTree("empty lines", "Feature: F\n  Scenario: S\n    Given a\n      \"\"\"\n\n  \n      \"\"\"\n");
+    }
+
+    @Test
+    void shouldMatchCucumberOnTables() throws IOException {
+        assertSameTree("escapes", """
+                Feature: F
+                  Scenario: S
+                    Given a
+                      | a\\|b | c\\\\d | e\\nf | g\\x | h \\n |  |
+                      # comment
+
+                      | 1 | 2 | 3 | 4 | 5 | 6 | trailing
+                """);
+        assertSameTree("inconsistent cells", "Feature: F\n  Scenario: S\n    Given a\n      | a | b |\n      | c |\n");
+        assertSameTree("inconsistent examples", """
+                Feature: F
+                  Scenario Outline: S
+                    Given <a>
+                    Examples:
+                      | a | b |
+                      | 1 |
+                """);
+        assertSameTree("examples without table", """
+                Feature: F
+                  Scenario Outline: S
+                    Given <a>
+                    @tag
+                    Examples: E
+                      description
+                    Examples:
+                """);
+    }
+
+    @Test
+    void shouldMatchCucumberOnTags() throws IOException {
+        assertSameTree("tags", """
+                @a @b@c  @@d # comment @e
+                Feature: F
+                  @x#y @z\t# comment
+                  Scenario: S
+                """);
+        assertSameTree("whitespace in tag", "@a\u000Bb\nFeature: F\n");
+        assertSameTree("no-break space in tag", "@a\u00A0b \u00A0@c\u00A0\nFeature: F\n");
+        assertSameTree("tag before nothing", "Feature: F\n  Scenario: S\n  @a\n");
+        assertSameTree("rule tags", "Feature: F\n  @a\n  Rule: R\n    @b\n    Scenario: S\n");
+        assertSameTree("tags before step", "Feature: F\n  Scenario: S\n  @a\n    Given a\n");
+    }
+
+    @Test
+    void shouldMatchCucumberOnStructure() throws IOException {
+        assertSameTree("empty", "");
+        assertSameTree("comments only", "# a\n\n  # b\n");
+        assertSameTree("language only", "# language: fr\n");
+        assertSameTree("unknown language", "# language: xx\nFeature: F\n");
+        assertSameTree("language after tag", "@a\n# language: fr\nFeature: F\n");
+        assertSameTree("description after comment", "Feature: F\n  # comment\n  description\n");
+        assertSameTree("description with empty lines",
+                "Feature: F\n  first\n\n  \t\n  second\n  \u00A0\n\n  Scenario: S\n");
+        assertSameTree("second background", "Feature: F\n  Background: A\n  Background: B\n");
+        assertSameTree("background after scenario", "Feature: F\n  Scenario: S\n  Background: B\n");
+        assertSameTree("scenario after rule", "Feature: F\n  Rule: R\n    Scenario: A\n  Scenario: B\n");
+        assertSameTree("keyword without colon", "Feature: F\n  Scenario S\n");
+        assertSameTree("keyword only", "Feature:\n  Scenario:\n    Given\n    *\n");
+        assertSameTree("second feature", "Feature: A\nFeature: B\n");
+        assertSameTree("step outside scenario", "Feature: F\n  Given a\n");
+        assertSameTree("trailing spaces", "Feature: F  \n  Scenario:   S \t\n    Given   a b  \n");
+    }
+
+    @Test
+    void shouldFallBackToCucumberForUnusualInput() throws IOException {
+        assertSameTree("encoding", "# encoding: iso-8859-1\nFeature: F\n");
+        assertSameTree("line separator", "Feature: F\u2028\n  Scenario: S\n");
+        assertSameTree("lone surrogate", "Feature: F\uD800\n");
+        assertSameTree("supplementary", "@\uD83D\uDE00 @b\nFeature: \uD83D\uDE00\n");
+        assertThat(NativeFeatureParser.parse("x", "# encoding: utf-8\nFeature: F\n")).isNull();
+    }
+
+    @Test
+    void shouldParseInputStreams() throws IOException {
+        byte[] content = "Feature: F\n  Scenario: S\n    Given a\n".getBytes(StandardCharsets.UTF_8);
+        assertThat(nativeParser.parse("x", new ByteArrayInputStream(content)))
+                .isEqualTo(cucumber.parse("x", new ByteArrayInputStream(content)));
+        assertThat(nativeParser.getEngine()).isEqualTo(FeatureParser.Engine.NATIVE);
+        assertThat(new FeatureParser().getEngine()).isEqualTo(FeatureParser.Engine.CUCUMBER);
+    }
+
+    // ------------------------------------------------------------------
+    // Dialects
+    // ------------------------------------------------------------------
+
+    @Test
+    void shouldMatchCucumberInEveryDialect() throws IOException {
+        GherkinDialectProvider provider = new GherkinDialectProvider();
+        for (String language : provider.getLanguages()) {
+            GherkinDialect dialect = provider.getDialect(language).orElseThrow();
+            StringBuilder content = new StringBuilder("# language: " + language + "\n")
+                    .append("@tag\n")
+                    .append(dialect.getFeatureKeywords().get(0)).append(": F\n")
+                    .append("  description\n")
+                    .append("  ").append(dialect.getBackgroundKeywords().get(0)).append(": B\n");
+            for (String step : dialect.getStepKeywords()) {
+                content.append("    ").append(step).append("step\n");
+            }
+            content.append("  ").append(dialect.getScenarioKeywords().get(0)).append(": S\n")
+                    .append("    ").append(dialect.getStepKeywords().get(0)).append("a\n")
+                    .append("  ").append(dialect.getRuleKeywords().get(0)).append(": R\n")
+                    .append("    @outline\n")
+                    .append("    ").append(dialect.getScenarioOutlineKeywords().get(0)).append(": O\n")
+                    .append("      ").append(dialect.getStepKeywords().get(1)).append("<a>\n")
+                    .append("      @examples\n")
+                    .append("      ").append(dialect.getExamplesKeywords().get(0)).append(":\n")
+                    .append("        | a |\n")
+                    .append("        | 1 |\n");
+            assertSameTree(language, content.toString());
+            assertThat(nativeParser.parse(language, content.toString()).feature())
+                    .as(language).isNotNull();
+        }
+    }
+}
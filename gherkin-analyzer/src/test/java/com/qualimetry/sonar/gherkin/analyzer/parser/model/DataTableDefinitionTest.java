@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.parser.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the columnar storage of {@link DataTableDefinition}.
+ */
+class DataTableDefinitionTest {
+
+    private static final TextPosition POSITION = new TextPosition(3, 5);
+
+    private static final List<List<String>> ROWS = List.of(
+            List.of("name", " name ", "", "x\n"),
+            List.of("Alice", "  ", " ", "a|b"),
+            List.of("", "1", "2", "3"));
+
+    @Test
+    void shouldExposeRowsColumnsAndCells() {
+        DataTableDefinition table = new DataTableDefinition(POSITION, ROWS);
+
+        assertThat(table.position()).isEqualTo(POSITION);
+        assertThat(table.rows()).isEqualTo(ROWS);
+        assertThat(table.rowCount()).isEqualTo(3);
+        assertThat(table.cellCount(1)).isEqualTo(4);
+        assertThat(table.cell(1, 3)).isEqualTo("a|b");
+        assertThat(table.column(0)).containsExactly("name", "Alice", "");
+        assertThat(table.toString()).isEqualTo("DataTableDefinition[position=" + POSITION + ", rows=" + ROWS + "]");
+        assertThatThrownBy(() -> table.cell(0, 4)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> table.rows().add(List.of())).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldInspectCellsLikeTheirStrings() {
+        DataTableDefinition table = new DataTableDefinition(POSITION, ROWS);
+
+        for (int row = 0; row < table.rowCount(); row++) {
+            for (int column = 0; column < table.cellCount(row); column++) {
+                String cell = ROWS.get(row).get(column);
+                assertThat(table.isBlank(row, column)).as(cell).isEqualTo(cell.isBlank());
+                assertThat(table.indexOf(row, cell)).as(cell).isEqualTo(ROWS.get(row).indexOf(cell));
+                for (int other = 0; other < table.cellCount(0); other++) {
+                    assertThat(table.trimmedCellEquals(row, column, 0, other)).as(cell)
+                            .isEqualTo(cell.trim().equals(ROWS.get(0).get(other).trim()));
+                }
+            }
+        }
+        assertThat(table.indexOf(0, "missing")).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldCompareByPositionAndCells() {
+        DataTableDefinition table = new DataTableDefinition(POSITION, ROWS);
+        DataTableDefinition.Builder builder = DataTableDefinition.builder();
+        for (List<String> row : ROWS) {
+            for (String cell : row) {
+                builder.append(cell, 0, cell.length()).endCell();
+            }
+            builder.endRow();
+        }
+
+        assertThat(builder.build(POSITION)).isEqualTo(table).hasSameHashCodeAs(table);
+        assertThat(table.withPosition(new TextPosition(4, 5)))
+                .isNotEqualTo(table)
+                .isEqualTo(new DataTableDefinition(new TextPosition(4, 5), ROWS));
+        // Moving a cell boundary keeps the packed text but changes the table
+        assertThat(new DataTableDefinition(POSITION, List.of(List.of("ab", "c"))))
+                .isNotEqualTo(new DataTableDefinition(POSITION, List.of(List.of("a", "bc"))));
+        assertThat(new DataTableDefinition(POSITION, List.of(List.of("a"), List.of("b"))))
+                .isNotEqualTo(new DataTableDefinition(POSITION, List.of(List.of("a", "b"), List.of())));
+        assertThat(new DataTableDefinition(POSITION, List.of()).rows()).isEmpty();
+    }
+}
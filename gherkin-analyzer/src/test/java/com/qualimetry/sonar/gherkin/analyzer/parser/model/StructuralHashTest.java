@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.parser.model;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the {@code structuralHash()} of model nodes and for
+ * {@link StructuralHashes}.
+ */
+class StructuralHashTest {
+
+    private static final String CONTENT = """
+            Feature: Hashes
+
+              Background:
+                Given a background step
+
+              @tag
+              Scenario Outline: Outline
+                Scenario description
+                Given a <value>
+                  | a | b |
+                When it runs
+                  \"""json
+                  {"a": 1}
+                  \"""
+                Then it works
+
+                Examples: Values
+                  | value |
+                  | 1     |
+
+              Rule: Rules
+                Scenario: In a rule
+                  Given a step
+            """;
+
+    private final FeatureParser parser = new FeatureParser();
+
+    private FeatureDefinition parse(String content) throws IOException {
+        return parser.parse("test://hash.feature", content).feature();
+    }
+
+    @Test
+    void shouldKeepHashesWhenNodesMoveByWholeLines() throws IOException {
+        FeatureDefinition before = parse(CONTENT);
+        FeatureDefinition after = parse(CONTENT.replace("Feature: Hashes\n", "Feature: Hashes\n\n\n"));
+
+        assertThat(after.scenarios().get(0).position().line())
+                .isEqualTo(before.scenarios().get(0).position().line() + 2);
+        assertThat(after.background().structuralHash()).isEqualTo(before.background().structuralHash());
+        assertThat(after.scenarios().get(0).structuralHash())
+                .isEqualTo(before.scenarios().get(0).structuralHash());
+        assertThat(after.rules().get(0).structuralHash()).isEqualTo(before.rules().get(0).structuralHash());
+        assertThat(after.scenarios().get(0).steps().get(1).structuralHash())
+                .isEqualTo(before.scenarios().get(0).steps().get(1).structuralHash());
+    }
+
+    @Test
+    void shouldChangeHashWhenAnythingInTheScenarioChanges() throws IOException {
+        long original = parse(CONTENT).scenarios().get(0).structuralHash();
+        String[][] edits = {
+                {"@tag", "@other"},
+                {"Scenario Outline: Outline", "Scenario Outline: Renamed"},
+                {"Scenario Outline:", "Scenario Template:"},
+                {"Scenario description", "Other description"},
+                {"Given a <value>", "And a <value>"},
+                {"Given a <value>", "Given an <value>"},
+                {"| a | b |", "| a | c |"},
+                {"{\"a\": 1}", "{\"a\": 2}"},
+                {"\"\"\"json", "\"\"\"yaml"},
+                {"When it runs", "When it stops"},
+                {"    Then it works", "   Then it works"},
+                {"    Then it works\n", "\n    Then it works\n"},
+                {"Examples: Values", "Examples: Others"},
+                {"| 1     |", "| 2     |"},
+        };
+        for (String[] edit : edits) {
+            assertThat(CONTENT).contains(edit[0]);
+            long edited = parse(CONTENT.replace(edit[0], edit[1])).scenarios().get(0).structuralHash();
+            assertThat(edited).as(edit[0] + " -> " + edit[1]).isNotEqualTo(original);
+        }
+    }
+
+    @Test
+    void shouldChangeRuleHashWhenAScenarioMovesWithinIt() throws IOException {
+        long original = parse(CONTENT).rules().get(0).structuralHash();
+        long moved = parse(CONTENT.replace("    Scenario: In a rule", "\n    Scenario: In a rule"))
+                .rules().get(0).structuralHash();
+        long edited = parse(CONTENT.replace("      Given a step", "      Given another step"))
+                .rules().get(0).structuralHash();
+
+        assertThat(moved).isNotEqualTo(original);
+        assertThat(edited).isNotEqualTo(original);
+    }
+
+    @Test
+    void rememberedHashes_matchTheNodes() throws IOException {
+        FeatureDefinition feature = parse(CONTENT);
+        StructuralHashes hashes = new StructuralHashes();
+
+        assertThat(hashes.of(feature.rules().get(0))).isEqualTo(feature.rules().get(0).structuralHash());
+        assertThat(hashes.of(feature.rules().get(0).scenarios().get(0)))
+                .isEqualTo(feature.rules().get(0).scenarios().get(0).structuralHash());
+        assertThat(hashes.of(feature.scenarios().get(0))).isEqualTo(feature.scenarios().get(0).structuralHash());
+        assertThat(hashes.of(feature.background())).isEqualTo(feature.background().structuralHash());
+    }
+
+    @Test
+    void shouldHashNodeTypesDifferently() throws IOException {
+        FeatureDefinition feature = parse(
+                "Feature: F\n  Background: B\n    Given a\n  Scenario: B\n    Given a\n");
+
+        assertThat(feature.background().structuralHash())
+                .isNotEqualTo(feature.scenarios().get(0).structuralHash());
+        assertThat(feature.scenarios().get(0).steps().get(0).structuralHash())
+                .isEqualTo(feature.background().steps().get(0).structuralHash());
+    }
+}
@@ -197,7 +197,7 @@ class EvidenceReportTest {
                 .as("Genuine fixture verification failures")
                 .isEmpty();
 
-        // Zip the evidence pack and place it in the project root for easy sharing.
+        // Zip the evidence pack next to it under target/ for easy sharing.
         // The zip is overwritten on every test run so it's always current.
         Path zipFile = zipEvidenceReport(outputDir);
         System.out.println("Evidence pack: " + zipFile.toAbsolutePath());
@@ -205,21 +205,17 @@ class EvidenceReportTest {
 
     /**
      * Zips the {@code target/evidence-report/} directory into a single
-     * {@code .zip} file placed at the project root (two levels up from
-     * the analyzer module target directory). The zip is named
-     * {@code gherkin-evidence-report.zip} and is overwritten on every run.
+     * {@code .zip} file placed beside it in the analyzer module's
+     * {@code target/} directory, so test runs never dirty the source tree.
+     * The zip is named {@code gherkin-evidence-report.zip} and is
+     * overwritten on every run.
      *
      * @param evidenceDir the evidence report directory to zip
      * @return the path to the created zip file
      */
     private static Path zipEvidenceReport(Path evidenceDir) throws IOException {
-        // Place the zip in the gherkin project root (plugin/../)
-        // so it sits alongside DEPLOYMENT.md and is easy to find.
-        Path projectRoot = evidenceDir.toAbsolutePath()
-                .getParent()   // target
-                .getParent()   // gherkin-analyzer
-                .getParent();  // plugin (project root)
-        Path zipFile = projectRoot.resolve("gherkin-evidence-report.zip");
+        Path targetDir = evidenceDir.toAbsolutePath().getParent();
+        Path zipFile = targetDir.resolve("gherkin-evidence-report.zip");
 
         // Delete existing zip so it's always fresh
         Files.deleteIfExists(zipFile);
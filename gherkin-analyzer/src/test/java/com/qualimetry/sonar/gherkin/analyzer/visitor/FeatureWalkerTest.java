@@ -732,6 +732,31 @@ class FeatureWalkerTest {
         FeatureWalker.walk(file, new FeatureVisitor() {});
     }
 
+    // ------------------------------------------------------------------
+    // Line callbacks
+    // ------------------------------------------------------------------
+
+    @Test
+    void shouldVisitTheLinesOfACheckContext() throws IOException {
+        String content = "Feature: Lines\n  Scenario: S\n    Given a step\n";
+        FeatureFile file = parse(content);
+        List<Integer> lines = new ArrayList<>();
+        BaseCheck check = new BaseCheck() {
+            @Override
+            public void visitLine(int line, CharSequence text, LineIndex.Terminator terminator) {
+                lines.add(line);
+            }
+        };
+        FeatureContext context = new FeatureContext(file, null, content);
+        check.setContext(context);
+
+        FeatureWalker.walk(file, check, null);
+        assertThat(lines).isEmpty();
+
+        FeatureWalker.walk(file, check);
+        assertThat(lines).containsExactly(1, 2, 3, 4);
+    }
+
     // ------------------------------------------------------------------
     // Verify fixture file walk (using full.feature from parser tests)
     // ------------------------------------------------------------------
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.visitor;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link LineIndex}, verifying that it matches the line splitting
+ * the raw-text checks used to do on their own.
+ */
+class LineIndexTest {
+
+    @Test
+    void shouldSplitOnLfAndStripCrOfCrlf() {
+        LineIndex lines = LineIndex.of("Feature: A\r\n  Scenario: B\n\n");
+
+        assertThat(lines.getLineCount()).isEqualTo(4);
+        assertThat(lines.getLine(1)).hasToString("Feature: A");
+        assertThat(lines.getTerminator(1)).isEqualTo(LineIndex.Terminator.CRLF);
+        assertThat(lines.getLine(2)).hasToString("  Scenario: B");
+        assertThat(lines.getTerminator(2)).isEqualTo(LineIndex.Terminator.LF);
+        assertThat(lines.getLeadingSpaces(2)).isEqualTo(2);
+        assertThat(lines.isBlank(3)).isTrue();
+        assertThat(lines.getTerminator(4)).isEqualTo(LineIndex.Terminator.NONE);
+        assertThat(lines.getLineStart(2)).isEqualTo(12);
+    }
+
+    @Test
+    void shouldKeepLoneCarriageReturnInsideLine() {
+        LineIndex lines = LineIndex.of("a\rb\r");
+
+        assertThat(lines.getLineCount()).isEqualTo(1);
+        assertThat(lines.getLine(1)).hasToString("a\rb\r");
+        assertThat(lines.getTerminator(1)).isEqualTo(LineIndex.Terminator.NONE);
+    }
+
+    @Test
+    void shouldExposeSubSequencesOfLineOnly() {
+        LineIndex lines = LineIndex.of("ab\ncdef\n");
+
+        CharSequence line = lines.getLine(2);
+
+        assertThat(line.subSequence(1, 3)).hasToString("de");
+        assertThatThrownBy(() -> line.charAt(4)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> lines.getLine(4)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void shouldMatchStringSplitOnRandomContent() {
+        Random random = new Random(11);
+        List<String> fragments = List.of("a", " ", "\t", "\n", "\r\n", "\r", "#", "@x");
+        for (int round = 0; round < 500; round++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(20);
+            for (int i = 0; i < length; i++) {
+                sb.append(fragments.get(random.nextInt(fragments.size())));
+            }
+            String content = sb.toString();
+            LineIndex lines = LineIndex.of(content);
+            String[] expected = content.split("\\r?\\n", -1);
+
+            assertThat(lines.getLineCount()).as(content).isEqualTo(content.split("\n", -1).length);
+            assertThat(lines.getLineCount()).as(content).isEqualTo(expected.length);
+            for (int i = 0; i < expected.length; i++) {
+                assertThat(lines.getLine(i + 1)).as(content).hasToString(expected[i]);
+                assertThat(lines.isBlank(i + 1)).as(content).isEqualTo(expected[i].trim().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    void contextShouldBuildIndexOnceAndOnlyWithRawContent() {
+        FeatureFile file = new FeatureFile(null, List.of(), "en", "test://lines.feature");
+
+        FeatureContext context = new FeatureContext(file, null, "Feature: A\n");
+
+        assertThat(context.getLines()).isSameAs(context.getLines());
+        assertThat(new FeatureContext(file).getLines()).isNull();
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.sonar.gherkin.analyzer.visitor;
+
+import com.qualimetry.sonar.gherkin.analyzer.checks.CheckList;
+import com.qualimetry.sonar.gherkin.analyzer.checks.SpellingAccuracyCheck;
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.BackgroundDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.TagDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MultiplexingWalker}, verifying subscriptions and that a
+ * single fused walk reports the same issues as one walk per check.
+ */
+class MultiplexingWalkerTest {
+
+    private static final Path FIXTURES = Paths.get("src/test/resources/checks");
+
+    @Test
+    void shouldSubscribeVisitorsOnlyToOverriddenCallbacks() {
+        FeatureVisitor stepsOnly = new FeatureVisitor() {
+            @Override
+            public void visitStep(StepDefinition step) {
+            }
+        };
+        FeatureVisitor featureAndSteps = new FeatureVisitor() {
+            @Override
+            public void visitFeature(FeatureDefinition feature) {
+            }
+
+            @Override
+            public void visitStep(StepDefinition step) {
+            }
+        };
+
+        MultiplexingWalker walker = new MultiplexingWalker(List.of(stepsOnly, featureAndSteps));
+
+        assertThat(walker.getSubscriberCount("visitStep")).isEqualTo(2);
+        assertThat(walker.getSubscriberCount("visitFeature")).isEqualTo(1);
+        assertThat(walker.getSubscriberCount("visitTag")).isZero();
+    }
+
+    @Test
+    void shouldDeliverCallbacksInWalkerOrder() throws IOException {
+        FeatureFile file = new FeatureParser().parse("test://order.feature", """
+                Feature: Order
+                  Scenario: One
+                    Given a step
+                    When another step
+                """);
+        List<String> events = new ArrayList<>();
+        FeatureVisitor first = new FeatureVisitor() {
+            @Override
+            public void visitStep(StepDefinition step) {
+                events.add("first:" + step.text());
+            }
+        };
+        FeatureVisitor second = new FeatureVisitor() {
+            @Override
+            public void visitStep(StepDefinition step) {
+                events.add("second:" + step.text());
+            }
+        };
+
+        new MultiplexingWalker(List.of(first, second)).walk(file);
+
+        assertThat(events).containsExactly(
+                "first:a step", "second:a step",
+                "first:another step", "second:another step");
+    }
+
+    @Test
+    void shouldDeliverLinesBeforeTreeOnlyToLineSubscribers() throws IOException {
+        String content = "Feature: Lines\r\n  Scenario: One\n    Given a step";
+        FeatureFile file = new FeatureParser().parse("test://lines.feature", content);
+        List<String> events = new ArrayList<>();
+        FeatureVisitor lineVisitor = new FeatureVisitor() {
+            @Override
+            public void visitLine(int line, CharSequence text, LineIndex.Terminator terminator) {
+                events.add(line + ":" + terminator + ":" + text);
+            }
+
+            @Override
+            public void visitStep(StepDefinition step) {
+                events.add("step:" + step.text());
+            }
+        };
+        FeatureVisitor stepsOnly = new FeatureVisitor() {
+            @Override
+            public void visitStep(StepDefinition step) {
+            }
+        };
+        MultiplexingWalker walker = new MultiplexingWalker(List.of(lineVisitor, stepsOnly));
+
+        walker.walk(file, LineIndex.of(content));
+
+        assertThat(walker.getSubscriberCount("visitLine")).isEqualTo(1);
+        assertThat(events).containsExactly(
+                "1:CRLF:Feature: Lines", "2:LF:  Scenario: One", "3:NONE:    Given a step",
+                "step:a step");
+
+        events.clear();
+        walker.walk(file);
+
+        assertThat(events).containsExactly("step:a step");
+    }
+
+    @Test
+    void timedWalkShouldChargeEachVisitorForItsOwnCallbacks() throws IOException {
+        FeatureFile file = new FeatureParser().parse("test://timed.feature", """
+                Feature: Timed
+                  Scenario: One
+                    Given a step
+                """);
+        FeatureVisitor idle = new FeatureVisitor() {
+        };
+        FeatureVisitor slow = new FeatureVisitor() {
+            @Override
+            public void visitStep(StepDefinition step) {
+                long end = System.nanoTime() + 2_000_000;
+                while (System.nanoTime() < end) {
+                    Thread.onSpinWait();
+                }
+            }
+        };
+        MultiplexingWalker walker = new MultiplexingWalker(List.of(idle, slow));
+        long[] elapsed = new long[2];
+
+        walker.walk(file, null, elapsed);
+
+        assertThat(elapsed[0]).isZero();
+        assertThat(elapsed[1]).isGreaterThanOrEqualTo(2_000_000);
+    }
+
+    @Test
+    void shouldSkipSubtreesRejectedByTheFilter() throws IOException {
+        FeatureFile file = new FeatureParser().parse("test://subtrees.feature", """
+                @feature
+                Feature: Subtrees
+                  Background:
+                    Given a background step
+                  @one
+                  Scenario: One
+                    Given step one
+                  @two
+                  Scenario: Two
+                    Given step two
+                """);
+        List<String> events = new ArrayList<>();
+        FeatureVisitor visitor = new FeatureVisitor() {
+            @Override
+            public void visitStep(StepDefinition step) {
+                events.add("step:" + step.text());
+            }
+
+            @Override
+            public void visitTag(TagDefinition tag) {
+                events.add("tag:" + tag.name());
+            }
+        };
+        FeatureWalker.Subtrees subtrees = new FeatureWalker.Subtrees() {
+            @Override
+            public boolean enterBackground(BackgroundDefinition background) {
+                events.add("enter:background");
+                return true;
+            }
+
+            @Override
+            public void leaveBackground(BackgroundDefinition background) {
+                events.add("leave:background");
+            }
+
+            @Override
+            public boolean enterScenario(ScenarioDefinition scenario) {
+                events.add("enter:" + scenario.name());
+                return !"One".equals(scenario.name());
+            }
+
+            @Override
+            public void leaveScenario(ScenarioDefinition scenario) {
+                events.add("leave:" + scenario.name());
+            }
+        };
+
+        new MultiplexingWalker(List.of(visitor)).walk(file, null, subtrees);
+
+        assertThat(events).containsExactly(
+                "tag:feature", "enter:background", "step:a background step", "leave:background",
+                "enter:One", "enter:Two", "tag:two", "step:step two", "leave:Two");
+    }
+
+    @Test
+    void nodeLocalChecksShouldOnlySubscribeToTreeCallbacks() throws ReflectiveOperationException {
+        for (BaseCheck check : newChecks()) {
+            if (check.getClass().isAnnotationPresent(NodeLocal.class)) {
+                MultiplexingWalker walker = new MultiplexingWalker(List.of(check));
+                for (String callback : List.of("visitLine", "visitComment", "leaveFeatureFile")) {
+                    assertThat(walker.getSubscriberCount(callback))
+                            .as(check.getClass().getSimpleName() + " " + callback)
+                            .isZero();
+                }
+            }
+        }
+    }
+
+    @Test
+    void fusedWalkShouldReportSameIssuesAsSeparateWalks() throws Exception {
+        List<Path> fixtures;
+        try (Stream<Path> paths = Files.walk(FIXTURES)) {
+            fixtures = paths.filter(p -> p.toString().endsWith(".feature")).sorted().toList();
+        }
+        assertThat(fixtures).isNotEmpty();
+
+        for (Path fixture : fixtures) {
+            String content = Files.readString(fixture, StandardCharsets.UTF_8);
+            FeatureFile file;
+            try {
+                file = new FeatureParser().parse(fixture.toUri().toString(), content);
+            } catch (IOException e) {
+                continue;
+            }
+
+            List<Issue> separate = new ArrayList<>();
+            for (BaseCheck check : newChecks()) {
+                FeatureContext context = new FeatureContext(file, null, content);
+                check.setContext(context);
+                FeatureWalker.walk(file, check);
+                separate.addAll(context.getIssues());
+            }
+
+            List<BaseCheck> checks = newChecks();
+            FeatureContext shared = new FeatureContext(file, null, content);
+            checks.forEach(check -> check.setContext(shared));
+            new MultiplexingWalker(checks).walk(file, shared.getLines());
+
+            assertThat(shared.getIssues())
+                    .as(fixture.toString())
+                    .containsExactlyInAnyOrderElementsOf(separate);
+        }
+    }
+
+    private static List<BaseCheck> newChecks() throws ReflectiveOperationException {
+        List<BaseCheck> checks = new ArrayList<>();
+        for (Class<? extends BaseCheck> type : CheckList.getAllChecks()) {
+            // Spelling needs a dictionary download and does not use the tree
+            if (type != SpellingAccuracyCheck.class) {
+                checks.add(type.getDeclaredConstructor().newInstance());
+            }
+        }
+        return checks;
+    }
+}
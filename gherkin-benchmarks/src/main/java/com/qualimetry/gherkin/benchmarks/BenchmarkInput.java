@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.benchmarks;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The feature file shapes every benchmark runs over.
+ * <p>
+ * The contents are built in code rather than read from resources so that
+ * they are identical on every run and every platform.
+ */
+public enum BenchmarkInput {
+
+    /**
+     * A minimal feature: one scenario with three steps.
+     */
+    SMALL {
+        @Override
+        String build() {
+            return """
+                    Feature: Login
+                      Scenario: Successful login
+                        Given a registered user
+                        When the user signs in
+                        Then the dashboard is shown
+                    """;
+        }
+    },
+
+    /**
+     * A feature of the size and mix found in real projects: tags, a
+     * background, a rule, an outline with examples, a data table, a doc
+     * string and comments, around 150 lines.
+     */
+    TYPICAL {
+        @Override
+        String build() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("# language: en\n");
+            sb.append("@checkout @regression\n");
+            sb.append("Feature: Shopping cart\n");
+            sb.append("  As a customer I want to manage my cart\n");
+            sb.append("  so that I can buy the products I need.\n\n");
+            sb.append("  Background:\n");
+            sb.append("    Given the catalogue contains the following products:\n");
+            sb.append("      | name   | price | stock |\n");
+            for (int i = 1; i <= 8; i++) {
+                sb.append("      | item").append(i).append("  | ").append(i * 3).append(".99  | ")
+                        .append(i * 10).append("    |\n");
+            }
+            sb.append("    And the customer is signed in\n");
+            for (int i = 1; i <= 10; i++) {
+                sb.append('\n');
+                if (i % 3 == 0) {
+                    sb.append("  # TODO cover the discount variants\n");
+                }
+                sb.append("  @smoke\n");
+                sb.append("  Scenario: Add product ").append(i).append(" to the cart\n");
+                sb.append("    Given the cart is empty\n");
+                sb.append("    When the customer adds ").append(i).append(" of \"item")
+                        .append(i % 8 + 1).append("\"\n");
+                sb.append("    Then the cart contains ").append(i).append(" items\n");
+                sb.append("    And the total is updated\n");
+            }
+            sb.append("\n  Rule: Orders above the limit need approval\n\n");
+            sb.append("    Scenario Outline: Order of <quantity> items\n");
+            sb.append("      Given the approval limit is <limit>\n");
+            sb.append("      When the customer orders <quantity> items\n");
+            sb.append("      Then the order status is \"<status>\"\n\n");
+            sb.append("      Examples:\n");
+            sb.append("        | quantity | limit | status   |\n");
+            for (int i = 1; i <= 12; i++) {
+                sb.append("        | ").append(i * 5).append("       | 30    | ")
+                        .append(i * 5 > 30 ? "pending " : "accepted").append(" |\n");
+            }
+            sb.append("\n    Scenario: Approval notes are kept\n");
+            sb.append("      Given an order waiting for approval\n");
+            sb.append("      When the approver writes:\n");
+            sb.append("        \"\"\"\n");
+            for (int i = 1; i <= 6; i++) {
+                sb.append("        Note line ").append(i).append(" explaining the decision\n");
+            }
+            sb.append("        \"\"\"\n");
+            sb.append("      Then the note is stored with the order\n");
+            return sb.toString();
+        }
+    },
+
+    /**
+     * A feature built to stress the worst cases: thousands of scenarios with
+     * repeated names and bodies, a very wide and long data table, an outline
+     * with many example rows, very long lines, and tabs, trailing whitespace
+     * and mixed line endings throughout.
+     */
+    PATHOLOGICAL {
+        @Override
+        String build() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("@a @b @c  @d @a\n");
+            sb.append("Feature: Stress\n\n");
+            sb.append("  Background:\n");
+            sb.append("    Given a table:\n");
+            for (int row = 0; row < 500; row++) {
+                sb.append("      ");
+                for (int col = 0; col < 30; col++) {
+                    sb.append("| c").append(row).append('_').append(col).append(' ');
+                }
+                sb.append("|\n");
+            }
+            for (int i = 0; i < 2000; i++) {
+                sb.append(i % 2 == 0 ? "\n" : "\r\n");
+                sb.append("  Scenario: Repeated scenario ").append(i % 50).append('\n');
+                sb.append("    Given step one \t\n");
+                sb.append("    Given step one \n");
+                sb.append("    When the user clicks the button\n");
+                sb.append("    # Then a commented out step\n");
+                sb.append("    Then the result ").append("is very long ".repeat(i % 100 == 0 ? 500 : 2))
+                        .append('\n');
+            }
+            sb.append("\n\n\n  Scenario Outline: Outline <x>\n");
+            sb.append("    Given <x> and <unused>\n");
+            sb.append("    Examples:\n");
+            sb.append("      | x | y |\n");
+            for (int i = 0; i < 2000; i++) {
+                sb.append("      | ").append(i).append(" |  |\n");
+            }
+            return sb.toString();
+        }
+    };
+
+    private String content;
+    private FeatureFile featureFile;
+
+    abstract String build();
+
+    /**
+     * Returns the raw content of this input.
+     */
+    public synchronized String content() {
+        if (content == null) {
+            content = build();
+        }
+        return content;
+    }
+
+    /**
+     * Returns the URI the input is parsed under.
+     */
+    public String uri() {
+        return "file:///benchmarks/" + name().toLowerCase() + ".feature";
+    }
+
+    /**
+     * Returns this input parsed once, for benchmarks that start from the
+     * model rather than from text.
+     */
+    public synchronized FeatureFile featureFile() {
+        if (featureFile == null) {
+            try {
+                featureFile = new FeatureParser().parse(uri(), content());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Benchmark input " + name() + " does not parse", e);
+            }
+        }
+        return featureFile;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.benchmarks;
+
+import com.qualimetry.sonar.gherkin.analyzer.checks.CheckList;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.FeatureContext;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.FeatureWalker;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.Issue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.check.Rule;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each check on its own: a fresh check instance, a fresh
+ * {@link FeatureContext} and one {@link FeatureWalker} pass per invocation.
+ * A new instance keeps the cross-file checks, which collect occurrences for
+ * the whole run, from growing across invocations. The cost includes the
+ * shared line index for checks that read the raw lines.
+ * <p>
+ * The {@code rule} parameter lists every key of
+ * {@link CheckList#getAllChecks()} in registration order; use
+ * {@code -p rule=<key>} to run a subset.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckBenchmark {
+
+    @Param({
+            "feature-file-required", "feature-name-required", "feature-description-recommended",
+            "scenario-required", "scenario-name-required", "step-required",
+            "examples-minimum-rows", "examples-column-coverage", "scenario-count-limit",
+            "step-count-limit", "background-given-only", "shared-given-to-background",
+            "step-order-given-when-then", "single-when-per-scenario", "when-then-required",
+            "unique-feature-name", "unique-scenario-name", "no-duplicate-steps",
+            "use-scenario-outline-for-examples", "business-language-only",
+            "consistent-feature-language", "consistent-indentation", "no-tab-characters",
+            "no-trailing-whitespace", "newline-at-end-of-file", "no-byte-order-mark",
+            "consistent-line-endings", "file-name-convention", "comment-format",
+            "prefer-and-but-keywords", "no-star-step-prefix", "examples-separator-line",
+            "step-sentence-max-length", "tag-name-pattern", "tag-permitted-values",
+            "tag-placement", "no-redundant-tags", "no-examples-tags", "no-unused-variables",
+            "given-step-pattern", "when-step-pattern", "then-step-pattern", "no-unknown-step-type",
+            "todo-comment", "fixme-comment", "comment-pattern-match", "spelling-accuracy",
+            "parse-error", "rule-name-required", "rule-scenario-required", "unique-rule-name",
+            "rule-description-recommended", "outline-placeholder-required",
+            "scenario-outline-requires-examples", "background-needs-multiple-scenarios",
+            "blank-line-before-scenario", "rule-scenario-count-limit", "feature-rule-count-limit",
+            "no-redundant-rule-tags", "rule-tag-placement", "examples-name-when-multiple",
+            "consistent-scenario-keyword", "no-duplicate-tags", "no-multiple-empty-lines",
+            "required-tags", "no-restricted-tags", "name-max-length", "one-space-between-tags",
+            "no-partially-commented-tag-lines", "outline-single-example-row",
+            "no-restricted-patterns", "max-tags-per-element", "feature-file-max-lines",
+            "data-table-max-columns", "unique-examples-headers", "no-empty-examples-cells",
+            "no-duplicate-scenario-bodies", "no-conflicting-tags", "no-commented-out-steps",
+            "background-step-count-limit", "feature-name-matches-filename",
+            "scenario-description-recommended", "no-empty-doc-strings"
+    })
+    public String rule;
+
+    @Param
+    public BenchmarkInput input;
+
+    private Constructor<? extends BaseCheck> constructor;
+    private FeatureFile featureFile;
+    private String content;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        constructor = checkClass(rule).getDeclaredConstructor();
+        featureFile = input.featureFile();
+        content = input.content();
+    }
+
+    @Benchmark
+    public List<Issue> check() throws ReflectiveOperationException {
+        BaseCheck check = constructor.newInstance();
+        FeatureContext context = new FeatureContext(featureFile, null, content);
+        check.setContext(context);
+        FeatureWalker.walk(featureFile, check);
+        return context.getIssues();
+    }
+
+    static Class<? extends BaseCheck> checkClass(String ruleKey) {
+        for (Class<? extends BaseCheck> type : CheckList.getAllChecks()) {
+            Rule annotation = type.getAnnotation(Rule.class);
+            if (annotation != null && annotation.key().equals(ruleKey)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown rule: " + ruleKey);
+    }
+}
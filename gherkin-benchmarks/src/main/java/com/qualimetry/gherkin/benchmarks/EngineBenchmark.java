@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.benchmarks;
+
+import com.qualimetry.gherkin.benchmarks.corpus.CorpusGenerator;
+import com.qualimetry.gherkin.benchmarks.corpus.CorpusProfile;
+import com.qualimetry.gherkin.lsp.AnalysisEngine;
+import com.qualimetry.gherkin.lsp.RuleConfiguration;
+import org.eclipse.lsp4j.Diagnostic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the LSP {@link AnalysisEngine} end to end with the default rule
+ * profile: {@link AnalysisEngine#analyzeFile} re-analyzes the input file
+ * (parse, fused check walk, cross-file index update, diagnostic mapping) and
+ * {@link AnalysisEngine#getCrossFileDiagnostics()} reads the cross-file
+ * diagnostics of the whole workspace. The engine's result cache is
+ * disabled, except for {@link #analyzeUnchangedFile}, which measures a
+ * cache hit.
+ * <p>
+ * The workspace holds the input file plus {@code workspaceFiles} files from
+ * a seeded {@link CorpusGenerator} with the {@link CorpusProfile#DEFAULT}
+ * distribution.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EngineBenchmark {
+
+    private static final long SEED = 42L;
+
+    @Param
+    public BenchmarkInput input;
+
+    @Param({"100", "1000"})
+    public int workspaceFiles;
+
+    private AnalysisEngine engine;
+    private AnalysisEngine cachingEngine;
+    private String uri;
+    private String content;
+
+    @Setup
+    public void setUp() {
+        engine = new AnalysisEngine(new RuleConfiguration(null), 0);
+        new CorpusGenerator(CorpusProfile.DEFAULT, SEED).stream(workspaceFiles).forEach(file ->
+                engine.analyzeFile("file:///benchmarks/workspace/" + file.path(), file.content()));
+        uri = input.uri();
+        content = input.content();
+        engine.analyzeFile(uri, content);
+        engine.takeCrossFileChanges();
+        cachingEngine = new AnalysisEngine(new RuleConfiguration(null));
+        cachingEngine.analyzeFile(uri, content);
+    }
+
+    @Benchmark
+    public List<Diagnostic> analyzeFile() {
+        return engine.analyzeFile(uri, content);
+    }
+
+    @Benchmark
+    public List<Diagnostic> analyzeUnchangedFile() {
+        return cachingEngine.analyzeFile(uri, content);
+    }
+
+    @Benchmark
+    public Map<String, List<Diagnostic>> crossFileDiagnostics() {
+        return engine.getCrossFileDiagnostics();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.benchmarks;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.FeatureVisitor;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.FeatureWalker;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.LineIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link FeatureWalker#walk} itself, with a visitor
+ * that does no more than consume the nodes, both over the tree alone and
+ * over the tree plus the raw lines.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WalkerBenchmark {
+
+    @Param
+    public BenchmarkInput input;
+
+    private FeatureFile featureFile;
+    private LineIndex lines;
+
+    @Setup
+    public void setUp() {
+        featureFile = input.featureFile();
+        lines = LineIndex.of(input.content());
+    }
+
+    @Benchmark
+    public void walkTree(Blackhole blackhole) {
+        FeatureWalker.walk(featureFile, new ConsumingVisitor(blackhole), null);
+    }
+
+    @Benchmark
+    public void walkTreeAndLines(Blackhole blackhole) {
+        FeatureWalker.walk(featureFile, new ConsumingVisitor(blackhole), lines);
+    }
+
+    @Benchmark
+    public LineIndex indexLines() {
+        return LineIndex.of(input.content());
+    }
+
+    /**
+     * Hands each visited node to the blackhole so the walk cannot be
+     * optimized away.
+     */
+    private static final class ConsumingVisitor implements FeatureVisitor {
+
+        private final Blackhole blackhole;
+
+        ConsumingVisitor(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void visitScenario(ScenarioDefinition scenario) {
+            blackhole.consume(scenario);
+        }
+
+        @Override
+        public void visitStep(StepDefinition step) {
+            blackhole.consume(step);
+        }
+
+        @Override
+        public void visitLine(int line, CharSequence content, LineIndex.Terminator terminator) {
+            blackhole.consume(content);
+        }
+    }
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.benchmarks.corpus;
+
+import io.cucumber.gherkin.GherkinDialect;
+import io.cucumber.gherkin.GherkinDialectProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates reproducible workspaces of synthetic feature files shaped by a
+ * {@link CorpusProfile}.
+ * <p>
+ * Each file depends only on the seed, the profile and its index, so a
+ * corpus can be streamed in memory, generated in parallel, or written to
+ * disk, and is identical every time. A generator is thread-safe.
+ * <p>
+ * The generator can also be run from the benchmarks JAR to write a corpus
+ * to disk:
+ * <pre>
+ * java -cp benchmarks.jar com.qualimetry.gherkin.benchmarks.corpus.CorpusGenerator &lt;dir&gt; &lt;count&gt; [seed] [profile.properties]
+ * </pre>
+ */
+public final class CorpusGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final String[] SUBJECTS = {
+            "customer", "administrator", "guest", "account manager", "auditor", "support agent"
+    };
+    private static final String[] OBJECTS = {
+            "order", "invoice", "basket", "profile", "report", "payment", "shipment", "voucher",
+            "subscription", "ticket"
+    };
+    private static final String[] ACTIONS = {
+            "creates", "updates", "cancels", "approves", "exports", "archives", "reviews", "submits"
+    };
+    private static final String[] OUTCOMES = {
+            "is saved", "is rejected", "is visible in the list", "triggers a notification",
+            "is marked as pending", "appears in the audit log"
+    };
+    private static final String[] TAGS = {
+            "@smoke", "@regression", "@slow", "@api", "@ui", "@billing", "@security", "@wip"
+    };
+
+    private final CorpusProfile profile;
+    private final long seed;
+    private final Map<String, Keywords> keywordsByLanguage;
+    private final String[] languages;
+    private final double[] cumulativeWeights;
+
+    /**
+     * Creates a generator.
+     *
+     * @param profile the corpus shape
+     * @param seed    the seed; the same seed and profile give the same corpus
+     * @throws IllegalArgumentException if the profile names an unknown dialect
+     */
+    public CorpusGenerator(CorpusProfile profile, long seed) {
+        this.profile = profile;
+        this.seed = seed;
+
+        // Sorted by code so the weighted pick does not depend on map order
+        Map<String, Double> weights = new TreeMap<>(profile.getLanguages());
+        GherkinDialectProvider dialects = new GherkinDialectProvider();
+        this.keywordsByLanguage = new TreeMap<>();
+        this.languages = new String[weights.size()];
+        this.cumulativeWeights = new double[weights.size()];
+        double total = 0;
+        int i = 0;
+        for (Map.Entry<String, Double> entry : weights.entrySet()) {
+            GherkinDialect dialect = dialects.getDialect(entry.getKey())
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown Gherkin dialect: " + entry.getKey()));
+            keywordsByLanguage.put(entry.getKey(), Keywords.of(dialect));
+            total += entry.getValue();
+            languages[i] = entry.getKey();
+            cumulativeWeights[i] = total;
+            i++;
+        }
+    }
+
+    /**
+     * Returns the profile this generator follows.
+     */
+    public CorpusProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Generates the file with the given index.
+     *
+     * @param index the 0-based file index
+     * @return the generated file
+     */
+    public GeneratedFile generate(int index) {
+        SplittableRandom random = new SplittableRandom(seed + GOLDEN_GAMMA * (index + 1L));
+        String language = pickLanguage(random);
+        String eol = random.nextDouble() < profile.getCrlfRatio() ? "\r\n" : "\n";
+        String path = String.format("part-%03d/feature-%06d.feature", index / 1000, index);
+        String content = new ContentWriter(random, keywordsByLanguage.get(language), language, eol, index).write();
+        return new GeneratedFile(path, content);
+    }
+
+    /**
+     * Streams the first {@code count} files of the corpus, generating each
+     * one on demand. The stream may be made parallel.
+     *
+     * @param count the number of files
+     * @return the files in index order
+     */
+    public Stream<GeneratedFile> stream(int count) {
+        return IntStream.range(0, count).mapToObj(this::generate);
+    }
+
+    /**
+     * Writes the first {@code count} files of the corpus under a directory,
+     * as UTF-8.
+     *
+     * @param directory the root directory, created if missing
+     * @param count     the number of files
+     * @return the paths of the written files, in index order
+     * @throws IOException if a file cannot be written
+     */
+    public List<Path> writeTo(Path directory, int count) throws IOException {
+        List<Path> paths = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            GeneratedFile file = generate(i);
+            Path target = directory.resolve(file.path());
+            Files.createDirectories(target.getParent());
+            Files.writeString(target, file.content(), StandardCharsets.UTF_8);
+            paths.add(target);
+        }
+        return paths;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 4) {
+            System.err.println("Usage: CorpusGenerator <dir> <count> [seed] [profile.properties]");
+            System.exit(2);
+            return;
+        }
+        Path directory = Paths.get(args[0]);
+        int count = Integer.parseInt(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+        CorpusProfile profile = CorpusProfile.DEFAULT;
+        if (args.length > 3) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(Paths.get(args[3]))) {
+                properties.load(in);
+            }
+            profile = CorpusProfile.fromProperties(properties);
+        }
+        List<Path> written = new CorpusGenerator(profile, seed).writeTo(directory, count);
+        System.out.println("Wrote " + written.size() + " feature files to " + directory.toAbsolutePath());
+    }
+
+    private String pickLanguage(SplittableRandom random) {
+        double pick = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < languages.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return languages[i];
+            }
+        }
+        return languages[languages.length - 1];
+    }
+
+    private static String featureName(int index) {
+        String object = OBJECTS[index % OBJECTS.length];
+        return Character.toUpperCase(object.charAt(0)) + object.substring(1)
+                + " handling " + (index + 1);
+    }
+
+    /**
+     * One generated feature file.
+     *
+     * @param path    the path relative to the corpus root, with {@code /}
+     *                separators
+     * @param content the file content
+     */
+    public record GeneratedFile(String path, String content) {
+    }
+
+    /**
+     * The keywords of one dialect used by the generator: the first keyword
+     * of each kind, and step keywords other than {@code *}.
+     */
+    private record Keywords(String feature, String rule, String background, String scenario,
+                            String outline, String examples, String given, String when,
+                            String then, String and) {
+
+        static Keywords of(GherkinDialect dialect) {
+            return new Keywords(
+                    dialect.getFeatureKeywords().get(0),
+                    dialect.getRuleKeywords().get(0),
+                    dialect.getBackgroundKeywords().get(0),
+                    // English lists "Example" first; prefer the last, more common form
+                    dialect.getScenarioKeywords().get(dialect.getScenarioKeywords().size() - 1),
+                    dialect.getScenarioOutlineKeywords().get(0),
+                    dialect.getExamplesKeywords().get(0),
+                    stepKeyword(dialect.getGivenKeywords()),
+                    stepKeyword(dialect.getWhenKeywords()),
+                    stepKeyword(dialect.getThenKeywords()),
+                    stepKeyword(dialect.getAndKeywords()));
+        }
+
+        private static String stepKeyword(List<String> keywords) {
+            for (String keyword : keywords) {
+                if (!keyword.equals("* ")) {
+                    return keyword;
+                }
+            }
+            return keywords.get(0);
+        }
+    }
+
+    /**
+     * Writes the content of one file from its own random stream.
+     */
+    private final class ContentWriter {
+
+        private final SplittableRandom random;
+        private final Keywords keywords;
+        private final String language;
+        private final String eol;
+        private final int index;
+        private final StringBuilder sb = new StringBuilder(2048);
+        private int scenarioNumber;
+
+        ContentWriter(SplittableRandom random, Keywords keywords, String language, String eol, int index) {
+            this.random = random;
+            this.keywords = keywords;
+            this.language = language;
+            this.eol = eol;
+            this.index = index;
+        }
+
+        String write() {
+            if (!language.equals("en")) {
+                line(0, "# language: " + language);
+            }
+            tags(0);
+            boolean duplicate = index > 0 && chance(profile.getDuplicateNameRatio());
+            line(0, keywords.feature() + ": " + featureName(duplicate ? random.nextInt(index) : index));
+            line(2, "As a " + pick(SUBJECTS) + " I want to manage each " + pick(OBJECTS));
+            blank();
+
+            if (chance(profile.getBackgroundRatio())) {
+                line(2, keywords.background() + ":");
+                int steps = between(1, 3);
+                for (int i = 0; i < steps; i++) {
+                    step(4, i == 0 ? keywords.given() : keywords.and(), "the " + pick(SUBJECTS) + " is signed in");
+                }
+                blank();
+            }
+
+            int scenarios = between(profile.getScenariosMin(), profile.getScenariosMax());
+            if (chance(profile.getRuleRatio()) && scenarios > 1) {
+                int rules = Math.min(scenarios, between(2, 3));
+                int written = 0;
+                for (int r = 0; r < rules; r++) {
+                    int count = r == rules - 1 ? scenarios - written : scenarios / rules;
+                    line(2, keywords.rule() + ": " + pick(OBJECTS) + " rule " + (r + 1));
+                    blank();
+                    for (int s = 0; s < count; s++) {
+                        scenario(4);
+                    }
+                    written += count;
+                }
+            } else {
+                for (int s = 0; s < scenarios; s++) {
+                    scenario(2);
+                }
+            }
+            return sb.toString();
+        }
+
+        private void scenario(int indent) {
+            scenarioNumber++;
+            if (chance(profile.getCommentRatio())) {
+                line(indent, "# Covers the " + pick(OBJECTS) + " flow");
+            }
+            tags(indent);
+            String name = pick(OBJECTS) + " " + scenarioNumber + " of feature " + (index + 1);
+            boolean outline = chance(profile.getOutlineRatio());
+            line(indent, (outline ? keywords.outline() : keywords.scenario()) + ": " + name);
+
+            int steps = between(profile.getStepsMin(), profile.getStepsMax());
+            int givens = Math.max(1, steps / 3);
+            for (int i = 0; i < steps; i++) {
+                String keyword;
+                String text;
+                if (i < givens) {
+                    keyword = i == 0 ? keywords.given() : keywords.and();
+                    text = "a " + pick(OBJECTS) + " owned by the " + pick(SUBJECTS);
+                } else if (i == givens) {
+                    keyword = keywords.when();
+                    text = "the " + pick(SUBJECTS) + " " + pick(ACTIONS) + " the "
+                            + (outline ? "<object>" : pick(OBJECTS));
+                } else {
+                    keyword = i == givens + 1 ? keywords.then() : keywords.and();
+                    text = "the " + pick(OBJECTS) + " " + (outline ? "<outcome>" : pick(OUTCOMES));
+                }
+                step(indent + 2, keyword, text);
+                if (!outline) {
+                    attachment(indent + 4);
+                }
+            }
+
+            if (outline) {
+                blank();
+                line(indent + 2, keywords.examples() + ":");
+                line(indent + 4, "| object | outcome |");
+                int rows = chance(profile.getLargeExamplesRatio())
+                        ? profile.getLargeExamplesRows()
+                        : between(profile.getExamplesRowsMin(), profile.getExamplesRowsMax());
+                for (int i = 0; i < rows; i++) {
+                    line(indent + 4, "| " + pick(OBJECTS) + " " + i + " | " + pick(OUTCOMES) + " |");
+                }
+            }
+            blank();
+        }
+
+        private void attachment(int indent) {
+            if (chance(profile.getDocStringRatio())) {
+                line(indent, "\"\"\"");
+                int lines = between(2, 6);
+                for (int i = 0; i < lines; i++) {
+                    line(indent, "The " + pick(OBJECTS) + " " + pick(OUTCOMES) + ".");
+                }
+                line(indent, "\"\"\"");
+            } else if (chance(profile.getDataTableRatio())) {
+                line(indent, "| name | quantity |");
+                int rows = between(1, 5);
+                for (int i = 0; i < rows; i++) {
+                    line(indent, "| " + pick(OBJECTS) + " | " + between(1, 99) + " |");
+                }
+            }
+        }
+
+        private void tags(int indent) {
+            if (profile.getMaxTags() == 0 || !chance(profile.getTagRatio())) {
+                return;
+            }
+            int count = between(1, profile.getMaxTags());
+            StringBuilder tags = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    tags.append(' ');
+                }
+                tags.append(pick(TAGS));
+            }
+            line(indent, tags.toString());
+        }
+
+        private void step(int indent, String keyword, String text) {
+            line(indent, keyword + text);
+        }
+
+        private void line(int indent, String text) {
+            sb.append(" ".repeat(indent)).append(text).append(eol);
+        }
+
+        private void blank() {
+            sb.append(eol);
+        }
+
+        private boolean chance(double ratio) {
+            return random.nextDouble() < ratio;
+        }
+
+        private int between(int min, int max) {
+            return min + random.nextInt(max - min + 1);
+        }
+
+        private String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+}
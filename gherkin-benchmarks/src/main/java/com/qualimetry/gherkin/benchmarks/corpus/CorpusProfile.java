@@ -0,0 +1,399 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.benchmarks.corpus;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Describes the shape of a synthetic corpus: how large its feature files
+ * are and how often each Gherkin construct appears.
+ * <p>
+ * Ratios are probabilities between 0 and 1: per feature file for
+ * {@code ruleRatio}, {@code backgroundRatio}, {@code crlfRatio} and
+ * {@code duplicateNameRatio}; per scenario for {@code outlineRatio},
+ * {@code tagRatio} and {@code commentRatio}; per step for
+ * {@code docStringRatio} and {@code dataTableRatio}; and per outline for
+ * {@code largeExamplesRatio}. Languages are weighted, and the weights need
+ * not sum to 1.
+ * <p>
+ * {@link #DEFAULT} follows the distribution seen in real projects. A
+ * profile can also be read from a properties file with
+ * {@link #fromProperties(Properties)}, using the property names of the
+ * builder methods, for example {@code scenariosMax=20} or
+ * {@code languages=en:0.8,fr:0.2}.
+ */
+public final class CorpusProfile {
+
+    /**
+     * The distribution seen in real projects: mostly small English
+     * features, some Rules and Backgrounds, outlines with a handful of
+     * examples and occasionally a very large Examples table.
+     */
+    public static final CorpusProfile DEFAULT = builder().build();
+
+    private final int scenariosMin;
+    private final int scenariosMax;
+    private final int stepsMin;
+    private final int stepsMax;
+    private final int examplesRowsMin;
+    private final int examplesRowsMax;
+    private final int largeExamplesRows;
+    private final int maxTags;
+    private final double ruleRatio;
+    private final double backgroundRatio;
+    private final double outlineRatio;
+    private final double largeExamplesRatio;
+    private final double docStringRatio;
+    private final double dataTableRatio;
+    private final double tagRatio;
+    private final double commentRatio;
+    private final double crlfRatio;
+    private final double duplicateNameRatio;
+    private final Map<String, Double> languages;
+
+    private CorpusProfile(Builder builder) {
+        this.scenariosMin = builder.scenariosMin;
+        this.scenariosMax = builder.scenariosMax;
+        this.stepsMin = builder.stepsMin;
+        this.stepsMax = builder.stepsMax;
+        this.examplesRowsMin = builder.examplesRowsMin;
+        this.examplesRowsMax = builder.examplesRowsMax;
+        this.largeExamplesRows = builder.largeExamplesRows;
+        this.maxTags = builder.maxTags;
+        this.ruleRatio = builder.ruleRatio;
+        this.backgroundRatio = builder.backgroundRatio;
+        this.outlineRatio = builder.outlineRatio;
+        this.largeExamplesRatio = builder.largeExamplesRatio;
+        this.docStringRatio = builder.docStringRatio;
+        this.dataTableRatio = builder.dataTableRatio;
+        this.tagRatio = builder.tagRatio;
+        this.commentRatio = builder.commentRatio;
+        this.crlfRatio = builder.crlfRatio;
+        this.duplicateNameRatio = builder.duplicateNameRatio;
+        this.languages = Collections.unmodifiableMap(new LinkedHashMap<>(builder.languages));
+    }
+
+    /**
+     * Returns a builder initialized with the {@link #DEFAULT} distribution.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Reads a profile from properties. Missing properties keep their
+     * {@link #DEFAULT} value.
+     *
+     * @param properties the profile properties
+     * @return the profile
+     * @throws IllegalArgumentException if a value is malformed or out of range
+     */
+    public static CorpusProfile fromProperties(Properties properties) {
+        Builder builder = builder();
+        builder.scenarios(intProperty(properties, "scenariosMin", builder.scenariosMin),
+                intProperty(properties, "scenariosMax", builder.scenariosMax));
+        builder.steps(intProperty(properties, "stepsMin", builder.stepsMin),
+                intProperty(properties, "stepsMax", builder.stepsMax));
+        builder.examplesRows(intProperty(properties, "examplesRowsMin", builder.examplesRowsMin),
+                intProperty(properties, "examplesRowsMax", builder.examplesRowsMax));
+        builder.largeExamples(doubleProperty(properties, "largeExamplesRatio", builder.largeExamplesRatio),
+                intProperty(properties, "largeExamplesRows", builder.largeExamplesRows));
+        builder.maxTags(intProperty(properties, "maxTags", builder.maxTags));
+        builder.ruleRatio(doubleProperty(properties, "ruleRatio", builder.ruleRatio));
+        builder.backgroundRatio(doubleProperty(properties, "backgroundRatio", builder.backgroundRatio));
+        builder.outlineRatio(doubleProperty(properties, "outlineRatio", builder.outlineRatio));
+        builder.docStringRatio(doubleProperty(properties, "docStringRatio", builder.docStringRatio));
+        builder.dataTableRatio(doubleProperty(properties, "dataTableRatio", builder.dataTableRatio));
+        builder.tagRatio(doubleProperty(properties, "tagRatio", builder.tagRatio));
+        builder.commentRatio(doubleProperty(properties, "commentRatio", builder.commentRatio));
+        builder.crlfRatio(doubleProperty(properties, "crlfRatio", builder.crlfRatio));
+        builder.duplicateNameRatio(doubleProperty(properties, "duplicateNameRatio", builder.duplicateNameRatio));
+
+        String languages = properties.getProperty("languages");
+        if (languages != null) {
+            Map<String, Double> weights = new LinkedHashMap<>();
+            for (String entry : languages.split(",")) {
+                String[] parts = entry.trim().split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Malformed language weight: " + entry);
+                }
+                weights.put(parts[0].trim(), parseDouble("languages", parts[1].trim()));
+            }
+            builder.languages(weights);
+        }
+        return builder.build();
+    }
+
+    public int getScenariosMin() {
+        return scenariosMin;
+    }
+
+    public int getScenariosMax() {
+        return scenariosMax;
+    }
+
+    public int getStepsMin() {
+        return stepsMin;
+    }
+
+    public int getStepsMax() {
+        return stepsMax;
+    }
+
+    public int getExamplesRowsMin() {
+        return examplesRowsMin;
+    }
+
+    public int getExamplesRowsMax() {
+        return examplesRowsMax;
+    }
+
+    public int getLargeExamplesRows() {
+        return largeExamplesRows;
+    }
+
+    public int getMaxTags() {
+        return maxTags;
+    }
+
+    public double getRuleRatio() {
+        return ruleRatio;
+    }
+
+    public double getBackgroundRatio() {
+        return backgroundRatio;
+    }
+
+    public double getOutlineRatio() {
+        return outlineRatio;
+    }
+
+    public double getLargeExamplesRatio() {
+        return largeExamplesRatio;
+    }
+
+    public double getDocStringRatio() {
+        return docStringRatio;
+    }
+
+    public double getDataTableRatio() {
+        return dataTableRatio;
+    }
+
+    public double getTagRatio() {
+        return tagRatio;
+    }
+
+    public double getCommentRatio() {
+        return commentRatio;
+    }
+
+    public double getCrlfRatio() {
+        return crlfRatio;
+    }
+
+    public double getDuplicateNameRatio() {
+        return duplicateNameRatio;
+    }
+
+    /**
+     * Returns the Gherkin dialect codes and their weights, in declaration
+     * order.
+     */
+    public Map<String, Double> getLanguages() {
+        return languages;
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property " + key + " is not an integer: " + value, e);
+        }
+    }
+
+    private static double doubleProperty(Properties properties, String key, double defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : parseDouble(key, value.trim());
+    }
+
+    private static double parseDouble(String key, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property " + key + " is not a number: " + value, e);
+        }
+    }
+
+    /**
+     * Builder for {@link CorpusProfile}, starting from the default
+     * distribution.
+     */
+    public static final class Builder {
+
+        private int scenariosMin = 1;
+        private int scenariosMax = 12;
+        private int stepsMin = 3;
+        private int stepsMax = 8;
+        private int examplesRowsMin = 2;
+        private int examplesRowsMax = 12;
+        private int largeExamplesRows = 500;
+        private int maxTags = 3;
+        private double ruleRatio = 0.15;
+        private double backgroundRatio = 0.35;
+        private double outlineRatio = 0.2;
+        private double largeExamplesRatio = 0.01;
+        private double docStringRatio = 0.03;
+        private double dataTableRatio = 0.08;
+        private double tagRatio = 0.6;
+        private double commentRatio = 0.1;
+        private double crlfRatio = 0.1;
+        private double duplicateNameRatio = 0.01;
+        private Map<String, Double> languages = new LinkedHashMap<>();
+
+        private Builder() {
+            languages.put("en", 0.9);
+            languages.put("fr", 0.04);
+            languages.put("de", 0.03);
+            languages.put("es", 0.03);
+        }
+
+        public Builder scenarios(int min, int max) {
+            checkRange("scenarios", min, max, 1);
+            this.scenariosMin = min;
+            this.scenariosMax = max;
+            return this;
+        }
+
+        public Builder steps(int min, int max) {
+            checkRange("steps", min, max, 1);
+            this.stepsMin = min;
+            this.stepsMax = max;
+            return this;
+        }
+
+        public Builder examplesRows(int min, int max) {
+            checkRange("examplesRows", min, max, 1);
+            this.examplesRowsMin = min;
+            this.examplesRowsMax = max;
+            return this;
+        }
+
+        public Builder largeExamples(double ratio, int rows) {
+            checkRange("largeExamplesRows", rows, rows, 1);
+            this.largeExamplesRatio = checkRatio("largeExamplesRatio", ratio);
+            this.largeExamplesRows = rows;
+            return this;
+        }
+
+        public Builder maxTags(int maxTags) {
+            checkRange("maxTags", maxTags, maxTags, 0);
+            this.maxTags = maxTags;
+            return this;
+        }
+
+        public Builder ruleRatio(double ratio) {
+            this.ruleRatio = checkRatio("ruleRatio", ratio);
+            return this;
+        }
+
+        public Builder backgroundRatio(double ratio) {
+            this.backgroundRatio = checkRatio("backgroundRatio", ratio);
+            return this;
+        }
+
+        public Builder outlineRatio(double ratio) {
+            this.outlineRatio = checkRatio("outlineRatio", ratio);
+            return this;
+        }
+
+        public Builder docStringRatio(double ratio) {
+            this.docStringRatio = checkRatio("docStringRatio", ratio);
+            return this;
+        }
+
+        public Builder dataTableRatio(double ratio) {
+            this.dataTableRatio = checkRatio("dataTableRatio", ratio);
+            return this;
+        }
+
+        public Builder tagRatio(double ratio) {
+            this.tagRatio = checkRatio("tagRatio", ratio);
+            return this;
+        }
+
+        public Builder commentRatio(double ratio) {
+            this.commentRatio = checkRatio("commentRatio", ratio);
+            return this;
+        }
+
+        public Builder crlfRatio(double ratio) {
+            this.crlfRatio = checkRatio("crlfRatio", ratio);
+            return this;
+        }
+
+        public Builder duplicateNameRatio(double ratio) {
+            this.duplicateNameRatio = checkRatio("duplicateNameRatio", ratio);
+            return this;
+        }
+
+        /**
+         * Sets the Gherkin dialects to use and their relative weights.
+         *
+         * @param weights dialect code to weight; at least one weight must be
+         *                positive
+         */
+        public Builder languages(Map<String, Double> weights) {
+            double total = 0;
+            for (Map.Entry<String, Double> entry : weights.entrySet()) {
+                if (entry.getValue() < 0) {
+                    throw new IllegalArgumentException("Negative weight for language " + entry.getKey());
+                }
+                total += entry.getValue();
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("At least one language needs a positive weight");
+            }
+            this.languages = new LinkedHashMap<>(weights);
+            return this;
+        }
+
+        public CorpusProfile build() {
+            return new CorpusProfile(this);
+        }
+
+        private static void checkRange(String name, int min, int max, int lowest) {
+            if (min < lowest || max < min) {
+                throw new IllegalArgumentException(
+                        "Invalid " + name + " range " + min + ".." + max + " (minimum " + lowest + ")");
+            }
+        }
+
+        private static double checkRatio(String name, double ratio) {
+            if (ratio < 0 || ratio > 1) {
+                throw new IllegalArgumentException(name + " must be between 0 and 1: " + ratio);
+            }
+            return ratio;
+        }
+    }
+}
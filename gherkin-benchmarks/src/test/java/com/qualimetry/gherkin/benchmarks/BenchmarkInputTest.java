@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.benchmarks;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BenchmarkInput}, verifying that every input parses and
+ * that the inputs grow from small to pathological.
+ */
+class BenchmarkInputTest {
+
+    @Test
+    void everyInputShouldParseToFeature() {
+        for (BenchmarkInput input : BenchmarkInput.values()) {
+            assertThat(input.featureFile().feature()).as(input.name()).isNotNull();
+            assertThat(input.featureFile()).isSameAs(input.featureFile());
+        }
+    }
+
+    @Test
+    void inputsShouldGrowInSize() {
+        assertThat(BenchmarkInput.SMALL.content().length())
+                .isLessThan(BenchmarkInput.TYPICAL.content().length());
+        assertThat(BenchmarkInput.TYPICAL.content().length())
+                .isLessThan(BenchmarkInput.PATHOLOGICAL.content().length());
+        assertThat(BenchmarkInput.TYPICAL.content().lines().count()).isBetween(100L, 200L);
+    }
+}
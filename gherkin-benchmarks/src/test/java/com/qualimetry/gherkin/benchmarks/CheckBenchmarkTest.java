@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.benchmarks;
+
+import com.qualimetry.sonar.gherkin.analyzer.checks.CheckList;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Param;
+import org.sonar.check.Rule;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CheckBenchmark}, verifying that its rule parameter keeps
+ * up with {@link CheckList}.
+ */
+class CheckBenchmarkTest {
+
+    @Test
+    void ruleParameterShouldListEveryCheckInRegistrationOrder() throws NoSuchFieldException {
+        List<String> params = List.of(CheckBenchmark.class.getField("rule").getAnnotation(Param.class).value());
+
+        List<String> ruleKeys = CheckList.getAllChecks().stream()
+                .map(type -> type.getAnnotation(Rule.class).key())
+                .toList();
+
+        assertThat(params).containsExactlyElementsOf(ruleKeys);
+    }
+
+    @Test
+    void everyInputShouldRunEveryCheck() throws ReflectiveOperationException {
+        CheckBenchmark benchmark = new CheckBenchmark();
+        for (BenchmarkInput input : BenchmarkInput.values()) {
+            benchmark.input = input;
+            benchmark.rule = "no-trailing-whitespace";
+            benchmark.setUp();
+
+            assertThat(benchmark.check()).as(input.name()).isNotNull();
+        }
+    }
+}
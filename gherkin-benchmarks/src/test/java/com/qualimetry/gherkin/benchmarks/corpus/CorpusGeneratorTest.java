@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.benchmarks.corpus;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link CorpusGenerator} and {@link CorpusProfile}.
+ */
+class CorpusGeneratorTest {
+
+    @Test
+    void sameSeedShouldGenerateSameCorpus() {
+        List<CorpusGenerator.GeneratedFile> first = new CorpusGenerator(CorpusProfile.DEFAULT, 7).stream(50).toList();
+        List<CorpusGenerator.GeneratedFile> second = new CorpusGenerator(CorpusProfile.DEFAULT, 7).stream(50).toList();
+        List<CorpusGenerator.GeneratedFile> other = new CorpusGenerator(CorpusProfile.DEFAULT, 8).stream(50).toList();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(other).isNotEqualTo(first);
+        assertThat(new CorpusGenerator(CorpusProfile.DEFAULT, 7).generate(31)).isEqualTo(first.get(31));
+    }
+
+    @Test
+    void everyGeneratedFileShouldParseInItsDialect() throws IOException {
+        CorpusProfile profile = CorpusProfile.builder()
+                .languages(Map.of("en", 1.0, "fr", 1.0, "de", 1.0, "ja", 1.0))
+                .ruleRatio(0.5)
+                .docStringRatio(0.2)
+                .dataTableRatio(0.2)
+                .build();
+        FeatureParser parser = new FeatureParser();
+
+        for (CorpusGenerator.GeneratedFile file : new CorpusGenerator(profile, 3).stream(200).toList()) {
+            FeatureFile parsed = parser.parse(file.path(), file.content());
+            String language = file.content().startsWith("# language: ")
+                    ? file.content().substring(12, file.content().indexOf('\n')).trim()
+                    : "en";
+
+            assertThat(parsed.feature()).as(file.path()).isNotNull();
+            assertThat(parsed.feature().language()).as(file.path()).isEqualTo(language);
+            assertThat(parsed.feature().scenarios().size() + parsed.feature().rules().size())
+                    .as(file.path()).isPositive();
+        }
+    }
+
+    @Test
+    void nativeParserShouldBuildTheSameTrees() throws IOException {
+        CorpusProfile profile = CorpusProfile.builder()
+                .languages(Map.of("en", 1.0, "fr", 1.0, "de", 1.0, "ja", 1.0))
+                .ruleRatio(0.5)
+                .docStringRatio(0.3)
+                .dataTableRatio(0.3)
+                .crlfRatio(0.3)
+                .build();
+        FeatureParser cucumber = new FeatureParser(FeatureParser.Engine.CUCUMBER);
+        FeatureParser nativeParser = new FeatureParser(FeatureParser.Engine.NATIVE);
+
+        for (CorpusGenerator.GeneratedFile file : new CorpusGenerator(profile, 13).stream(300).toList()) {
+            assertThat(nativeParser.parse(file.path(), file.content())).as(file.path())
+                    .isEqualTo(cucumber.parse(file.path(), file.content()));
+        }
+    }
+
+    @Test
+    void proportionsShouldFollowProfile() {
+        CorpusProfile profile = CorpusProfile.builder()
+                .crlfRatio(0.5)
+                .backgroundRatio(0)
+                .languages(Map.of("en", 3.0, "fr", 1.0))
+                .build();
+
+        List<String> contents = new CorpusGenerator(profile, 11).stream(2000)
+                .map(CorpusGenerator.GeneratedFile::content)
+                .toList();
+
+        long crlf = contents.stream().filter(c -> c.contains("\r\n")).count();
+        long french = contents.stream().filter(c -> c.startsWith("# language: fr")).count();
+        assertThat(crlf).isBetween(900L, 1100L);
+        assertThat(french).isBetween(400L, 600L);
+        assertThat(contents).noneMatch(c -> c.contains("Background:") || c.contains("Contexte :"));
+    }
+
+    @Test
+    void shouldWriteCorpusUnderDirectory(@TempDir Path directory) throws IOException {
+        CorpusGenerator generator = new CorpusGenerator(CorpusProfile.DEFAULT, 5);
+
+        List<Path> paths = generator.writeTo(directory, 1200);
+
+        assertThat(paths).hasSize(1200).allMatch(Files::isRegularFile);
+        assertThat(paths.get(1100)).isEqualTo(directory.resolve("part-001/feature-001100.feature"));
+        assertThat(Files.readString(paths.get(3), StandardCharsets.UTF_8))
+                .isEqualTo(generator.generate(3).content());
+    }
+
+    @Test
+    void profileShouldLoadFromPropertiesAndRejectBadValues() {
+        Properties properties = new Properties();
+        properties.setProperty("scenariosMax", "20");
+        properties.setProperty("crlfRatio", "0.25");
+        properties.setProperty("languages", "en:0.8, es:0.2");
+
+        CorpusProfile profile = CorpusProfile.fromProperties(properties);
+
+        assertThat(profile.getScenariosMax()).isEqualTo(20);
+        assertThat(profile.getScenariosMin()).isEqualTo(CorpusProfile.DEFAULT.getScenariosMin());
+        assertThat(profile.getCrlfRatio()).isEqualTo(0.25);
+        assertThat(profile.getLanguages()).containsExactly(Map.entry("en", 0.8), Map.entry("es", 0.2));
+
+        properties.setProperty("outlineRatio", "1.5");
+        assertThatThrownBy(() -> CorpusProfile.fromProperties(properties))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CorpusGenerator(
+                CorpusProfile.builder().languages(Map.of("xx-unknown", 1.0)).build(), 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
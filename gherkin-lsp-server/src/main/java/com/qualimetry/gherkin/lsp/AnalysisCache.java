@@ -0,0 +1,481 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.qualimetry.sonar.gherkin.analyzer.checks.CheckList;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Persistent per-file analysis results, so that unchanged files cost a hash
+ * comparison instead of a parse on the next server start or batch run.
+ * <p>
+ * Each entry holds, for one file URI, a hash of the file content, the facts
+ * the file contributes to the {@link CrossFileIndex} and, optionally, its
+ * diagnostics. The whole file is keyed by a string combining a hash of the
+ * analyzer and server code and, when diagnostics are stored, the
+ * {@link RuleConfiguration#getFingerprint() rule configuration
+ * fingerprint}; a cache written under another key is ignored.
+ * <p>
+ * The previous cache is memory-mapped and only the URI of each entry is
+ * decoded up front; an entry's facts and diagnostics are decoded when its
+ * hash matches. The new cache is streamed to a temporary file as entries are
+ * {@link #put}, holding nothing in memory, and replaces the previous one on
+ * {@link #commit()}. It only contains the files seen during the run, so
+ * deleted files drop out. On Windows, where a mapped file cannot be
+ * replaced, the previous cache is read into memory instead.
+ * <p>
+ * A missing, truncated or corrupt cache is treated as empty. Instances are
+ * thread-safe.
+ */
+final class AnalysisCache implements AutoCloseable {
+
+    private static final int MAGIC = 0x474B4143;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HASH_LENGTH = 16;
+    private static final int NO_DIAGNOSTICS = -1;
+    private static final String SOURCE = "gherkin-analyzer";
+    private static final DiagnosticSeverity[] SEVERITIES = DiagnosticSeverity.values();
+
+    private final Path file;
+    private final Path tempFile;
+    private final ByteBuffer previous;
+    private final Map<String, Integer> previousOffsets;
+    private final DataOutputStream out;
+    /** The first failure to write {@link #out}, guarded by it. */
+    private IOException writeError;
+
+    /**
+     * Cached results of one file.
+     *
+     * @param contribution the cross-file facts of the file
+     * @param diagnostics  the diagnostics of the file, or {@code null} if
+     *                     they were not stored
+     */
+    record Entry(CrossFileIndex.Contribution contribution, List<Diagnostic> diagnostics) {
+    }
+
+    private AnalysisCache(Path file, ByteBuffer previous, Map<String, Integer> previousOffsets,
+                          Path tempFile, DataOutputStream out) {
+        this.file = file;
+        this.previous = previous;
+        this.previousOffsets = previousOffsets;
+        this.tempFile = tempFile;
+        this.out = out;
+    }
+
+    /**
+     * Opens the cache stored in a file, and starts writing its successor.
+     *
+     * @param file the cache file; need not exist
+     * @param key  the key the cache must have been written with
+     * @return the cache
+     * @throws IOException if the new cache cannot be created
+     */
+    static AnalysisCache open(Path file, String key) throws IOException {
+        ByteBuffer previous = null;
+        Map<String, Integer> offsets = new HashMap<>();
+        try {
+            previous = read(file);
+            if (previous != null && !readHeader(previous, key, offsets)) {
+                previous = null;
+                offsets.clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Unreadable or corrupt: start over
+            previous = null;
+            offsets.clear();
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        writeString(out, key);
+        return new AnalysisCache(file, previous, offsets, tempFile, out);
+    }
+
+    /**
+     * Returns the cached results of a file if its content is unchanged.
+     *
+     * @param uri  the file URI
+     * @param hash the hash of the current content, from {@link #hash}
+     * @return the cached results, or {@code null} if the file is not cached
+     *         or has changed
+     */
+    Entry lookup(String uri, byte[] hash) {
+        Integer offset = previousOffsets.get(uri);
+        if (offset == null) {
+            return null;
+        }
+        ByteBuffer buffer = previous.duplicate();
+        buffer.position(offset);
+        try {
+            byte[] cachedHash = new byte[HASH_LENGTH];
+            buffer.get(cachedHash);
+            return Arrays.equals(cachedHash, hash) ? readEntry(buffer, uri) : null;
+        } catch (RuntimeException e) {
+            // Corrupt entry: analyze the file again
+            return null;
+        }
+    }
+
+    /**
+     * Adds the results of a file to the new cache. A write failure is
+     * reported by {@link #commit()}, so that it does not interrupt the
+     * analysis.
+     *
+     * @param uri          the file URI
+     * @param hash         the hash of the analyzed content
+     * @param contribution the cross-file facts of the file
+     * @param diagnostics  the diagnostics of the file, or {@code null} to
+     *                     store the facts only
+     */
+    void put(String uri, byte[] hash, CrossFileIndex.Contribution contribution, List<Diagnostic> diagnostics) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream entry = new DataOutputStream(bytes)) {
+            writeString(entry, uri);
+            entry.write(hash, 0, HASH_LENGTH);
+            writeOccurrences(entry, contribution.featureNames());
+            writeOccurrences(entry, contribution.scenarioNames());
+            entry.writeBoolean(contribution.language() != null);
+            if (contribution.language() != null) {
+                writeOccurrence(entry, contribution.language());
+            }
+            if (diagnostics == null) {
+                entry.writeInt(NO_DIAGNOSTICS);
+            } else {
+                entry.writeInt(diagnostics.size());
+                for (Diagnostic diagnostic : diagnostics) {
+                    writeDiagnostic(entry, diagnostic);
+                }
+            }
+        } catch (IOException e) {
+            // A ByteArrayOutputStream does not throw
+            throw new UncheckedIOException(e);
+        }
+        synchronized (out) {
+            if (writeError != null) {
+                return;
+            }
+            try {
+                out.writeInt(bytes.size());
+                bytes.writeTo(out);
+            } catch (IOException e) {
+                writeError = e;
+            }
+        }
+    }
+
+    /**
+     * Replaces the previous cache with the entries put so far.
+     *
+     * @throws IOException if an entry could not be written, or if the cache
+     *                     file cannot be replaced
+     */
+    void commit() throws IOException {
+        synchronized (out) {
+            if (writeError != null) {
+                throw writeError;
+            }
+            out.close();
+        }
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Discards the new cache unless it was committed.
+     */
+    @Override
+    public void close() {
+        try {
+            synchronized (out) {
+                out.close();
+            }
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            // Best effort: a stale temporary file is overwritten next time
+        }
+    }
+
+    /**
+     * Returns the number of entries of the previous cache (visible for
+     * testing).
+     */
+    int getPreviousSize() {
+        return previousOffsets.size();
+    }
+
+    /**
+     * Hashes file content for {@link #lookup} and {@link #put}.
+     *
+     * @param content the raw file content
+     * @return the first 128 bits of its SHA-256 digest
+     */
+    static byte[] hash(byte[] content) {
+        try {
+            return Arrays.copyOf(MessageDigest.getInstance("SHA-256").digest(content), HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the key of caches that hold cross-file facts only, which
+     * depend on the code alone.
+     */
+    static String factsKey() {
+        return "facts/" + CodeHash.VALUE;
+    }
+
+    /**
+     * Returns the key of caches that also hold diagnostics, which depend on
+     * the code and the rule configuration.
+     *
+     * @param config the rule configuration
+     */
+    static String diagnosticsKey(RuleConfiguration config) {
+        return "diagnostics/" + CodeHash.VALUE + "/" + config.getFingerprint();
+    }
+
+    /**
+     * The hash of the analyzer and server code, computed on first use. A
+     * rebuild changes it even when the version stays the same.
+     */
+    private static final class CodeHash {
+
+        static final String VALUE = compute();
+
+        private static String compute() {
+            try {
+                Set<Path> locations = new LinkedHashSet<>();
+                for (Class<?> type : List.of(CheckList.class, AnalysisCache.class)) {
+                    locations.add(Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI()));
+                }
+                return codeHash(locations);
+            } catch (IOException | URISyntaxException | RuntimeException e) {
+                // Never reuse a cache that cannot be tied to the code
+                return "unhashed-" + System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Hashes the content of code locations: the bytes of a jar, or the
+     * relative paths and bytes of the files below a build directory.
+     * Modification times are ignored.
+     *
+     * @param locations the jars or class directories
+     * @return the hexadecimal SHA-256 digest
+     * @throws IOException if a location cannot be read
+     */
+    static String codeHash(Collection<Path> locations) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Path location : locations) {
+            if (Files.isDirectory(location)) {
+                List<Path> files;
+                try (Stream<Path> walk = Files.walk(location)) {
+                    files = walk.filter(Files::isRegularFile).sorted().toList();
+                }
+                for (Path file : files) {
+                    digest.update(location.relativize(file).toString().replace('\\', '/')
+                            .getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                    update(digest, file);
+                }
+            } else {
+                update(digest, location);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    private static ByteBuffer read(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (isWindows()) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // keep reading
+                }
+                return buffer.flip();
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static boolean readHeader(ByteBuffer buffer, String key, Map<String, Integer> offsets) {
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION
+                || !key.equals(readString(buffer))) {
+            return false;
+        }
+        while (buffer.hasRemaining()) {
+            int length = buffer.getInt();
+            int end = buffer.position() + length;
+            if (length < 0 || end > buffer.limit()) {
+                throw new BufferUnderflowException();
+            }
+            String uri = readString(buffer);
+            offsets.put(uri, buffer.position());
+            buffer.position(end);
+        }
+        return true;
+    }
+
+    private static Entry readEntry(ByteBuffer buffer, String uri) {
+        List<CrossFileIndex.Occurrence> features = readOccurrences(buffer, uri);
+        List<CrossFileIndex.Occurrence> scenarios = readOccurrences(buffer, uri);
+        CrossFileIndex.Occurrence language = buffer.get() != 0 ? readOccurrence(buffer, uri) : null;
+        int count = buffer.getInt();
+        List<Diagnostic> diagnostics = null;
+        if (count != NO_DIAGNOSTICS) {
+            diagnostics = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                diagnostics.add(readDiagnostic(buffer));
+            }
+        }
+        return new Entry(new CrossFileIndex.Contribution(features, scenarios, language), diagnostics);
+    }
+
+    private static void writeOccurrences(DataOutputStream out, List<CrossFileIndex.Occurrence> occurrences)
+            throws IOException {
+        out.writeInt(occurrences.size());
+        for (CrossFileIndex.Occurrence occurrence : occurrences) {
+            writeOccurrence(out, occurrence);
+        }
+    }
+
+    private static void writeOccurrence(DataOutputStream out, CrossFileIndex.Occurrence occurrence)
+            throws IOException {
+        writeString(out, occurrence.name());
+        out.writeInt(occurrence.line());
+        out.writeInt(occurrence.column());
+    }
+
+    private static List<CrossFileIndex.Occurrence> readOccurrences(ByteBuffer buffer, String uri) {
+        int count = buffer.getInt();
+        List<CrossFileIndex.Occurrence> occurrences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            occurrences.add(readOccurrence(buffer, uri));
+        }
+        return occurrences;
+    }
+
+    private static CrossFileIndex.Occurrence readOccurrence(ByteBuffer buffer, String uri) {
+        return new CrossFileIndex.Occurrence(readString(buffer), uri, buffer.getInt(), buffer.getInt());
+    }
+
+    private static void writeDiagnostic(DataOutputStream out, Diagnostic diagnostic) throws IOException {
+        Range range = diagnostic.getRange();
+        out.writeInt(range.getStart().getLine());
+        out.writeInt(range.getStart().getCharacter());
+        out.writeInt(range.getEnd().getLine());
+        out.writeInt(range.getEnd().getCharacter());
+        out.writeByte(diagnostic.getSeverity().getValue());
+        writeString(out, TextDiagnosticWriter.ruleKey(diagnostic));
+        writeString(out, diagnostic.getMessage());
+    }
+
+    private static Diagnostic readDiagnostic(ByteBuffer buffer) {
+        Position start = new Position(buffer.getInt(), buffer.getInt());
+        Position end = new Position(buffer.getInt(), buffer.getInt());
+        Diagnostic diagnostic = new Diagnostic();
+        diagnostic.setRange(new Range(start, end));
+        diagnostic.setSeverity(SEVERITIES[buffer.get() - 1]);
+        diagnostic.setSource(SOURCE);
+        diagnostic.setCode(readString(buffer));
+        diagnostic.setMessage(readString(buffer));
+        return diagnostic;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name", "").startsWith("Windows");
+    }
+}
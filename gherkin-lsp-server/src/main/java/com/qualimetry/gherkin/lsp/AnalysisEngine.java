@@ -15,15 +15,9 @@
  */
 package com.qualimetry.gherkin.lsp;
 
-import com.qualimetry.sonar.gherkin.analyzer.checks.ConsistentFeatureLanguageCheck;
-import com.qualimetry.sonar.gherkin.analyzer.checks.UniqueFeatureNameCheck;
-import com.qualimetry.sonar.gherkin.analyzer.checks.UniqueScenarioNameCheck;
 import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
 import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
-import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.CrossFileIssue;
-import com.qualimetry.sonar.gherkin.analyzer.visitor.FeatureContext;
-import com.qualimetry.sonar.gherkin.analyzer.visitor.FeatureWalker;
 import com.qualimetry.sonar.gherkin.analyzer.visitor.Issue;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.DiagnosticSeverity;
@@ -31,25 +25,83 @@ import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Core analysis orchestrator for the LSP server.
  * <p>
  * Replaces the role of SonarQube's {@code GherkinSensor} by parsing feature
  * files, running active checks, and producing LSP {@link Diagnostic} objects.
- * Maintains a map of parsed features by URI to support cross-file analysis.
+ * Maintains a map of parsed features by URI and a {@link CrossFileIndex} to
+ * support cross-file analysis.
+ * <p>
+ * Files open in the editor are analyzed with {@link #analyzeFile}; files
+ * that are only on disk can be added to the cross-file index with
+ * {@link #indexFile}, without running checks or keeping their tree. The
+ * editor's content always wins: an open file is never overwritten by its
+ * disk content until it is closed with {@link #closeFile}.
+ * <p>
+ * The results of {@link #analyzeFile} are kept in a bounded LRU cache keyed
+ * by URI, content hash and {@link RuleConfiguration#getFingerprint() rule
+ * configuration fingerprint}, so that re-analyzing unchanged content (after
+ * an undo, or a settings change that does not affect the rules) skips the
+ * parse and the checks.
+ * <p>
+ * A file analyzed again is re-parsed incrementally from its stored tree
+ * (see {@link FeatureParser#reparse}), so an edit inside one Scenario only
+ * re-parses that Scenario. The checks whose findings are local to a node
+ * then only re-check that Scenario too: the {@link CheckFactory} replays
+ * their issues for every unchanged Background and Scenario.
+ * <p>
+ * Parsing, checking and mapping are timed into the engine's
+ * {@link AnalysisStats}.
  */
 public class AnalysisEngine {
 
     private static final String SOURCE = "gherkin-analyzer";
+    static final int DEFAULT_RESULT_CACHE_CAPACITY = 128;
 
-    private final Map<String, FeatureFile> featuresByUri = new ConcurrentHashMap<>();
+    private final Map<String, Parsed> featuresByUri = new ConcurrentHashMap<>();
+    private final CrossFileIndex crossFileIndex = new CrossFileIndex();
+    private final Set<String> crossFileChanges = ConcurrentHashMap.newKeySet();
+    /** Makes "is the file open" checks atomic with the index updates. */
+    private final Object indexLock = new Object();
+    private final Map<ResultKey, Result> resultCache;
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AnalysisStats stats = new AnalysisStats();
     private volatile RuleConfiguration ruleConfiguration;
+    private volatile FeatureParser parser = new FeatureParser();
+
+    /**
+     * The content and configuration an analysis result depends on.
+     */
+    private record ResultKey(String uri, ByteBuffer contentHash, String configFingerprint) {
+    }
+
+    /**
+     * A stored tree and the content it was parsed from, which the next
+     * analysis of the file re-parses incrementally.
+     */
+    private record Parsed(FeatureFile featureFile, String content) {
+    }
+
+    /**
+     * A cached analysis result.
+     */
+    private record Result(FeatureFile featureFile, List<Diagnostic> diagnostics) {
+    }
 
     /**
      * Creates an analysis engine with the given rule configuration.
@@ -57,110 +109,325 @@ public class AnalysisEngine {
      * @param ruleConfiguration the active rule configuration
      */
     public AnalysisEngine(RuleConfiguration ruleConfiguration) {
+        this(ruleConfiguration, DEFAULT_RESULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * Creates an analysis engine with the given rule configuration and
+     * result cache size.
+     *
+     * @param ruleConfiguration   the active rule configuration
+     * @param resultCacheCapacity the maximum number of cached analysis
+     *                            results, or {@code 0} to disable the cache
+     */
+    public AnalysisEngine(RuleConfiguration ruleConfiguration, int resultCacheCapacity) {
+        if (resultCacheCapacity < 0) {
+            throw new IllegalArgumentException("resultCacheCapacity must not be negative: " + resultCacheCapacity);
+        }
         this.ruleConfiguration = ruleConfiguration;
+        this.resultCache = resultCacheCapacity == 0 ? null : new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ResultKey, Result> eldest) {
+                return size() > resultCacheCapacity;
+            }
+        };
     }
 
     /**
      * Parses and analyzes a single feature file, returning diagnostics.
      * <p>
-     * A fresh {@link FeatureContext} is created for each check so that issues
-     * do not accumulate across checks and cause double-counting.
+     * All active checks are driven by a single pass over the tree and the
+     * lines (see {@link CheckFactory#analyze}); each issue carries the key of
+     * the rule that raised it.
+     * <p>
+     * Files may be analyzed concurrently: each analysis leases its own check
+     * instances from the configuration's {@link CheckFactory}.
      *
      * @param uri     the file URI
      * @param content the raw file content
-     * @return the list of diagnostics found
+     * @return the unmodifiable list of diagnostics found
      */
     public List<Diagnostic> analyzeFile(String uri, String content) {
+        RuleConfiguration config = ruleConfiguration;
+        ResultKey key = null;
+        if (resultCache != null) {
+            key = new ResultKey(uri, ByteBuffer.wrap(AnalysisCache.hash(content.getBytes(StandardCharsets.UTF_8))),
+                    config.getFingerprint());
+            Result cached;
+            synchronized (resultCache) {
+                cached = resultCache.get(key);
+            }
+            if (cached != null) {
+                cacheHits.incrementAndGet();
+                store(uri, cached.featureFile(), content);
+                return cached.diagnostics();
+            }
+            cacheMisses.incrementAndGet();
+        }
+
         FeatureFile featureFile;
         try {
-            featureFile = new FeatureParser().parse(uri, content);
+            featureFile = parse(uri, content, featuresByUri.get(uri));
         } catch (IOException e) {
-            Diagnostic parseError = new Diagnostic();
-            parseError.setRange(new Range(new Position(0, 0), new Position(0, 1)));
-            parseError.setSeverity(DiagnosticSeverity.Error);
-            parseError.setSource(SOURCE);
-            parseError.setCode("parse-error");
-            parseError.setMessage(e.getMessage());
-            return List.of(parseError);
+            return List.of(parseError(e));
         }
 
-        featuresByUri.put(uri, featureFile);
+        store(uri, featureFile, content);
 
-        List<Diagnostic> diagnostics = new ArrayList<>();
-
-        for (BaseCheck check : ruleConfiguration.getActiveChecks()) {
-            FeatureContext context = new FeatureContext(featureFile, null, content);
-            check.setContext(context);
-            FeatureWalker.walk(featureFile, check);
-
-            for (Issue issue : context.getIssues()) {
-                diagnostics.add(DiagnosticMapper.toDiagnostic(issue, ruleConfiguration));
+        List<Diagnostic> diagnostics = check(featureFile, content, config);
+        if (resultCache != null) {
+            synchronized (resultCache) {
+                resultCache.put(key, new Result(featureFile, diagnostics));
             }
         }
-
         return diagnostics;
     }
 
     /**
-     * Runs cross-file checks across all stored feature files and returns
-     * diagnostics grouped by URI.
-     * <p>
-     * Only cross-file checks whose rule key is in the active rule keys set
-     * are executed.
+     * Parses and checks a file that is not open in the editor, for
+     * workspace diagnostics. Unlike {@link #analyzeFile}, nothing is stored:
+     * the cross-file index keeps the facts the file was indexed with.
      *
-     * @return a map of URI to diagnostics from cross-file analysis
+     * @param uri     the file URI
+     * @param content the file content on disk
+     * @return the unmodifiable list of per-file diagnostics, without the
+     *         cross-file ones
      */
-    public Map<String, List<Diagnostic>> getCrossFileDiagnostics() {
-        Map<String, List<Diagnostic>> result = new HashMap<>();
+    public List<Diagnostic> checkFile(String uri, String content) {
+        FeatureFile featureFile;
+        try {
+            featureFile = parse(uri, content);
+        } catch (IOException e) {
+            return List.of(parseError(e));
+        }
+        return check(featureFile, content, ruleConfiguration);
+    }
+
+    private FeatureFile parse(String uri, String content) throws IOException {
+        return parse(uri, content, null);
+    }
+
+    private FeatureFile parse(String uri, String content, Parsed previous) throws IOException {
+        long allocated = AnalysisStats.allocatedBytes();
+        long start = System.nanoTime();
+        FeatureFile featureFile = previous != null
+                ? parser.reparse(uri, content, previous.featureFile(), previous.content())
+                : parser.parse(uri, content);
+        stats.record(AnalysisStats.Stage.PARSE, start, allocated);
+        return featureFile;
+    }
 
-        List<BaseCheck> crossFileChecks = new ArrayList<>();
-        var activeKeys = ruleConfiguration.getActiveRuleKeys();
+    private List<Diagnostic> check(FeatureFile featureFile, String content, RuleConfiguration config) {
+        long allocated = AnalysisStats.allocatedBytes();
+        long start = System.nanoTime();
+        List<Issue> issues = config.getCheckFactory().analyze(featureFile, content, stats, true);
+        stats.record(AnalysisStats.Stage.CHECK, start, allocated);
 
-        if (activeKeys.contains("unique-feature-name")) {
-            crossFileChecks.add(new UniqueFeatureNameCheck());
+        allocated = AnalysisStats.allocatedBytes();
+        start = System.nanoTime();
+        List<Diagnostic> diagnostics = new ArrayList<>(issues.size());
+        for (Issue issue : issues) {
+            diagnostics.add(DiagnosticMapper.toDiagnostic(issue, config));
         }
-        if (activeKeys.contains("unique-scenario-name")) {
-            crossFileChecks.add(new UniqueScenarioNameCheck());
+        List<Diagnostic> result = List.copyOf(diagnostics);
+        stats.record(AnalysisStats.Stage.MAP, start, allocated);
+        return result;
+    }
+
+    private static Diagnostic parseError(IOException e) {
+        Diagnostic parseError = new Diagnostic();
+        parseError.setRange(new Range(new Position(0, 0), new Position(0, 1)));
+        parseError.setSeverity(DiagnosticSeverity.Error);
+        parseError.setSource(SOURCE);
+        parseError.setCode("parse-error");
+        parseError.setMessage(e.getMessage());
+        return parseError;
+    }
+
+    private void store(String uri, FeatureFile featureFile, String content) {
+        synchronized (indexLock) {
+            featuresByUri.put(uri, new Parsed(featureFile, content));
+            crossFileChanges.addAll(crossFileIndex.update(featureFile));
         }
-        if (activeKeys.contains("consistent-feature-language")) {
-            crossFileChecks.add(new ConsistentFeatureLanguageCheck());
+    }
+
+    /**
+     * Returns the latency statistics of the analyses run by this engine.
+     */
+    AnalysisStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Returns the number of {@link #analyzeFile} calls answered from the
+     * result cache.
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Returns the number of {@link #analyzeFile} calls that missed the
+     * result cache and ran the parser and the checks.
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * Adds a file that is not open in the editor to the cross-file index,
+     * from its disk content. No check runs and the tree is not kept.
+     * <p>
+     * Ignored if the file is open, since the editor's content is newer.
+     *
+     * @param uri     the file URI
+     * @param content the file content on disk
+     * @return whether the file was indexed
+     */
+    public boolean indexFile(String uri, String content) {
+        FeatureFile featureFile;
+        try {
+            featureFile = parse(uri, content);
+        } catch (IOException e) {
+            return false;
         }
+        return indexFile(uri, CrossFileIndex.collect(featureFile));
+    }
 
-        for (BaseCheck check : crossFileChecks) {
-            for (FeatureFile featureFile : featuresByUri.values()) {
-                check.setContext(new FeatureContext(featureFile));
-                FeatureWalker.walk(featureFile, check);
+    /**
+     * Adds a file that is not open in the editor to the cross-file index,
+     * from facts collected earlier, for example read back from an
+     * {@link AnalysisCache}.
+     * <p>
+     * Ignored if the file is open, since the editor's content is newer.
+     *
+     * @param uri          the file URI
+     * @param contribution the cross-file facts of the disk content
+     * @return whether the file was indexed
+     */
+    boolean indexFile(String uri, CrossFileIndex.Contribution contribution) {
+        synchronized (indexLock) {
+            if (featuresByUri.containsKey(uri)) {
+                return false;
             }
+            crossFileChanges.addAll(crossFileIndex.update(uri, contribution));
         }
+        return true;
+    }
 
-        for (BaseCheck check : crossFileChecks) {
-            List<CrossFileIssue> issues;
-            if (check instanceof UniqueFeatureNameCheck ufc) {
-                issues = ufc.afterAllFiles();
-            } else if (check instanceof UniqueScenarioNameCheck usc) {
-                issues = usc.afterAllFiles();
-            } else if (check instanceof ConsistentFeatureLanguageCheck cfl) {
-                issues = cfl.afterAllFiles();
-            } else {
-                continue;
+    /**
+     * Retracts a file that is not open in the editor from the cross-file
+     * index, for example after it was deleted on disk.
+     * <p>
+     * Ignored if the file is open, since the editor's content is newer.
+     *
+     * @param uri the file URI
+     */
+    public void unindexFile(String uri) {
+        synchronized (indexLock) {
+            if (!featuresByUri.containsKey(uri)) {
+                crossFileChanges.addAll(crossFileIndex.remove(uri));
             }
+        }
+    }
 
-            for (CrossFileIssue cfi : issues) {
-                result.computeIfAbsent(cfi.uri(), k -> new ArrayList<>())
-                        .add(DiagnosticMapper.toDiagnostic(cfi, ruleConfiguration));
+    /**
+     * Returns the URIs of all files in the cross-file index, open or not.
+     *
+     * @return a snapshot of the indexed URIs
+     */
+    public Set<String> getIndexedUris() {
+        return crossFileIndex.getUris();
+    }
+
+    /**
+     * Returns the cross-file diagnostics of all stored feature files, grouped
+     * by URI.
+     * <p>
+     * Diagnostics are read from the {@link CrossFileIndex}, which is kept up
+     * to date by {@link #analyzeFile} and {@link #removeFile}, so no file is
+     * re-walked. Only issues of active cross-file rules are returned.
+     *
+     * @return a map of URI to diagnostics from cross-file analysis
+     */
+    public Map<String, List<Diagnostic>> getCrossFileDiagnostics() {
+        Map<String, List<Diagnostic>> result = new HashMap<>();
+        for (String uri : crossFileIndex.getUrisWithIssues()) {
+            List<Diagnostic> diagnostics = getCrossFileDiagnostics(uri);
+            if (!diagnostics.isEmpty()) {
+                result.put(uri, diagnostics);
             }
         }
-
         return result;
     }
 
+    /**
+     * Returns the cross-file diagnostics located in one stored feature file.
+     *
+     * @param uri the file URI
+     * @return the diagnostics of active cross-file rules, possibly empty
+     */
+    public List<Diagnostic> getCrossFileDiagnostics(String uri) {
+        RuleConfiguration config = ruleConfiguration;
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        for (CrossFileIssue issue : crossFileIndex.getIssues(uri, config.getActiveRuleKeys())) {
+            diagnostics.add(DiagnosticMapper.toDiagnostic(issue, config));
+        }
+        return diagnostics;
+    }
+
     /**
      * Removes a file from the stored feature map.
      *
      * @param uri the URI of the file to remove
      */
     public void removeFile(String uri) {
-        featuresByUri.remove(uri);
+        synchronized (indexLock) {
+            featuresByUri.remove(uri);
+            crossFileChanges.addAll(crossFileIndex.remove(uri));
+        }
+    }
+
+    /**
+     * Removes a file closed in the editor from the stored feature map, and
+     * puts its disk content back in the cross-file index in place of the
+     * editor's, in one step.
+     *
+     * @param uri         the URI of the closed file
+     * @param diskContent the file content on disk, or {@code null} if the
+     *                    file is not part of the indexed workspace
+     */
+    public void closeFile(String uri, String diskContent) {
+        FeatureFile featureFile = null;
+        if (diskContent != null) {
+            try {
+                featureFile = parse(uri, diskContent);
+            } catch (IOException e) {
+                // not indexable; removed below
+            }
+        }
+        synchronized (indexLock) {
+            featuresByUri.remove(uri);
+            crossFileChanges.addAll(featureFile != null
+                    ? crossFileIndex.update(featureFile)
+                    : crossFileIndex.remove(uri));
+        }
+    }
+
+    /**
+     * Returns and clears the URIs whose cross-file diagnostics may have
+     * changed since the previous call, due to files analyzed or removed in
+     * the meantime.
+     *
+     * @return the URIs to refresh, possibly empty
+     */
+    public Set<String> takeCrossFileChanges() {
+        Set<String> changed = new HashSet<>();
+        for (Iterator<String> it = crossFileChanges.iterator(); it.hasNext(); ) {
+            changed.add(it.next());
+            it.remove();
+        }
+        return changed;
     }
 
     /**
@@ -172,6 +439,58 @@ public class AnalysisEngine {
         this.ruleConfiguration = newConfig;
     }
 
+    /**
+     * Returns the current rule configuration.
+     */
+    RuleConfiguration getRuleConfiguration() {
+        return ruleConfiguration;
+    }
+
+    /**
+     * Selects the parser used for feature files. Both engines produce the
+     * same trees, so cached results stay valid.
+     *
+     * @param engine the parser implementation
+     */
+    public void setParserEngine(FeatureParser.Engine engine) {
+        if (parser.getEngine() != engine) {
+            this.parser = new FeatureParser(engine);
+        }
+    }
+
+    /**
+     * Returns the parser used for feature files, for the components that
+     * parse files outside an analysis.
+     */
+    public FeatureParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Parses a newer text of a file without storing it. The tree stored by
+     * the last {@link #analyzeFile} of the file, if any, is reused for the
+     * blocks that did not change.
+     *
+     * @param uri     the file URI
+     * @param content the file content
+     * @return the tree of {@code content}
+     * @throws IOException if the content cannot be parsed
+     */
+    FeatureFile parseFile(String uri, String content) throws IOException {
+        return parse(uri, content, featuresByUri.get(uri));
+    }
+
+    /**
+     * Returns the tree stored by the last {@link #analyzeFile} of a file.
+     *
+     * @param uri the file URI
+     * @return the stored tree, or {@code null} if the file is not stored
+     */
+    FeatureFile getFeatureFile(String uri) {
+        Parsed parsed = featuresByUri.get(uri);
+        return parsed != null ? parsed.featureFile() : null;
+    }
+
     /**
      * Returns the number of stored feature files (visible for testing).
      */
@@ -179,6 +498,14 @@ public class AnalysisEngine {
         return featuresByUri.size();
     }
 
+    /**
+     * Returns the number of files in the cross-file index (visible for
+     * testing).
+     */
+    int getIndexedFileCount() {
+        return getIndexedUris().size();
+    }
+
     /**
      * Returns whether a file is stored (visible for testing).
      */
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import org.eclipse.lsp4j.services.LanguageClient;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded worker pool that runs analyses off the LSP4J message-dispatch
+ * thread.
+ * <p>
+ * Tasks for the same key (a document URI) run one after another in
+ * submission order; tasks for different keys run in parallel up to the
+ * configured parallelism. The pool queue is bounded: when it is full, tasks
+ * are parked in an overflow queue rather than dropped, and workers move them
+ * to the pool as they free up. Neither the LSP4J dispatch thread nor the
+ * {@link AnalysisScheduler} timer ever runs an analysis itself, so one busy
+ * moment cannot stall other documents' debounces.
+ * <p>
+ * The overflow queue is bounded by the number of keys rather than by
+ * back-pressure: a key's next task is only handed to the pool once its
+ * previous task completed, so at most one task per key is parked, and later
+ * ones wait in that key's chain. Open documents and the workspace index
+ * account for few keys; producers of one task per workspace file use
+ * {@link #executeThrottled}, which blocks them while as many of their tasks
+ * as the pool queue holds are pending.
+ * <p>
+ * Failed tasks are reported to the client log, with their stack trace.
+ */
+public class AnalysisExecutor implements AutoCloseable {
+
+    private static final String THREAD_PREFIX = "gherkin-analysis-worker";
+
+    private final Map<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    private final Deque<Runnable> overflow = new ConcurrentLinkedDeque<>();
+    private volatile ThreadPoolExecutor pool;
+    private volatile LanguageClient client;
+    private int queueCapacity;
+    private boolean virtualThreads;
+    /** Tasks of {@link #executeThrottled} not yet completed, guarded by this. */
+    private int throttled;
+    private boolean closed;
+
+    /**
+     * Creates an executor from the given server settings.
+     *
+     * @param settings the server settings providing parallelism, queue
+     *                 capacity and thread kind
+     */
+    public AnalysisExecutor(ServerSettings settings) {
+        this.queueCapacity = settings.getQueueCapacity();
+        this.virtualThreads = useVirtualThreads(settings);
+        this.pool = newPool(settings.getParallelism(), queueCapacity, virtualThreads);
+    }
+
+    /**
+     * Applies new settings. A parallelism change resizes the running pool; a
+     * change of queue capacity or thread kind replaces the pool, letting
+     * already-queued tasks finish on the old one.
+     *
+     * @param settings the new server settings
+     */
+    public synchronized void configure(ServerSettings settings) {
+        int parallelism = settings.getParallelism();
+        boolean virtual = useVirtualThreads(settings);
+        if (settings.getQueueCapacity() != queueCapacity || virtual != virtualThreads) {
+            ThreadPoolExecutor old = pool;
+            queueCapacity = settings.getQueueCapacity();
+            virtualThreads = virtual;
+            pool = newPool(parallelism, queueCapacity, virtualThreads);
+            old.shutdown();
+            return;
+        }
+        ThreadPoolExecutor current = pool;
+        if (parallelism > current.getMaximumPoolSize()) {
+            current.setMaximumPoolSize(parallelism);
+            current.setCorePoolSize(parallelism);
+        } else {
+            current.setCorePoolSize(parallelism);
+            current.setMaximumPoolSize(parallelism);
+        }
+    }
+
+    /**
+     * Sets the client that failures are logged to.
+     *
+     * @param client the language client, or {@code null} to log to
+     *               standard error
+     */
+    public void setClient(LanguageClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Submits a task that runs after all previously submitted tasks with the
+     * same key have completed. When the pool queue is full, the task waits in
+     * the overflow queue; only once the executor is closed does it run in the
+     * calling thread, so no per-key chain stalls.
+     *
+     * @param key  the serialization key, typically the document URI
+     * @param task the task to run
+     */
+    public void execute(String key, Runnable task) {
+        chain(key, task, this::runOrParkUnlessClosed);
+    }
+
+    /**
+     * Submits a task like {@link #execute}, but never runs it in the calling
+     * thread, not even after the executor is closed. For the LSP4J dispatch
+     * thread, which must not block.
+     *
+     * @param key  the serialization key, typically the document URI
+     * @param task the task to run
+     */
+    public void submit(String key, Runnable task) {
+        chain(key, task, this::runOrPark);
+    }
+
+    /**
+     * Submits a task like {@link #execute}, after waiting while as many tasks
+     * submitted this way as the pool queue holds are pending. For producers
+     * of one task per workspace file, which must not park the whole
+     * workspace in the overflow queue; never call it from the LSP4J dispatch
+     * thread or the scheduler timer.
+     *
+     * @param key  the serialization key, typically the document URI
+     * @param task the task to run
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void executeThrottled(String key, Runnable task) throws InterruptedException {
+        synchronized (this) {
+            while (!closed && throttled >= queueCapacity) {
+                wait();
+            }
+            if (!closed) {
+                throttled++;
+            }
+        }
+        chain(key, () -> {
+            try {
+                task.run();
+            } finally {
+                releaseThrottled();
+            }
+        }, this::runOrParkUnlessClosed);
+    }
+
+    private synchronized void releaseThrottled() {
+        if (!closed) {
+            throttled--;
+            notifyAll();
+        }
+    }
+
+    private void chain(String key, Runnable task, Executor handOff) {
+        CompletableFuture<Void> start = new CompletableFuture<>();
+        CompletableFuture<Void> done = start
+                .thenRunAsync(task, handOff)
+                .handle((ignored, error) -> {
+                    if (error != null) {
+                        ServerLog.error(client, "Gherkin analysis failed for " + key,
+                                error instanceof CompletionException && error.getCause() != null
+                                        ? error.getCause() : error);
+                    }
+                    return null;
+                });
+        CompletableFuture<Void> previous = tails.put(key, done);
+        done.whenComplete((ignored, error) -> tails.remove(key, done));
+        if (previous == null) {
+            start.complete(null);
+        } else {
+            previous.whenComplete((ignored, error) -> start.complete(null));
+        }
+    }
+
+    /**
+     * Returns the current number of worker threads allowed to run at once.
+     */
+    public int getParallelism() {
+        return pool.getMaximumPoolSize();
+    }
+
+    /**
+     * Returns whether workers are virtual threads.
+     */
+    public synchronized boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Returns the number of tasks waiting for room in the pool queue
+     * (visible for testing).
+     */
+    int getOverflowSize() {
+        return overflow.size();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            // Dropped tasks never release their slot
+            closed = true;
+            notifyAll();
+        }
+        overflow.clear();
+        pool.shutdownNow();
+    }
+
+    private void runOrParkUnlessClosed(Runnable runnable) {
+        ThreadPoolExecutor current = pool;
+        if (current.isShutdown() && current == pool) {
+            // Closed: nothing would drain the overflow queue any more
+            runnable.run();
+            return;
+        }
+        runOrPark(runnable);
+    }
+
+    private void runOrPark(Runnable runnable) {
+        overflow.add(runnable);
+        drainOverflow();
+    }
+
+    /**
+     * Moves parked tasks to the pool while it accepts them. Called after
+     * parking a task and after each task a worker runs, so a parked task
+     * waits at most until the next worker finishes.
+     */
+    private void drainOverflow() {
+        Runnable next;
+        while ((next = overflow.poll()) != null) {
+            ThreadPoolExecutor current = pool;
+            try {
+                current.execute(next);
+            } catch (RejectedExecutionException e) {
+                overflow.addFirst(next);
+                if (!current.isShutdown() || current == pool) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean useVirtualThreads(ServerSettings settings) {
+        return settings.isVirtualThreads() && WorkerThreads.virtualThreadsSupported();
+    }
+
+    private ThreadPoolExecutor newPool(int parallelism, int queueCapacity, boolean virtual) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                parallelism, parallelism,
+                30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                WorkerThreads.factory(THREAD_PREFIX, virtual),
+                new ThreadPoolExecutor.AbortPolicy()) {
+            @Override
+            protected void afterExecute(Runnable runnable, Throwable error) {
+                drainOverflow();
+            }
+        };
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debounces analysis requests per document URI and tracks the latest LSP
+ * document version of each one.
+ * <p>
+ * Each call to {@link #schedule(String, int)} replaces any analysis of the
+ * same URI that has not started yet, so a burst of changes arriving within
+ * the quiet window results in a single analysis of the newest version. An
+ * analysis that is already running when a newer version arrives is not
+ * interrupted, but {@link #isCurrent(String, int)} lets it detect that it has
+ * been superseded and drop its results instead of publishing them.
+ * <p>
+ * The scheduler only keeps time; when a quiet window elapses the analysis
+ * is handed to an {@link AnalysisExecutor}, which serializes it with other
+ * analyses of the same document.
+ */
+public class AnalysisScheduler implements AutoCloseable {
+
+    /**
+     * Callback that analyzes one version of a document.
+     */
+    @FunctionalInterface
+    public interface Analysis {
+
+        /**
+         * Analyzes the document and publishes its diagnostics.
+         *
+         * @param uri     the document URI
+         * @param version the document version the analysis was scheduled for
+         */
+        void run(String uri, int version);
+    }
+
+    private final ScheduledExecutorService timer;
+    private final AnalysisExecutor executor;
+    private final Analysis analysis;
+    private final Map<String, Integer> latestVersions = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+    private volatile long debounceMillis;
+
+    /**
+     * Creates a scheduler that times quiet windows on a dedicated daemon
+     * thread and runs analyses on the given executor.
+     *
+     * @param analysis       the analysis callback
+     * @param executor       the executor that runs analyses
+     * @param debounceMillis the quiet window in milliseconds
+     */
+    public AnalysisScheduler(Analysis analysis, AnalysisExecutor executor, long debounceMillis) {
+        this.analysis = analysis;
+        this.executor = executor;
+        this.debounceMillis = debounceMillis;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gherkin-analysis-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the quiet window applied to subsequently scheduled analyses.
+     *
+     * @param debounceMillis the quiet window in milliseconds
+     */
+    public void setDebounceMillis(long debounceMillis) {
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Schedules analysis of a document version after the quiet window,
+     * superseding any pending analysis of the same document.
+     *
+     * @param uri     the document URI
+     * @param version the document version
+     */
+    public void schedule(String uri, int version) {
+        schedule(uri, version, debounceMillis);
+    }
+
+    /**
+     * Schedules analysis of a document version without waiting for the
+     * quiet window, e.g. when a document is opened.
+     *
+     * @param uri     the document URI
+     * @param version the document version
+     */
+    public void scheduleNow(String uri, int version) {
+        schedule(uri, version, 0);
+    }
+
+    /**
+     * Returns whether the given version is still the latest scheduled
+     * version of the document. Analyses must check this before publishing.
+     *
+     * @param uri     the document URI
+     * @param version the version being analyzed
+     * @return {@code true} if no newer version has been scheduled and the
+     *         document has not been cancelled
+     */
+    public boolean isCurrent(String uri, int version) {
+        Integer latest = latestVersions.get(uri);
+        return latest != null && latest == version;
+    }
+
+    /**
+     * Cancels any pending analysis of a document and forgets its version, so
+     * that an in-flight analysis will not publish. Called when the document
+     * is closed.
+     *
+     * @param uri the document URI
+     */
+    public void cancel(String uri) {
+        latestVersions.remove(uri);
+        ScheduledFuture<?> future = pending.remove(uri);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    private void schedule(String uri, int version, long delayMillis) {
+        latestVersions.put(uri, version);
+        pending.compute(uri, (key, previous) -> {
+            if (previous != null) {
+                previous.cancel(false);
+            }
+            return timer.schedule(() -> executor.execute(uri, () -> runIfCurrent(uri, version)),
+                    delayMillis, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void runIfCurrent(String uri, int version) {
+        if (isCurrent(uri, version)) {
+            analysis.run(uri, version);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms of the analysis stages and of each rule, for the
+ * {@code gherkin/stats} request.
+ * <p>
+ * Stages are timed on every analysis: a few {@link System#nanoTime()} calls
+ * and lock-free counter updates per file. Where the JVM can measure the
+ * bytes allocated by the current thread, each stage also records them.
+ * Rules are timed on one fused walk in {@value #RULE_SAMPLE_INTERVAL}
+ * only, since timing costs a clock read per callback; their histograms
+ * describe the sampled walks.
+ * <p>
+ * Histograms have one bucket per power of two nanoseconds, so percentiles
+ * are upper bounds within a factor of two. Instances are thread-safe.
+ */
+final class AnalysisStats {
+
+    /** One walk in this many has its rules timed. */
+    static final int RULE_SAMPLE_INTERVAL = 16;
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+
+    /**
+     * The timed stages of an analysis.
+     */
+    enum Stage {
+        /** Parsing the content into a tree. */
+        PARSE,
+        /** The fused walk running every active check. */
+        CHECK,
+        /** Converting issues to LSP diagnostics. */
+        MAP,
+        /** Publishing diagnostics or answering a pull request. */
+        PUBLISH
+    }
+
+    private final Map<Stage, Histogram> stages = new EnumMap<>(Stage.class);
+    private final Map<Stage, LongAdder> allocated = new EnumMap<>(Stage.class);
+    private final Map<String, Histogram> rules = new ConcurrentHashMap<>();
+    private final AtomicLong walks = new AtomicLong();
+
+    AnalysisStats() {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new Histogram());
+            allocated.put(stage, new LongAdder());
+        }
+    }
+
+    /**
+     * Returns whether the rules of the next walk should be timed.
+     */
+    boolean sampleRules() {
+        return walks.getAndIncrement() % RULE_SAMPLE_INTERVAL == 0;
+    }
+
+    /**
+     * Records a stage that started at the given clock and allocation
+     * readings, which were taken on the current thread.
+     *
+     * @param stage          the finished stage
+     * @param startNanos     {@link System#nanoTime()} when it started
+     * @param startAllocated {@link #allocatedBytes()} when it started
+     */
+    void record(Stage stage, long startNanos, long startAllocated) {
+        stages.get(stage).record(System.nanoTime() - startNanos);
+        if (startAllocated >= 0) {
+            long end = allocatedBytes();
+            if (end >= startAllocated) {
+                allocated.get(stage).add(end - startAllocated);
+            }
+        }
+    }
+
+    /**
+     * Records the time one rule spent in a sampled walk.
+     *
+     * @param ruleKey the rule key
+     * @param nanos   the time spent in the rule's callbacks
+     */
+    void recordRule(String ruleKey, long nanos) {
+        rules.computeIfAbsent(ruleKey, key -> new Histogram()).record(nanos);
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread, or
+     * {@code -1} if the JVM cannot tell, for example on a virtual thread.
+     */
+    static long allocatedBytes() {
+        return ALLOCATION_BEAN != null ? ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    /**
+     * Returns whether allocations are measured.
+     */
+    static boolean isAllocationTracked() {
+        return ALLOCATION_BEAN != null;
+    }
+
+    /**
+     * Returns the current figures: each stage, then the rules, slowest
+     * first by total sampled time.
+     *
+     * @return the snapshot, as sent in reply to {@code gherkin/stats}
+     */
+    JsonObject snapshot() {
+        JsonObject snapshot = new JsonObject();
+        snapshot.addProperty("ruleSampleInterval", RULE_SAMPLE_INTERVAL);
+        snapshot.addProperty("allocationTracked", isAllocationTracked());
+        JsonObject stageStats = new JsonObject();
+        for (Stage stage : Stage.values()) {
+            JsonObject json = stages.get(stage).toJson();
+            if (isAllocationTracked()) {
+                json.addProperty("allocatedBytes", allocated.get(stage).sum());
+            }
+            stageStats.add(stage.name().toLowerCase(Locale.ROOT), json);
+        }
+        snapshot.add("stages", stageStats);
+        JsonArray ruleStats = new JsonArray();
+        for (Map.Entry<String, Histogram> rule : rulesBySlowest()) {
+            JsonObject json = rule.getValue().toJson();
+            json.addProperty("rule", rule.getKey());
+            ruleStats.add(json);
+        }
+        snapshot.add("rules", ruleStats);
+        return snapshot;
+    }
+
+    /**
+     * Returns a one-line summary of the stages and the slowest rules, for
+     * periodic logging.
+     *
+     * @param topRules the number of rules to list
+     */
+    String summary(int topRules) {
+        StringBuilder summary = new StringBuilder("Gherkin analysis stats:");
+        for (Stage stage : Stage.values()) {
+            Histogram histogram = stages.get(stage);
+            summary.append(String.format(Locale.ROOT, " %s n=%d p50=%.1fus p99=%.1fus;",
+                    stage.name().toLowerCase(Locale.ROOT), histogram.count(),
+                    micros(histogram.percentile(0.5)), micros(histogram.percentile(0.99))));
+        }
+        summary.append(" slowest rules:");
+        List<Map.Entry<String, Histogram>> slowest = rulesBySlowest();
+        for (Map.Entry<String, Histogram> rule : slowest.subList(0, Math.min(topRules, slowest.size()))) {
+            summary.append(String.format(Locale.ROOT, " %s %.1fms", rule.getKey(),
+                    rule.getValue().total() / 1e6));
+        }
+        return summary.toString();
+    }
+
+    private List<Map.Entry<String, Histogram>> rulesBySlowest() {
+        List<Map.Entry<String, Histogram>> sorted = new ArrayList<>(rules.entrySet());
+        sorted.sort(Comparator.comparingLong((Map.Entry<String, Histogram> rule) -> rule.getValue().total())
+                .reversed());
+        return sorted;
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1e3;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean allocationBean
+                    && allocationBean.isThreadAllocatedMemorySupported()) {
+                if (!allocationBean.isThreadAllocatedMemoryEnabled()) {
+                    allocationBean.setThreadAllocatedMemoryEnabled(true);
+                }
+                return allocationBean;
+            }
+        } catch (LinkageError | RuntimeException e) {
+            // No jdk.management module, or not allowed: time only
+        }
+        return null;
+    }
+
+    /**
+     * Lock-free latency histogram with power-of-two buckets.
+     */
+    static final class Histogram {
+
+        private static final int BUCKETS = 64;
+
+        /** Bucket {@code i} counts values below 2^i and at least 2^(i-1). */
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value)));
+            count.increment();
+            total.add(value);
+            max.accumulate(value);
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        long total() {
+            return total.sum();
+        }
+
+        /**
+         * Returns an upper bound of the given percentile, at most the
+         * largest value recorded.
+         *
+         * @param fraction the percentile, between 0 and 1
+         */
+        long percentile(double fraction) {
+            long[] counts = new long[BUCKETS];
+            long recorded = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                recorded += counts[i];
+            }
+            if (recorded == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(fraction * recorded);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    long upperBound = i == 0 ? 0 : (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+                    return Math.min(upperBound, max.get());
+                }
+            }
+            return max.get();
+        }
+
+        JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            long n = count();
+            json.addProperty("count", n);
+            json.addProperty("totalMs", total() / 1e6);
+            json.addProperty("meanUs", n == 0 ? 0 : micros(total() / n));
+            json.addProperty("p50Us", micros(percentile(0.5)));
+            json.addProperty("p90Us", micros(percentile(0.9)));
+            json.addProperty("p99Us", micros(percentile(0.99)));
+            json.addProperty("maxUs", micros(max.get()));
+            return json;
+        }
+    }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.CrossFileIssue;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.Issue;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Analyzes all feature files under a set of paths without an editor, for
+ * use in CI pipelines.
+ * <p>
+ * The directory walk runs on the calling thread and hands each feature file
+ * to a work-stealing {@link ForkJoinPool} as soon as it is found, so reading,
+ * parsing and checking overlap with the walk and spread over all workers.
+ * Each worker leases its own check set from the {@link CheckFactory}, and
+ * parsed trees are dropped as soon as their checks have run: only the
+ * compact {@link CrossFileIndex} entries are kept.
+ * <p>
+ * Results are streamed: each file's diagnostics are handed to a
+ * {@link Listener} as soon as the file is analyzed, in completion order,
+ * and are not retained afterwards. Cross-file rules are evaluated once,
+ * after every file has been indexed, and their diagnostics are reported
+ * last, as a second call for each affected file.
+ * <p>
+ * With a cache file, each file's cross-file facts and diagnostics are saved
+ * in an {@link AnalysisCache}, and a later run with the same analyzer
+ * version and rule configuration reuses them for every file whose content
+ * is unchanged, without parsing it.
+ * <p>
+ * A file that cannot be read gets a single error diagnostic. So does a file
+ * that the parser or a check fails on, instead of stopping the run; those
+ * failures are counted in the {@link Summary}.
+ * <p>
+ * Hidden directories and {@code node_modules} are skipped.
+ */
+public final class BatchAnalyzer {
+
+    private static final String SOURCE = "gherkin-analyzer";
+
+    private final RuleConfiguration ruleConfiguration;
+    private final int parallelism;
+    private final Path cacheFile;
+    private final FeatureParser parser;
+
+    /**
+     * Creates a batch analyzer.
+     *
+     * @param ruleConfiguration the rules to run
+     * @param parallelism       the number of worker threads
+     */
+    public BatchAnalyzer(RuleConfiguration ruleConfiguration, int parallelism) {
+        this(ruleConfiguration, parallelism, null);
+    }
+
+    /**
+     * Creates a batch analyzer that reuses the results of unchanged files
+     * from a previous run.
+     *
+     * @param ruleConfiguration the rules to run
+     * @param parallelism       the number of worker threads
+     * @param cacheFile         the analysis cache to read and rewrite, or
+     *                          {@code null} to analyze every file
+     */
+    public BatchAnalyzer(RuleConfiguration ruleConfiguration, int parallelism, Path cacheFile) {
+        this(ruleConfiguration, parallelism, cacheFile, FeatureParser.Engine.CUCUMBER);
+    }
+
+    /**
+     * Creates a batch analyzer with the given parser.
+     *
+     * @param ruleConfiguration the rules to run
+     * @param parallelism       the number of worker threads
+     * @param cacheFile         the analysis cache to read and rewrite, or
+     *                          {@code null} to analyze every file
+     * @param parserEngine      the parser used for feature files
+     */
+    public BatchAnalyzer(RuleConfiguration ruleConfiguration, int parallelism, Path cacheFile,
+                         FeatureParser.Engine parserEngine) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.ruleConfiguration = ruleConfiguration;
+        this.parallelism = parallelism;
+        this.cacheFile = cacheFile;
+        this.parser = new FeatureParser(parserEngine);
+    }
+
+    /**
+     * Analyzes every feature file under the given paths and collects the
+     * results, with the cross-file diagnostics merged into each file's.
+     * <p>
+     * This keeps every diagnostic in memory; use
+     * {@link #analyze(List, Listener)} to stream large runs.
+     *
+     * @param roots the paths to analyze
+     * @return the diagnostics of every analyzed file, sorted by path
+     * @throws IOException if a directory cannot be walked
+     */
+    public Result analyze(List<Path> roots) throws IOException {
+        Map<Path, List<Diagnostic>> byPath = new LinkedHashMap<>();
+        Summary summary = analyze(roots,
+                (path, diagnostics) -> byPath.computeIfAbsent(path, p -> new ArrayList<>()).addAll(diagnostics));
+
+        List<FileResult> files = new ArrayList<>(byPath.size());
+        byPath.forEach((path, diagnostics) -> files.add(new FileResult(path, diagnostics)));
+        files.sort(Comparator.comparing(FileResult::path));
+        return new Result(files, summary.elapsedMillis());
+    }
+
+    /**
+     * Analyzes every feature file under the given paths, streaming the
+     * diagnostics to a listener. A path may be a directory, walked
+     * recursively, or a single file.
+     * <p>
+     * The listener is called once per analyzed file, from the worker threads
+     * but never concurrently, and once more for each file with cross-file
+     * diagnostics.
+     *
+     * @param roots    the paths to analyze
+     * @param listener receives the diagnostics as they are produced
+     * @return the file and diagnostic counts of the run
+     * @throws IOException if a directory cannot be walked, if the cache
+     *                     cannot be written, or if the listener fails
+     */
+    public Summary analyze(List<Path> roots, Listener listener) throws IOException {
+        long start = System.nanoTime();
+        CrossFileIndex crossFileIndex = new CrossFileIndex();
+        Map<String, Path> pathsByUri = new ConcurrentHashMap<>();
+        Counter counter = new Counter(listener);
+        AtomicInteger failures = new AtomicInteger();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (AnalysisCache cache = cacheFile != null
+                ? AnalysisCache.open(cacheFile, AnalysisCache.diagnosticsKey(ruleConfiguration))
+                : null) {
+            for (Path root : roots) {
+                walk(root, path -> {
+                    pathsByUri.put(uri(path), path);
+                    tasks.add(pool.submit(
+                            () -> counter.fileAnalyzed(path, analyzeFile(path, crossFileIndex, cache, failures))));
+                });
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+            if (cache != null) {
+                cache.commit();
+            }
+            reportCrossFileDiagnostics(crossFileIndex, pathsByUri, counter);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdownNow();
+        }
+        return counter.summary(tasks.size(), failures.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Returns the number of worker threads.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    private static void walk(Path root, FileSink sink) throws IOException {
+        if (Files.isRegularFile(root)) {
+            sink.accept(root);
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root) && FeatureFiles.isSkippedDirectory(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && FeatureFiles.isFeatureFile(file)) {
+                    sink.accept(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private List<Diagnostic> analyzeFile(Path path, CrossFileIndex crossFileIndex, AnalysisCache cache,
+                                         AtomicInteger failures) {
+        String uri = uri(path);
+        byte[] hash = null;
+        FeatureFile featureFile;
+        String content;
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            if (cache != null) {
+                hash = AnalysisCache.hash(bytes);
+                AnalysisCache.Entry entry = cache.lookup(uri, hash);
+                if (entry != null && entry.diagnostics() != null) {
+                    crossFileIndex.update(uri, entry.contribution());
+                    cache.put(uri, hash, entry.contribution(), entry.diagnostics());
+                    return entry.diagnostics();
+                }
+            }
+            // Decoded strictly, as Files.readString would
+            content = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+            featureFile = parser.parse(uri, content);
+        } catch (IOException e) {
+            return List.of(readError(e));
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            return List.of(analysisError(e));
+        }
+
+        CrossFileIndex.Contribution contribution = CrossFileIndex.collect(featureFile);
+        crossFileIndex.update(uri, contribution);
+
+        RuleConfiguration config = ruleConfiguration;
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        try {
+            for (Issue issue : config.getCheckFactory().analyze(featureFile, content)) {
+                diagnostics.add(DiagnosticMapper.toDiagnostic(issue, config));
+            }
+        } catch (RuntimeException e) {
+            // Not cached, so the next run tries again
+            failures.incrementAndGet();
+            return List.of(analysisError(e));
+        }
+        if (cache != null) {
+            cache.put(uri, hash, contribution, diagnostics);
+        }
+        return diagnostics;
+    }
+
+    private void reportCrossFileDiagnostics(CrossFileIndex crossFileIndex, Map<String, Path> pathsByUri,
+                                            Counter counter) {
+        Set<String> activeRules = ruleConfiguration.getActiveRuleKeys();
+        for (String uri : new TreeSet<>(crossFileIndex.getUrisWithIssues())) {
+            Path path = pathsByUri.get(uri);
+            if (path == null) {
+                continue;
+            }
+            List<Diagnostic> diagnostics = new ArrayList<>();
+            for (CrossFileIssue issue : crossFileIndex.getIssues(uri, activeRules)) {
+                diagnostics.add(DiagnosticMapper.toDiagnostic(issue, ruleConfiguration));
+            }
+            if (!diagnostics.isEmpty()) {
+                counter.fileAnalyzed(path, diagnostics);
+            }
+        }
+    }
+
+    private static Diagnostic readError(IOException e) {
+        return fileError("parse-error", "Cannot read this file: " + e);
+    }
+
+    private static Diagnostic analysisError(RuntimeException e) {
+        return fileError("analysis-error", "Cannot analyze this file: " + e);
+    }
+
+    private static Diagnostic fileError(String code, String message) {
+        Diagnostic diagnostic = new Diagnostic();
+        diagnostic.setRange(new Range(new Position(0, 0), new Position(0, 1)));
+        diagnostic.setSeverity(DiagnosticSeverity.Error);
+        diagnostic.setSource(SOURCE);
+        diagnostic.setCode(code);
+        diagnostic.setMessage(message);
+        return diagnostic;
+    }
+
+    private static String uri(Path path) {
+        return path.toUri().toString();
+    }
+
+    /**
+     * Receives the diagnostics of each file as soon as they are produced.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called with the diagnostics of one file. Calls are never
+         * concurrent, and the same file may be reported twice: once with its
+         * own diagnostics and once with its cross-file diagnostics.
+         *
+         * @param path        the file path, as found under its root
+         * @param diagnostics the diagnostics, possibly empty
+         * @throws IOException if the diagnostics cannot be written
+         */
+        void fileAnalyzed(Path path, List<Diagnostic> diagnostics) throws IOException;
+    }
+
+    /**
+     * Receives each feature file found by the walk.
+     */
+    @FunctionalInterface
+    private interface FileSink {
+        void accept(Path file);
+    }
+
+    /**
+     * Serializes the listener calls and counts diagnostics by severity, so
+     * that nothing but the counts outlives a listener call.
+     */
+    private static final class Counter {
+
+        private final Listener listener;
+        private final int[] counts = new int[DiagnosticSeverity.values().length + 1];
+
+        Counter(Listener listener) {
+            this.listener = listener;
+        }
+
+        synchronized void fileAnalyzed(Path path, List<Diagnostic> diagnostics) {
+            for (Diagnostic diagnostic : diagnostics) {
+                counts[diagnostic.getSeverity().getValue()]++;
+            }
+            try {
+                listener.fileAnalyzed(path, diagnostics);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        synchronized Summary summary(int files, int failures, long elapsedMillis) {
+            return new Summary(files, failures, elapsedMillis,
+                    counts[DiagnosticSeverity.Error.getValue()], counts[DiagnosticSeverity.Warning.getValue()],
+                    counts[DiagnosticSeverity.Information.getValue()], counts[DiagnosticSeverity.Hint.getValue()]);
+        }
+    }
+
+    /**
+     * The counts of a streamed batch run.
+     *
+     * @param files         the number of analyzed files
+     * @param failures      the number of files the parser or a check
+     *                      failed on
+     * @param elapsedMillis the wall-clock duration of the run
+     * @param errors        the number of error diagnostics
+     * @param warnings      the number of warning diagnostics
+     * @param infos         the number of information diagnostics
+     * @param hints         the number of hint diagnostics
+     */
+    public record Summary(int files, int failures, long elapsedMillis,
+                          int errors, int warnings, int infos, int hints) {
+
+        /**
+         * Returns the number of diagnostics with the given severity.
+         *
+         * @param severity the severity to count
+         * @return the count over all files
+         */
+        public int count(DiagnosticSeverity severity) {
+            return switch (severity) {
+                case Error -> errors;
+                case Warning -> warnings;
+                case Information -> infos;
+                case Hint -> hints;
+            };
+        }
+    }
+
+    /**
+     * The diagnostics of one analyzed file.
+     *
+     * @param path        the file path, as found under its root
+     * @param diagnostics the file and cross-file diagnostics
+     */
+    public record FileResult(Path path, List<Diagnostic> diagnostics) {
+
+        public FileResult {
+            diagnostics = List.copyOf(diagnostics);
+        }
+    }
+
+    /**
+     * The outcome of a batch run.
+     *
+     * @param files         the analyzed files, sorted by path
+     * @param elapsedMillis the wall-clock duration of the run
+     */
+    public record Result(List<FileResult> files, long elapsedMillis) {
+
+        public Result {
+            files = List.copyOf(files);
+        }
+
+        /**
+         * Returns the number of diagnostics with the given severity.
+         *
+         * @param severity the severity to count
+         * @return the count over all files
+         */
+        public int count(DiagnosticSeverity severity) {
+            int count = 0;
+            for (FileResult file : files) {
+                for (Diagnostic diagnostic : file.diagnostics()) {
+                    if (diagnostic.getSeverity() == severity) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+
+import java.io.BufferedWriter;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command-line entry point that analyzes feature files without an editor,
+ * for CI pipelines.
+ * <p>
+ * Usage: {@code java -jar gherkin-lsp-server.jar analyze [options] <path>...}
+ * <ul>
+ *   <li>{@code --settings <file>}: rule settings in the same JSON format as
+ *       the VS Code settings. Either a {@code settings.json} file with
+ *       {@code gherkinAnalyzer.*} keys, or an object holding
+ *       {@code rules} and {@code rulesReplaceDefaults}. Without it, the
+ *       default profile runs.</li>
+ *   <li>{@code --threads <n>}: the number of worker threads (default: the
+ *       number of processors).</li>
+ *   <li>{@code --fail-on <severity>}: the lowest severity that fails the
+ *       run: {@code error} (default), {@code warning}, {@code information},
+ *       {@code hint} or {@code none}.</li>
+ *   <li>{@code --format <format>}: {@code text} (default), one
+ *       {@code path:line:column: severity: message [rule-key]} line per
+ *       diagnostic; {@code ndjson}, one JSON object per line; or
+ *       {@code sarif}, a SARIF 2.1.0 log.</li>
+ *   <li>{@code --output <file>}: the file to write the diagnostics to
+ *       (default: standard output).</li>
+ *   <li>{@code --cache <file>}: an analysis cache, created if missing.
+ *       Files unchanged since the previous run with the same settings are
+ *       not analyzed again.</li>
+ *   <li>{@code --parser <engine>}: the feature file parser,
+ *       {@code cucumber} (default) or {@code native}, which is faster and
+ *       gives the same results.</li>
+ * </ul>
+ * Diagnostics are written as each file is analyzed, and a summary is
+ * printed on standard error at the end.
+ * <p>
+ * Exit codes: {@value #EXIT_OK} when no diagnostic reaches the
+ * {@code --fail-on} severity, {@value #EXIT_FAILED} when one does,
+ * {@value #EXIT_USAGE} for invalid arguments, settings or paths, and
+ * {@value #EXIT_ERROR} when the analyzer itself failed, on some files or
+ * on the whole run, including I/O errors while walking the paths, writing
+ * the output or saving the cache, so that CI can tell a crash from a failed
+ * quality gate.
+ * Files the analyzer failed on are reported with an
+ * {@code analysis-error} diagnostic.
+ */
+public final class BatchMain {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILED = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_ERROR = 3;
+
+    private static final String SETTINGS_SECTION = "gherkinAnalyzer";
+    private static final String USAGE =
+            "Usage: analyze [--settings <file>] [--threads <n>] "
+                    + "[--fail-on error|warning|information|hint|none] "
+                    + "[--format text|ndjson|sarif] [--output <file>] [--cache <file>] "
+                    + "[--parser cucumber|native] <path>...";
+
+    private BatchMain() {
+        // entry point only
+    }
+
+    public static void main(String[] args) {
+        int exit;
+        try {
+            exit = run(args, System.out, System.err);
+        } catch (RuntimeException | Error e) {
+            e.printStackTrace();
+            exit = EXIT_ERROR;
+        }
+        System.exit(exit);
+    }
+
+    /**
+     * Runs a batch analysis.
+     *
+     * @param args the command-line arguments, without the {@code analyze}
+     *             command
+     * @param out  receives the diagnostics
+     * @param err  receives the summary and error messages
+     * @return the process exit code
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        Path settingsFile = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        DiagnosticSeverity failOn = DiagnosticSeverity.Error;
+        String format = "text";
+        Path outputFile = null;
+        Path cacheFile = null;
+        FeatureParser.Engine parser = FeatureParser.Engine.CUCUMBER;
+        List<Path> roots = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--settings" -> settingsFile = Paths.get(value(args, ++i, arg));
+                    case "--threads" -> threads = parseThreads(value(args, ++i, arg));
+                    case "--fail-on" -> failOn = parseSeverity(value(args, ++i, arg));
+                    case "--format" -> format = parseFormat(value(args, ++i, arg));
+                    case "--output" -> outputFile = Paths.get(value(args, ++i, arg));
+                    case "--cache" -> cacheFile = Paths.get(value(args, ++i, arg));
+                    case "--parser" -> parser = parseEngine(value(args, ++i, arg));
+                    case "-h", "--help" -> {
+                        out.println(USAGE);
+                        return EXIT_OK;
+                    }
+                    default -> {
+                        if (arg.startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option: " + arg);
+                        }
+                        roots.add(Paths.get(arg));
+                    }
+                }
+            }
+            if (roots.isEmpty()) {
+                throw new IllegalArgumentException("No path to analyze");
+            }
+            for (Path root : roots) {
+                if (!Files.exists(root)) {
+                    throw new IllegalArgumentException("No such file or directory: " + root);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        RuleConfiguration config;
+        try {
+            config = new RuleConfiguration(settingsFile != null ? readSettings(settingsFile) : null);
+        } catch (IOException | RuntimeException e) {
+            err.println("Cannot read settings " + settingsFile + ": " + e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        BatchAnalyzer.Summary summary;
+        try (Writer output = outputFile != null
+                ? Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8)
+                : new UnclosedWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)))) {
+            DiagnosticWriter writer = DiagnosticWriter.forFormat(format, output);
+            writer.begin();
+            summary = new BatchAnalyzer(config, threads, cacheFile, parser).analyze(roots, writer);
+            writer.end();
+        } catch (IOException e) {
+            err.println("Analysis failed: " + e.getMessage());
+            return EXIT_ERROR;
+        } catch (RuntimeException e) {
+            err.println("Analysis failed unexpectedly:");
+            e.printStackTrace(err);
+            return EXIT_ERROR;
+        }
+
+        err.printf(Locale.ROOT, "Analyzed %d files in %d ms: %d errors, %d warnings, %d infos, %d hints%n",
+                summary.files(), summary.elapsedMillis(),
+                summary.errors(), summary.warnings(), summary.infos(), summary.hints());
+        if (summary.failures() > 0) {
+            err.printf(Locale.ROOT, "The analyzer failed on %d files, see the analysis-error diagnostics%n",
+                    summary.failures());
+            return EXIT_ERROR;
+        }
+        return isFailed(summary, failOn) ? EXIT_FAILED : EXIT_OK;
+    }
+
+    private static boolean isFailed(BatchAnalyzer.Summary summary, DiagnosticSeverity failOn) {
+        if (failOn == null) {
+            return false;
+        }
+        for (DiagnosticSeverity severity : DiagnosticSeverity.values()) {
+            if (severity.getValue() <= failOn.getValue() && summary.count(severity) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads rule settings, accepting a VS Code {@code settings.json} (flat
+     * {@code gherkinAnalyzer.*} keys, comments allowed), an object nested
+     * under {@code gherkinAnalyzer}, or the settings object itself.
+     */
+    static JsonObject readSettings(Path file) throws IOException {
+        JsonElement root;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            // JsonParser reads leniently, so settings.json comments are accepted
+            root = JsonParser.parseReader(new JsonReader(reader));
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid JSON: " + e.getMessage(), e);
+        }
+        if (!root.isJsonObject()) {
+            throw new IOException("Settings must be a JSON object");
+        }
+        JsonObject object = root.getAsJsonObject();
+        if (object.has(SETTINGS_SECTION) && object.get(SETTINGS_SECTION).isJsonObject()) {
+            return object.getAsJsonObject(SETTINGS_SECTION);
+        }
+        JsonObject flattened = new JsonObject();
+        String prefix = SETTINGS_SECTION + ".";
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                flattened.add(entry.getKey().substring(prefix.length()), entry.getValue());
+            }
+        }
+        return flattened.size() > 0 ? flattened : object;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static int parseThreads(String value) {
+        try {
+            int threads = Integer.parseInt(value);
+            if (threads >= 1) {
+                return threads;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("--threads must be a positive integer: " + value);
+    }
+
+    private static String parseFormat(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "text", "ndjson", "sarif" -> value.toLowerCase(Locale.ROOT);
+            default -> throw new IllegalArgumentException("Unknown --format: " + value);
+        };
+    }
+
+    private static FeatureParser.Engine parseEngine(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "cucumber" -> FeatureParser.Engine.CUCUMBER;
+            case "native" -> FeatureParser.Engine.NATIVE;
+            default -> throw new IllegalArgumentException("Unknown --parser: " + value);
+        };
+    }
+
+    private static DiagnosticSeverity parseSeverity(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "error" -> DiagnosticSeverity.Error;
+            case "warning" -> DiagnosticSeverity.Warning;
+            case "information", "info" -> DiagnosticSeverity.Information;
+            case "hint" -> DiagnosticSeverity.Hint;
+            case "none" -> null;
+            default -> throw new IllegalArgumentException("Unknown --fail-on severity: " + value);
+        };
+    }
+
+    /**
+     * Flushes instead of closing, so that standard output stays open.
+     */
+    private static final class UnclosedWriter extends FilterWriter {
+
+        UnclosedWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
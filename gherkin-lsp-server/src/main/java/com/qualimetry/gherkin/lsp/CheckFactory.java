@@ -0,0 +1,397 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.BackgroundDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.DataTableDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.ExamplesDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.StepDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.StructuralHashes;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.TextPosition;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.FeatureContext;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.FeatureWalker;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.Issue;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.MultiplexingWalker;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.NodeLocal;
+import org.sonar.check.Rule;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Produces isolated sets of the active check instances of a
+ * {@link RuleConfiguration}.
+ * <p>
+ * Checks keep per-file state between {@code setContext} and the end of the
+ * walk, so a check instance must never be used by two analyses at once. The
+ * factory records, for each active rule, the check constructor and the
+ * already-parsed {@code @RuleProperty} values, so that a new instance is one
+ * constructor call plus a few field writes rather than a fresh round of
+ * settings parsing.
+ * <p>
+ * Check sets are pooled: {@link #acquire()} hands out a set that no other
+ * analysis is using, and closing the {@link Lease} returns it. Sequential
+ * reuse of a set for many files matches how the checks were always used,
+ * and the pool never grows beyond the number of concurrent analyses. Each
+ * pooled set comes with a {@link MultiplexingWalker} over its checks, so
+ * the subscriptions are computed once per set rather than once per file.
+ * <p>
+ * Checks annotated {@link NodeLocal} are walked separately from the others,
+ * and their issues for each Background and Scenario are remembered by the
+ * node's structural hash. When the same node comes back, for instance
+ * because the user is typing in another scenario of the file, its issues
+ * are replayed at the node's new line instead of walking it again. Since
+ * the memo is shared by all files, an entry also records the node's kind,
+ * step count and line span, and is only replayed for a node that matches
+ * them, so a hash collision is walked rather than reported wrongly. The
+ * memo lives in the factory because the set of checks and their properties
+ * are fixed per factory; a new rule configuration starts with an empty
+ * memo. The issues of the local checks follow those of the other checks,
+ * in the same order whether or not they were replayed.
+ */
+public final class CheckFactory {
+
+    /** Maximum number of Backgrounds and Scenarios whose issues are remembered. */
+    static final int MEMO_CAPACITY = 8192;
+
+    private final List<Prototype> prototypes;
+    private final Queue<Lease> pool = new ConcurrentLinkedQueue<>();
+    private final Map<Long, NodeIssues> nodeIssues = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, NodeIssues> eldest) {
+                    return size() > MEMO_CAPACITY;
+                }
+            });
+
+    CheckFactory(List<Prototype> prototypes) {
+        this.prototypes = List.copyOf(prototypes);
+    }
+
+    /**
+     * Creates a new set of check instances with properties applied.
+     *
+     * @return a list of fresh check instances, in rule order
+     */
+    public List<BaseCheck> newChecks() {
+        List<BaseCheck> checks = new ArrayList<>(prototypes.size());
+        for (Prototype prototype : prototypes) {
+            checks.add(prototype.newInstance());
+        }
+        return Collections.unmodifiableList(checks);
+    }
+
+    /**
+     * Takes a check set from the pool, creating one if none is free. The
+     * caller has exclusive use of the set until the lease is closed.
+     *
+     * @return a lease on a check set
+     */
+    public Lease acquire() {
+        Lease lease = pool.poll();
+        return lease != null ? lease : new Lease(newChecks());
+    }
+
+    /**
+     * Runs every check on a parsed file, in one fused walk over the tree and
+     * the raw lines, with a check set leased for the duration of the call.
+     *
+     * @param featureFile the parsed file
+     * @param content     the raw file content
+     * @return the issues raised, each carrying its rule key
+     */
+    public List<Issue> analyze(FeatureFile featureFile, String content) {
+        return analyze(featureFile, content, null);
+    }
+
+    /**
+     * Runs every check on a parsed file like {@link #analyze(FeatureFile, String)},
+     * timing each rule when the statistics pick this walk as a sample.
+     *
+     * @param featureFile the parsed file
+     * @param content     the raw file content
+     * @param stats       the statistics to record rule timings in, or
+     *                    {@code null}
+     * @return the issues raised, each carrying its rule key
+     */
+    List<Issue> analyze(FeatureFile featureFile, String content, AnalysisStats stats) {
+        return analyze(featureFile, content, stats, false);
+    }
+
+    /**
+     * Runs every check on a parsed file like
+     * {@link #analyze(FeatureFile, String, AnalysisStats)}, optionally
+     * reusing the issues of {@link NodeLocal} checks for Backgrounds and
+     * Scenarios that were already analyzed.
+     *
+     * @param featureFile the parsed file
+     * @param content     the raw file content
+     * @param stats       the statistics to record rule timings in, or
+     *                    {@code null}
+     * @param reuse       whether to replay remembered node issues; worth it
+     *                    when the same file is analyzed again and again
+     * @return the issues raised, each carrying its rule key
+     */
+    List<Issue> analyze(FeatureFile featureFile, String content, AnalysisStats stats, boolean reuse) {
+        FeatureContext context = new FeatureContext(featureFile, null, content);
+        try (Lease lease = acquire()) {
+            for (BaseCheck check : lease.checks()) {
+                check.setContext(context);
+            }
+            NodeReplay replay = reuse ? new NodeReplay(context) : null;
+            if (stats != null && stats.sampleRules()) {
+                long[] globalElapsed = new long[lease.globalIndexes.length];
+                long[] localElapsed = new long[lease.localIndexes.length];
+                lease.globalWalker.walk(featureFile, context.getLines(), null, globalElapsed);
+                lease.localWalker.walk(featureFile, null, replay, localElapsed);
+                for (int i = 0; i < globalElapsed.length; i++) {
+                    stats.recordRule(lease.ruleKeys[lease.globalIndexes[i]], globalElapsed[i]);
+                }
+                for (int i = 0; i < localElapsed.length; i++) {
+                    stats.recordRule(lease.ruleKeys[lease.localIndexes[i]], localElapsed[i]);
+                }
+            } else {
+                lease.globalWalker.walk(featureFile, context.getLines());
+                lease.localWalker.walk(featureFile, null, replay);
+            }
+        }
+        return context.getIssues();
+    }
+
+    /**
+     * Returns the number of Backgrounds and Scenarios whose issues are
+     * remembered (visible for testing).
+     */
+    int getMemoSize() {
+        return nodeIssues.size();
+    }
+
+    /**
+     * Returns the number of check instances in each set.
+     */
+    public int size() {
+        return prototypes.size();
+    }
+
+    /**
+     * Returns the number of idle pooled check sets (visible for testing).
+     */
+    int getPooledCount() {
+        return pool.size();
+    }
+
+    /**
+     * Exclusive use of one pooled check set.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final List<BaseCheck> checks;
+        private final MultiplexingWalker globalWalker;
+        private final MultiplexingWalker localWalker;
+        /** Positions in {@link #checks} of the checks of each walker. */
+        private final int[] globalIndexes;
+        private final int[] localIndexes;
+        private final String[] ruleKeys;
+
+        private Lease(List<BaseCheck> checks) {
+            this.checks = checks;
+            this.ruleKeys = new String[checks.size()];
+            List<BaseCheck> global = new ArrayList<>();
+            List<BaseCheck> local = new ArrayList<>();
+            List<Integer> globalPositions = new ArrayList<>();
+            List<Integer> localPositions = new ArrayList<>();
+            for (int i = 0; i < ruleKeys.length; i++) {
+                BaseCheck check = checks.get(i);
+                Rule rule = check.getClass().getAnnotation(Rule.class);
+                ruleKeys[i] = rule != null ? rule.key() : "unknown";
+                if (check.getClass().isAnnotationPresent(NodeLocal.class)) {
+                    local.add(check);
+                    localPositions.add(i);
+                } else {
+                    global.add(check);
+                    globalPositions.add(i);
+                }
+            }
+            this.globalWalker = new MultiplexingWalker(global);
+            this.localWalker = new MultiplexingWalker(local);
+            this.globalIndexes = globalPositions.stream().mapToInt(Integer::intValue).toArray();
+            this.localIndexes = localPositions.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * Returns the leased check instances.
+         */
+        public List<BaseCheck> checks() {
+            return checks;
+        }
+
+        @Override
+        public void close() {
+            pool.offer(this);
+        }
+    }
+
+    /**
+     * Replays the remembered issues of unchanged Backgrounds and Scenarios
+     * during the walk of the {@link NodeLocal} checks, and remembers the
+     * issues of the nodes that are walked. A node that moved keeps its
+     * entry: its issues are shifted by the lines it moved.
+     */
+    private final class NodeReplay implements FeatureWalker.Subtrees {
+
+        private final FeatureContext context;
+        private final long languageHash;
+        private final StructuralHashes hashes = new StructuralHashes();
+        /** Key and shape of the node being walked, and the issue count before it. */
+        private long key;
+        private boolean scenario;
+        private int steps;
+        private int span;
+        private int start;
+
+        NodeReplay(FeatureContext context) {
+            this.context = context;
+            this.languageHash = context.getFeatureFile().language().hashCode() * 0x9E3779B97F4A7C15L;
+        }
+
+        @Override
+        public boolean enterBackground(BackgroundDefinition background) {
+            int line = background.position().line();
+            return enter(hashes.of(background), false, background.steps().size(),
+                    lastLine(background.steps(), List.of(), line) - line, line);
+        }
+
+        @Override
+        public void leaveBackground(BackgroundDefinition background) {
+            leave(background.position().line());
+        }
+
+        @Override
+        public boolean enterScenario(ScenarioDefinition scenario) {
+            int line = scenario.position().line();
+            return enter(hashes.of(scenario), true, scenario.steps().size(),
+                    lastLine(scenario.steps(), scenario.examples(), line) - line, line);
+        }
+
+        @Override
+        public void leaveScenario(ScenarioDefinition scenario) {
+            leave(scenario.position().line());
+        }
+
+        private boolean enter(long structuralHash, boolean isScenario, int stepCount, int lineSpan, int line) {
+            key = structuralHash ^ languageHash;
+            scenario = isScenario;
+            steps = stepCount;
+            span = lineSpan;
+            NodeIssues remembered = nodeIssues.get(key);
+            if (remembered == null || !remembered.matches(isScenario, stepCount, lineSpan)) {
+                start = context.getIssues().size();
+                return true;
+            }
+            int lines = line - remembered.line();
+            for (Issue issue : remembered.issues()) {
+                context.addIssue(lines == 0 ? issue : shift(issue, lines));
+            }
+            return false;
+        }
+
+        private void leave(int line) {
+            List<Issue> issues = context.getIssues();
+            nodeIssues.put(key, new NodeIssues(scenario, steps, span, line,
+                    List.copyOf(issues.subList(start, issues.size()))));
+        }
+
+        /**
+         * Returns the line of the last step, or of the last Examples row,
+         * of a node; {@code line} when it has neither.
+         */
+        private static int lastLine(List<StepDefinition> steps, List<ExamplesDefinition> examples, int line) {
+            if (!examples.isEmpty()) {
+                ExamplesDefinition last = examples.get(examples.size() - 1);
+                DataTableDefinition table = last.table();
+                return table != null
+                        ? table.position().line() + table.rowCount() - 1
+                        : last.position().line();
+            }
+            return steps.isEmpty() ? line : steps.get(steps.size() - 1).position().line();
+        }
+
+        private static Issue shift(Issue issue, int lines) {
+            TextPosition position = issue.position();
+            return new Issue(issue.ruleKey(), issue.message(),
+                    position != null ? TextPosition.of(position.line() + lines, position.column()) : null,
+                    issue.line() != null ? issue.line() + lines : null,
+                    issue.cost(), issue.endColumn());
+        }
+    }
+
+    /**
+     * The issues the {@link NodeLocal} checks raised for a Background or
+     * Scenario, with the shape of the node they belong to.
+     *
+     * @param scenario whether the node is a Scenario rather than a Background
+     * @param steps    the number of steps of the node
+     * @param span     the number of lines from the node to its last step or
+     *                 Examples row
+     * @param line     the line the node was on when it was walked
+     * @param issues   the issues raised between entering and leaving the node
+     */
+    private record NodeIssues(boolean scenario, int steps, int span, int line, List<Issue> issues) {
+
+        boolean matches(boolean isScenario, int stepCount, int lineSpan) {
+            return scenario == isScenario && steps == stepCount && span == lineSpan;
+        }
+    }
+
+    /**
+     * Recipe for one check: its no-arg constructor and the property values
+     * to assign to each new instance.
+     *
+     * @param constructor the accessible no-arg constructor
+     * @param properties  the {@code @RuleProperty} fields and their values
+     */
+    record Prototype(Constructor<? extends BaseCheck> constructor, Map<Field, Object> properties) {
+
+        Prototype {
+            properties = Map.copyOf(properties);
+        }
+
+        BaseCheck newInstance() {
+            try {
+                BaseCheck check = constructor.newInstance();
+                for (Map.Entry<Field, Object> property : properties.entrySet()) {
+                    property.getKey().set(check, property.getValue());
+                }
+                return check;
+            } catch (ReflectiveOperationException e) {
+                // The constructor and fields were validated when the
+                // configuration was built, so this is not expected
+                throw new IllegalStateException(
+                        "Cannot instantiate " + constructor.getDeclaringClass().getName(), e);
+            }
+        }
+    }
+}
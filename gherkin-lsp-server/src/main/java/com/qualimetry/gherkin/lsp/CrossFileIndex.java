@@ -0,0 +1,488 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.qualimetry.sonar.gherkin.analyzer.checks.ConsistentFeatureLanguageCheck;
+import com.qualimetry.sonar.gherkin.analyzer.checks.UniqueFeatureNameCheck;
+import com.qualimetry.sonar.gherkin.analyzer.checks.UniqueScenarioNameCheck;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.ScenarioDefinition;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.TextPosition;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.CrossFileIssue;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.FeatureVisitor;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.FeatureWalker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Persistent index behind the cross-file rules {@code unique-feature-name},
+ * {@code unique-scenario-name} and {@code consistent-feature-language}.
+ * <p>
+ * Instead of walking every stored file after each edit, the index keeps
+ * each file's contribution (its Feature name, Scenario names and Feature
+ * language) and the aggregated views built from them. Updating a file
+ * retracts its previous contribution and adds the new one, so an edit costs
+ * time proportional to the size of the changed file. Other files sharing a
+ * name are reported as affected only when the first occurrence of the name
+ * moves to another file or the name starts or stops being duplicated, since
+ * nothing else about their issues can change.
+ * <p>
+ * The reported issues match those of the batch cross-file checks, with
+ * files ordered by URI: the first occurrence of a duplicated name is the
+ * one in the lowest URI (then the lowest position), and the expected
+ * language is the language of the Feature in the lowest URI.
+ * <p>
+ * The index holds every file of the workspace, so it is kept compact: a
+ * file's facts are stored as arrays of names and of positions packed into
+ * longs, each name is held once for all the files it occurs in, and the
+ * occurrences of a name are sorted arrays rather than a tree set.
+ * {@link Contribution} and {@link Occurrence} are only the exchange format.
+ * <p>
+ * All methods are thread-safe.
+ */
+public class CrossFileIndex {
+
+    static final String FEATURE_NAME_RULE = "unique-feature-name";
+    static final String SCENARIO_NAME_RULE = "unique-scenario-name";
+    static final String LANGUAGE_RULE = "consistent-feature-language";
+
+    /**
+     * A name (or language) and where it appears.
+     */
+    record Occurrence(String name, String uri, int line, int column) {
+
+        Occurrence(String name, String uri, TextPosition position) {
+            this(name, uri, position.line(), position.column());
+        }
+    }
+
+    /**
+     * The facts one file contributes to the index: its Feature names,
+     * Scenario names and Feature language, if any.
+     */
+    record Contribution(List<Occurrence> featureNames,
+                        List<Occurrence> scenarioNames,
+                        Occurrence language) {
+    }
+
+    private final Map<String, Stored> contributions = new HashMap<>();
+    private final Map<String, Group> featureNames = new HashMap<>();
+    private final Map<String, Group> scenarioNames = new HashMap<>();
+    private final NavigableMap<String, String> languagesByUri = new TreeMap<>();
+    private final Map<String, Integer> languageHistogram = new HashMap<>();
+
+    /**
+     * Replaces the contribution of a file with the names and language found
+     * in its parsed form.
+     *
+     * @param featureFile the parsed file
+     * @return the URIs whose cross-file issues may have changed, including
+     *         the updated file itself
+     */
+    public Set<String> update(FeatureFile featureFile) {
+        return update(featureFile.uri(), collect(featureFile));
+    }
+
+    /**
+     * Replaces the contribution of a file with facts collected earlier, for
+     * example read back from an {@link AnalysisCache}.
+     *
+     * @param uri          the file URI
+     * @param contribution the facts of the file, with occurrences in
+     *                     {@code uri}
+     * @return the URIs whose cross-file issues may have changed, including
+     *         the updated file itself
+     */
+    synchronized Set<String> update(String uri, Contribution contribution) {
+        Set<String> affected = new HashSet<>();
+        Map<String, Before> touchedFeatures = new HashMap<>();
+        Map<String, Before> touchedScenarios = new HashMap<>();
+        String expectedBefore = expectedLanguage();
+        retract(uri, affected, touchedFeatures, touchedScenarios);
+        Occurrence language = contribution.language();
+        Stored stored = new Stored(
+                add(featureNames, uri, contribution.featureNames(), touchedFeatures),
+                positions(contribution.featureNames()),
+                add(scenarioNames, uri, contribution.scenarioNames(), touchedScenarios),
+                positions(contribution.scenarioNames()),
+                language != null ? language.name().intern() : null,
+                language != null ? pack(language.line(), language.column()) : 0);
+        contributions.put(uri, stored);
+        if (stored.language != null) {
+            languagesByUri.put(uri, stored.language);
+            languageHistogram.merge(stored.language, 1, Integer::sum);
+        }
+        addMemberChanges(featureNames, touchedFeatures, affected);
+        addMemberChanges(scenarioNames, touchedScenarios, affected);
+        addLanguageChanges(uri, expectedBefore, affected);
+        return affected;
+    }
+
+    /**
+     * Retracts the contribution of a file.
+     *
+     * @param uri the URI of the removed file
+     * @return the URIs whose cross-file issues may have changed, including
+     *         the removed file itself
+     */
+    public synchronized Set<String> remove(String uri) {
+        Set<String> affected = new HashSet<>();
+        Map<String, Before> touchedFeatures = new HashMap<>();
+        Map<String, Before> touchedScenarios = new HashMap<>();
+        String expectedBefore = expectedLanguage();
+        retract(uri, affected, touchedFeatures, touchedScenarios);
+        addMemberChanges(featureNames, touchedFeatures, affected);
+        addMemberChanges(scenarioNames, touchedScenarios, affected);
+        addLanguageChanges(uri, expectedBefore, affected);
+        return affected;
+    }
+
+    /**
+     * Returns the cross-file issues located in one file.
+     *
+     * @param uri         the file URI
+     * @param activeRules the keys of the active rules; issues of other rules
+     *                    are omitted
+     * @return the issues of the file, possibly empty
+     */
+    public synchronized List<CrossFileIssue> getIssues(String uri, Set<String> activeRules) {
+        Stored stored = contributions.get(uri);
+        if (stored == null) {
+            return List.of();
+        }
+        List<CrossFileIssue> issues = new ArrayList<>();
+        if (activeRules.contains(FEATURE_NAME_RULE)) {
+            for (int i = 0; i < stored.featureNames.length; i++) {
+                String name = stored.featureNames[i];
+                Group group = featureNames.get(name);
+                if (!group.isFirst(uri, stored.featurePositions[i])) {
+                    issues.add(new CrossFileIssue(FEATURE_NAME_RULE, uri, line(stored.featurePositions[i]),
+                            UniqueFeatureNameCheck.issueMessage(name, group.uris[0])));
+                }
+            }
+        }
+        if (activeRules.contains(SCENARIO_NAME_RULE)) {
+            for (int i = 0; i < stored.scenarioNames.length; i++) {
+                String name = stored.scenarioNames[i];
+                Group group = scenarioNames.get(name);
+                if (!group.isFirst(uri, stored.scenarioPositions[i])) {
+                    issues.add(new CrossFileIssue(SCENARIO_NAME_RULE, uri, line(stored.scenarioPositions[i]),
+                            UniqueScenarioNameCheck.issueMessage(name, group.uris[0])));
+                }
+            }
+        }
+        String expected = expectedLanguage();
+        if (activeRules.contains(LANGUAGE_RULE) && stored.language != null
+                && !stored.language.equals(expected)) {
+            issues.add(new CrossFileIssue(LANGUAGE_RULE, uri, line(stored.languagePosition),
+                    ConsistentFeatureLanguageCheck.issueMessage(expected, stored.language)));
+        }
+        return issues;
+    }
+
+    /**
+     * Returns the URIs of all files that currently have at least one
+     * cross-file issue, regardless of which rules are active.
+     */
+    public synchronized Set<String> getUrisWithIssues() {
+        Set<String> uris = new HashSet<>();
+        collectDuplicates(featureNames, uris);
+        collectDuplicates(scenarioNames, uris);
+        if (languageHistogram.size() > 1) {
+            String expected = expectedLanguage();
+            for (Map.Entry<String, String> language : languagesByUri.entrySet()) {
+                if (!language.getValue().equals(expected)) {
+                    uris.add(language.getKey());
+                }
+            }
+        }
+        return uris;
+    }
+
+    /**
+     * Returns the URIs of the indexed files.
+     *
+     * @return a snapshot of the URIs
+     */
+    public synchronized Set<String> getUris() {
+        return new HashSet<>(contributions.keySet());
+    }
+
+    private String expectedLanguage() {
+        return languagesByUri.isEmpty() ? null : languagesByUri.firstEntry().getValue();
+    }
+
+    private void retract(String uri, Set<String> affected,
+                         Map<String, Before> touchedFeatures, Map<String, Before> touchedScenarios) {
+        affected.add(uri);
+        Stored previous = contributions.remove(uri);
+        if (previous == null) {
+            return;
+        }
+        removeFrom(featureNames, uri, previous.featureNames, previous.featurePositions, touchedFeatures);
+        removeFrom(scenarioNames, uri, previous.scenarioNames, previous.scenarioPositions, touchedScenarios);
+        if (previous.language != null) {
+            languagesByUri.remove(uri);
+            languageHistogram.computeIfPresent(previous.language,
+                    (language, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private void addLanguageChanges(String uri, String expectedBefore, Set<String> affected) {
+        String expectedAfter = expectedLanguage();
+        if (expectedBefore == null || expectedBefore.equals(expectedAfter)) {
+            return;
+        }
+        // The expected language changed: every file in either language is
+        // now reported differently
+        for (String other : languagesByUri.keySet()) {
+            if (!other.equals(uri)) {
+                affected.add(other);
+            }
+        }
+    }
+
+    /**
+     * Adds the occurrences of a file to their groups.
+     *
+     * @return the names of the occurrences, as the instances held by the
+     *         groups, so that every file with a name shares its string
+     */
+    private static String[] add(Map<String, Group> index, String uri,
+                                List<Occurrence> occurrences, Map<String, Before> touched) {
+        String[] names = new String[occurrences.size()];
+        for (int i = 0; i < names.length; i++) {
+            Occurrence occurrence = occurrences.get(i);
+            Group group = index.computeIfAbsent(occurrence.name(), Group::new);
+            touched.putIfAbsent(group.name, Before.of(group));
+            group.add(uri, pack(occurrence.line(), occurrence.column()));
+            names[i] = group.name;
+        }
+        return names;
+    }
+
+    private static void removeFrom(Map<String, Group> index, String uri, String[] names, long[] positions,
+                                   Map<String, Before> touched) {
+        for (int i = 0; i < names.length; i++) {
+            Group group = index.get(names[i]);
+            if (group == null) {
+                continue;
+            }
+            touched.putIfAbsent(group.name, Before.of(group));
+            group.remove(uri, positions[i]);
+            if (group.size == 0) {
+                index.remove(names[i]);
+            }
+        }
+    }
+
+    /**
+     * Adds the other files of each touched group whose issues changed: the
+     * message of a duplicate names the file of the first occurrence, so
+     * they change only when that file changes or when the name starts or
+     * stops being duplicated.
+     */
+    private static void addMemberChanges(Map<String, Group> index, Map<String, Before> touched,
+                                         Set<String> affected) {
+        for (Map.Entry<String, Before> entry : touched.entrySet()) {
+            Group group = index.get(entry.getKey());
+            if (group == null) {
+                continue;
+            }
+            Before before = entry.getValue();
+            if (!group.uris[0].equals(before.firstUri()) || (before.size() > 1) != (group.size > 1)) {
+                affected.addAll(Arrays.asList(group.uris).subList(0, group.size));
+            }
+        }
+    }
+
+    private static void collectDuplicates(Map<String, Group> index, Set<String> uris) {
+        for (Group group : index.values()) {
+            for (int i = 1; i < group.size; i++) {
+                uris.add(group.uris[i]);
+            }
+        }
+    }
+
+    private static long[] positions(List<Occurrence> occurrences) {
+        long[] positions = new long[occurrences.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = pack(occurrences.get(i).line(), occurrences.get(i).column());
+        }
+        return positions;
+    }
+
+    /** Packs a 1-based line and column into one long that orders like them. */
+    private static long pack(int line, int column) {
+        return (long) line << 32 | column & 0xffffffffL;
+    }
+
+    private static int line(long position) {
+        return (int) (position >>> 32);
+    }
+
+    /**
+     * The facts of one file as the index keeps them: names with packed
+     * positions in parallel arrays, rather than one object per occurrence.
+     */
+    private static final class Stored {
+
+        private final String[] featureNames;
+        private final long[] featurePositions;
+        private final String[] scenarioNames;
+        private final long[] scenarioPositions;
+        private final String language;
+        private final long languagePosition;
+
+        Stored(String[] featureNames, long[] featurePositions, String[] scenarioNames,
+               long[] scenarioPositions, String language, long languagePosition) {
+            this.featureNames = featureNames;
+            this.featurePositions = featurePositions;
+            this.scenarioNames = scenarioNames;
+            this.scenarioPositions = scenarioPositions;
+            this.language = language;
+            this.languagePosition = languagePosition;
+        }
+    }
+
+    /**
+     * The state of a group before an update: the file of its first
+     * occurrence, or {@code null} when empty, and its size.
+     */
+    private record Before(String firstUri, int size) {
+
+        static Before of(Group group) {
+            return new Before(group.size > 0 ? group.uris[0] : null, group.size);
+        }
+    }
+
+    /**
+     * All occurrences of one name, ordered by URI then position, in
+     * parallel arrays with spare capacity, located by binary search. Most
+     * names occur once, so a new group starts with room for one element.
+     */
+    private static final class Group {
+
+        private final String name;
+        private String[] uris = new String[1];
+        private long[] positions = new long[1];
+        private int size;
+
+        Group(String name) {
+            this.name = name;
+        }
+
+        boolean isFirst(String uri, long position) {
+            return uris[0].equals(uri) && positions[0] == position;
+        }
+
+        void add(String uri, long position) {
+            int at = search(uri, position);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == uris.length) {
+                int capacity = size + (size >> 1) + 1;
+                uris = Arrays.copyOf(uris, capacity);
+                positions = Arrays.copyOf(positions, capacity);
+            }
+            System.arraycopy(uris, at, uris, at + 1, size - at);
+            System.arraycopy(positions, at, positions, at + 1, size - at);
+            uris[at] = uri;
+            positions[at] = position;
+            size++;
+        }
+
+        void remove(String uri, long position) {
+            int at = search(uri, position);
+            if (at < 0) {
+                return;
+            }
+            size--;
+            System.arraycopy(uris, at + 1, uris, at, size - at);
+            System.arraycopy(positions, at + 1, positions, at, size - at);
+            uris[size] = null;
+            if (size > 0 && size < uris.length / 4) {
+                uris = Arrays.copyOf(uris, size);
+                positions = Arrays.copyOf(positions, size);
+            }
+        }
+
+        /** Returns the index of the occurrence, or {@code -(insertion point) - 1}. */
+        private int search(String uri, long position) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int order = compare(uris[mid], positions[mid], uri, position);
+                if (order < 0) {
+                    low = mid + 1;
+                } else if (order > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -low - 1;
+        }
+
+        private static int compare(String uri, long position, String otherUri, long otherPosition) {
+            int byUri = uri.compareTo(otherUri);
+            return byUri != 0 ? byUri : Long.compare(position, otherPosition);
+        }
+    }
+
+    /**
+     * Collects the facts a parsed file contributes to the index.
+     *
+     * @param featureFile the parsed file
+     * @return its contribution
+     */
+    static Contribution collect(FeatureFile featureFile) {
+        String uri = featureFile.uri();
+        List<Occurrence> features = new ArrayList<>();
+        List<Occurrence> scenarios = new ArrayList<>();
+        Occurrence[] language = new Occurrence[1];
+        FeatureWalker.walk(featureFile, new FeatureVisitor() {
+            @Override
+            public void visitFeature(FeatureDefinition feature) {
+                if (feature.name() != null && !feature.name().isBlank()) {
+                    features.add(new Occurrence(feature.name(), uri, feature.position()));
+                }
+                String name = feature.language() != null ? feature.language() : "en";
+                language[0] = new Occurrence(name, uri, feature.position());
+            }
+
+            @Override
+            public void visitScenario(ScenarioDefinition scenario) {
+                if (scenario.name() != null && !scenario.name().isBlank()) {
+                    scenarios.add(new Occurrence(scenario.name(), uri, scenario.position()));
+                }
+            }
+        });
+        return new Contribution(features, scenarios, language[0]);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the diagnostics of a batch run in one output format, as they are
+ * produced.
+ * <p>
+ * A writer receives {@link #begin()}, then one
+ * {@link #fileAnalyzed fileAnalyzed} call per file report, then
+ * {@link #end()}. Writers hold no diagnostics between calls, so memory
+ * stays constant whatever the number of issues, and each file's
+ * diagnostics are flushed as soon as they are written so that downstream
+ * tools can consume them incrementally.
+ */
+interface DiagnosticWriter extends BatchAnalyzer.Listener {
+
+    /**
+     * Writes whatever precedes the first diagnostic.
+     *
+     * @throws IOException if the output cannot be written
+     */
+    default void begin() throws IOException {
+        // nothing by default
+    }
+
+    /**
+     * Writes whatever follows the last diagnostic, and flushes the output.
+     *
+     * @throws IOException if the output cannot be written
+     */
+    void end() throws IOException;
+
+    /**
+     * Creates a writer for a {@code --format} name.
+     *
+     * @param format the format name: {@code text}, {@code ndjson} or
+     *               {@code sarif}
+     * @param out    the output
+     * @return the writer
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    static DiagnosticWriter forFormat(String format, Writer out) {
+        return switch (format) {
+            case "text" -> new TextDiagnosticWriter(out);
+            case "ndjson" -> new NdjsonDiagnosticWriter(out);
+            case "sarif" -> new SarifDiagnosticWriter(out);
+            default -> throw new IllegalArgumentException("Unknown --format: " + format);
+        };
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import java.nio.file.Path;
+
+/**
+ * Rules shared by the workspace crawls for which files count as feature
+ * files and which directories are skipped.
+ */
+final class FeatureFiles {
+
+    static final String EXTENSION = ".feature";
+
+    private FeatureFiles() {
+        // utility class
+    }
+
+    /**
+     * Returns whether a file name has the feature file extension.
+     */
+    static boolean isFeatureFile(Path file) {
+        Path name = file.getFileName();
+        return name != null && name.toString().endsWith(EXTENSION);
+    }
+
+    /**
+     * Returns whether a directory is skipped: hidden directories (such as
+     * {@code .git}) and {@code node_modules}.
+     */
+    static boolean isSkippedDirectory(Path dir) {
+        Path name = dir.getFileName();
+        if (name == null) {
+            return false;
+        }
+        String text = name.toString();
+        return text.startsWith(".") || text.equals("node_modules");
+    }
+}
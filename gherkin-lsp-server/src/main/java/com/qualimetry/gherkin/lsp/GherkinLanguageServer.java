@@ -16,31 +16,85 @@
 package com.qualimetry.gherkin.lsp;
 
 import com.google.gson.JsonObject;
+import org.eclipse.lsp4j.ClientCapabilities;
+import org.eclipse.lsp4j.DiagnosticRegistrationOptions;
+import org.eclipse.lsp4j.DidChangeWatchedFilesRegistrationOptions;
+import org.eclipse.lsp4j.FileEvent;
+import org.eclipse.lsp4j.FileSystemWatcher;
 import org.eclipse.lsp4j.InitializeParams;
 import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.InitializedParams;
+import org.eclipse.lsp4j.MessageParams;
+import org.eclipse.lsp4j.MessageType;
+import org.eclipse.lsp4j.Registration;
+import org.eclipse.lsp4j.RegistrationParams;
+import org.eclipse.lsp4j.SemanticTokensServerFull;
+import org.eclipse.lsp4j.SemanticTokensWithRegistrationOptions;
 import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.ServerInfo;
 import org.eclipse.lsp4j.TextDocumentSyncKind;
+import org.eclipse.lsp4j.WatchKind;
+import org.eclipse.lsp4j.WorkspaceDiagnosticParams;
+import org.eclipse.lsp4j.WorkspaceDiagnosticReport;
+import org.eclipse.lsp4j.WorkspaceFolder;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.jsonrpc.services.JsonRequest;
 import org.eclipse.lsp4j.services.LanguageClient;
 import org.eclipse.lsp4j.services.LanguageServer;
 import org.eclipse.lsp4j.services.TextDocumentService;
 import org.eclipse.lsp4j.services.WorkspaceService;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * LSP server implementation for Gherkin feature file analysis.
  * <p>
  * Coordinates the {@link GherkinTextDocumentService}, {@link GherkinWorkspaceService},
  * and {@link AnalysisEngine} to provide real-time diagnostics to the client.
+ * <p>
+ * Once the client confirms initialization, the workspace folders are indexed
+ * in the background by a {@link WorkspaceIndexer}, unless disabled with
+ * {@code analysis.indexWorkspace}, and file watchers for feature files are
+ * registered so that the index follows changes made outside the editor.
+ * When the client provides a {@code storagePath}, the indexed facts are
+ * cached there, so that later starts only parse the files that changed.
+ * <p>
+ * Clients that support pull diagnostics (LSP 3.17) pull them instead of
+ * receiving them; workspace diagnostics for the files that are not open are
+ * offered when enabled with {@code analysis.workspaceDiagnostics}.
+ * Clients that support semantic tokens get keywords, tags and comments from
+ * the parsed tree, see {@link SemanticTokensProvider}.
+ * <p>
+ * The custom {@code gherkin/stats} request returns the engine's
+ * {@link AnalysisStats}, which can also be logged periodically with
+ * {@code analysis.statsLogIntervalSeconds}.
  */
 public class GherkinLanguageServer implements LanguageServer {
 
+    private static final String WATCHED_FILES_METHOD = "workspace/didChangeWatchedFiles";
+    private static final String WATCHED_FILES_REGISTRATION_ID = "gherkin-feature-file-watcher";
+    private static final String INDEX_CACHE_FILE = "workspace-index.bin";
+    private static final int LOGGED_RULES = 5;
+
     private LanguageClient client;
     private final GherkinTextDocumentService textDocumentService;
     private final GherkinWorkspaceService workspaceService;
     private AnalysisEngine analysisEngine;
     private RuleConfiguration ruleConfiguration;
+    private ServerSettings serverSettings;
+    private List<String> workspaceFolderUris = List.of();
+    private boolean workDoneProgressSupported;
+    private boolean watchedFilesRegistrationSupported;
+    private volatile WorkspaceIndexer workspaceIndexer;
+    private ScheduledExecutorService statsLogTimer;
+    private ScheduledFuture<?> statsLog;
 
     public GherkinLanguageServer() {
         // Services must exist before LSP4J calls getTextDocumentService() / getWorkspaceService()
@@ -69,9 +123,27 @@ public class GherkinLanguageServer implements LanguageServer {
         ruleConfiguration = new RuleConfiguration(settings);
         analysisEngine = new AnalysisEngine(ruleConfiguration);
         textDocumentService.setEngine(analysisEngine);
+        serverSettings = new ServerSettings(settings);
+        analysisEngine.setParserEngine(serverSettings.getParserEngine());
+        textDocumentService.applySettings(serverSettings);
+        workspaceFolderUris = workspaceFolderUris(params);
+        workDoneProgressSupported = isWorkDoneProgressSupported(params);
+        watchedFilesRegistrationSupported = isWatchedFilesRegistrationSupported(params);
 
         ServerCapabilities capabilities = new ServerCapabilities();
-        capabilities.setTextDocumentSync(TextDocumentSyncKind.Full);
+        capabilities.setTextDocumentSync(TextDocumentSyncKind.Incremental);
+        if (isPullDiagnosticsSupported(params)) {
+            // Cross-file rules make a file's diagnostics depend on other files
+            capabilities.setDiagnosticProvider(
+                    new DiagnosticRegistrationOptions(true, serverSettings.isWorkspaceDiagnostics()));
+            textDocumentService.setPullDiagnostics(true, isDiagnosticRefreshSupported(params));
+        }
+        if (isSemanticTokensSupported(params)) {
+            capabilities.setSemanticTokensProvider(new SemanticTokensWithRegistrationOptions(
+                    SemanticTokensProvider.LEGEND, new SemanticTokensServerFull(true), true));
+        }
+
+        scheduleStatsLog();
 
         ServerInfo serverInfo = new ServerInfo("Gherkin Analyzer", "1.2.2");
 
@@ -79,8 +151,110 @@ public class GherkinLanguageServer implements LanguageServer {
         return CompletableFuture.completedFuture(result);
     }
 
+    @Override
+    public void initialized(InitializedParams params) {
+        if (analysisEngine == null || !serverSettings.isIndexWorkspace() || workspaceFolderUris.isEmpty()) {
+            return;
+        }
+        Path storagePath = serverSettings.getStoragePath();
+        workspaceIndexer = new WorkspaceIndexer(analysisEngine, workspaceFolderUris,
+                serverSettings.getParallelism(), textDocumentService::refreshCrossFileDiagnostics,
+                storagePath != null ? storagePath.resolve(INDEX_CACHE_FILE) : null);
+        textDocumentService.setWorkspaceIndexer(workspaceIndexer);
+        if (client != null && watchedFilesRegistrationSupported) {
+            registerFileWatchers();
+        }
+        workspaceIndexer.start(client, workDoneProgressSupported);
+    }
+
+    /**
+     * Applies changes made to watched files outside the editor to the
+     * workspace index. Ignored when the workspace is not indexed.
+     *
+     * @param events the file events
+     */
+    void onWatchedFilesChanged(List<FileEvent> events) {
+        WorkspaceIndexer indexer = workspaceIndexer;
+        if (indexer != null) {
+            indexer.applyChanges(events);
+        }
+    }
+
+    /**
+     * Answers a {@code workspace/diagnostic} pull request.
+     *
+     * @param params the request parameters
+     * @return the diagnostics of the files that are not open
+     */
+    CompletableFuture<WorkspaceDiagnosticReport> workspaceDiagnostic(WorkspaceDiagnosticParams params) {
+        return textDocumentService.workspaceDiagnostic(params);
+    }
+
+    /**
+     * Answers the {@code gherkin/stats} request with the latency of each
+     * analysis stage and rule, and the result cache counters.
+     *
+     * @return the statistics, empty before initialization
+     */
+    @JsonRequest("gherkin/stats")
+    public CompletableFuture<JsonObject> stats() {
+        AnalysisEngine engine = analysisEngine;
+        if (engine == null) {
+            return CompletableFuture.completedFuture(new JsonObject());
+        }
+        JsonObject stats = engine.getStats().snapshot();
+        JsonObject resultCache = new JsonObject();
+        resultCache.addProperty("hits", engine.getCacheHits());
+        resultCache.addProperty("misses", engine.getCacheMisses());
+        stats.add("resultCache", resultCache);
+        return CompletableFuture.completedFuture(stats);
+    }
+
+    /**
+     * (Re)starts the periodic statistics log at the configured interval.
+     */
+    private synchronized void scheduleStatsLog() {
+        if (statsLog != null) {
+            statsLog.cancel(false);
+            statsLog = null;
+        }
+        long interval = serverSettings.getStatsLogIntervalSeconds();
+        if (interval == 0 || client == null) {
+            return;
+        }
+        if (statsLogTimer == null) {
+            statsLogTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "gherkin-stats-log");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        AnalysisStats stats = analysisEngine.getStats();
+        statsLog = statsLogTimer.scheduleAtFixedRate(
+                () -> client.logMessage(new MessageParams(MessageType.Log, stats.summary(LOGGED_RULES))),
+                interval, interval, TimeUnit.SECONDS);
+    }
+
+    private void registerFileWatchers() {
+        DidChangeWatchedFilesRegistrationOptions options = new DidChangeWatchedFilesRegistrationOptions(List.of(
+                new FileSystemWatcher(Either.forLeft("**/*" + FeatureFiles.EXTENSION)),
+                // Deleting a folder reports the folder alone, not its feature files
+                new FileSystemWatcher(Either.forLeft("**/*"), WatchKind.Delete)));
+        client.registerCapability(new RegistrationParams(List.of(
+                new Registration(WATCHED_FILES_REGISTRATION_ID, WATCHED_FILES_METHOD, options))));
+    }
+
     @Override
     public CompletableFuture<Object> shutdown() {
+        if (workspaceIndexer != null) {
+            workspaceIndexer.close();
+        }
+        textDocumentService.shutdown();
+        synchronized (this) {
+            if (statsLogTimer != null) {
+                statsLogTimer.shutdownNow();
+            }
+        }
         return CompletableFuture.completedFuture(null);
     }
 
@@ -117,17 +291,75 @@ public class GherkinLanguageServer implements LanguageServer {
         return client;
     }
 
+    private static List<String> workspaceFolderUris(InitializeParams params) {
+        List<String> uris = new ArrayList<>();
+        if (params.getWorkspaceFolders() != null) {
+            for (WorkspaceFolder folder : params.getWorkspaceFolders()) {
+                uris.add(folder.getUri());
+            }
+        } else {
+            String rootUri = legacyRootUri(params);
+            if (rootUri != null) {
+                uris.add(rootUri);
+            }
+        }
+        return uris;
+    }
+
+    // rootUri is deprecated in favour of workspaceFolders, but older clients only send it.
+    @SuppressWarnings("deprecation")
+    private static String legacyRootUri(InitializeParams params) {
+        return params.getRootUri();
+    }
+
+    private static boolean isWatchedFilesRegistrationSupported(InitializeParams params) {
+        ClientCapabilities capabilities = params.getCapabilities();
+        return capabilities != null && capabilities.getWorkspace() != null
+                && capabilities.getWorkspace().getDidChangeWatchedFiles() != null
+                && Boolean.TRUE.equals(capabilities.getWorkspace().getDidChangeWatchedFiles().getDynamicRegistration());
+    }
+
+    private static boolean isPullDiagnosticsSupported(InitializeParams params) {
+        ClientCapabilities capabilities = params.getCapabilities();
+        return capabilities != null && capabilities.getTextDocument() != null
+                && capabilities.getTextDocument().getDiagnostic() != null;
+    }
+
+    private static boolean isSemanticTokensSupported(InitializeParams params) {
+        ClientCapabilities capabilities = params.getCapabilities();
+        return capabilities != null && capabilities.getTextDocument() != null
+                && capabilities.getTextDocument().getSemanticTokens() != null;
+    }
+
+    private static boolean isDiagnosticRefreshSupported(InitializeParams params) {
+        ClientCapabilities capabilities = params.getCapabilities();
+        return capabilities != null && capabilities.getWorkspace() != null
+                && capabilities.getWorkspace().getDiagnostics() != null
+                && Boolean.TRUE.equals(capabilities.getWorkspace().getDiagnostics().getRefreshSupport());
+    }
+
+    private static boolean isWorkDoneProgressSupported(InitializeParams params) {
+        ClientCapabilities capabilities = params.getCapabilities();
+        return capabilities != null && capabilities.getWindow() != null
+                && Boolean.TRUE.equals(capabilities.getWindow().getWorkDoneProgress());
+    }
+
     /**
      * Reconfigures the server with new settings.
      * <p>
      * Creates a new {@link RuleConfiguration}, updates the analysis engine,
-     * and triggers re-analysis of all open files.
+     * applies the server-level {@link ServerSettings}, and triggers
+     * re-analysis of all open files.
      *
      * @param settings the new settings as a JSON object, or {@code null} for defaults
      */
     public void reconfigure(JsonObject settings) {
         ruleConfiguration = new RuleConfiguration(settings);
         analysisEngine.updateConfiguration(ruleConfiguration);
+        serverSettings = new ServerSettings(settings);
+        analysisEngine.setParserEngine(serverSettings.getParserEngine());
+        textDocumentService.applySettings(serverSettings);
+        scheduleStatsLog();
         textDocumentService.reanalyzeAll();
     }
 }
@@ -15,30 +15,143 @@
  */
 package com.qualimetry.gherkin.lsp;
 
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.DidChangeTextDocumentParams;
 import org.eclipse.lsp4j.DidCloseTextDocumentParams;
 import org.eclipse.lsp4j.DidOpenTextDocumentParams;
 import org.eclipse.lsp4j.DidSaveTextDocumentParams;
+import org.eclipse.lsp4j.DocumentDiagnosticParams;
+import org.eclipse.lsp4j.DocumentDiagnosticReport;
 import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.RelatedFullDocumentDiagnosticReport;
+import org.eclipse.lsp4j.RelatedUnchangedDocumentDiagnosticReport;
+import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensDelta;
+import org.eclipse.lsp4j.SemanticTokensDeltaParams;
+import org.eclipse.lsp4j.SemanticTokensParams;
+import org.eclipse.lsp4j.SemanticTokensRangeParams;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.WorkspaceDiagnosticParams;
+import org.eclipse.lsp4j.WorkspaceDiagnosticReport;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.LanguageClient;
 import org.eclipse.lsp4j.services.TextDocumentService;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Handles text document lifecycle events (open, change, close, save) and
  * triggers analysis to publish diagnostics to the client.
+ * <p>
+ * Open documents are held as {@link PieceTableDocument}s so that incremental
+ * change events are applied in place rather than resending the full text.
+ * Analysis runs through an {@link AnalysisScheduler}: changes are debounced
+ * per document, and diagnostics are only published for the latest version.
+ * The analysis itself runs on an {@link AnalysisExecutor} worker, so the
+ * notification handlers return immediately.
+ * <p>
+ * The per-file diagnostics of each document are cached with the version
+ * they were computed for. When an analysis changes the cross-file issues of
+ * other open documents, those documents are republished from the cache
+ * with their new cross-file diagnostics instead of being re-analyzed, and
+ * only if their cross-file diagnostics actually changed.
+ * <p>
+ * With a {@link WorkspaceIndexer}, closing a document that belongs to the
+ * indexed workspace puts its disk content back in the cross-file index
+ * instead of dropping it.
+ * <p>
+ * Clients that support LSP 3.17 pull diagnostics ask for them instead of
+ * receiving them: in pull mode nothing is published, each document's merged
+ * diagnostics get a new result ID whenever they change, and a
+ * {@code textDocument/diagnostic} request is answered with "unchanged" when
+ * the client already holds the current result ID. A request for a version
+ * that is still being analyzed waits for that analysis. Changes the client
+ * did not ask for, such as cross-file updates, are signalled with a
+ * diagnostic refresh request. Files that are not open are covered by
+ * {@code workspace/diagnostic}, see {@link WorkspaceDiagnostics}.
+ * <p>
+ * Semantic tokens are computed from the tree of the last analysis when it
+ * matches the current version. Otherwise the current text is reparsed
+ * against that tree, so only the edited blocks are parsed again. The last
+ * full result of each document is kept so that a delta request only sends
+ * the changed part.
  */
 public class GherkinTextDocumentService implements TextDocumentService {
 
     private volatile AnalysisEngine engine;
+    private volatile WorkspaceIndexer workspaceIndexer;
     private LanguageClient client;
-    private final Map<String, String> openDocuments = new ConcurrentHashMap<>();
+    private final Map<String, OpenDocument> openDocuments = new ConcurrentHashMap<>();
+    private final AnalysisExecutor executor = new AnalysisExecutor(new ServerSettings(null));
+    private final AnalysisScheduler scheduler =
+            new AnalysisScheduler(this::analyzeAndPublish, executor, ServerSettings.DEFAULT_DEBOUNCE_MILLIS);
+    private final WorkspaceDiagnostics workspaceDiagnostics =
+            new WorkspaceDiagnostics(executor, this::readIndexedFile, openDocuments::containsKey);
+    private final AtomicLong resultIds = new AtomicLong();
+    private final AtomicInteger refreshRequests = new AtomicInteger();
+    private volatile boolean pullDiagnostics;
+    private volatile boolean refreshSupported;
+
+    private static final int NOT_ANALYZED = Integer.MIN_VALUE;
+    private static final String WORKSPACE_INDEX_KEY = "workspace-index";
+
+    /**
+     * Text, LSP version and last published diagnostics of an open document.
+     * All access is synchronized on the instance, which also serializes
+     * publishing for the document.
+     */
+    private static final class OpenDocument {
+
+        private final PieceTableDocument text;
+        private int version;
+        private int analyzedVersion = NOT_ANALYZED;
+        private List<Diagnostic> fileDiagnostics = List.of();
+        private List<Diagnostic> crossFileDiagnostics = List.of();
+        /** Pull mode: the merged diagnostics last reported, and their ID. */
+        private List<Diagnostic> reported;
+        private String resultId;
+        /** Pull mode: requests waiting for the current version's analysis. */
+        private final List<PendingPull> pendingPulls = new ArrayList<>();
+        /** Pull mode: the version whose analysis failed, and why. */
+        private int failedVersion = NOT_ANALYZED;
+        private Throwable failure;
+        /** The semantic tokens last returned in full, and their ID. */
+        private int[] tokens;
+        private String tokensResultId;
+
+        OpenDocument(String text, int version) {
+            this.text = new PieceTableDocument(text);
+            this.version = version;
+        }
+    }
+
+    /**
+     * A {@code textDocument/diagnostic} request waiting for an analysis.
+     */
+    private record PendingPull(String previousResultId, CompletableFuture<DocumentDiagnosticReport> report) {
+    }
+
+    /**
+     * Semantic tokens computed for a full or delta request.
+     *
+     * @param resultId the ID of {@code data}
+     * @param data     the encoded tokens
+     * @param previous the tokens of the result ID the client holds, or
+     *                 {@code null} if unknown
+     */
+    private record Tokens(String resultId, int[] data, int[] previous) {
+    }
 
     /**
      * Creates a text document service. The analysis engine is wired later
@@ -56,6 +169,16 @@ public class GherkinTextDocumentService implements TextDocumentService {
         this.engine = engine;
     }
 
+    /**
+     * Sets the indexer of the workspace files, or {@code null} when the
+     * workspace is not indexed.
+     *
+     * @param workspaceIndexer the workspace indexer
+     */
+    public void setWorkspaceIndexer(WorkspaceIndexer workspaceIndexer) {
+        this.workspaceIndexer = workspaceIndexer;
+    }
+
     /**
      * Sets the language client used to publish diagnostics.
      *
@@ -63,32 +186,116 @@ public class GherkinTextDocumentService implements TextDocumentService {
      */
     public void setClient(LanguageClient client) {
         this.client = client;
+        executor.setClient(client);
+    }
+
+    /**
+     * Switches between pushing diagnostics and letting the client pull them.
+     * Called during server initialization.
+     *
+     * @param pull            whether the client pulls diagnostics
+     * @param refreshSupported whether the client accepts
+     *                        {@code workspace/diagnostic/refresh} requests
+     */
+    public void setPullDiagnostics(boolean pull, boolean refreshSupported) {
+        this.pullDiagnostics = pull;
+        this.refreshSupported = refreshSupported;
+    }
+
+    /**
+     * Applies server-level settings such as the debounce window and the
+     * worker pool size.
+     *
+     * @param settings the server settings
+     */
+    public void applySettings(ServerSettings settings) {
+        scheduler.setDebounceMillis(settings.getDebounceMillis());
+        executor.configure(settings);
+    }
+
+    /**
+     * Stops scheduling and running analyses. Called when the server shuts down.
+     */
+    public void shutdown() {
+        scheduler.close();
+        workspaceDiagnostics.close();
+        executor.close();
     }
 
     @Override
     public void didOpen(DidOpenTextDocumentParams params) {
         String uri = params.getTextDocument().getUri();
-        String text = params.getTextDocument().getText();
-        openDocuments.put(uri, text);
-        analyzeAndPublish(uri, text);
+        int version = params.getTextDocument().getVersion();
+        openDocuments.put(uri, new OpenDocument(params.getTextDocument().getText(), version));
+        scheduler.scheduleNow(uri, version);
+        // The opened file leaves the workspace report
+        workspaceDiagnostics.invalidate();
     }
 
     @Override
     public void didChange(DidChangeTextDocumentParams params) {
         String uri = params.getTextDocument().getUri();
-        String text = params.getContentChanges().get(0).getText();
-        openDocuments.put(uri, text);
-        analyzeAndPublish(uri, text);
+        Integer newVersion = params.getTextDocument().getVersion();
+        OpenDocument document = openDocuments.get(uri);
+        if (document == null) {
+            // Change for a document we never saw opened: range edits have
+            // nothing to apply to, but full-content changes give the text
+            if (!isFullReplacement(params.getContentChanges())) {
+                return;
+            }
+            document = openDocuments.computeIfAbsent(uri, k -> new OpenDocument("", 0));
+        }
+        int version;
+        synchronized (document) {
+            // Changes are applied in order; each range refers to the document
+            // state after the previous change.
+            for (TextDocumentContentChangeEvent change : params.getContentChanges()) {
+                document.text.applyChange(change.getRange(), change.getText());
+            }
+            document.version = newVersion != null ? newVersion : document.version + 1;
+            version = document.version;
+        }
+        scheduler.schedule(uri, version);
+    }
+
+    private static boolean isFullReplacement(List<TextDocumentContentChangeEvent> changes) {
+        if (changes.isEmpty()) {
+            return false;
+        }
+        for (TextDocumentContentChangeEvent change : changes) {
+            if (change.getRange() != null) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public void didClose(DidCloseTextDocumentParams params) {
         String uri = params.getTextDocument().getUri();
-        openDocuments.remove(uri);
-        engine.removeFile(uri);
-        if (client != null) {
-            client.publishDiagnostics(
-                    new PublishDiagnosticsParams(uri, Collections.emptyList()));
+        OpenDocument document = openDocuments.remove(uri);
+        // Files that shared names with the closed one may lose issues
+        executor.submit(uri, () -> {
+            releaseFile(uri);
+            publishCrossFileChanges();
+            // The closed file is now covered by the workspace report
+            workspaceDiagnostics.invalidate();
+        });
+        if (document == null) {
+            scheduler.cancel(uri);
+            return;
+        }
+        synchronized (document) {
+            scheduler.cancel(uri);
+            for (PendingPull pull : document.pendingPulls) {
+                pull.report().complete(new DocumentDiagnosticReport(
+                        new RelatedFullDocumentDiagnosticReport(Collections.emptyList())));
+            }
+            document.pendingPulls.clear();
+            if (client != null && !pullDiagnostics) {
+                client.publishDiagnostics(
+                        new PublishDiagnosticsParams(uri, Collections.emptyList()));
+            }
         }
     }
 
@@ -97,50 +304,372 @@ public class GherkinTextDocumentService implements TextDocumentService {
         // no-op - analysis runs on open and change
     }
 
+    /**
+     * Answers a {@code textDocument/diagnostic} pull request with the
+     * diagnostics of the document's current version, or with "unchanged"
+     * if the client already holds them. Files that are not open get their
+     * cross-file diagnostics only.
+     */
+    @Override
+    public CompletableFuture<DocumentDiagnosticReport> diagnostic(DocumentDiagnosticParams params) {
+        String uri = params.getTextDocument().getUri();
+        AnalysisEngine current = engine;
+        OpenDocument document = openDocuments.get(uri);
+        if (document == null || current == null) {
+            List<Diagnostic> crossFile = current != null ? current.getCrossFileDiagnostics(uri) : List.of();
+            return CompletableFuture.completedFuture(
+                    new DocumentDiagnosticReport(new RelatedFullDocumentDiagnosticReport(crossFile)));
+        }
+        synchronized (document) {
+            if (document.analyzedVersion == document.version && document.resultId != null) {
+                return CompletableFuture.completedFuture(report(document, params.getPreviousResultId()));
+            }
+            if (document.failedVersion == document.version) {
+                return CompletableFuture.failedFuture(document.failure);
+            }
+            CompletableFuture<DocumentDiagnosticReport> report = new CompletableFuture<>();
+            document.pendingPulls.add(new PendingPull(params.getPreviousResultId(), report));
+            report.whenComplete((result, error) -> {
+                if (report.isCancelled()) {
+                    synchronized (document) {
+                        document.pendingPulls.removeIf(pull -> pull.report() == report);
+                    }
+                }
+            });
+            return report;
+        }
+    }
+
+    /**
+     * Returns the number of pull requests waiting for the analysis of a
+     * document (visible for testing).
+     */
+    int getPendingPullCount(String uri) {
+        OpenDocument document = openDocuments.get(uri);
+        if (document == null) {
+            return 0;
+        }
+        synchronized (document) {
+            return document.pendingPulls.size();
+        }
+    }
+
+    /**
+     * Answers a {@code workspace/diagnostic} pull request, see
+     * {@link WorkspaceDiagnostics}.
+     *
+     * @param params the request parameters
+     * @return the report of the files that are not open
+     */
+    public CompletableFuture<WorkspaceDiagnosticReport> workspaceDiagnostic(WorkspaceDiagnosticParams params) {
+        AnalysisEngine current = engine;
+        if (current == null) {
+            return CompletableFuture.completedFuture(new WorkspaceDiagnosticReport(List.of()));
+        }
+        return workspaceDiagnostics.report(current, client, params);
+    }
+
+    @Override
+    public CompletableFuture<SemanticTokens> semanticTokensFull(SemanticTokensParams params) {
+        return tokens(params.getTextDocument().getUri(), null)
+                .thenApply(tokens -> new SemanticTokens(tokens.resultId(), SemanticTokensProvider.asList(tokens.data())));
+    }
+
+    /**
+     * Answers with the edit from the tokens the client holds to the current
+     * ones, or with all the current tokens if the client's result ID is not
+     * the last one returned for the document.
+     */
+    @Override
+    public CompletableFuture<Either<SemanticTokens, SemanticTokensDelta>> semanticTokensFullDelta(
+            SemanticTokensDeltaParams params) {
+        return tokens(params.getTextDocument().getUri(), params.getPreviousResultId()).thenApply(tokens -> {
+            if (tokens.previous() == null) {
+                return Either.forLeft(
+                        new SemanticTokens(tokens.resultId(), SemanticTokensProvider.asList(tokens.data())));
+            }
+            return Either.forRight(new SemanticTokensDelta(
+                    SemanticTokensProvider.diff(tokens.previous(), tokens.data()), tokens.resultId()));
+        });
+    }
+
+    /**
+     * Answers with the tokens of the requested lines. Range results are
+     * not remembered for later delta requests.
+     */
+    @Override
+    public CompletableFuture<SemanticTokens> semanticTokensRange(SemanticTokensRangeParams params) {
+        String uri = params.getTextDocument().getUri();
+        CompletableFuture<SemanticTokens> result = new CompletableFuture<>();
+        executor.submit(uri, () -> {
+            try {
+                OpenDocument document = openDocuments.get(uri);
+                int[] data = SemanticTokensProvider.encode(
+                        document != null ? featureFile(uri, document) : null, params.getRange());
+                result.complete(new SemanticTokens(SemanticTokensProvider.asList(data)));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Computes the semantic tokens of a document on its executor key, so that
+     * the work stays off the dispatch thread and reuses the tree of a
+     * finished analysis when the document has not changed since.
+     */
+    private CompletableFuture<Tokens> tokens(String uri, String previousResultId) {
+        CompletableFuture<Tokens> result = new CompletableFuture<>();
+        executor.submit(uri, () -> {
+            try {
+                OpenDocument document = openDocuments.get(uri);
+                if (document == null) {
+                    result.complete(new Tokens(null, SemanticTokensProvider.encode(null, null), null));
+                    return;
+                }
+                int[] data = SemanticTokensProvider.encode(featureFile(uri, document), null);
+                synchronized (document) {
+                    int[] previous = previousResultId != null && previousResultId.equals(document.tokensResultId)
+                            ? document.tokens : null;
+                    document.tokens = data;
+                    document.tokensResultId = Long.toString(resultIds.incrementAndGet());
+                    result.complete(new Tokens(document.tokensResultId, data, previous));
+                }
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private FeatureFile featureFile(String uri, OpenDocument document) {
+        AnalysisEngine current = engine;
+        String content;
+        synchronized (document) {
+            if (current != null && document.analyzedVersion == document.version) {
+                FeatureFile analyzed = current.getFeatureFile(uri);
+                if (analyzed != null) {
+                    return analyzed;
+                }
+            }
+            content = document.text.getText();
+        }
+        try {
+            return current != null ? current.parseFile(uri, content) : new FeatureParser().parse(uri, content);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     /**
      * Re-analyzes all currently open documents and publishes updated diagnostics.
      * <p>
      * Called after a configuration change to reflect new rule settings.
      */
     public void reanalyzeAll() {
-        for (Map.Entry<String, String> entry : openDocuments.entrySet()) {
-            analyzeAndPublish(entry.getKey(), entry.getValue());
+        workspaceDiagnostics.invalidate();
+        for (Map.Entry<String, OpenDocument> entry : openDocuments.entrySet()) {
+            OpenDocument document = entry.getValue();
+            int version;
+            synchronized (document) {
+                version = document.version;
+            }
+            scheduler.scheduleNow(entry.getKey(), version);
+        }
+    }
+
+    private void analyzeAndPublish(String uri, int version) {
+        OpenDocument document = openDocuments.get(uri);
+        if (document == null) {
+            // Closed; didClose answered its pull requests
+            return;
+        }
+        Throwable failure = null;
+        try {
+            analyzeAndPublish(uri, version, document);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            settlePendingPulls(document, version, failure);
         }
     }
 
-    private void analyzeAndPublish(String uri, String content) {
+    private void analyzeAndPublish(String uri, int version, OpenDocument document) {
         if (client == null || engine == null) {
             return;
         }
+        String content;
+        synchronized (document) {
+            if (document.version != version) {
+                return;
+            }
+            content = document.text.getText();
+        }
 
         List<Diagnostic> diagnostics = engine.analyzeFile(uri, content);
+        if (!openDocuments.containsKey(uri)) {
+            // Closed while being analyzed; do not leave its content in the cross-file set
+            releaseFile(uri);
+            publishCrossFileChanges();
+            return;
+        }
+        synchronized (document) {
+            if (document.version != version || openDocuments.get(uri) != document) {
+                return;
+            }
+            document.fileDiagnostics = diagnostics;
+            document.crossFileDiagnostics = engine.getCrossFileDiagnostics(uri);
+            document.analyzedVersion = version;
+            publish(uri, document);
+        }
+        publishCrossFileChanges();
+    }
 
-        // Publish per-file diagnostics for the current file
-        client.publishDiagnostics(new PublishDiagnosticsParams(uri, diagnostics));
+    /**
+     * Answers the pull requests still waiting after the analysis of a
+     * version, which publishing did not reach because the analysis failed
+     * or stopped early. Requests are left waiting only when a newer
+     * version is pending, whose analysis answers them. A failure is kept
+     * for the requests that arrive after it.
+     */
+    private static void settlePendingPulls(OpenDocument document, int version, Throwable failure) {
+        synchronized (document) {
+            if (document.version != version) {
+                return;
+            }
+            if (failure != null) {
+                document.failedVersion = version;
+                document.failure = failure;
+            }
+            for (PendingPull pull : document.pendingPulls) {
+                if (failure != null) {
+                    pull.report().completeExceptionally(failure);
+                } else if (document.resultId != null) {
+                    pull.report().complete(report(document, pull.previousResultId()));
+                } else {
+                    pull.report().complete(new DocumentDiagnosticReport(
+                            new RelatedFullDocumentDiagnosticReport(Collections.emptyList())));
+                }
+            }
+            document.pendingPulls.clear();
+        }
+    }
+
+    /**
+     * Republishes the open documents whose cross-file diagnostics changed,
+     * for example after the workspace was indexed.
+     */
+    void refreshCrossFileDiagnostics() {
+        executor.execute(WORKSPACE_INDEX_KEY, () -> {
+            publishCrossFileChanges();
+            workspaceDiagnostics.invalidate();
+        });
+    }
 
-        // Run cross-file analysis and merge results
-        Map<String, List<Diagnostic>> crossFile = engine.getCrossFileDiagnostics();
+    private void releaseFile(String uri) {
+        engine.closeFile(uri, !openDocuments.containsKey(uri) ? readIndexedFile(uri) : null);
+    }
+
+    private String readIndexedFile(String uri) {
+        WorkspaceIndexer indexer = workspaceIndexer;
+        return indexer != null ? indexer.readIndexedFile(uri) : null;
+    }
 
-        for (Map.Entry<String, List<Diagnostic>> entry : crossFile.entrySet()) {
-            String crossUri = entry.getKey();
-            if (!openDocuments.containsKey(crossUri)) {
+    /**
+     * Republishes open documents whose cross-file diagnostics changed since
+     * they were last published, reusing their cached per-file diagnostics.
+     * Documents without diagnostics for their current version are skipped;
+     * their pending analysis publishes them. The workspace report is only
+     * invalidated when a closed file is affected, so that edits confined to
+     * open documents do not recompute it.
+     */
+    private void publishCrossFileChanges() {
+        if (client == null || engine == null) {
+            return;
+        }
+        Set<String> changes = engine.takeCrossFileChanges();
+        boolean closedFileChanged = false;
+        for (String uri : changes) {
+            OpenDocument document = openDocuments.get(uri);
+            if (document == null) {
+                closedFileChanged = true;
                 continue;
             }
+            synchronized (document) {
+                if (document.analyzedVersion != document.version
+                        || openDocuments.get(uri) != document) {
+                    continue;
+                }
+                // Read under the lock so the last publisher sees the newest index
+                List<Diagnostic> crossFile = engine.getCrossFileDiagnostics(uri);
+                if (crossFile.equals(document.crossFileDiagnostics)) {
+                    continue;
+                }
+                document.crossFileDiagnostics = crossFile;
+                publish(uri, document);
+            }
+        }
+        if (closedFileChanged) {
+            workspaceDiagnostics.invalidate();
+        }
+    }
 
-            List<Diagnostic> merged;
-            if (crossUri.equals(uri)) {
-                // Merge cross-file diagnostics with the per-file ones for current file
-                merged = new ArrayList<>(diagnostics);
-                merged.addAll(entry.getValue());
-            } else {
-                // For other open files, re-run per-file analysis and merge
-                String otherContent = openDocuments.get(crossUri);
-                List<Diagnostic> perFile = engine.analyzeFile(crossUri, otherContent);
-                merged = new ArrayList<>(perFile);
-                merged.addAll(entry.getValue());
+    private void publish(String uri, OpenDocument document) {
+        long allocated = AnalysisStats.allocatedBytes();
+        long start = System.nanoTime();
+        send(uri, document);
+        engine.getStats().record(AnalysisStats.Stage.PUBLISH, start, allocated);
+    }
+
+    private void send(String uri, OpenDocument document) {
+        List<Diagnostic> merged = new ArrayList<>(document.fileDiagnostics);
+        merged.addAll(document.crossFileDiagnostics);
+        if (!pullDiagnostics) {
+            client.publishDiagnostics(new PublishDiagnosticsParams(uri, merged, document.version));
+            return;
+        }
+        boolean changed = !merged.equals(document.reported);
+        if (changed) {
+            document.reported = merged;
+            document.resultId = Long.toString(resultIds.incrementAndGet());
+        }
+        if (!document.pendingPulls.isEmpty()) {
+            for (PendingPull pull : document.pendingPulls) {
+                pull.report().complete(report(document, pull.previousResultId()));
             }
+            document.pendingPulls.clear();
+        } else if (changed) {
+            requestRefresh();
+        }
+    }
 
-            client.publishDiagnostics(new PublishDiagnosticsParams(crossUri, merged));
+    private static DocumentDiagnosticReport report(OpenDocument document, String previousResultId) {
+        if (document.resultId.equals(previousResultId)) {
+            return new DocumentDiagnosticReport(new RelatedUnchangedDocumentDiagnosticReport(document.resultId));
+        }
+        RelatedFullDocumentDiagnosticReport full = new RelatedFullDocumentDiagnosticReport(document.reported);
+        full.setResultId(document.resultId);
+        return new DocumentDiagnosticReport(full);
+    }
+
+    /**
+     * Asks the client to pull again. Requests made while one is in flight
+     * are merged into a single follow-up request.
+     */
+    private void requestRefresh() {
+        if (refreshSupported && refreshRequests.getAndIncrement() == 0) {
+            CompletableFuture<Void> refresh = client.refreshDiagnostics();
+            if (refresh == null) {
+                refreshRequests.set(0);
+                return;
+            }
+            refresh.whenComplete((result, error) -> {
+                if (refreshRequests.getAndSet(0) > 1) {
+                    requestRefresh();
+                }
+            });
         }
     }
 }
@@ -18,10 +18,15 @@ package com.qualimetry.gherkin.lsp;
 import com.google.gson.JsonObject;
 import org.eclipse.lsp4j.DidChangeConfigurationParams;
 import org.eclipse.lsp4j.DidChangeWatchedFilesParams;
+import org.eclipse.lsp4j.WorkspaceDiagnosticParams;
+import org.eclipse.lsp4j.WorkspaceDiagnosticReport;
 import org.eclipse.lsp4j.services.WorkspaceService;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
- * Handles workspace-level events such as configuration changes.
+ * Handles workspace-level events such as configuration changes and changes
+ * to watched files, and workspace diagnostic pull requests.
  */
 public class GherkinWorkspaceService implements WorkspaceService {
 
@@ -52,6 +57,11 @@ public class GherkinWorkspaceService implements WorkspaceService {
 
     @Override
     public void didChangeWatchedFiles(DidChangeWatchedFilesParams params) {
-        // no-op
+        server.onWatchedFilesChanged(params.getChanges());
+    }
+
+    @Override
+    public CompletableFuture<WorkspaceDiagnosticReport> diagnostic(WorkspaceDiagnosticParams params) {
+        return server.workspaceDiagnostic(params);
     }
 }
@@ -17,13 +17,15 @@ package com.qualimetry.gherkin.lsp;
 
 import org.eclipse.lsp4j.launch.LSPLauncher;
 
+import java.util.Arrays;
 import java.util.concurrent.Future;
 
 /**
  * Entry point for the Gherkin LSP server.
  * <p>
  * Creates a {@link GherkinLanguageServer} and connects it via stdio using the
- * LSP4J launcher infrastructure.
+ * LSP4J launcher infrastructure. With {@code analyze} as the first argument,
+ * runs a headless batch analysis instead (see {@link BatchMain}).
  */
 public final class Main {
 
@@ -32,6 +34,10 @@ public final class Main {
     }
 
     public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("analyze")) {
+            BatchMain.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         GherkinLanguageServer server = new GherkinLanguageServer();
         var launcher = LSPLauncher.createServerLauncher(server, System.in, System.out);
         server.connect(launcher.getRemoteProxy());
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.google.gson.stream.JsonWriter;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Position;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes one JSON object per diagnostic, one per line (newline-delimited
+ * JSON), so that each line can be parsed on its own as soon as it arrives.
+ * <p>
+ * Each object has the fields {@code path}, {@code line}, {@code column},
+ * {@code endLine}, {@code endColumn} (1-based, the end column exclusive),
+ * {@code severity}, {@code rule} and {@code message}.
+ */
+final class NdjsonDiagnosticWriter implements DiagnosticWriter {
+
+    private final Writer out;
+
+    NdjsonDiagnosticWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void fileAnalyzed(Path path, List<Diagnostic> diagnostics) throws IOException {
+        if (diagnostics.isEmpty()) {
+            return;
+        }
+        String file = path.toString();
+        for (Diagnostic diagnostic : diagnostics) {
+            Position start = diagnostic.getRange().getStart();
+            Position end = diagnostic.getRange().getEnd();
+            // JsonWriter keeps no buffer of its own, so one per record costs
+            // nothing and keeps each record a separate top-level value
+            JsonWriter json = new JsonWriter(out);
+            json.beginObject();
+            json.name("path").value(file);
+            json.name("line").value(start.getLine() + 1);
+            json.name("column").value(start.getCharacter() + 1);
+            json.name("endLine").value(end.getLine() + 1);
+            json.name("endColumn").value(end.getCharacter() + 1);
+            json.name("severity").value(diagnostic.getSeverity().name().toLowerCase(Locale.ROOT));
+            json.name("rule").value(TextDiagnosticWriter.ruleKey(diagnostic));
+            json.name("message").value(diagnostic.getMessage());
+            json.endObject();
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    @Override
+    public void end() throws IOException {
+        out.flush();
+    }
+}
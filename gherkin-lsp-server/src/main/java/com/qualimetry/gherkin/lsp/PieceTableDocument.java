@@ -0,0 +1,361 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mutable text of an open document, stored as a piece table so that
+ * incremental {@code didChange} edits are applied in place without copying
+ * the whole document.
+ * <p>
+ * The table references two buffers: the immutable text the document was
+ * opened with and an append-only buffer holding all inserted text. Each edit
+ * only splits or trims the pieces it touches. A line-start index is kept
+ * alongside and patched around the edit, so an LSP {@link Position}
+ * (0-based line, UTF-16 character) finds its line start without scanning the
+ * text. Clamping the character to the end of the line reads the line's
+ * terminator through {@link #charAt(int)}, which walks the piece list; a
+ * lookup therefore costs O(pieces), bounded by the compaction threshold, or
+ * O(1) while the materialized text is cached. Line terminators follow the
+ * LSP definition: {@code \n}, {@code \r\n} and {@code \r}.
+ * <p>
+ * The full text is materialized lazily by {@link #getText()} and cached until
+ * the next edit. The table is compacted once it accumulates too many pieces.
+ * <p>
+ * Instances are not thread-safe; callers must serialize access per document.
+ */
+public class PieceTableDocument {
+
+    /** Piece count above which the table is flattened back into one piece. */
+    private static final int MAX_PIECES = 512;
+
+    private String original;
+    private final StringBuilder added = new StringBuilder();
+    private final List<Piece> pieces = new ArrayList<>();
+    private int length;
+
+    /** Offsets at which each line starts; {@code lineStarts[0]} is always 0. */
+    private int[] lineStarts;
+    private int lineCount;
+
+    private String cachedText;
+
+    private record Piece(boolean inAdded, int start, int length) {}
+
+    /**
+     * Creates a document holding the given initial text.
+     *
+     * @param text the document content at open time
+     */
+    public PieceTableDocument(String text) {
+        reset(text);
+    }
+
+    /**
+     * Replaces the whole document content.
+     *
+     * @param text the new content
+     */
+    public void setText(String text) {
+        reset(text);
+    }
+
+    /**
+     * Replaces the given range with new text. A {@code null} range replaces
+     * the whole document, matching a full-content change event.
+     *
+     * @param range the range to replace, or {@code null} for the whole document
+     * @param text  the replacement text
+     */
+    public void applyChange(Range range, String text) {
+        if (range == null) {
+            reset(text);
+            return;
+        }
+        int start = offsetAt(range.getStart());
+        int end = offsetAt(range.getEnd());
+        if (end < start) {
+            int tmp = start;
+            start = end;
+            end = tmp;
+        }
+        replace(start, end, text);
+    }
+
+    /**
+     * Returns the full document content. The result is cached until the
+     * next edit.
+     */
+    public String getText() {
+        if (cachedText == null) {
+            StringBuilder sb = new StringBuilder(length);
+            for (Piece piece : pieces) {
+                appendPiece(sb, piece);
+            }
+            cachedText = sb.toString();
+        }
+        return cachedText;
+    }
+
+    /**
+     * Returns the document length in UTF-16 code units.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the number of lines; an empty document has one line.
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Converts an LSP position to an offset. Lines past the end resolve to
+     * the document length; characters past the end of a line resolve to the
+     * end of that line, excluding its terminator.
+     *
+     * @param position the 0-based position
+     * @return the offset into the document
+     */
+    public int offsetAt(Position position) {
+        int line = position.getLine();
+        if (line < 0) {
+            return 0;
+        }
+        if (line >= lineCount) {
+            return length;
+        }
+        int lineStart = lineStarts[line];
+        int contentEnd = lineContentEnd(line);
+        return lineStart + Math.max(0, Math.min(position.getCharacter(), contentEnd - lineStart));
+    }
+
+    /**
+     * Returns the character at the given offset. Reads from the cached text
+     * when present and otherwise walks the piece list.
+     *
+     * @param offset an offset in {@code [0, length())}
+     * @return the character
+     */
+    public char charAt(int offset) {
+        if (cachedText != null) {
+            return cachedText.charAt(offset);
+        }
+        int pos = 0;
+        for (Piece piece : pieces) {
+            if (offset < pos + piece.length()) {
+                int index = piece.start() + (offset - pos);
+                return piece.inAdded() ? added.charAt(index) : original.charAt(index);
+            }
+            pos += piece.length();
+        }
+        throw new IndexOutOfBoundsException("offset " + offset + ", length " + length);
+    }
+
+    /**
+     * Returns the number of pieces (visible for testing).
+     */
+    int getPieceCount() {
+        return pieces.size();
+    }
+
+    // ------------------------------------------------------------------
+    // Piece table maintenance
+    // ------------------------------------------------------------------
+
+    private void reset(String text) {
+        original = text;
+        added.setLength(0);
+        pieces.clear();
+        if (!text.isEmpty()) {
+            pieces.add(new Piece(false, 0, text.length()));
+        }
+        length = text.length();
+        cachedText = text;
+        rebuildLineStarts(text);
+    }
+
+    private void replace(int start, int end, String text) {
+        if (start == end && text.isEmpty()) {
+            return;
+        }
+        int oldEnd = end;
+        removeRange(start, end);
+        if (!text.isEmpty()) {
+            insertPiece(start, new Piece(true, added.length(), text.length()));
+            added.append(text);
+        }
+        length += text.length() - (oldEnd - start);
+        cachedText = null;
+        updateLineStarts(start, oldEnd, text);
+
+        if (pieces.size() > MAX_PIECES) {
+            reset(getText());
+        }
+    }
+
+    private void removeRange(int start, int end) {
+        if (start == end) {
+            return;
+        }
+        List<Piece> result = new ArrayList<>(pieces.size() + 1);
+        int pos = 0;
+        for (Piece piece : pieces) {
+            int pieceStart = pos;
+            int pieceEnd = pos + piece.length();
+            pos = pieceEnd;
+            if (pieceEnd <= start || pieceStart >= end) {
+                result.add(piece);
+                continue;
+            }
+            if (pieceStart < start) {
+                result.add(new Piece(piece.inAdded(), piece.start(), start - pieceStart));
+            }
+            if (pieceEnd > end) {
+                int skip = end - pieceStart;
+                result.add(new Piece(piece.inAdded(), piece.start() + skip, pieceEnd - end));
+            }
+        }
+        pieces.clear();
+        pieces.addAll(result);
+    }
+
+    private void insertPiece(int offset, Piece inserted) {
+        int pos = 0;
+        for (int i = 0; i < pieces.size(); i++) {
+            Piece piece = pieces.get(i);
+            if (offset == pos) {
+                pieces.add(i, inserted);
+                return;
+            }
+            if (offset < pos + piece.length()) {
+                int head = offset - pos;
+                pieces.set(i, new Piece(piece.inAdded(), piece.start(), head));
+                pieces.add(i + 1, inserted);
+                pieces.add(i + 2, new Piece(piece.inAdded(), piece.start() + head, piece.length() - head));
+                return;
+            }
+            pos += piece.length();
+        }
+        pieces.add(inserted);
+    }
+
+    private void appendPiece(StringBuilder sb, Piece piece) {
+        if (piece.inAdded()) {
+            sb.append(added, piece.start(), piece.start() + piece.length());
+        } else {
+            sb.append(original, piece.start(), piece.start() + piece.length());
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Line index maintenance
+    // ------------------------------------------------------------------
+
+    private void rebuildLineStarts(String text) {
+        lineStarts = new int[16];
+        lineCount = 1;
+        for (int s = 1; s <= text.length(); s++) {
+            char prev = text.charAt(s - 1);
+            if (prev == '\n' || (prev == '\r' && (s == text.length() || text.charAt(s) != '\n'))) {
+                addLineStart(s);
+            }
+        }
+    }
+
+    /**
+     * Patches the line index after {@code [start, oldEnd)} was replaced by
+     * {@code text}. Whether offset {@code s} starts a line depends only on the
+     * characters at {@code s - 1} and {@code s}, so only starts in
+     * {@code [start, start + text.length() + 1]} need re-evaluating; later
+     * starts are shifted by the length delta.
+     */
+    private void updateLineStarts(int start, int oldEnd, String text) {
+        int delta = text.length() - (oldEnd - start);
+
+        int from = firstStartAtOrAfter(Math.max(1, start));
+        int to = firstStartAtOrAfter(oldEnd + 2);
+        int tailCount = lineCount - to;
+
+        int scanFrom = Math.max(1, start);
+        int scanTo = Math.min(length, start + text.length() + 1);
+        int[] fresh = new int[Math.max(0, scanTo - scanFrom + 1)];
+        int freshCount = 0;
+        for (int s = scanFrom; s <= scanTo; s++) {
+            if (isLineStart(s, start, text)) {
+                fresh[freshCount++] = s;
+            }
+        }
+
+        int newCount = from + freshCount + tailCount;
+        int[] target = newCount <= lineStarts.length ? lineStarts : Arrays.copyOf(lineStarts, newCount * 2);
+        System.arraycopy(lineStarts, to, target, from + freshCount, tailCount);
+        System.arraycopy(fresh, 0, target, from, freshCount);
+        for (int i = from + freshCount; i < newCount; i++) {
+            target[i] += delta;
+        }
+        lineStarts = target;
+        lineCount = newCount;
+    }
+
+    private boolean isLineStart(int s, int editStart, String text) {
+        char prev = charAfterEdit(s - 1, editStart, text);
+        if (prev == '\n') {
+            return true;
+        }
+        return prev == '\r' && (s == length || charAfterEdit(s, editStart, text) != '\n');
+    }
+
+    private char charAfterEdit(int offset, int editStart, String text) {
+        int relative = offset - editStart;
+        if (relative >= 0 && relative < text.length()) {
+            return text.charAt(relative);
+        }
+        return charAt(offset);
+    }
+
+    private int firstStartAtOrAfter(int offset) {
+        int index = Arrays.binarySearch(lineStarts, 1, lineCount, offset);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private void addLineStart(int offset) {
+        if (lineCount == lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+        }
+        lineStarts[lineCount++] = offset;
+    }
+
+    private int lineContentEnd(int line) {
+        int end = line + 1 < lineCount ? lineStarts[line + 1] : length;
+        int lineStart = lineStarts[line];
+        if (end > lineStart && charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end > lineStart && charAt(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+}
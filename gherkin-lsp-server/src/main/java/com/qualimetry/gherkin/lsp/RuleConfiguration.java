@@ -22,15 +22,21 @@ import org.eclipse.lsp4j.DiagnosticSeverity;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Manages which analysis rules are active and applies configurable properties
@@ -40,14 +46,21 @@ import java.util.Set;
  * enabled or disabled through a JSON settings object. Properties annotated
  * with {@link RuleProperty} are set via reflection when a matching value
  * appears in the settings.
+ * <p>
+ * Check instances hold per-file state and must not be shared between
+ * concurrent analyses; use {@link #getCheckFactory()} to obtain isolated
+ * instances.
  */
 public class RuleConfiguration {
 
     private static final String EXCLUDED_RULE = "spelling-accuracy";
 
     private final List<BaseCheck> activeChecks = new ArrayList<>();
+    private final List<CheckFactory.Prototype> prototypes = new ArrayList<>();
     private final Set<String> activeRuleKeys = new LinkedHashSet<>();
     private final Map<String, DiagnosticSeverity> severityOverrides = new HashMap<>();
+    private final CheckFactory checkFactory;
+    private volatile String fingerprint;
 
     /**
      * Builds the rule configuration from user settings.
@@ -80,30 +93,45 @@ public class RuleConfiguration {
                     continue;
                 }
 
-                BaseCheck check = clazz.getDeclaredConstructor().newInstance();
+                Constructor<? extends BaseCheck> constructor = clazz.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                Map<Field, Object> properties = new HashMap<>();
 
                 if (rulesConfig != null && rulesConfig.has(key)
                         && rulesConfig.get(key).isJsonObject()) {
                     JsonObject ruleObj = rulesConfig.getAsJsonObject(key);
-                    applyProperties(check, clazz, ruleObj);
+                    parseProperties(clazz, ruleObj, properties);
                     parseSeverityOverride(key, ruleObj);
                 }
 
-                activeChecks.add(check);
+                CheckFactory.Prototype prototype = new CheckFactory.Prototype(constructor, properties);
+                activeChecks.add(prototype.newInstance());
+                prototypes.add(prototype);
                 activeRuleKeys.add(key);
-            } catch (ReflectiveOperationException e) {
+            } catch (ReflectiveOperationException | IllegalStateException e) {
                 // Skip checks that cannot be instantiated
             }
         }
+        this.checkFactory = new CheckFactory(prototypes);
     }
 
     /**
      * Returns the list of active (enabled) check instances with properties applied.
+     * <p>
+     * These instances are shared by every caller; analyses that may run
+     * concurrently must take their own instances from {@link #getCheckFactory()}.
      */
     public List<BaseCheck> getActiveChecks() {
         return Collections.unmodifiableList(activeChecks);
     }
 
+    /**
+     * Returns the factory producing isolated instances of the active checks.
+     */
+    public CheckFactory getCheckFactory() {
+        return checkFactory;
+    }
+
     /**
      * Returns the set of active rule keys.
      */
@@ -111,6 +139,44 @@ public class RuleConfiguration {
         return Collections.unmodifiableSet(activeRuleKeys);
     }
 
+    /**
+     * Returns a digest of everything that affects the diagnostics of a file:
+     * the active rules, their severities and their property values. Two
+     * configurations with the same fingerprint produce the same diagnostics.
+     *
+     * @return a hexadecimal SHA-256 digest
+     */
+    public String getFingerprint() {
+        String result = fingerprint;
+        if (result == null) {
+            result = computeFingerprint();
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    private String computeFingerprint() {
+        StringBuilder description = new StringBuilder();
+        int index = 0;
+        for (String key : activeRuleKeys) {
+            description.append(key).append('=').append(getSeverity(key));
+            Map<String, String> properties = new TreeMap<>();
+            prototypes.get(index++).properties()
+                    .forEach((field, value) -> properties.put(field.getName(), String.valueOf(value)));
+            properties.forEach((name, value) -> description.append(';').append(name).append('=')
+                    .append(value.replace("\\", "\\\\").replace(";", "\\;")));
+            description.append('\n');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(description.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Returns the effective diagnostic severity for a rule (user override or default).
      *
@@ -171,9 +237,9 @@ public class RuleConfiguration {
         return defaultKeys.contains(key);
     }
 
-    private static void applyProperties(BaseCheck check,
-                                         Class<? extends BaseCheck> clazz,
-                                         JsonObject ruleObj) {
+    private static void parseProperties(Class<? extends BaseCheck> clazz,
+                                        JsonObject ruleObj,
+                                        Map<Field, Object> properties) {
         for (Field field : clazz.getDeclaredFields()) {
             if (!field.isAnnotationPresent(RuleProperty.class)) {
                 continue;
@@ -186,11 +252,11 @@ public class RuleConfiguration {
             try {
                 String value = ruleObj.get(fieldName).getAsString();
                 if (field.getType() == int.class || field.getType() == Integer.class) {
-                    field.setInt(check, Integer.parseInt(value));
+                    properties.put(field, Integer.parseInt(value));
                 } else if (field.getType() == String.class) {
-                    field.set(check, value);
+                    properties.put(field, value);
                 }
-            } catch (ReflectiveOperationException | NumberFormatException e) {
+            } catch (NumberFormatException e) {
                 // Ignore invalid property values
             }
         }
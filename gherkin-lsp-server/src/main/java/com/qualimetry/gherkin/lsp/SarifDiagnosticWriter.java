@@ -0,0 +1,239 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.google.gson.stream.JsonWriter;
+import com.qualimetry.sonar.gherkin.analyzer.checks.CheckList;
+import com.qualimetry.sonar.gherkin.analyzer.checks.RuleSeverities;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.sonar.check.Rule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes a SARIF 2.1.0 log with a single run, streaming each result into
+ * the run's {@code results} array as it is produced.
+ * <p>
+ * The tool section, written by {@link #begin()}, describes every rule of
+ * {@link CheckList}: its key (from {@code @Rule}), its default level and
+ * enablement (from {@link RuleSeverities} and the default profile), and a
+ * description taken from the first paragraph of its HTML documentation.
+ * Results reference their rule by id and index. Relative paths are written
+ * as URIs relative to {@code %SRCROOT%}, as expected by code scanning
+ * services; absolute paths as {@code file:} URIs.
+ */
+final class SarifDiagnosticWriter implements DiagnosticWriter {
+
+    static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+    static final String SRCROOT = "%SRCROOT%";
+
+    private static final String TOOL_NAME = "Qualimetry Gherkin Analyzer";
+    private static final String INFORMATION_URI = "https://github.com/Qualimetry/vscode-gherkin-plugin";
+    private static final Pattern FIRST_PARAGRAPH = Pattern.compile("<p>(.*?)</p>", Pattern.DOTALL);
+    private static final Pattern TAG = Pattern.compile("<[^>]+>");
+    private static final Pattern SENTENCE_END = Pattern.compile("[.!?](\\s|$)");
+
+    private final JsonWriter json;
+    private final Map<String, Integer> ruleIndexes = new HashMap<>();
+
+    SarifDiagnosticWriter(Writer out) {
+        this.json = new JsonWriter(out);
+    }
+
+    @Override
+    public void begin() throws IOException {
+        json.beginObject();
+        json.name("$schema").value(SCHEMA);
+        json.name("version").value("2.1.0");
+        json.name("runs").beginArray();
+        json.beginObject();
+        json.name("tool").beginObject();
+        json.name("driver").beginObject();
+        json.name("name").value(TOOL_NAME);
+        json.name("informationUri").value(INFORMATION_URI);
+        String version = SarifDiagnosticWriter.class.getPackage().getImplementationVersion();
+        if (version != null) {
+            json.name("version").value(version);
+        }
+        json.name("rules").beginArray();
+        writeRules();
+        json.endArray();
+        json.endObject();
+        json.endObject();
+        json.name("results").beginArray();
+        json.flush();
+    }
+
+    @Override
+    public void fileAnalyzed(Path path, List<Diagnostic> diagnostics) throws IOException {
+        if (diagnostics.isEmpty()) {
+            return;
+        }
+        String uri = uri(path);
+        for (Diagnostic diagnostic : diagnostics) {
+            writeResult(uri, path.isAbsolute(), diagnostic);
+        }
+        json.flush();
+    }
+
+    @Override
+    public void end() throws IOException {
+        json.endArray();
+        json.endObject();
+        json.endArray();
+        json.endObject();
+        json.flush();
+    }
+
+    private void writeRules() throws IOException {
+        Set<String> defaultKeys = new HashSet<>(CheckList.getDefaultRuleKeys());
+        for (Class<? extends BaseCheck> clazz : CheckList.getAllChecks()) {
+            Rule rule = clazz.getAnnotation(Rule.class);
+            if (rule == null) {
+                continue;
+            }
+            String key = rule.key();
+            ruleIndexes.put(key, ruleIndexes.size());
+
+            json.beginObject();
+            json.name("id").value(key);
+            json.name("name").value(clazz.getSimpleName().replaceFirst("Check$", ""));
+            String description = description(clazz, key);
+            if (description != null) {
+                json.name("shortDescription").beginObject().name("text").value(firstSentence(description)).endObject();
+                json.name("fullDescription").beginObject().name("text").value(description).endObject();
+            }
+            json.name("defaultConfiguration").beginObject();
+            json.name("enabled").value(defaultKeys.contains(key));
+            json.name("level").value(level(SeverityMap.getSeverity(key)));
+            json.endObject();
+            json.name("properties").beginObject();
+            json.name("severity").value(RuleSeverities.getSeverity(key));
+            json.endObject();
+            json.endObject();
+        }
+    }
+
+    private void writeResult(String uri, boolean absolute, Diagnostic diagnostic) throws IOException {
+        String ruleKey = TextDiagnosticWriter.ruleKey(diagnostic);
+        Position start = diagnostic.getRange().getStart();
+        Position end = diagnostic.getRange().getEnd();
+
+        json.beginObject();
+        json.name("ruleId").value(ruleKey);
+        Integer ruleIndex = ruleIndexes.get(ruleKey);
+        if (ruleIndex != null) {
+            json.name("ruleIndex").value(ruleIndex);
+        }
+        json.name("level").value(level(diagnostic.getSeverity()));
+        json.name("message").beginObject().name("text").value(diagnostic.getMessage()).endObject();
+        json.name("locations").beginArray().beginObject();
+        json.name("physicalLocation").beginObject();
+        json.name("artifactLocation").beginObject();
+        json.name("uri").value(uri);
+        if (!absolute) {
+            json.name("uriBaseId").value(SRCROOT);
+        }
+        json.endObject();
+        json.name("region").beginObject();
+        json.name("startLine").value(start.getLine() + 1);
+        json.name("startColumn").value(start.getCharacter() + 1);
+        // A range ending at the start of the next line covers the rest of
+        // the line, which SARIF expresses by omitting the end
+        boolean restOfLine = end.getLine() == start.getLine() + 1 && end.getCharacter() == 0;
+        if (!restOfLine) {
+            if (end.getLine() != start.getLine()) {
+                json.name("endLine").value(end.getLine() + 1);
+            }
+            json.name("endColumn").value(end.getCharacter() + 1);
+        }
+        json.endObject();
+        json.endObject();
+        json.endObject().endArray();
+        json.endObject();
+    }
+
+    static String level(DiagnosticSeverity severity) {
+        return switch (severity) {
+            case Error -> "error";
+            case Warning -> "warning";
+            case Information, Hint -> "note";
+        };
+    }
+
+    static String uri(Path path) {
+        if (path.isAbsolute()) {
+            return path.toUri().toString();
+        }
+        StringBuilder uri = new StringBuilder();
+        for (Path name : path.normalize()) {
+            if (uri.length() > 0) {
+                uri.append('/');
+            }
+            uri.append(name);
+        }
+        try {
+            return new URI(null, null, uri.toString(), null).getRawPath();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid path: " + path, e);
+        }
+    }
+
+    /**
+     * Returns the plain text of the first paragraph of a rule's HTML
+     * documentation, or {@code null} if it has none.
+     */
+    static String description(Class<?> checkClass, String key) {
+        try (InputStream in = checkClass.getResourceAsStream(key + ".html")) {
+            if (in == null) {
+                return null;
+            }
+            Matcher paragraph = FIRST_PARAGRAPH.matcher(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            if (!paragraph.find()) {
+                return null;
+            }
+            String text = TAG.matcher(paragraph.group(1)).replaceAll("")
+                    .replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                    .replace("&mdash;", "\u2014").replace("&amp;", "&")
+                    .replaceAll("\\s+", " ")
+                    .trim();
+            return text.isEmpty() ? null : text;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String firstSentence(String text) {
+        Matcher end = SENTENCE_END.matcher(text);
+        return end.find() ? text.substring(0, end.start() + 1) : text;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.qualimetry.sonar.gherkin.analyzer.highlighting.FeatureHighlighter;
+import com.qualimetry.sonar.gherkin.analyzer.highlighting.FeatureHighlighter.HighlightType;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SemanticTokenTypes;
+import org.eclipse.lsp4j.SemanticTokensEdit;
+import org.eclipse.lsp4j.SemanticTokensLegend;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Encodes the {@link FeatureHighlighter} tokens of a feature file as LSP
+ * semantic tokens, and computes the edit between two encodings for
+ * {@code textDocument/semanticTokens/full/delta}.
+ * <p>
+ * Each token takes five integers: its line and start character relative to
+ * the previous token (the character only when both are on the same line),
+ * its length, its type as an index into {@link #LEGEND} and its modifiers,
+ * always {@code 0}. The highlighter streams tokens in source order, so they
+ * are written straight into a growing {@code int[]}; they are only sorted
+ * if they arrive out of order.
+ */
+final class SemanticTokensProvider {
+
+    /** The token types, in the order of the type indexes. */
+    static final SemanticTokensLegend LEGEND = new SemanticTokensLegend(
+            List.of(SemanticTokenTypes.Keyword, SemanticTokenTypes.Decorator, SemanticTokenTypes.Comment),
+            List.of());
+
+    private static final int TOKEN_SIZE = 5;
+    private static final int[] NO_TOKENS = new int[0];
+
+    private SemanticTokensProvider() {
+        // utility class
+    }
+
+    /**
+     * Encodes the tokens of a feature file.
+     *
+     * @param featureFile the parsed feature file, or {@code null}
+     * @param range       the range whose lines to encode, or {@code null}
+     *                    for the whole file
+     * @return the relative encoding of the tokens
+     */
+    static int[] encode(FeatureFile featureFile, Range range) {
+        if (featureFile == null) {
+            return NO_TOKENS;
+        }
+        int firstLine = range != null ? range.getStart().getLine() : 0;
+        int lastLine = range != null ? range.getEnd().getLine() : Integer.MAX_VALUE;
+        TokenBuffer tokens = new TokenBuffer();
+        FeatureHighlighter.highlight(featureFile, (line, column, length, type) -> {
+            // The highlighter is 1-based, LSP is 0-based
+            int lspLine = line - 1;
+            if (lspLine >= firstLine && lspLine <= lastLine && length > 0) {
+                tokens.add(lspLine, column - 1, length, typeIndex(type));
+            }
+        });
+        return tokens.toRelative();
+    }
+
+    /**
+     * Computes the single edit turning one encoding into another: the
+     * integers between their common prefix and their common suffix.
+     *
+     * @param previous the encoding the client holds
+     * @param current  the new encoding
+     * @return the edit, or an empty list if the encodings are equal
+     */
+    static List<SemanticTokensEdit> diff(int[] previous, int[] current) {
+        int prefix = 0;
+        int shortest = Math.min(previous.length, current.length);
+        while (prefix < shortest && previous[prefix] == current[prefix]) {
+            prefix++;
+        }
+        if (prefix == previous.length && prefix == current.length) {
+            return List.of();
+        }
+        int suffix = 0;
+        while (suffix < shortest - prefix
+                && previous[previous.length - 1 - suffix] == current[current.length - 1 - suffix]) {
+            suffix++;
+        }
+        return List.of(new SemanticTokensEdit(prefix, previous.length - prefix - suffix,
+                asList(current, prefix, current.length - suffix)));
+    }
+
+    /**
+     * Returns a read-only list view of the whole array, without boxing it
+     * up front.
+     */
+    static List<Integer> asList(int[] data) {
+        return asList(data, 0, data.length);
+    }
+
+    private static List<Integer> asList(int[] data, int from, int to) {
+        return new IntListView(data, from, to);
+    }
+
+    private static int typeIndex(HighlightType type) {
+        return switch (type) {
+            case KEYWORD -> 0;
+            case ANNOTATION -> 1;
+            case COMMENT -> 2;
+        };
+    }
+
+    /**
+     * Absolute tokens, five integers each, converted in place to the relative
+     * encoding once complete.
+     */
+    private static final class TokenBuffer {
+
+        private int[] data = new int[64 * TOKEN_SIZE];
+        private int size;
+        private boolean sorted = true;
+
+        void add(int line, int character, int length, int type) {
+            if (size > 0) {
+                int previousLine = data[size - TOKEN_SIZE];
+                int previousCharacter = data[size - TOKEN_SIZE + 1];
+                if (line < previousLine || (line == previousLine && character < previousCharacter)) {
+                    sorted = false;
+                }
+            }
+            if (size + TOKEN_SIZE > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size] = line;
+            data[size + 1] = character;
+            data[size + 2] = length;
+            data[size + 3] = type;
+            data[size + 4] = 0;
+            size += TOKEN_SIZE;
+        }
+
+        int[] toRelative() {
+            if (!sorted) {
+                sort();
+            }
+            // Backwards, so that each token's predecessor is still absolute
+            for (int i = size - TOKEN_SIZE; i >= TOKEN_SIZE; i -= TOKEN_SIZE) {
+                int deltaLine = data[i] - data[i - TOKEN_SIZE];
+                if (deltaLine == 0) {
+                    data[i + 1] -= data[i - TOKEN_SIZE + 1];
+                }
+                data[i] = deltaLine;
+            }
+            return size == 0 ? NO_TOKENS : Arrays.copyOf(data, size);
+        }
+
+        private void sort() {
+            int[][] tokens = new int[size / TOKEN_SIZE][];
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = Arrays.copyOfRange(data, i * TOKEN_SIZE, (i + 1) * TOKEN_SIZE);
+            }
+            Arrays.sort(tokens, Comparator.<int[]>comparingInt(token -> token[0]).thenComparingInt(token -> token[1]));
+            for (int i = 0; i < tokens.length; i++) {
+                System.arraycopy(tokens[i], 0, data, i * TOKEN_SIZE, TOKEN_SIZE);
+            }
+        }
+    }
+
+    private static final class IntListView extends AbstractList<Integer> implements RandomAccess {
+
+        private final int[] data;
+        private final int from;
+        private final int to;
+
+        IntListView(int[] data, int from, int to) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return data[from + index];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
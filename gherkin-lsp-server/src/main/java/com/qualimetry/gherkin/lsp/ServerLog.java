@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import org.eclipse.lsp4j.MessageParams;
+import org.eclipse.lsp4j.MessageType;
+import org.eclipse.lsp4j.services.LanguageClient;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * Reports failures of background work to the client log, where users find
+ * them in the output panel of the extension.
+ */
+final class ServerLog {
+
+    private ServerLog() {
+        // utility class
+    }
+
+    /**
+     * Logs a failure with its stack trace.
+     *
+     * @param client  the client to log to, or {@code null} to print to
+     *                standard error
+     * @param message what failed
+     * @param error   the cause
+     */
+    static void error(LanguageClient client, String message, Throwable error) {
+        StringWriter trace = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(trace)) {
+            writer.println(message + ": " + error);
+            error.printStackTrace(writer);
+        }
+        if (client != null) {
+            client.logMessage(new MessageParams(MessageType.Error, trace.toString()));
+        } else {
+            System.err.print(trace);
+        }
+    }
+}
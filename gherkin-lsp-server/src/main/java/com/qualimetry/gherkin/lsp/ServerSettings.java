@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Server-level settings that are not tied to a single rule, read from the
+ * {@code analysis} object of the {@code gherkinAnalyzer} settings section.
+ * <p>
+ * Missing or invalid values fall back to defaults, mirroring how
+ * {@link RuleConfiguration} ignores invalid rule properties.
+ */
+public class ServerSettings {
+
+    static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+    private static final long MAX_DEBOUNCE_MILLIS = 10_000;
+    static final int DEFAULT_QUEUE_CAPACITY = 64;
+    private static final int MAX_QUEUE_CAPACITY = 10_000;
+    private static final int MAX_PARALLELISM = 64;
+    private static final long MAX_STATS_LOG_INTERVAL_SECONDS = 86_400;
+
+    private final long debounceMillis;
+    private final int parallelism;
+    private final int queueCapacity;
+    private final boolean virtualThreads;
+    private final boolean indexWorkspace;
+    private final boolean workspaceDiagnostics;
+    private final long statsLogIntervalSeconds;
+    private final FeatureParser.Engine parserEngine;
+    private final Path storagePath;
+
+    /**
+     * Builds the server settings from user settings.
+     *
+     * @param settings a JSON object representing the {@code gherkinAnalyzer}
+     *                 settings section, or {@code null} to use all defaults
+     */
+    public ServerSettings(JsonObject settings) {
+        JsonObject analysis = resolveAnalysisConfig(settings);
+        this.debounceMillis = getLong(analysis, "debounceMs",
+                DEFAULT_DEBOUNCE_MILLIS, 0, MAX_DEBOUNCE_MILLIS);
+        // 0 (the client default) selects the automatic parallelism
+        int threads = (int) getLong(analysis, "threads", 0, 0, MAX_PARALLELISM);
+        this.parallelism = threads == 0 ? defaultParallelism() : threads;
+        this.queueCapacity = (int) getLong(analysis, "queueCapacity",
+                DEFAULT_QUEUE_CAPACITY, 1, MAX_QUEUE_CAPACITY);
+        this.virtualThreads = getBoolean(analysis, "virtualThreads", false);
+        this.indexWorkspace = getBoolean(analysis, "indexWorkspace", true);
+        this.workspaceDiagnostics = getBoolean(analysis, "workspaceDiagnostics", false);
+        this.statsLogIntervalSeconds = getLong(analysis, "statsLogIntervalSeconds",
+                0, 0, MAX_STATS_LOG_INTERVAL_SECONDS);
+        this.parserEngine = getEngine(analysis, "parser", FeatureParser.Engine.CUCUMBER);
+        this.storagePath = resolveStoragePath(settings);
+    }
+
+    /**
+     * Returns the quiet window, in milliseconds, that must elapse after the
+     * last change to a document before it is analyzed.
+     */
+    public long getDebounceMillis() {
+        return debounceMillis;
+    }
+
+    /**
+     * Returns the maximum number of documents analyzed concurrently.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the capacity of the analysis worker queue.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Returns whether analysis workers should be virtual threads. Only
+     * honoured when the server runs on Java 21 or later.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Returns whether the feature files of the workspace folders are
+     * indexed at startup, so that cross-file rules also cover files that
+     * are not open.
+     */
+    public boolean isIndexWorkspace() {
+        return indexWorkspace;
+    }
+
+    /**
+     * Returns whether clients that pull diagnostics are offered workspace
+     * diagnostics, which check every indexed file that is not open. Read
+     * once, when the server is initialized.
+     */
+    public boolean isWorkspaceDiagnostics() {
+        return workspaceDiagnostics;
+    }
+
+    /**
+     * Returns how often, in seconds, the analysis statistics are written to
+     * the client log, or {@code 0} to never log them. They can always be
+     * requested with {@code gherkin/stats}.
+     */
+    public long getStatsLogIntervalSeconds() {
+        return statsLogIntervalSeconds;
+    }
+
+    /**
+     * Returns the parser used for feature files: {@code "cucumber"} (the
+     * default) or {@code "native"}.
+     */
+    public FeatureParser.Engine getParserEngine() {
+        return parserEngine;
+    }
+
+    /**
+     * Returns the directory where the server may keep data between runs,
+     * such as the workspace index cache. The client sends it next to the
+     * settings, as {@code storagePath}.
+     *
+     * @return the directory, or {@code null} if the client provided none
+     */
+    public Path getStoragePath() {
+        return storagePath;
+    }
+
+    /**
+     * Default parallelism: half the available processors, leaving headroom
+     * for the editor itself, and at least one.
+     */
+    static int defaultParallelism() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    private static JsonObject resolveAnalysisConfig(JsonObject settings) {
+        if (settings != null && settings.has("analysis")
+                && settings.get("analysis").isJsonObject()) {
+            return settings.getAsJsonObject("analysis");
+        }
+        return null;
+    }
+
+    private static Path resolveStoragePath(JsonObject settings) {
+        if (settings == null || !settings.has("storagePath") || !settings.get("storagePath").isJsonPrimitive()) {
+            return null;
+        }
+        try {
+            String value = settings.get("storagePath").getAsString();
+            return value.isEmpty() ? null : Paths.get(value);
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private static long getLong(JsonObject obj, String key, long defaultValue, long min, long max) {
+        if (obj == null || !obj.has(key)) {
+            return defaultValue;
+        }
+        JsonElement element = obj.get(key);
+        if (!element.isJsonPrimitive()) {
+            return defaultValue;
+        }
+        try {
+            long value = element.getAsLong();
+            return Math.max(min, Math.min(max, value));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static boolean getBoolean(JsonObject obj, String key, boolean defaultValue) {
+        if (obj == null || !obj.has(key) || !obj.get(key).isJsonPrimitive()) {
+            return defaultValue;
+        }
+        return obj.get(key).getAsBoolean();
+    }
+
+    private static FeatureParser.Engine getEngine(JsonObject obj, String key, FeatureParser.Engine defaultValue) {
+        if (obj == null || !obj.has(key) || !obj.get(key).isJsonPrimitive()) {
+            return defaultValue;
+        }
+        try {
+            return FeatureParser.Engine.valueOf(obj.get(key).getAsString().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultValue;
+        }
+    }
+}
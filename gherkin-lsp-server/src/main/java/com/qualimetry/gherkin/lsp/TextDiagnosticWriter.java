@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import org.eclipse.lsp4j.Diagnostic;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes one line per diagnostic, as
+ * {@code path:line:column: severity: message [rule-key]}, in the format
+ * understood by most editors and CI log parsers.
+ */
+final class TextDiagnosticWriter implements DiagnosticWriter {
+
+    private final Writer out;
+
+    TextDiagnosticWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void fileAnalyzed(Path path, List<Diagnostic> diagnostics) throws IOException {
+        if (diagnostics.isEmpty()) {
+            return;
+        }
+        for (Diagnostic diagnostic : diagnostics) {
+            out.write(format(path, diagnostic));
+            out.write(System.lineSeparator());
+        }
+        out.flush();
+    }
+
+    @Override
+    public void end() throws IOException {
+        out.flush();
+    }
+
+    static String format(Path path, Diagnostic diagnostic) {
+        return path + ":" + (diagnostic.getRange().getStart().getLine() + 1)
+                + ":" + (diagnostic.getRange().getStart().getCharacter() + 1)
+                + ": " + diagnostic.getSeverity().name().toLowerCase(Locale.ROOT)
+                + ": " + diagnostic.getMessage()
+                + " [" + ruleKey(diagnostic) + "]";
+    }
+
+    static String ruleKey(Diagnostic diagnostic) {
+        return diagnostic.getCode() != null && diagnostic.getCode().isLeft()
+                ? diagnostic.getCode().getLeft()
+                : "";
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads used by the analysis worker pool.
+ * <p>
+ * This is the Java 17 implementation, which always uses daemon platform
+ * threads. The server jar is multi-release: on Java 21 and later the JVM
+ * loads the variant under {@code META-INF/versions/21}, which can create
+ * virtual threads instead.
+ */
+final class WorkerThreads {
+
+    private WorkerThreads() {
+        // utility class
+    }
+
+    /**
+     * Returns whether virtual threads are available on this runtime.
+     */
+    static boolean virtualThreadsSupported() {
+        return false;
+    }
+
+    /**
+     * Creates a thread factory for analysis workers.
+     *
+     * @param prefix  the thread name prefix
+     * @param virtual whether virtual threads are requested; ignored when
+     *                not supported
+     * @return the thread factory
+     */
+    static ThreadFactory factory(String prefix, boolean virtual) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.PreviousResultId;
+import org.eclipse.lsp4j.ProgressParams;
+import org.eclipse.lsp4j.WorkspaceDiagnosticParams;
+import org.eclipse.lsp4j.WorkspaceDiagnosticReport;
+import org.eclipse.lsp4j.WorkspaceDiagnosticReportPartialResult;
+import org.eclipse.lsp4j.WorkspaceDocumentDiagnosticReport;
+import org.eclipse.lsp4j.WorkspaceFullDocumentDiagnosticReport;
+import org.eclipse.lsp4j.WorkspaceUnchangedDocumentDiagnosticReport;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.services.LanguageClient;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Answers {@code workspace/diagnostic} requests with the diagnostics of the
+ * indexed feature files that are not open in the editor; open documents are
+ * pulled one by one with {@code textDocument/diagnostic}.
+ * <p>
+ * Each file is read from disk and checked on the {@link AnalysisExecutor}
+ * workers, submitted a pool queue's worth at a time, and its report is streamed to the client as a partial result as
+ * soon as it is ready, when the client passed a partial result token. The
+ * result of each file is remembered with the content hash, configuration
+ * and cross-file diagnostics it was computed from, under a result ID. A
+ * later request skips the checks of unchanged files, and reports a file
+ * whose result ID the client already holds as unchanged, without its
+ * diagnostics.
+ * <p>
+ * When nothing changed since the client's previous results, the request is
+ * held open until the workspace changes ({@link #invalidate()}) or the
+ * client cancels it, as clients re-issue it as soon as it completes.
+ */
+final class WorkspaceDiagnostics implements AutoCloseable {
+
+    private static final String THREAD_NAME = "gherkin-workspace-diagnostics";
+
+    private final AnalysisExecutor executor;
+    private final Function<String, String> diskReader;
+    private final Predicate<String> isOpen;
+    private final ExecutorService requests =
+            Executors.newSingleThreadExecutor(WorkerThreads.factory(THREAD_NAME, false));
+    private final Map<String, Result> results = new ConcurrentHashMap<>();
+    private final AtomicLong resultIds = new AtomicLong();
+    private final Object changeLock = new Object();
+    private CompletableFuture<Void> changed = new CompletableFuture<>();
+
+    /**
+     * The diagnostics of one file and what they were computed from.
+     */
+    private record Result(String resultId, ByteBuffer contentHash, String configFingerprint,
+                          List<Diagnostic> crossFileDiagnostics, List<Diagnostic> diagnostics) {
+
+        boolean isCurrent(ByteBuffer hash, String fingerprint, List<Diagnostic> crossFile) {
+            return contentHash.equals(hash) && configFingerprint.equals(fingerprint)
+                    && crossFileDiagnostics.equals(crossFile);
+        }
+    }
+
+    /**
+     * Creates the workspace diagnostics provider.
+     *
+     * @param executor   the workers that check the files
+     * @param diskReader reads the disk content of an indexed file, or
+     *                   returns {@code null} if it is no longer part of the
+     *                   workspace
+     * @param isOpen     tells whether a file is open in the editor
+     */
+    WorkspaceDiagnostics(AnalysisExecutor executor, Function<String, String> diskReader, Predicate<String> isOpen) {
+        this.executor = executor;
+        this.diskReader = diskReader;
+        this.isOpen = isOpen;
+    }
+
+    /**
+     * Computes a workspace diagnostic report in the background.
+     *
+     * @param engine the engine holding the cross-file index
+     * @param client the client to stream partial results to
+     * @param params the request parameters
+     * @return the report; cancelling it stops the computation
+     */
+    CompletableFuture<WorkspaceDiagnosticReport> report(AnalysisEngine engine, LanguageClient client,
+                                                        WorkspaceDiagnosticParams params) {
+        CompletableFuture<WorkspaceDiagnosticReport> result = new CompletableFuture<>();
+        Map<String, String> previous = new HashMap<>();
+        if (params.getPreviousResultIds() != null) {
+            for (PreviousResultId id : params.getPreviousResultIds()) {
+                previous.put(id.getUri(), id.getValue());
+            }
+        }
+        Either<String, Integer> token = params.getPartialResultToken();
+        requests.execute(() -> {
+            try {
+                result.complete(compute(engine, token != null ? client : null, token, previous, result));
+            } catch (CancellationException | CompletionException e) {
+                result.cancel(false);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Signals that the diagnostics of closed files may have changed, which
+     * completes a request held open for lack of changes.
+     */
+    void invalidate() {
+        CompletableFuture<Void> previous;
+        synchronized (changeLock) {
+            previous = changed;
+            changed = new CompletableFuture<>();
+        }
+        previous.complete(null);
+    }
+
+    @Override
+    public void close() {
+        requests.shutdownNow();
+        invalidate();
+    }
+
+    private WorkspaceDiagnosticReport compute(AnalysisEngine engine, LanguageClient client,
+                                              Either<String, Integer> token, Map<String, String> previous,
+                                              CompletableFuture<WorkspaceDiagnosticReport> request) {
+        while (true) {
+            CompletableFuture<Void> nextChange;
+            synchronized (changeLock) {
+                nextChange = changed;
+            }
+            Batch batch = new Batch(client, token);
+            Set<String> uris = new TreeSet<>(engine.getIndexedUris());
+            uris.removeIf(isOpen);
+            results.keySet().retainAll(uris);
+
+            CountDownLatch remaining = new CountDownLatch(uris.size());
+            // Files the client holds results for that left the workspace
+            for (String uri : previous.keySet()) {
+                if (!uris.contains(uri) && !isOpen.test(uri)) {
+                    batch.add(new WorkspaceDocumentDiagnosticReport(
+                            new WorkspaceFullDocumentDiagnosticReport(List.of(), uri, null)));
+                }
+            }
+            try {
+                for (String uri : uris) {
+                    if (request.isDone()) {
+                        throw new CancellationException();
+                    }
+                    executor.executeThrottled(uri, () -> {
+                        try {
+                            if (!request.isDone()) {
+                                batch.add(report(engine, uri, previous.get(uri)));
+                            }
+                        } finally {
+                            remaining.countDown();
+                        }
+                    });
+                }
+                remaining.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted");
+            }
+            if (request.isDone()) {
+                throw new CancellationException();
+            }
+            if (batch.hasChanges()) {
+                return batch.finish();
+            }
+            // Nothing new for the client: wait for a change before answering
+            CompletableFuture.anyOf(nextChange, request).join();
+        }
+    }
+
+    private WorkspaceDocumentDiagnosticReport report(AnalysisEngine engine, String uri, String previousResultId) {
+        String content = diskReader.apply(uri);
+        if (content == null) {
+            results.remove(uri);
+            return null;
+        }
+        ByteBuffer hash = ByteBuffer.wrap(AnalysisCache.hash(content.getBytes(StandardCharsets.UTF_8)));
+        String fingerprint = engine.getRuleConfiguration().getFingerprint();
+        List<Diagnostic> crossFile = engine.getCrossFileDiagnostics(uri);
+        Result result = results.get(uri);
+        if (result == null || !result.isCurrent(hash, fingerprint, crossFile)) {
+            List<Diagnostic> diagnostics = new ArrayList<>(engine.checkFile(uri, content));
+            diagnostics.addAll(crossFile);
+            result = new Result(Long.toString(resultIds.incrementAndGet()), hash, fingerprint, crossFile,
+                    List.copyOf(diagnostics));
+            results.put(uri, result);
+        }
+        if (result.resultId().equals(previousResultId)) {
+            return new WorkspaceDocumentDiagnosticReport(
+                    new WorkspaceUnchangedDocumentDiagnosticReport(result.resultId(), uri, null));
+        }
+        WorkspaceFullDocumentDiagnosticReport full =
+                new WorkspaceFullDocumentDiagnosticReport(result.diagnostics(), uri, null);
+        full.setResultId(result.resultId());
+        return new WorkspaceDocumentDiagnosticReport(full);
+    }
+
+    /**
+     * Collects the reports of one computation. Full reports are streamed as
+     * partial results as they arrive; unchanged reports are held back, so
+     * that a computation without changes sends nothing.
+     */
+    private static final class Batch {
+
+        private final LanguageClient client;
+        private final Either<String, Integer> token;
+        private final List<WorkspaceDocumentDiagnosticReport> items = new ArrayList<>();
+        private boolean changes;
+        private boolean streamed;
+
+        Batch(LanguageClient client, Either<String, Integer> token) {
+            this.client = client;
+            this.token = token;
+        }
+
+        synchronized void add(WorkspaceDocumentDiagnosticReport item) {
+            if (item == null) {
+                return;
+            }
+            if (item.isWorkspaceUnchangedDocumentDiagnosticReport()) {
+                items.add(item);
+                return;
+            }
+            changes = true;
+            if (client == null) {
+                items.add(item);
+                return;
+            }
+            send(List.of(item));
+        }
+
+        synchronized boolean hasChanges() {
+            return changes;
+        }
+
+        synchronized WorkspaceDiagnosticReport finish() {
+            if (!streamed) {
+                return new WorkspaceDiagnosticReport(new ArrayList<>(items));
+            }
+            if (!items.isEmpty()) {
+                send(new ArrayList<>(items));
+            }
+            // With partial results, the response itself carries no items
+            return new WorkspaceDiagnosticReport(List.of());
+        }
+
+        private void send(List<WorkspaceDocumentDiagnosticReport> reports) {
+            client.notifyProgress(new ProgressParams(token,
+                    Either.forRight(new WorkspaceDiagnosticReportPartialResult(reports))));
+            streamed = true;
+        }
+    }
+}
@@ -0,0 +1,576 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import org.eclipse.lsp4j.FileChangeType;
+import org.eclipse.lsp4j.FileEvent;
+import org.eclipse.lsp4j.ProgressParams;
+import org.eclipse.lsp4j.WorkDoneProgressBegin;
+import org.eclipse.lsp4j.WorkDoneProgressCreateParams;
+import org.eclipse.lsp4j.WorkDoneProgressEnd;
+import org.eclipse.lsp4j.WorkDoneProgressNotification;
+import org.eclipse.lsp4j.WorkDoneProgressReport;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.services.LanguageClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adds every feature file of the workspace folders to the cross-file index
+ * of an {@link AnalysisEngine}, so that cross-file rules see the files the
+ * editor has not opened.
+ * <p>
+ * The crawl runs in the background, on a {@link ForkJoinPool} whose
+ * workers each list one directory at a time and fork its subdirectories and
+ * files, so traversal and parsing proceed in parallel. The pool is the
+ * throttle: it is sized like the analysis workers and runs at minimum
+ * priority, leaving the editor and the analysis of open files responsive.
+ * Files already open are skipped by {@link AnalysisEngine#indexFile}.
+ * <p>
+ * With a cache file, the cross-file facts of every crawled file are saved
+ * in an {@link AnalysisCache}, and the next crawl only parses the files
+ * whose content changed since; the others cost a read and a hash.
+ * <p>
+ * When the client supports it, progress is reported with
+ * {@code window/workDoneProgress}, at most a few times per second.
+ * <p>
+ * Afterwards, the index follows the disk through
+ * {@link #applyChanges file events}. Events are coalesced for a short
+ * delay and per URI, so that a branch switch touching thousands of files
+ * is applied as one batch: changed and created files are re-parsed in
+ * parallel, deleted files and folders are retracted, and the listener is
+ * told once. Batches wait for the initial crawl, and never run
+ * concurrently with each other.
+ * <p>
+ * File URIs are built from the workspace folder URIs sent by the client,
+ * encoding each path segment the way VS Code does, so that an indexed file
+ * and the same file opened in the editor share one URI.
+ */
+final class WorkspaceIndexer implements AutoCloseable {
+
+    private static final String THREAD_PREFIX = "gherkin-indexer";
+    private static final String PROGRESS_TITLE = "Indexing feature files";
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final long CREATE_PROGRESS_TIMEOUT_SECONDS = 5;
+    private static final long BATCH_DELAY_MILLIS = 100;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final AnalysisEngine engine;
+    private final List<Root> roots;
+    private final ForkJoinPool pool;
+    private final Runnable onIndexChanged;
+    private final Path cacheFile;
+    private final AtomicInteger indexedCount = new AtomicInteger();
+    private final ScheduledExecutorService batchTimer =
+            Executors.newSingleThreadScheduledExecutor(WorkerThreads.factory(THREAD_PREFIX + "-batch", false));
+    private final Object batchLock = new Object();
+    private Map<String, FileChangeType> pendingChanges = new HashMap<>();
+    private boolean flushScheduled;
+    private volatile CompletableFuture<Integer> crawl = CompletableFuture.completedFuture(0);
+    private volatile LanguageClient client;
+    private volatile boolean closed;
+
+    /**
+     * A workspace folder, as the client's URI and the local path.
+     */
+    private record Root(String uri, Path path) {
+    }
+
+    /**
+     * Creates an indexer for the given workspace folders.
+     *
+     * @param engine         the engine whose cross-file index is filled
+     * @param rootUris       the {@code file:} URIs of the workspace
+     *                       folders; other schemes are ignored
+     * @param parallelism    the maximum number of crawling threads
+     * @param onIndexChanged called after the initial crawl and after each
+     *                       batch of file events, from a background thread
+     */
+    WorkspaceIndexer(AnalysisEngine engine, List<String> rootUris, int parallelism, Runnable onIndexChanged) {
+        this(engine, rootUris, parallelism, onIndexChanged, null);
+    }
+
+    /**
+     * Creates an indexer for the given workspace folders that keeps the
+     * facts of the crawled files in a cache between server runs.
+     *
+     * @param engine         the engine whose cross-file index is filled
+     * @param rootUris       the {@code file:} URIs of the workspace
+     *                       folders; other schemes are ignored
+     * @param parallelism    the maximum number of crawling threads
+     * @param onIndexChanged called after the initial crawl and after each
+     *                       batch of file events, from a background thread
+     * @param cacheFile      the analysis cache to read and rewrite, or
+     *                       {@code null} to parse every file
+     */
+    WorkspaceIndexer(AnalysisEngine engine, List<String> rootUris, int parallelism, Runnable onIndexChanged,
+                     Path cacheFile) {
+        this.engine = engine;
+        this.onIndexChanged = onIndexChanged;
+        this.cacheFile = cacheFile;
+        List<Root> resolved = new ArrayList<>();
+        for (String rootUri : rootUris) {
+            Path path = toPath(rootUri);
+            if (path != null) {
+                resolved.add(new Root(stripTrailingSlash(rootUri), path));
+            }
+        }
+        this.roots = List.copyOf(resolved);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ForkJoinPool(Math.max(1, parallelism), forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName(THREAD_PREFIX + "-" + threadCount.incrementAndGet());
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Starts indexing in the background.
+     *
+     * @param client          the client to report progress and failures
+     *                        to, or {@code null}
+     * @param reportProgress  whether the client supports
+     *                        {@code window/workDoneProgress}
+     * @return a future completed with the number of indexed files
+     */
+    CompletableFuture<Integer> start(LanguageClient client, boolean reportProgress) {
+        this.client = client;
+        Progress progress = reportProgress && client != null ? new Progress(client) : null;
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        Thread thread = WorkerThreads.factory(THREAD_PREFIX, false).newThread(() -> {
+            try {
+                result.complete(run(progress));
+                onIndexChanged.run();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        crawl = result;
+        thread.start();
+        return result;
+    }
+
+    /**
+     * Queues file system events for the next batch. Events for a URI
+     * replace its earlier pending events: the file is read from disk when
+     * the batch runs, so only the last one matters.
+     *
+     * @param events the events, as sent with
+     *               {@code workspace/didChangeWatchedFiles}
+     */
+    void applyChanges(List<FileEvent> events) {
+        synchronized (batchLock) {
+            for (FileEvent event : events) {
+                pendingChanges.put(event.getUri(), event.getType());
+            }
+            if (flushScheduled || closed) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        batchTimer.schedule(this::flush, BATCH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the disk content of a file of the indexed workspace, for
+     * returning a closed document to the index.
+     *
+     * @param uri the file URI
+     * @return the content, or {@code null} if the file is outside the
+     *         workspace folders, skipped, or unreadable
+     */
+    String readIndexedFile(String uri) {
+        Path path = toPath(uri);
+        if (path == null || closed || !isIndexed(path)) {
+            return null;
+        }
+        try {
+            return Files.readString(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of files indexed so far.
+     */
+    int getIndexedCount() {
+        return indexedCount.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        batchTimer.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private void flush() {
+        Map<String, FileChangeType> batch;
+        synchronized (batchLock) {
+            batch = pendingChanges;
+            pendingChanges = new HashMap<>();
+            flushScheduled = false;
+        }
+        try {
+            // The crawl may hold older disk content than the events
+            crawl.handle((count, error) -> null).join();
+            if (closed) {
+                return;
+            }
+            unindexFolders(deletedFolders(batch));
+            pool.submit(() -> batch.entrySet().parallelStream()
+                    .forEach(change -> apply(change.getKey(), change.getValue()))).join();
+            onIndexChanged.run();
+        } catch (RuntimeException e) {
+            if (!closed) {
+                ServerLog.error(client, "Gherkin workspace index update failed", e);
+            }
+        }
+    }
+
+    private void apply(String uri, FileChangeType type) {
+        Path path = toPath(uri);
+        if (path == null) {
+            return;
+        }
+        if (type == FileChangeType.Deleted) {
+            // Deleted folders were already handled by unindexFolders
+            if (FeatureFiles.isFeatureFile(path)) {
+                engine.unindexFile(uri);
+            }
+            return;
+        }
+        if (!isIndexed(path)) {
+            return;
+        }
+        try {
+            engine.indexFile(uri, Files.readString(path, StandardCharsets.UTF_8));
+        } catch (NoSuchFileException e) {
+            engine.unindexFile(uri);
+        } catch (IOException e) {
+            // Unreadable for now; keep the last indexed content
+        }
+    }
+
+    /**
+     * Returns the folders deleted by a batch, as URI prefixes ending with a
+     * slash. A deleted folder is reported alone, without its files. Folders
+     * inside another deleted folder are left out, so no prefix starts with
+     * another and each indexed URI has at most one candidate: the greatest
+     * prefix not after it.
+     */
+    private NavigableSet<String> deletedFolders(Map<String, FileChangeType> batch) {
+        NavigableSet<String> prefixes = new TreeSet<>();
+        batch.forEach((uri, type) -> {
+            Path path = toPath(uri);
+            if (type == FileChangeType.Deleted && path != null && !FeatureFiles.isFeatureFile(path)) {
+                prefixes.add(stripTrailingSlash(uri) + "/");
+            }
+        });
+        String outer = null;
+        for (Iterator<String> it = prefixes.iterator(); it.hasNext(); ) {
+            String prefix = it.next();
+            if (outer != null && prefix.startsWith(outer)) {
+                it.remove();
+            } else {
+                outer = prefix;
+            }
+        }
+        return prefixes;
+    }
+
+    /**
+     * Removes the files under the given folders from the index, with one
+     * pass over the indexed URIs for the whole batch.
+     */
+    private void unindexFolders(NavigableSet<String> prefixes) {
+        if (prefixes.isEmpty()) {
+            return;
+        }
+        for (String indexed : engine.getIndexedUris()) {
+            String prefix = prefixes.floor(indexed);
+            if (prefix != null && indexed.startsWith(prefix)) {
+                engine.unindexFile(indexed);
+            }
+        }
+    }
+
+    private int run(Progress progress) {
+        if (progress != null) {
+            progress.begin();
+        }
+        AnalysisCache cache = openCache();
+        try {
+            for (Root root : roots) {
+                if (closed) {
+                    break;
+                }
+                pool.invoke(new DirectoryTask(root.path(), root.uri(), cache, progress));
+            }
+            if (cache != null && !closed) {
+                cache.commit();
+            }
+        } catch (IOException e) {
+            ServerLog.error(client, "Gherkin workspace index cache not saved", e);
+        } catch (RuntimeException e) {
+            if (!closed) {
+                throw e;
+            }
+        } finally {
+            if (cache != null) {
+                cache.close();
+            }
+            if (progress != null) {
+                progress.end();
+            }
+        }
+        return indexedCount.get();
+    }
+
+    private AnalysisCache openCache() {
+        if (cacheFile == null) {
+            return null;
+        }
+        try {
+            return AnalysisCache.open(cacheFile, AnalysisCache.factsKey());
+        } catch (IOException e) {
+            ServerLog.error(client, "Gherkin workspace index cache unavailable", e);
+            return null;
+        }
+    }
+
+    private boolean isIndexed(Path path) {
+        if (!FeatureFiles.isFeatureFile(path)) {
+            return false;
+        }
+        for (Root root : roots) {
+            if (path.startsWith(root.path())) {
+                for (Path dir = path.getParent(); dir != null && !dir.equals(root.path()); dir = dir.getParent()) {
+                    if (FeatureFiles.isSkippedDirectory(dir)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void indexFile(Path file, String uri, AnalysisCache cache, Progress progress) {
+        boolean indexed;
+        try {
+            if (cache == null) {
+                indexed = engine.indexFile(uri, Files.readString(file, StandardCharsets.UTF_8));
+            } else {
+                indexed = indexFile(file, uri, cache);
+            }
+        } catch (IOException e) {
+            return;
+        }
+        if (indexed) {
+            int count = indexedCount.incrementAndGet();
+            if (progress != null) {
+                progress.report(count);
+            }
+        }
+    }
+
+    private boolean indexFile(Path file, String uri, AnalysisCache cache) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        byte[] hash = AnalysisCache.hash(bytes);
+        AnalysisCache.Entry entry = cache.lookup(uri, hash);
+        CrossFileIndex.Contribution contribution;
+        if (entry != null) {
+            contribution = entry.contribution();
+        } else {
+            // Decoded strictly, as Files.readString would
+            String content = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+            contribution = CrossFileIndex.collect(engine.getParser().parse(uri, content));
+        }
+        cache.put(uri, hash, contribution, null);
+        return engine.indexFile(uri, contribution);
+    }
+
+    /**
+     * Lists one directory and forks a task per subdirectory and per
+     * feature file.
+     */
+    private final class DirectoryTask extends RecursiveAction {
+
+        private final Path dir;
+        private final String uri;
+        private final AnalysisCache cache;
+        private final Progress progress;
+
+        DirectoryTask(Path dir, String uri, AnalysisCache cache, Progress progress) {
+            this.dir = dir;
+            this.uri = uri;
+            this.cache = cache;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            List<RecursiveAction> subtasks = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    if (closed) {
+                        return;
+                    }
+                    BasicFileAttributes attrs = Files.readAttributes(
+                            entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    String entryUri = uri + "/" + encodeSegment(entry.getFileName().toString());
+                    if (attrs.isDirectory() && !FeatureFiles.isSkippedDirectory(entry)) {
+                        subtasks.add(new DirectoryTask(entry, entryUri, cache, progress));
+                    } else if (attrs.isRegularFile() && FeatureFiles.isFeatureFile(entry)) {
+                        subtasks.add(new RecursiveAction() {
+                            @Override
+                            protected void compute() {
+                                if (!closed) {
+                                    indexFile(entry, entryUri, cache, progress);
+                                }
+                            }
+                        });
+                    }
+                }
+            } catch (IOException e) {
+                // Unreadable directory: index what the rest of the tree holds
+            }
+            invokeAll(subtasks);
+        }
+    }
+
+    /**
+     * Server-initiated {@code window/workDoneProgress} for one crawl.
+     */
+    private static final class Progress {
+
+        private final LanguageClient client;
+        private final Either<String, Integer> token = Either.forLeft("gherkin-index-" + UUID.randomUUID());
+        private final AtomicLong lastReport = new AtomicLong(System.nanoTime());
+        private volatile boolean created;
+
+        Progress(LanguageClient client) {
+            this.client = client;
+        }
+
+        void begin() {
+            try {
+                client.createProgress(new WorkDoneProgressCreateParams(token))
+                        .get(CREATE_PROGRESS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                created = true;
+            } catch (Exception e) {
+                // The client refused or did not answer; index without progress
+                return;
+            }
+            WorkDoneProgressBegin begin = new WorkDoneProgressBegin();
+            begin.setTitle(PROGRESS_TITLE);
+            begin.setCancellable(false);
+            notify(begin);
+        }
+
+        void report(int count) {
+            long last = lastReport.get();
+            long now = System.nanoTime();
+            if (!created || now - last < REPORT_INTERVAL_NANOS || !lastReport.compareAndSet(last, now)) {
+                return;
+            }
+            WorkDoneProgressReport report = new WorkDoneProgressReport();
+            report.setMessage(count + " files");
+            notify(report);
+        }
+
+        void end() {
+            if (!created) {
+                return;
+            }
+            notify(new WorkDoneProgressEnd());
+        }
+
+        private void notify(WorkDoneProgressNotification notification) {
+            client.notifyProgress(new ProgressParams(token, Either.forLeft(notification)));
+        }
+    }
+
+    /**
+     * Percent-encodes a path segment like VS Code's URI serialization: all
+     * but unreserved characters, as upper-case UTF-8 escapes.
+     */
+    static String encodeSegment(String segment) {
+        StringBuilder encoded = null;
+        byte[] bytes = segment.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xFF;
+            boolean unreserved = (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+                    || b == '-' || b == '.' || b == '_' || b == '~';
+            if (unreserved) {
+                if (encoded != null) {
+                    encoded.append((char) b);
+                }
+            } else {
+                if (encoded == null) {
+                    encoded = new StringBuilder(bytes.length * 3).append(segment, 0, i);
+                }
+                encoded.append('%').append(HEX[b >> 4]).append(HEX[b & 0xF]);
+            }
+        }
+        return encoded != null ? encoded.toString() : segment;
+    }
+
+    private static Path toPath(String uri) {
+        try {
+            URI parsed = URI.create(uri);
+            return "file".equalsIgnoreCase(parsed.getScheme()) ? Paths.get(parsed) : null;
+        } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static String stripTrailingSlash(String uri) {
+        return uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the threads used by the analysis worker pool.
+ * <p>
+ * Java 21 variant, packaged under {@code META-INF/versions/21}: creates
+ * virtual threads when requested and daemon platform threads otherwise.
+ */
+final class WorkerThreads {
+
+    private WorkerThreads() {
+        // utility class
+    }
+
+    /**
+     * Returns whether virtual threads are available on this runtime.
+     */
+    static boolean virtualThreadsSupported() {
+        return true;
+    }
+
+    /**
+     * Creates a thread factory for analysis workers.
+     *
+     * @param prefix  the thread name prefix
+     * @param virtual whether virtual threads are requested
+     * @return the thread factory
+     */
+    static ThreadFactory factory(String prefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(prefix + "-", 1).factory();
+        }
+        return Thread.ofPlatform().name(prefix + "-", 1).daemon(true).factory();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+import org.eclipse.lsp4j.Diagnostic;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AnalysisCache}: round trips, invalidation by key and by
+ * content, code hashing, and recovery from corrupt files.
+ */
+class AnalysisCacheTest {
+
+    private static final String URI = "file:///work/login.feature";
+    private static final String CONTENT = "# language: en\nFeature: Login\n\n  Scenario: Sign in\n    Given a user\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldReadBackFactsAndDiagnostics() throws IOException {
+        Path file = dir.resolve("cache/index.bin");
+        byte[] hash = AnalysisCache.hash(CONTENT.getBytes(StandardCharsets.UTF_8));
+        CrossFileIndex.Contribution contribution = contribution();
+        List<Diagnostic> diagnostics = new AnalysisEngine(new RuleConfiguration(null)).analyzeFile(URI, CONTENT);
+        assertThat(diagnostics).isNotEmpty();
+
+        try (AnalysisCache cache = AnalysisCache.open(file, "key")) {
+            cache.put(URI, hash, contribution, diagnostics);
+            cache.put("file:///work/other.feature", hash, contribution, null);
+            cache.commit();
+        }
+
+        try (AnalysisCache cache = AnalysisCache.open(file, "key")) {
+            assertThat(cache.getPreviousSize()).isEqualTo(2);
+            AnalysisCache.Entry entry = cache.lookup(URI, hash);
+            assertThat(entry.contribution()).isEqualTo(contribution);
+            assertThat(entry.diagnostics()).isEqualTo(diagnostics);
+            assertThat(cache.lookup("file:///work/other.feature", hash).diagnostics()).isNull();
+        }
+        assertThat(dir.resolve("cache")).isDirectoryNotContaining(path -> path.toString().endsWith(".tmp"));
+    }
+
+    @Test
+    void shouldMissChangedContentAndOtherKeys() throws IOException {
+        Path file = dir.resolve("index.bin");
+        byte[] hash = AnalysisCache.hash(CONTENT.getBytes(StandardCharsets.UTF_8));
+        try (AnalysisCache cache = AnalysisCache.open(file, "key")) {
+            cache.put(URI, hash, contribution(), List.of());
+            cache.commit();
+        }
+
+        try (AnalysisCache cache = AnalysisCache.open(file, "key")) {
+            assertThat(cache.lookup(URI, AnalysisCache.hash("Feature: Changed\n".getBytes(StandardCharsets.UTF_8))))
+                    .isNull();
+            assertThat(cache.lookup("file:///work/unknown.feature", hash)).isNull();
+        }
+        try (AnalysisCache cache = AnalysisCache.open(file, "other key")) {
+            assertThat(cache.getPreviousSize()).isZero();
+            assertThat(cache.lookup(URI, hash)).isNull();
+        }
+    }
+
+    @Test
+    void shouldKeyOnTheCodeContentRatherThanItsTimestamps() throws IOException {
+        Path classes = dir.resolve("classes");
+        Path check = classes.resolve("com/example/Check.class");
+        Files.createDirectories(check.getParent());
+        Files.write(check, new byte[] {1, 2, 3});
+        Path jar = dir.resolve("server.jar");
+        Files.write(jar, new byte[] {4, 5, 6});
+        String original = AnalysisCache.codeHash(List.of(classes, jar));
+
+        Files.setLastModifiedTime(check, FileTime.fromMillis(0));
+        assertThat(AnalysisCache.codeHash(List.of(classes, jar))).isEqualTo(original);
+
+        Files.write(check, new byte[] {1, 2, 4});
+        assertThat(AnalysisCache.codeHash(List.of(classes, jar))).isNotEqualTo(original);
+        Files.write(check, new byte[] {1, 2, 3});
+        Files.write(jar, new byte[] {4, 5, 7});
+        assertThat(AnalysisCache.codeHash(List.of(classes, jar))).isNotEqualTo(original);
+    }
+
+    @Test
+    void shouldIgnoreCorruptFiles() throws IOException {
+        Path file = dir.resolve("index.bin");
+        byte[] hash = AnalysisCache.hash(CONTENT.getBytes(StandardCharsets.UTF_8));
+        try (AnalysisCache cache = AnalysisCache.open(file, "key")) {
+            cache.put(URI, hash, contribution(), List.of());
+            cache.commit();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+
+        try (AnalysisCache cache = AnalysisCache.open(file, "key")) {
+            assertThat(cache.getPreviousSize()).isZero();
+        }
+
+        Files.writeString(file, "not a cache");
+        try (AnalysisCache cache = AnalysisCache.open(file, "key")) {
+            assertThat(cache.getPreviousSize()).isZero();
+        }
+    }
+
+    @Test
+    void shouldKeepPreviousCacheUntilCommitted() throws IOException {
+        Path file = dir.resolve("index.bin");
+        byte[] hash = AnalysisCache.hash(CONTENT.getBytes(StandardCharsets.UTF_8));
+        try (AnalysisCache cache = AnalysisCache.open(file, "key")) {
+            cache.put(URI, hash, contribution(), List.of());
+            cache.commit();
+        }
+
+        try (AnalysisCache cache = AnalysisCache.open(file, "key")) {
+            // Abandoned run: nothing put, no commit
+            assertThat(cache.getPreviousSize()).isEqualTo(1);
+        }
+
+        try (AnalysisCache cache = AnalysisCache.open(file, "key")) {
+            assertThat(cache.lookup(URI, hash)).isNotNull();
+        }
+        assertThat(dir.resolve("index.bin.tmp")).doesNotExist();
+    }
+
+    private static CrossFileIndex.Contribution contribution() throws IOException {
+        return CrossFileIndex.collect(new FeatureParser().parse(URI, CONTENT));
+    }
+}
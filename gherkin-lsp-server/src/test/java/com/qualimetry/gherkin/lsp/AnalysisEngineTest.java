@@ -15,6 +15,9 @@
  */
 package com.qualimetry.gherkin.lsp;
 
+import com.google.gson.JsonObject;
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.DiagnosticSeverity;
 import org.junit.jupiter.api.BeforeEach;
@@ -76,6 +79,133 @@ class AnalysisEngineTest {
         assertThat(engine.hasFile(uri)).isFalse();
     }
 
+    @Test
+    void closeFile_replacesEditorContentWithDiskContent() {
+        engine.indexFile("file:///a.feature", "Feature: Login\n");
+        engine.analyzeFile("file:///b.feature", "Feature: Unsaved\n");
+        assertThat(engine.indexFile("file:///b.feature", "Feature: Login\n")).isFalse();
+        assertThat(engine.getCrossFileDiagnostics()).isEmpty();
+
+        engine.closeFile("file:///b.feature", "Feature: Login\n");
+
+        assertThat(engine.hasFile("file:///b.feature")).isFalse();
+        assertThat(engine.getIndexedFileCount()).isEqualTo(2);
+        assertThat(engine.getCrossFileDiagnostics()).containsKey("file:///b.feature");
+    }
+
+    @Test
+    void analyzeFile_reusesResultForSameContentAndConfiguration() throws IOException {
+        String content = loadResource("noncompliant.feature");
+        String uri = "file:///noncompliant.feature";
+
+        List<Diagnostic> first = engine.analyzeFile(uri, content);
+        engine.analyzeFile(uri, content + "\n# edited\n");
+        // Undo back to the first content
+        List<Diagnostic> undone = engine.analyzeFile(uri, content);
+
+        assertThat(undone).isSameAs(first);
+        assertThat(engine.getCacheHits()).isEqualTo(1);
+        assertThat(engine.getCacheMisses()).isEqualTo(2);
+
+        JsonObject rule = new JsonObject();
+        rule.addProperty("severity", "info");
+        JsonObject rules = new JsonObject();
+        rules.add("feature-name-required", rule);
+        JsonObject settings = new JsonObject();
+        settings.add("rules", rules);
+        engine.updateConfiguration(new RuleConfiguration(settings));
+
+        assertThat(engine.analyzeFile(uri, content)).isNotSameAs(first);
+        assertThat(engine.getCacheMisses()).isEqualTo(3);
+        engine.updateConfiguration(new RuleConfiguration(null));
+        assertThat(engine.analyzeFile(uri, content)).isSameAs(first);
+        assertThat(engine.getCacheHits()).isEqualTo(2);
+    }
+
+    @Test
+    void analyzeFile_evictsLeastRecentlyUsedResults() {
+        AnalysisEngine small = new AnalysisEngine(new RuleConfiguration(null), 2);
+
+        small.analyzeFile("file:///a.feature", "Feature: A\n");
+        small.analyzeFile("file:///b.feature", "Feature: B\n");
+        small.analyzeFile("file:///a.feature", "Feature: A\n");
+        small.analyzeFile("file:///c.feature", "Feature: C\n");
+        small.analyzeFile("file:///a.feature", "Feature: A\n");
+        small.analyzeFile("file:///b.feature", "Feature: B\n");
+
+        assertThat(small.getCacheHits()).isEqualTo(2);
+        assertThat(small.getCacheMisses()).isEqualTo(4);
+    }
+
+    @Test
+    void analyzeFile_recordsStageAndSampledRuleTimings() throws IOException {
+        String content = loadResource("noncompliant.feature");
+
+        for (int i = 0; i < AnalysisStats.RULE_SAMPLE_INTERVAL + 1; i++) {
+            engine.analyzeFile("file:///file" + i + ".feature", content);
+        }
+
+        JsonObject stats = engine.getStats().snapshot();
+        JsonObject stages = stats.getAsJsonObject("stages");
+        assertThat(stages.getAsJsonObject("parse").get("count").getAsLong())
+                .isEqualTo(AnalysisStats.RULE_SAMPLE_INTERVAL + 1);
+        assertThat(stages.getAsJsonObject("check").get("count").getAsLong())
+                .isEqualTo(AnalysisStats.RULE_SAMPLE_INTERVAL + 1);
+        assertThat(stages.getAsJsonObject("map").get("count").getAsLong())
+                .isEqualTo(AnalysisStats.RULE_SAMPLE_INTERVAL + 1);
+        // The first and the last walk were sampled
+        assertThat(stats.getAsJsonArray("rules")).hasSize(engine.getRuleConfiguration().getActiveRuleKeys().size());
+        assertThat(stats.getAsJsonArray("rules").get(0).getAsJsonObject().get("count").getAsLong()).isEqualTo(2);
+    }
+
+    @Test
+    void analyzeFile_reparsesOnlyTheEditedScenario() {
+        String uri = "file:///edited.feature";
+        String content = "Feature: F\n\n  Scenario: A\n    Given a\n\n  Scenario: B\n    Given b\n";
+        engine.analyzeFile(uri, content);
+        FeatureFile before = engine.getFeatureFile(uri);
+
+        String edited = content.replace("Given b", "Given b \n    And c");
+        List<Diagnostic> diagnostics = engine.analyzeFile(uri, edited);
+
+        FeatureFile after = engine.getFeatureFile(uri);
+        assertThat(after.feature().scenarios().get(0)).isSameAs(before.feature().scenarios().get(0));
+        assertThat(after.feature().scenarios().get(1).steps()).hasSize(2);
+        assertThat(diagnostics).isEqualTo(new AnalysisEngine(new RuleConfiguration(null)).analyzeFile(uri, edited));
+    }
+
+    @Test
+    void parseFile_reusesTheStoredTreeWithoutReplacingIt() throws IOException {
+        String uri = "file:///edited.feature";
+        String content = "Feature: F\n\n  Scenario: A\n    Given a\n\n  Scenario: B\n    Given b\n";
+        engine.analyzeFile(uri, content);
+        FeatureFile stored = engine.getFeatureFile(uri);
+
+        String edited = content.replace("Given b", "Given b \n    And c");
+        FeatureFile parsed = engine.parseFile(uri, edited);
+
+        assertThat(parsed).isEqualTo(engine.getParser().parse(uri, edited));
+        assertThat(parsed.feature().scenarios().get(0)).isSameAs(stored.feature().scenarios().get(0));
+        assertThat(engine.getFeatureFile(uri)).isSameAs(stored);
+    }
+
+    @Test
+    void nativeParser_producesTheSameDiagnostics() throws IOException {
+        String content = loadResource("noncompliant.feature");
+        JsonObject analysis = new JsonObject();
+        analysis.addProperty("parser", "native");
+        JsonObject settings = new JsonObject();
+        settings.add("analysis", analysis);
+        AnalysisEngine nativeEngine = new AnalysisEngine(new RuleConfiguration(null));
+
+        nativeEngine.setParserEngine(new ServerSettings(settings).getParserEngine());
+
+        assertThat(nativeEngine.getParser().getEngine()).isEqualTo(FeatureParser.Engine.NATIVE);
+        assertThat(engine.getParser().getEngine()).isEqualTo(FeatureParser.Engine.CUCUMBER);
+        assertThat(nativeEngine.analyzeFile("file:///a.feature", content))
+                .isEqualTo(engine.analyzeFile("file:///a.feature", content));
+    }
+
     private static String loadResource(String name) throws IOException {
         try (InputStream is = AnalysisEngineTest.class.getClassLoader()
                 .getResourceAsStream(name)) {
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.google.gson.JsonObject;
+import org.eclipse.lsp4j.MessageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisExecutorTest {
+
+    private AnalysisExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    @Test
+    void sameKey_runsInSubmissionOrderWithoutOverlap() throws InterruptedException {
+        executor = new AnalysisExecutor(settings(4, 64));
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            int index = i;
+            executor.execute("file:///a.feature", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                order.add(index);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).isSorted().hasSize(20);
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    void differentKeys_runInParallel() throws InterruptedException {
+        executor = new AnalysisExecutor(settings(2, 64));
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(2);
+
+        for (String key : List.of("file:///a.feature", "file:///b.feature")) {
+            executor.execute(key, () -> {
+                bothStarted.countDown();
+                awaitQuietly(bothStarted);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bothStarted.getCount()).isZero();
+    }
+
+    @Test
+    void failingTask_doesNotBlockLaterTasksOfSameKey() throws InterruptedException {
+        executor = new AnalysisExecutor(settings(1, 64));
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute("file:///a.feature", () -> {
+            throw new IllegalStateException("boom");
+        });
+        executor.execute("file:///a.feature", done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void failingTask_isLoggedToTheClientWithItsStackTrace() throws InterruptedException {
+        executor = new AnalysisExecutor(settings(1, 64));
+        RecordingClient client = new RecordingClient();
+        executor.setClient(client);
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute("file:///a.feature", () -> {
+            throw new IllegalStateException("boom");
+        });
+        executor.execute("file:///a.feature", done::countDown);
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(client.logged).singleElement().satisfies(message -> {
+            assertThat(message.getType()).isEqualTo(MessageType.Error);
+            assertThat(message.getMessage())
+                    .startsWith("Gherkin analysis failed for file:///a.feature: java.lang.IllegalStateException: boom")
+                    .contains("at com.qualimetry.gherkin.lsp.AnalysisExecutorTest");
+        });
+    }
+
+    @Test
+    void submit_neverRunsInTheCallingThreadWhenTheQueueIsFull() throws InterruptedException {
+        executor = new AnalysisExecutor(settings(1, 1));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(4);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        // One task runs, one fills the queue, two more overflow it
+        for (int i = 0; i < 4; i++) {
+            executor.submit("file:///" + i + ".feature", () -> {
+                threads.add(Thread.currentThread());
+                awaitQuietly(release);
+                done.countDown();
+            });
+        }
+
+        assertThat(executor.getOverflowSize()).isEqualTo(2);
+        assertThat(threads).doesNotContain(Thread.currentThread());
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads).hasSize(4).doesNotContain(Thread.currentThread());
+        assertThat(executor.getOverflowSize()).isZero();
+    }
+
+    @Test
+    void execute_parksInsteadOfRunningInTheCallingThreadWhenTheQueueIsFull() throws InterruptedException {
+        executor = new AnalysisExecutor(settings(1, 1));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(4);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        // Like the scheduler timer: the caller must stay free for other debounces
+        for (int i = 0; i < 4; i++) {
+            executor.execute("file:///" + i + ".feature", () -> {
+                threads.add(Thread.currentThread());
+                awaitQuietly(release);
+                done.countDown();
+            });
+        }
+
+        assertThat(executor.getOverflowSize()).isEqualTo(2);
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads).hasSize(4).doesNotContain(Thread.currentThread());
+    }
+
+    @Test
+    void executeThrottled_blocksTheProducerInsteadOfGrowingTheOverflow() throws InterruptedException {
+        executor = new AnalysisExecutor(settings(1, 2));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(10);
+        AtomicInteger submitted = new AtomicInteger();
+
+        // Like the workspace report: one task per file, from its own thread
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 10; i++) {
+                    executor.executeThrottled("file:///" + i + ".feature", () -> {
+                        awaitQuietly(release);
+                        done.countDown();
+                    });
+                    submitted.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Thread.sleep(200);
+
+        // As many tasks as the pool queue holds are pending; nothing is parked
+        assertThat(submitted).hasValue(2);
+        assertThat(executor.getOverflowSize()).isZero();
+        assertThat(producer.isAlive()).isTrue();
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        producer.join(5000);
+        assertThat(submitted).hasValue(10);
+    }
+
+    @Test
+    void execute_parksAtMostOneTaskPerKey() throws InterruptedException {
+        executor = new AnalysisExecutor(settings(1, 1));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(22);
+
+        // Later tasks of a key wait in its chain, not in the overflow queue
+        for (int i = 0; i < 22; i++) {
+            executor.execute("file:///" + (i % 4) + ".feature", () -> {
+                awaitQuietly(release);
+                done.countDown();
+            });
+        }
+
+        assertThat(executor.getOverflowSize()).isEqualTo(2);
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void configure_resizesPoolAndKeepsRunning() throws InterruptedException {
+        executor = new AnalysisExecutor(settings(1, 64));
+        executor.configure(settings(3, 64));
+        assertThat(executor.getParallelism()).isEqualTo(3);
+
+        executor.configure(settings(2, 8));
+        assertThat(executor.getParallelism()).isEqualTo(2);
+
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute("file:///a.feature", done::countDown);
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void serverSettings_zeroThreadsUsesDefaultParallelism() {
+        assertThat(settings(0, 64).getParallelism())
+                .isEqualTo(ServerSettings.defaultParallelism());
+        assertThat(settings(500, 64).getParallelism()).isEqualTo(64);
+        assertThat(new ServerSettings(null).getQueueCapacity())
+                .isEqualTo(ServerSettings.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    private static ServerSettings settings(int threads, int queueCapacity) {
+        JsonObject analysis = new JsonObject();
+        analysis.addProperty("threads", threads);
+        analysis.addProperty("queueCapacity", queueCapacity);
+        JsonObject settings = new JsonObject();
+        settings.add("analysis", analysis);
+        return new ServerSettings(settings);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisSchedulerTest {
+
+    private static final String URI = "file:///a.feature";
+
+    private final AnalysisExecutor executor = new AnalysisExecutor(new ServerSettings(null));
+    private AnalysisScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.close();
+        }
+        executor.close();
+    }
+
+    @Test
+    void burstOfChanges_isCoalescedIntoLatestVersion() throws InterruptedException {
+        List<Integer> analyzed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler = new AnalysisScheduler((uri, version) -> {
+            analyzed.add(version);
+            done.countDown();
+        }, executor, 100);
+
+        for (int version = 1; version <= 5; version++) {
+            scheduler.schedule(URI, version);
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(200);
+        assertThat(analyzed).containsExactly(5);
+    }
+
+    @Test
+    void newerVersion_makesRunningAnalysisStale() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Boolean> currentAfterRun = new CopyOnWriteArrayList<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        scheduler = new AnalysisScheduler((uri, version) -> {
+            if (version == 1) {
+                started.countDown();
+                awaitQuietly(release);
+                currentAfterRun.add(scheduler.isCurrent(uri, version));
+                finished.countDown();
+            }
+        }, executor, 0);
+
+        scheduler.scheduleNow(URI, 1);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        scheduler.schedule(URI, 2);
+        release.countDown();
+
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(currentAfterRun).containsExactly(false);
+    }
+
+    @Test
+    void cancel_dropsPendingAnalysis() throws InterruptedException {
+        List<Integer> analyzed = new CopyOnWriteArrayList<>();
+        scheduler = new AnalysisScheduler((uri, version) -> analyzed.add(version), executor, 50);
+
+        scheduler.schedule(URI, 1);
+        scheduler.cancel(URI);
+        Thread.sleep(200);
+
+        assertThat(analyzed).isEmpty();
+        assertThat(scheduler.isCurrent(URI, 1)).isFalse();
+    }
+
+    @Test
+    void serverSettings_readDebounceFromAnalysisSection() {
+        JsonObject analysis = new JsonObject();
+        analysis.addProperty("debounceMs", 750);
+        JsonObject settings = new JsonObject();
+        settings.add("analysis", analysis);
+
+        assertThat(new ServerSettings(settings).getDebounceMillis()).isEqualTo(750);
+        assertThat(new ServerSettings(null).getDebounceMillis())
+                .isEqualTo(ServerSettings.DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
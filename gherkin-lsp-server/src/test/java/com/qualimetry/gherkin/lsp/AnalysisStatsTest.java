@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisStatsTest {
+
+    @Test
+    void histogram_boundsPercentilesByPowersOfTwo() {
+        AnalysisStats.Histogram histogram = new AnalysisStats.Histogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.record(1_000);
+        }
+        histogram.record(100_000);
+        histogram.record(3_000_000);
+
+        assertThat(histogram.count()).isEqualTo(100);
+        assertThat(histogram.total()).isEqualTo(98_000 + 100_000 + 3_000_000);
+        // 1000 ns falls in [512, 1024)
+        assertThat(histogram.percentile(0.5)).isEqualTo(1_023);
+        assertThat(histogram.percentile(0.99)).isEqualTo(131_071);
+        // Never above the largest recorded value
+        assertThat(histogram.percentile(1.0)).isEqualTo(3_000_000);
+    }
+
+    @Test
+    void emptyHistogram_reportsZero() {
+        AnalysisStats.Histogram histogram = new AnalysisStats.Histogram();
+
+        assertThat(histogram.percentile(0.5)).isZero();
+        assertThat(histogram.toJson().get("meanUs").getAsDouble()).isZero();
+    }
+
+    @Test
+    void snapshot_listsStagesAndRulesSlowestFirst() {
+        AnalysisStats stats = new AnalysisStats();
+        long allocated = AnalysisStats.allocatedBytes();
+        long start = System.nanoTime();
+        byte[][] garbage = new byte[16][];
+        for (int i = 0; i < garbage.length; i++) {
+            garbage[i] = new byte[1024];
+        }
+        stats.record(AnalysisStats.Stage.PARSE, start, allocated);
+        stats.recordRule("fast-rule", 1_000);
+        stats.recordRule("slow-rule", 50_000);
+        stats.recordRule("slow-rule", 50_000);
+
+        JsonObject snapshot = stats.snapshot();
+
+        JsonObject parse = snapshot.getAsJsonObject("stages").getAsJsonObject("parse");
+        assertThat(parse.get("count").getAsLong()).isEqualTo(1);
+        assertThat(snapshot.getAsJsonObject("stages").getAsJsonObject("publish").get("count").getAsLong()).isZero();
+        if (AnalysisStats.isAllocationTracked()) {
+            assertThat(parse.get("allocatedBytes").getAsLong()).isGreaterThanOrEqualTo(16 * 1024);
+        }
+        JsonArray rules = snapshot.getAsJsonArray("rules");
+        assertThat(rules).hasSize(2);
+        assertThat(rules.get(0).getAsJsonObject().get("rule").getAsString()).isEqualTo("slow-rule");
+        assertThat(rules.get(0).getAsJsonObject().get("count").getAsLong()).isEqualTo(2);
+        assertThat(stats.summary(1)).contains("parse n=1").contains("slow-rule").doesNotContain("fast-rule");
+    }
+
+    @Test
+    void sampleRules_picksOneWalkPerInterval() {
+        AnalysisStats stats = new AnalysisStats();
+        int sampled = 0;
+        for (int i = 0; i < AnalysisStats.RULE_SAMPLE_INTERVAL * 3; i++) {
+            if (stats.sampleRules()) {
+                sampled++;
+            }
+        }
+
+        assertThat(sampled).isEqualTo(3);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BatchAnalyzer}, verifying the directory walk and that
+ * batch results match the editor analysis.
+ */
+class BatchAnalyzerTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void shouldAnalyzeFeatureFilesAndSkipHiddenDirectories() throws IOException {
+        write("a/login.feature", "Feature: Login\n  Scenario: Sign in\n    Given a user\n");
+        write("a/b/notes.txt", "Feature: Not a feature file\n");
+        write(".git/hidden.feature", "Feature: Hidden\n");
+        write("node_modules/dep/dep.feature", "Feature: Dependency\n");
+
+        BatchAnalyzer.Result result = new BatchAnalyzer(new RuleConfiguration(null), 2).analyze(List.of(root));
+
+        assertThat(result.files()).extracting(BatchAnalyzer.FileResult::path)
+                .containsExactly(root.resolve("a/login.feature"));
+    }
+
+    @Test
+    void shouldMatchEngineDiagnosticsIncludingCrossFile() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            // Every third file repeats a Feature name, so cross-file issues are raised
+            files.add(write("f" + i + ".feature", "Feature: Checkout " + (i % 3 == 0 ? 0 : i) + "\n"
+                    + "  Scenario: Pay " + i + "\n"
+                    + "    Given a basket\t\n"
+                    + "    When the customer pays\n"
+                    + "    Then the order is placed"));
+        }
+        RuleConfiguration config = new RuleConfiguration(null);
+
+        BatchAnalyzer.Result result = new BatchAnalyzer(config, 4).analyze(List.of(root));
+
+        AnalysisEngine engine = new AnalysisEngine(config);
+        List<List<Diagnostic>> expected = new ArrayList<>();
+        for (Path file : files) {
+            expected.add(engine.analyzeFile(file.toUri().toString(), Files.readString(file)));
+        }
+        assertThat(result.files()).hasSize(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            List<Diagnostic> diagnostics = new ArrayList<>(expected.get(i));
+            diagnostics.addAll(engine.getCrossFileDiagnostics(file.toUri().toString()));
+            BatchAnalyzer.FileResult actual = result.files().stream()
+                    .filter(r -> r.path().equals(file)).findFirst().orElseThrow();
+
+            assertThat(actual.diagnostics()).as(file.toString()).containsExactlyInAnyOrderElementsOf(diagnostics);
+        }
+        assertThat(result.files()).anyMatch(r -> r.diagnostics().stream()
+                .anyMatch(d -> CrossFileIndex.FEATURE_NAME_RULE.equals(d.getCode().getLeft())));
+    }
+
+    @Test
+    void shouldStreamEachFileThenCrossFileDiagnostics() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            write("f" + i + ".feature", "Feature: Same\n  Scenario: S\n    Given a\n    When b\n    Then c\n");
+        }
+        List<Path> reported = new ArrayList<>();
+        List<List<Diagnostic>> diagnosticsPerCall = new ArrayList<>();
+
+        BatchAnalyzer.Summary summary = new BatchAnalyzer(new RuleConfiguration(null), 3).analyze(List.of(root),
+                (path, diagnostics) -> {
+                    reported.add(path);
+                    diagnosticsPerCall.add(diagnostics);
+                });
+
+        assertThat(summary.files()).isEqualTo(10);
+        // Each file once, then the duplicates again with their cross-file diagnostics
+        assertThat(reported.subList(0, 10)).doesNotHaveDuplicates();
+        assertThat(reported.subList(10, reported.size())).hasSizeGreaterThanOrEqualTo(9).doesNotHaveDuplicates()
+                .isSubsetOf(reported.subList(0, 10));
+        assertThat(diagnosticsPerCall.subList(10, reported.size())).allSatisfy(diagnostics -> assertThat(diagnostics)
+                .anyMatch(d -> CrossFileIndex.FEATURE_NAME_RULE.equals(d.getCode().getLeft())));
+        assertThat(summary.count(DiagnosticSeverity.Warning)).isGreaterThanOrEqualTo(9);
+    }
+
+    @Test
+    void shouldReuseCachedResultsOfUnchangedFiles(@TempDir Path cacheDir) throws IOException {
+        for (int i = 0; i < 6; i++) {
+            write("f" + i + ".feature", "Feature: Same\n  Scenario: S" + i + "\n    Given a\t\n    When b\n    Then c\n");
+        }
+        Path cacheFile = cacheDir.resolve("analysis.bin");
+        RuleConfiguration config = new RuleConfiguration(null);
+        BatchAnalyzer.Result cold = new BatchAnalyzer(config, 2, cacheFile).analyze(List.of(root));
+
+        BatchAnalyzer.Result warm = new BatchAnalyzer(config, 2, cacheFile).analyze(List.of(root));
+        write("f0.feature", "Feature: Other\n  Scenario: S0\n    Given a\n    When b\n    Then c\n");
+        BatchAnalyzer.Result changed = new BatchAnalyzer(config, 2, cacheFile).analyze(List.of(root));
+
+        assertThat(warm.files()).isEqualTo(cold.files());
+        assertThat(changed.files()).isEqualTo(new BatchAnalyzer(config, 2).analyze(List.of(root)).files());
+        assertThat(changed.files()).isNotEqualTo(cold.files());
+        try (AnalysisCache cache = AnalysisCache.open(cacheFile, AnalysisCache.diagnosticsKey(config))) {
+            assertThat(cache.getPreviousSize()).isEqualTo(6);
+        }
+    }
+
+    @Test
+    void shouldReportUnreadableFileAsError() throws IOException {
+        Path file = root.resolve("latin1.feature");
+        Files.write(file, new byte[]{'F', 'e', 'a', 't', 'u', 'r', 'e', ':', ' ', (byte) 0xE9, '\n'});
+
+        BatchAnalyzer.Result result = new BatchAnalyzer(new RuleConfiguration(null), 1).analyze(List.of(file));
+
+        assertThat(result.files()).singleElement()
+                .satisfies(r -> assertThat(r.diagnostics()).singleElement()
+                        .satisfies(d -> assertThat(d.getCode().getLeft()).isEqualTo("parse-error")));
+    }
+
+    private Path write(String relative, String content) throws IOException {
+        Path file = root.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
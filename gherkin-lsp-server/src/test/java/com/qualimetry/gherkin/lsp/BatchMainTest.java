@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BatchMain}: arguments, settings files, output formats
+ * and exit codes.
+ */
+class BatchMainTest {
+
+    @TempDir
+    Path root;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Test
+    void exitCodeShouldFollowFailOnSeverity() throws IOException {
+        // Missing Feature name is an error; trailing whitespace is not
+        Path file = write("bad.feature", "Feature:\n  Scenario: A\n    Given a step \n");
+
+        assertThat(run(file.toString())).isEqualTo(BatchMain.EXIT_FAILED);
+        assertThat(output()).contains(file + ":1:1: error: ").contains("[feature-name-required]");
+        assertThat(errors()).contains("Analyzed 1 files");
+
+        assertThat(run("--fail-on", "none", file.toString())).isEqualTo(BatchMain.EXIT_OK);
+    }
+
+    @Test
+    void shouldApplyFlatVsCodeSettings() throws IOException {
+        Path file = write("bad.feature",
+                "Feature:\n\n  Scenario: A\n    Given a step\n    When it runs\n    Then it passes\n");
+        Path settings = write("settings.json", """
+                {
+                  // comments are allowed, as in VS Code
+                  "editor.tabSize": 2,
+                  "gherkinAnalyzer.rules": {
+                    "feature-name-required": { "enabled": false }
+                  }
+                }
+                """);
+
+        int exit = run("--settings", settings.toString(), file.toString());
+
+        assertThat(output()).doesNotContain("feature-name-required");
+        assertThat(exit).isEqualTo(BatchMain.EXIT_OK);
+    }
+
+    @Test
+    void shouldWriteOneJsonObjectPerDiagnostic() throws IOException {
+        Path file = write("bad.feature", "Feature:\n  Scenario: A\n    Given a step \n");
+
+        run("--format", "ndjson", file.toString());
+
+        String[] lines = output().split("\n");
+        assertThat(lines).hasSizeGreaterThan(1);
+        for (String line : lines) {
+            JsonObject record = JsonParser.parseString(line).getAsJsonObject();
+            assertThat(record.get("path").getAsString()).isEqualTo(file.toString());
+            assertThat(record.get("line").getAsInt()).isPositive();
+        }
+        assertThat(lines).anyMatch(line -> line.contains("\"rule\":\"feature-name-required\""));
+    }
+
+    @Test
+    void shouldWriteSarifToOutputFile() throws IOException {
+        Path file = write("bad.feature", "Feature:\n  Scenario: A\n    Given a step \n");
+        Path sarif = root.resolve("result.sarif");
+
+        assertThat(run("--format", "sarif", "--output", sarif.toString(), file.toString()))
+                .isEqualTo(BatchMain.EXIT_FAILED);
+
+        assertThat(output()).isEmpty();
+        JsonObject log = JsonParser.parseString(Files.readString(sarif)).getAsJsonObject();
+        assertThat(log.getAsJsonArray("runs").get(0).getAsJsonObject().getAsJsonArray("results"))
+                .anyMatch(result -> result.getAsJsonObject().get("ruleId").getAsString()
+                        .equals("feature-name-required"));
+    }
+
+    @Test
+    void nativeParserShouldReportTheSameDiagnostics() throws IOException {
+        Path file = write("bad.feature", "Feature:\n  Scenario: A\n    Given a step \n");
+
+        int exit = run(file.toString());
+        String cucumber = output();
+        out.reset();
+
+        assertThat(run("--parser", "native", file.toString())).isEqualTo(exit);
+        assertThat(output()).isEqualTo(cucumber);
+    }
+
+    @Test
+    void checkFailure_isReportedPerFileWithADistinctExitCode() throws IOException {
+        // The invalid pattern only fails on files with a Given step
+        Path crashing = write("crashing.feature", "Feature: A\n  Scenario: A\n    Given a step\n");
+        Path clean = write("clean.feature", "Feature: B\n  Scenario: B\n    When it runs\n");
+        Path settings = write("settings.json", """
+                { "rules": { "given-step-pattern": { "enabled": true, "pattern": "(" } } }
+                """);
+
+        int exit = run("--settings", settings.toString(), "--fail-on", "none",
+                crashing.toString(), clean.toString());
+
+        assertThat(exit).isEqualTo(BatchMain.EXIT_ERROR);
+        assertThat(output()).contains(crashing + ":1:1: error: Cannot analyze this file: ")
+                .contains("[analysis-error]")
+                .doesNotContain(clean + ":1:1: error: Cannot analyze");
+        assertThat(errors()).contains("Analyzed 2 files").contains("The analyzer failed on 1 files");
+    }
+
+    @Test
+    void outputFailure_exitsWithTheErrorCode() throws IOException {
+        Path file = write("a.feature", "Feature: A\n  Scenario: A\n    When it runs\n");
+
+        // The output path is a directory, so opening it for writing fails
+        assertThat(run("--output", root.toString(), file.toString())).isEqualTo(BatchMain.EXIT_ERROR);
+        assertThat(errors()).contains("Analysis failed: ");
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        assertThat(run()).isEqualTo(BatchMain.EXIT_USAGE);
+        assertThat(run("--threads", "0", root.toString())).isEqualTo(BatchMain.EXIT_USAGE);
+        assertThat(run("--fail-on", "fatal", root.toString())).isEqualTo(BatchMain.EXIT_USAGE);
+        assertThat(run("--format", "xml", root.toString())).isEqualTo(BatchMain.EXIT_USAGE);
+        assertThat(run("--parser", "antlr", root.toString())).isEqualTo(BatchMain.EXIT_USAGE);
+        assertThat(run(root.resolve("missing").toString())).isEqualTo(BatchMain.EXIT_USAGE);
+        assertThat(run("--settings", root.resolve("missing.json").toString(), root.toString()))
+                .isEqualTo(BatchMain.EXIT_USAGE);
+        assertThat(errors()).contains("Usage: analyze");
+    }
+
+    private int run(String... args) {
+        return BatchMain.run(args, new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    private String output() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private String errors() {
+        return err.toString(StandardCharsets.UTF_8);
+    }
+
+    private Path write(String relative, String content) throws IOException {
+        Path file = root.resolve(relative);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.google.gson.JsonObject;
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.BaseCheck;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.Issue;
+import org.eclipse.lsp4j.Diagnostic;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckFactoryTest {
+
+    private static final String WIDE_TABLE = """
+            Feature: Tables
+              Scenario: Wide table
+                Given the following values
+                  | a | b | c |
+                  | 1 | 2 | 3 |
+            """;
+
+    @Test
+    void newChecks_returnsDistinctInstances() {
+        CheckFactory factory = new RuleConfiguration(null).getCheckFactory();
+
+        List<BaseCheck> first = factory.newChecks();
+        List<BaseCheck> second = factory.newChecks();
+
+        assertThat(first).hasSize(factory.size()).hasSameSizeAs(second);
+        for (int i = 0; i < first.size(); i++) {
+            assertThat(first.get(i)).isNotSameAs(second.get(i))
+                    .hasSameClassAs(second.get(i));
+        }
+    }
+
+    @Test
+    void newInstances_haveConfiguredPropertiesApplied() {
+        JsonObject ruleObj = new JsonObject();
+        ruleObj.addProperty("maxColumns", 2);
+        JsonObject rules = new JsonObject();
+        rules.add("data-table-max-columns", ruleObj);
+        JsonObject settings = new JsonObject();
+        settings.add("rules", rules);
+        AnalysisEngine engine = new AnalysisEngine(new RuleConfiguration(settings));
+
+        // Analyze twice so the second run uses a pooled check set
+        for (int run = 0; run < 2; run++) {
+            List<Diagnostic> diagnostics = engine.analyzeFile("file:///tables.feature", WIDE_TABLE);
+            assertThat(diagnostics).anyMatch(d ->
+                    "data-table-max-columns".equals(d.getCode().getLeft()));
+        }
+    }
+
+    @Test
+    void concurrentLeases_getDistinctCheckSetsThatAreReused() {
+        CheckFactory factory = new RuleConfiguration(null).getCheckFactory();
+
+        CheckFactory.Lease first = factory.acquire();
+        CheckFactory.Lease second = factory.acquire();
+        assertThat(second.checks()).isNotSameAs(first.checks());
+        List<BaseCheck> firstChecks = first.checks();
+        first.close();
+        second.close();
+
+        assertThat(factory.getPooledCount()).isEqualTo(2);
+        try (CheckFactory.Lease reused = factory.acquire()) {
+            assertThat(reused.checks()).isSameAs(firstChecks);
+        }
+    }
+
+    @Test
+    void parallelAnalysis_matchesSequentialAnalysis() throws Exception {
+        AnalysisEngine engine = new AnalysisEngine(new RuleConfiguration(null));
+        List<String> contents = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            contents.add(i % 2 == 0 ? WIDE_TABLE
+                    : "Feature: F" + i + "\n\n  Scenario: S\n    Given step " + i + "  \n\tWhen x\n");
+        }
+        List<List<Diagnostic>> expected = new ArrayList<>();
+        for (int i = 0; i < contents.size(); i++) {
+            expected.add(engine.analyzeFile("file:///f" + i + ".feature", contents.get(i)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 5; round++) {
+                List<Future<List<Diagnostic>>> futures = new ArrayList<>();
+                for (int i = 0; i < contents.size(); i++) {
+                    String uri = "file:///f" + i + ".feature";
+                    String content = contents.get(i);
+                    futures.add(pool.submit(() -> engine.analyzeFile(uri, content)));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    assertThat(futures.get(i).get()).isEqualTo(expected.get(i));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void reusedNodeIssues_matchAFreshAnalysisAfterEdits() throws Exception {
+        CheckFactory factory = new RuleConfiguration(null).getCheckFactory();
+        FeatureParser parser = new FeatureParser();
+        StringBuilder builder = new StringBuilder("Feature: Memo\n\n  Background:\n    When a background\n");
+        for (int i = 0; i < 20; i++) {
+            builder.append("\n  @tag").append(i % 3)
+                    .append("\n  Scenario").append(i % 4 == 0 ? " Outline" : "").append(": Scenario ").append(i)
+                    .append("\n    Given step <n>\n    Given step <n>\n    Then result ").append(i).append("\n");
+            if (i % 4 == 0) {
+                builder.append("    Examples:\n      | n |\n      | ").append(i).append(" |\n");
+            }
+        }
+        String content = builder.toString();
+        Random random = new Random(3);
+        for (int i = 0; i < 50; i++) {
+            int at = content.indexOf('\n', random.nextInt(content.length())) + 1;
+            content = switch (random.nextInt(3)) {
+                case 0 -> content.substring(0, at) + "\n" + content.substring(at);
+                case 1 -> content.substring(0, at) + "    And step " + i + "\n" + content.substring(at);
+                default -> content.substring(0, at) + content.substring(content.indexOf('\n', at) + 1);
+            };
+            FeatureFile featureFile = parser.parse("file:///memo.feature", content);
+
+            List<Issue> reused = factory.analyze(featureFile, content, null, true);
+
+            assertThat(reused).as(content)
+                    .containsExactlyElementsOf(factory.analyze(featureFile, content));
+        }
+    }
+
+    @Test
+    void editInOneScenario_onlyRechecksThatScenario() throws Exception {
+        CheckFactory factory = new RuleConfiguration(null).getCheckFactory();
+        FeatureParser parser = new FeatureParser();
+        String content = """
+                Feature: Memo
+                  Scenario: One
+                    Given a step
+                    Given a step
+                  Scenario: Two
+                    Given another step
+                """;
+        factory.analyze(parser.parse("file:///memo.feature", content), content, null, true);
+        assertThat(factory.getMemoSize()).isEqualTo(2);
+
+        String edited = content.replace("Given another step", "Given another step\n    When it runs");
+        List<Issue> issues = factory.analyze(parser.parse("file:///memo.feature", edited), edited, null, true);
+
+        assertThat(factory.getMemoSize()).isEqualTo(3);
+        assertThat(issues).anyMatch(issue -> "no-duplicate-steps".equals(issue.ruleKey())
+                && issue.line() == 4);
+
+        String moved = "\n\n" + content;
+        issues = factory.analyze(parser.parse("file:///memo.feature", moved), moved, null, true);
+
+        assertThat(factory.getMemoSize()).isEqualTo(3);
+        assertThat(issues).anyMatch(issue -> "no-duplicate-steps".equals(issue.ruleKey())
+                && issue.line() == 6);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.qualimetry.sonar.gherkin.analyzer.checks.ConsistentFeatureLanguageCheck;
+import com.qualimetry.sonar.gherkin.analyzer.checks.UniqueFeatureNameCheck;
+import com.qualimetry.sonar.gherkin.analyzer.checks.UniqueScenarioNameCheck;
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.CrossFileIssue;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.FeatureContext;
+import com.qualimetry.sonar.gherkin.analyzer.visitor.FeatureWalker;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CrossFileIndexTest {
+
+    private static final Set<String> ALL_RULES = Set.of(
+            CrossFileIndex.FEATURE_NAME_RULE,
+            CrossFileIndex.SCENARIO_NAME_RULE,
+            CrossFileIndex.LANGUAGE_RULE);
+
+    private final CrossFileIndex index = new CrossFileIndex();
+
+    @Test
+    void duplicateFeatureName_isReportedOnLaterUriOnly() throws IOException {
+        index.update(parse("file:///a.feature", feature("en", "Login", "One")));
+        index.update(parse("file:///b.feature", feature("en", "Login", "Two")));
+
+        assertThat(index.getIssues("file:///a.feature", ALL_RULES)).isEmpty();
+        assertThat(index.getIssues("file:///b.feature", ALL_RULES))
+                .extracting(CrossFileIssue::ruleKey, CrossFileIssue::line)
+                .containsExactly(tuple(CrossFileIndex.FEATURE_NAME_RULE, 1));
+    }
+
+    @Test
+    void update_retractsPreviousContribution() throws IOException {
+        index.update(parse("file:///a.feature", feature("en", "Login", "One")));
+        index.update(parse("file:///b.feature", feature("en", "Login", "Two")));
+
+        Set<String> affected = index.update(parse("file:///b.feature", feature("en", "Logout", "Two")));
+
+        assertThat(affected).containsExactlyInAnyOrder("file:///a.feature", "file:///b.feature");
+        assertThat(index.getIssues("file:///b.feature", ALL_RULES)).isEmpty();
+        assertThat(index.getUrisWithIssues()).isEmpty();
+    }
+
+    @Test
+    void update_leavingFirstOccurrenceInPlace_affectsOnlyTheUpdatedFile() throws IOException {
+        index.update(parse("file:///a.feature", feature("en", "A", "Login")));
+        index.update(parse("file:///b.feature", feature("en", "B", "Login")));
+        index.update(parse("file:///c.feature", feature("en", "C", "Login")));
+
+        assertThat(index.update(parse("file:///d.feature", feature("en", "D", "Login"))))
+                .containsExactly("file:///d.feature");
+        assertThat(index.update(parse("file:///c.feature", feature("en", "C", "Logout"))))
+                .containsExactly("file:///c.feature");
+        assertThat(index.update(parse("file:///a.feature", feature("en", "A", "Signup"))))
+                .containsExactlyInAnyOrder("file:///a.feature", "file:///b.feature", "file:///d.feature");
+    }
+
+    @Test
+    void remove_changingExpectedLanguage_affectsAllFiles() throws IOException {
+        index.update(parse("file:///a.feature", feature("fr", "A", "One")));
+        index.update(parse("file:///b.feature", feature("en", "B", "Two")));
+        index.update(parse("file:///c.feature", feature("en", "C", "Three")));
+        assertThat(index.getUrisWithIssues()).containsExactlyInAnyOrder("file:///b.feature", "file:///c.feature");
+
+        Set<String> affected = index.remove("file:///a.feature");
+
+        assertThat(affected).contains("file:///a.feature", "file:///b.feature", "file:///c.feature");
+        assertThat(index.getUrisWithIssues()).isEmpty();
+    }
+
+    @Test
+    void inactiveRules_areFilteredOut() throws IOException {
+        index.update(parse("file:///a.feature", feature("en", "Login", "Same")));
+        index.update(parse("file:///b.feature", feature("en", "Login", "Same")));
+
+        assertThat(index.getIssues("file:///b.feature", Set.of(CrossFileIndex.SCENARIO_NAME_RULE)))
+                .extracting(CrossFileIssue::ruleKey)
+                .containsExactly(CrossFileIndex.SCENARIO_NAME_RULE);
+    }
+
+    @Test
+    void randomUpdates_matchBatchChecks() throws IOException {
+        Random random = new Random(7);
+        String[] names = {"Alpha", "Beta", "Gamma", "Delta"};
+        String[] languages = {"en", "en", "fr"};
+        TreeMap<String, FeatureFile> files = new TreeMap<>();
+        Map<String, List<CrossFileIssue>> previous = new HashMap<>();
+
+        for (int i = 0; i < 300; i++) {
+            String uri = "file:///f" + random.nextInt(12) + ".feature";
+            Set<String> affected;
+            if (random.nextInt(5) == 0) {
+                files.remove(uri);
+                affected = index.remove(uri);
+            } else {
+                FeatureFile file = parse(uri, feature(languages[random.nextInt(languages.length)],
+                        names[random.nextInt(names.length)],
+                        names[random.nextInt(names.length)], names[random.nextInt(names.length)]));
+                files.put(uri, file);
+                affected = index.update(file);
+            }
+
+            List<CrossFileIssue> expected = batchIssues(files);
+            List<CrossFileIssue> actual = new ArrayList<>();
+            for (String fileUri : files.keySet()) {
+                List<CrossFileIssue> issues = index.getIssues(fileUri, ALL_RULES);
+                actual.addAll(issues);
+                // Files left out of the affected set must keep their issues
+                if (!affected.contains(fileUri)) {
+                    assertThat(issues).isEqualTo(previous.getOrDefault(fileUri, List.of()));
+                }
+                previous.put(fileUri, issues);
+            }
+            assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    private static List<CrossFileIssue> batchIssues(TreeMap<String, FeatureFile> files) {
+        UniqueFeatureNameCheck featureNames = new UniqueFeatureNameCheck();
+        UniqueScenarioNameCheck scenarioNames = new UniqueScenarioNameCheck();
+        ConsistentFeatureLanguageCheck languages = new ConsistentFeatureLanguageCheck();
+        for (FeatureFile file : files.values()) {
+            featureNames.setContext(new FeatureContext(file));
+            FeatureWalker.walk(file, featureNames);
+            scenarioNames.setContext(new FeatureContext(file));
+            FeatureWalker.walk(file, scenarioNames);
+            languages.setContext(new FeatureContext(file));
+            FeatureWalker.walk(file, languages);
+        }
+        List<CrossFileIssue> issues = new ArrayList<>(featureNames.afterAllFiles());
+        issues.addAll(scenarioNames.afterAllFiles());
+        issues.addAll(languages.afterAllFiles());
+        return issues;
+    }
+
+    private static String feature(String language, String name, String... scenarios) {
+        boolean french = "fr".equals(language);
+        StringBuilder sb = new StringBuilder();
+        if (french) {
+            sb.append("# language: fr\n");
+        }
+        sb.append(french ? "Fonctionnalité: " : "Feature: ").append(name).append('\n');
+        for (String scenario : scenarios) {
+            sb.append(french ? "  Scénario: " : "  Scenario: ").append(scenario).append('\n');
+            sb.append(french ? "    Soit x\n" : "    Given x\n");
+        }
+        return sb.toString();
+    }
+
+    private static FeatureFile parse(String uri, String content) throws IOException {
+        return new FeatureParser().parse(uri, content);
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.google.gson.JsonObject;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
+import org.eclipse.lsp4j.DocumentDiagnosticParams;
+import org.eclipse.lsp4j.DocumentDiagnosticReport;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensDelta;
+import org.eclipse.lsp4j.SemanticTokensDeltaParams;
+import org.eclipse.lsp4j.SemanticTokensParams;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.eclipse.lsp4j.WorkspaceDiagnosticParams;
+import org.eclipse.lsp4j.WorkspaceDiagnosticReport;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static com.qualimetry.gherkin.lsp.RecordingClient.feature;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GherkinTextDocumentServiceTest {
+
+    private static final String URI_A = "file:///a.feature";
+    private static final String URI_B = "file:///b.feature";
+
+    private final RecordingClient client = new RecordingClient();
+    private final List<PublishDiagnosticsParams> published = client.published;
+    private GherkinTextDocumentService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new GherkinTextDocumentService();
+        service.setEngine(new AnalysisEngine(new RuleConfiguration(null)));
+        service.setClient(client);
+        JsonObject analysis = new JsonObject();
+        analysis.addProperty("debounceMs", 0);
+        JsonObject settings = new JsonObject();
+        settings.add("analysis", analysis);
+        service.applySettings(new ServerSettings(settings));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void crossFileChange_republishesOtherDocumentWithoutReanalysis() throws InterruptedException {
+        open(URI_A, feature("Login"));
+        open(URI_B, feature("Other"));
+        awaitPublished(p -> p.getUri().equals(URI_A));
+        awaitPublished(p -> p.getUri().equals(URI_B));
+
+        change(URI_B, 2, feature("Login"));
+        awaitPublished(p -> p.getUri().equals(URI_B) && p.getVersion() == 2 && hasDuplicateName(p));
+
+        published.clear();
+        change(URI_A, 2, feature("Renamed"));
+        PublishDiagnosticsParams resolved = awaitPublished(p ->
+                p.getUri().equals(URI_B) && !hasDuplicateName(p));
+
+        // B keeps its version: it was republished from cache, not re-analyzed
+        assertThat(resolved.getVersion()).isEqualTo(2);
+        assertThat(resolved.getDiagnostics())
+                .noneMatch(d -> "unique-scenario-name".equals(d.getCode().getLeft()));
+    }
+
+    @Test
+    void unchangedCrossFileDiagnostics_areNotRepublished() throws InterruptedException {
+        open(URI_A, feature("Login"));
+        open(URI_B, feature("Other"));
+        awaitPublished(p -> p.getUri().equals(URI_A));
+        awaitPublished(p -> p.getUri().equals(URI_B));
+
+        published.clear();
+        // A is the first "Login"; B duplicating it adds an issue to B only
+        change(URI_B, 2, feature("Login"));
+        awaitPublished(p -> p.getUri().equals(URI_B) && p.getVersion() == 2);
+        Thread.sleep(200);
+
+        assertThat(published).noneMatch(p -> p.getUri().equals(URI_A));
+    }
+
+    @Test
+    void pullDiagnostics_answerUnchangedUntilTheDocumentChanges() throws Exception {
+        service.setPullDiagnostics(true, false);
+        open(URI_A, feature("Login"));
+
+        DocumentDiagnosticReport first = pull(URI_A, null);
+        String resultId = first.getRelatedFullDocumentDiagnosticReport().getResultId();
+        DocumentDiagnosticReport again = pull(URI_A, resultId);
+
+        assertThat(first.getRelatedFullDocumentDiagnosticReport().getItems()).isNotEmpty();
+        assertThat(again.isRelatedUnchangedDocumentDiagnosticReport()).isTrue();
+        assertThat(again.getRelatedUnchangedDocumentDiagnosticReport().getResultId()).isEqualTo(resultId);
+
+        // A pull right after a change waits for that version's analysis
+        change(URI_A, 2, feature("Login") + "    When nothing\n    Then it is fine\n");
+        DocumentDiagnosticReport changed = pull(URI_A, resultId);
+
+        assertThat(changed.isRelatedFullDocumentDiagnosticReport()).isTrue();
+        assertThat(changed.getRelatedFullDocumentDiagnosticReport().getResultId()).isNotEqualTo(resultId);
+        assertThat(changed.getRelatedFullDocumentDiagnosticReport().getItems())
+                .isNotEqualTo(first.getRelatedFullDocumentDiagnosticReport().getItems());
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void editOfAnOpenDocument_leavesAHeldWorkspaceReportPending() throws InterruptedException {
+        AtomicInteger computations = new AtomicInteger();
+        service.setEngine(new AnalysisEngine(new RuleConfiguration(null)) {
+            @Override
+            public Set<String> getIndexedUris() {
+                computations.incrementAndGet();
+                return super.getIndexedUris();
+            }
+        });
+        open(URI_A, feature("Login"));
+        open(URI_B, feature("Login"));
+        awaitPublished(p -> p.getUri().equals(URI_B) && hasDuplicateName(p));
+
+        CompletableFuture<WorkspaceDiagnosticReport> report =
+                service.workspaceDiagnostic(new WorkspaceDiagnosticParams(List.of()));
+        Thread.sleep(200);
+        assertThat(report).isNotDone();
+        int held = computations.get();
+
+        // Both files are open: the cross-file change does not reach the workspace report
+        published.clear();
+        change(URI_A, 2, feature("Renamed"));
+        awaitPublished(p -> p.getUri().equals(URI_B) && !hasDuplicateName(p));
+        Thread.sleep(200);
+
+        assertThat(report).isNotDone();
+        assertThat(computations).hasValue(held);
+        report.cancel(true);
+    }
+
+    @Test
+    void semanticTokensDelta_sendsOnlyTheChangedTokens() throws Exception {
+        open(URI_A, feature("Login"));
+
+        SemanticTokens full = service.semanticTokensFull(new SemanticTokensParams(new TextDocumentIdentifier(URI_A)))
+                .get(5, TimeUnit.SECONDS);
+        // Feature, Scenario and Given keywords
+        assertThat(full.getData()).containsExactly(
+                0, 0, 7, 0, 0,
+                2, 2, 8, 0, 0,
+                1, 4, 5, 0, 0);
+
+        change(URI_A, 2, feature("Login") + "    When nothing\n");
+        Either<SemanticTokens, SemanticTokensDelta> delta = service.semanticTokensFullDelta(
+                new SemanticTokensDeltaParams(new TextDocumentIdentifier(URI_A), full.getResultId()))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(delta.isRight()).isTrue();
+        assertThat(delta.getRight().getResultId()).isNotEqualTo(full.getResultId());
+        assertThat(delta.getRight().getEdits()).singleElement().satisfies(edit -> {
+            assertThat(edit.getStart()).isEqualTo(15);
+            assertThat(edit.getDeleteCount()).isZero();
+            assertThat(edit.getData()).containsExactly(1, 4, 4, 0, 0);
+        });
+
+        // A result ID the server no longer holds gets all the tokens
+        Either<SemanticTokens, SemanticTokensDelta> unknown = service.semanticTokensFullDelta(
+                new SemanticTokensDeltaParams(new TextDocumentIdentifier(URI_A), full.getResultId()))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(unknown.isLeft()).isTrue();
+        assertThat(unknown.getLeft().getData()).hasSize(20);
+    }
+
+    @Test
+    void pullDiagnostics_failWhenTheAnalysisFails() {
+        service.setEngine(new AnalysisEngine(new RuleConfiguration(null)) {
+            @Override
+            public List<Diagnostic> analyzeFile(String uri, String content) {
+                throw new IllegalStateException("boom");
+            }
+        });
+        service.setPullDiagnostics(true, false);
+        open(URI_A, feature("Login"));
+
+        DocumentDiagnosticParams params = new DocumentDiagnosticParams(new TextDocumentIdentifier(URI_A));
+        assertThatThrownBy(() -> service.diagnostic(params).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("boom");
+        assertThat(service.getPendingPullCount(URI_A)).isZero();
+    }
+
+    @Test
+    void pullDiagnostics_cancelledWhileWaiting_areForgotten() {
+        JsonObject analysis = new JsonObject();
+        analysis.addProperty("debounceMs", 10_000);
+        JsonObject settings = new JsonObject();
+        settings.add("analysis", analysis);
+        service.applySettings(new ServerSettings(settings));
+        service.setPullDiagnostics(true, false);
+        open(URI_A, feature("Login"));
+        // The analysis of the change waits for the debounce delay
+        change(URI_A, 2, feature("Renamed"));
+
+        CompletableFuture<DocumentDiagnosticReport> report =
+                service.diagnostic(new DocumentDiagnosticParams(new TextDocumentIdentifier(URI_A)));
+        assertThat(service.getPendingPullCount(URI_A)).isEqualTo(1);
+        report.cancel(true);
+
+        assertThat(service.getPendingPullCount(URI_A)).isZero();
+    }
+
+    @Test
+    void changeOfUnopenedDocument_isOnlyAppliedWhenItReplacesTheText() throws InterruptedException {
+        // A range edit has nothing to apply to
+        service.didChange(new DidChangeTextDocumentParams(
+                new VersionedTextDocumentIdentifier(URI_A, 2),
+                List.of(new TextDocumentContentChangeEvent(
+                        new Range(new Position(3, 0), new Position(3, 4)), "When"))));
+        change(URI_B, 2, feature("Login"));
+
+        PublishDiagnosticsParams params = awaitPublished(p -> p.getUri().equals(URI_B));
+        assertThat(params.getVersion()).isEqualTo(2);
+        Thread.sleep(200);
+        assertThat(published).noneMatch(p -> p.getUri().equals(URI_A));
+    }
+
+    private DocumentDiagnosticReport pull(String uri, String previousResultId) throws Exception {
+        DocumentDiagnosticParams params = new DocumentDiagnosticParams(new TextDocumentIdentifier(uri));
+        params.setPreviousResultId(previousResultId);
+        return service.diagnostic(params).get(5, TimeUnit.SECONDS);
+    }
+
+    private void open(String uri, String text) {
+        service.didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(uri, "gherkin", 1, text)));
+    }
+
+    private void change(String uri, int version, String text) {
+        service.didChange(new DidChangeTextDocumentParams(
+                new VersionedTextDocumentIdentifier(uri, version),
+                List.of(new TextDocumentContentChangeEvent(text))));
+    }
+
+    private PublishDiagnosticsParams awaitPublished(Predicate<PublishDiagnosticsParams> condition)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            for (PublishDiagnosticsParams params : published) {
+                if (condition.test(params)) {
+                    return params;
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Expected diagnostics were not published: " + published);
+    }
+
+    private static boolean hasDuplicateName(PublishDiagnosticsParams params) {
+        return params.getDiagnostics().stream()
+                .anyMatch(d -> "unique-feature-name".equals(d.getCode().getLeft()));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PieceTableDocumentTest {
+
+    @Test
+    void insertAtPosition_updatesText() {
+        PieceTableDocument doc = new PieceTableDocument("Feature: A\n  Scenario: B\n");
+
+        doc.applyChange(range(1, 13, 1, 13), "BC");
+
+        assertThat(doc.getText()).isEqualTo("Feature: A\n  Scenario: BBC\n");
+    }
+
+    @Test
+    void deleteAcrossLines_updatesLineCount() {
+        PieceTableDocument doc = new PieceTableDocument("one\ntwo\nthree\n");
+        assertThat(doc.getLineCount()).isEqualTo(4);
+
+        doc.applyChange(range(0, 3, 2, 0), " ");
+
+        assertThat(doc.getText()).isEqualTo("one three\n");
+        assertThat(doc.getLineCount()).isEqualTo(2);
+        assertThat(doc.offsetAt(new Position(1, 0))).isEqualTo(10);
+    }
+
+    @Test
+    void nullRange_replacesWholeDocument() {
+        PieceTableDocument doc = new PieceTableDocument("old");
+
+        doc.applyChange(null, "new\ntext");
+
+        assertThat(doc.getText()).isEqualTo("new\ntext");
+        assertThat(doc.getLineCount()).isEqualTo(2);
+    }
+
+    @Test
+    void characterPastLineEnd_isClampedBeforeTerminator() {
+        PieceTableDocument doc = new PieceTableDocument("ab\r\ncd");
+
+        assertThat(doc.offsetAt(new Position(0, 99))).isEqualTo(2);
+        assertThat(doc.offsetAt(new Position(5, 0))).isEqualTo(doc.length());
+    }
+
+    @Test
+    void joiningCrAndLf_countsOneTerminator() {
+        PieceTableDocument doc = new PieceTableDocument("a\rb");
+        assertThat(doc.getLineCount()).isEqualTo(2);
+
+        // Inserting "\n" right after "\r" turns two terminators' worth of
+        // boundaries into a single CRLF.
+        doc.applyChange(range(1, 0, 1, 0), "\n");
+
+        assertThat(doc.getText()).isEqualTo("a\r\nb");
+        assertThat(doc.getLineCount()).isEqualTo(2);
+        assertThat(doc.offsetAt(new Position(1, 0))).isEqualTo(3);
+    }
+
+    @Test
+    void manyEdits_compactPieces() {
+        PieceTableDocument doc = new PieceTableDocument("x");
+        for (int i = 0; i < 2000; i++) {
+            doc.applyChange(range(0, i % 2, 0, i % 2), "y");
+        }
+
+        assertThat(doc.length()).isEqualTo(2001);
+        assertThat(doc.getPieceCount()).isLessThanOrEqualTo(513);
+    }
+
+    @Test
+    void randomEdits_matchStringReference() {
+        Random random = new Random(42);
+        String[] fragments = {"a", "Given ", "\n", "\r\n", "\r", "  ", "|x|", ""};
+        String reference = "Feature: F\n  Scenario: S\n    Given x\n";
+        PieceTableDocument doc = new PieceTableDocument(reference);
+
+        for (int i = 0; i < 3000; i++) {
+            int a = notInsideCrLf(reference, random.nextInt(reference.length() + 1));
+            int b = notInsideCrLf(reference, Math.min(reference.length(), a + random.nextInt(6)));
+            String text = fragments[random.nextInt(fragments.length)];
+
+            doc.applyChange(new Range(positionOf(reference, a), positionOf(reference, b)), text);
+            reference = reference.substring(0, a) + text + reference.substring(b);
+
+            assertThat(doc.length()).isEqualTo(reference.length());
+            assertThat(doc.getLineCount()).isEqualTo(reference.split("\r\n|\r|\n", -1).length);
+            if (i % 50 == 0) {
+                assertThat(doc.getText()).isEqualTo(reference);
+            }
+        }
+        assertThat(doc.getText()).isEqualTo(reference);
+    }
+
+    private static Range range(int startLine, int startChar, int endLine, int endChar) {
+        return new Range(new Position(startLine, startChar), new Position(endLine, endChar));
+    }
+
+    private static int notInsideCrLf(String text, int offset) {
+        // LSP positions cannot address the gap between '\r' and '\n'
+        if (offset > 0 && offset < text.length()
+                && text.charAt(offset - 1) == '\r' && text.charAt(offset) == '\n') {
+            return offset - 1;
+        }
+        return offset;
+    }
+
+    private static Position positionOf(String text, int offset) {
+        int line = 0;
+        int lineStart = 0;
+        for (int i = 0; i < offset; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || (c == '\r' && (i + 1 >= text.length() || text.charAt(i + 1) != '\n'))) {
+                line++;
+                lineStart = i + 1;
+            }
+        }
+        return new Position(line, offset - lineStart);
+    }
+}
@@ -164,4 +164,27 @@ class RuleConfigurationTest {
         assertThat(config.getActiveRuleKeys()).contains("business-language-only");
         assertThat(config.getSeverity("feature-name-required")).isEqualTo(DiagnosticSeverity.Hint);
     }
+
+    @Test
+    void fingerprint_changesWithSeverityAndProperties() {
+        JsonObject ruleObj = new JsonObject();
+        ruleObj.addProperty("severity", "info");
+        JsonObject rules = new JsonObject();
+        rules.add("feature-name-required", ruleObj);
+        JsonObject severity = new JsonObject();
+        severity.add("rules", rules);
+
+        JsonObject propertyObj = new JsonObject();
+        propertyObj.addProperty("maxScenarios", "3");
+        JsonObject propertyRules = new JsonObject();
+        propertyRules.add("rule-scenario-count-limit", propertyObj);
+        JsonObject property = new JsonObject();
+        property.add("rules", propertyRules);
+
+        String defaults = new RuleConfiguration(null).getFingerprint();
+
+        assertThat(new RuleConfiguration(null).getFingerprint()).isEqualTo(defaults);
+        assertThat(new RuleConfiguration(severity).getFingerprint()).isNotEqualTo(defaults);
+        assertThat(new RuleConfiguration(property).getFingerprint()).isNotEqualTo(defaults);
+    }
 }
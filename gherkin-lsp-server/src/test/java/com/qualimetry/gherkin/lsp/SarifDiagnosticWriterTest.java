@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.qualimetry.sonar.gherkin.analyzer.checks.CheckList;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SarifDiagnosticWriter}: log structure, rule metadata and
+ * result locations.
+ */
+class SarifDiagnosticWriterTest {
+
+    @Test
+    void shouldDescribeEveryRuleAndReferenceItFromResults() throws IOException {
+        StringWriter out = new StringWriter();
+        SarifDiagnosticWriter writer = new SarifDiagnosticWriter(out);
+        writer.begin();
+        writer.fileAnalyzed(Path.of("features", "my login.feature"), List.of(
+                diagnostic("when-then-required", DiagnosticSeverity.Error, new Range(new Position(2, 2), new Position(2, 10))),
+                diagnostic("no-trailing-whitespace", DiagnosticSeverity.Information, new Range(new Position(4, 0), new Position(5, 0)))));
+        writer.fileAnalyzed(Path.of("empty.feature"), List.of());
+        writer.end();
+
+        JsonObject log = JsonParser.parseString(out.toString()).getAsJsonObject();
+        assertThat(log.get("version").getAsString()).isEqualTo("2.1.0");
+        JsonObject run = log.getAsJsonArray("runs").get(0).getAsJsonObject();
+
+        JsonArray rules = run.getAsJsonObject("tool").getAsJsonObject("driver").getAsJsonArray("rules");
+        assertThat(rules).hasSize(CheckList.getAllChecks().size());
+
+        JsonArray results = run.getAsJsonArray("results");
+        assertThat(results).hasSize(2);
+        JsonObject first = results.get(0).getAsJsonObject();
+        JsonObject rule = rules.get(first.get("ruleIndex").getAsInt()).getAsJsonObject();
+        assertThat(rule.get("id").getAsString()).isEqualTo("when-then-required");
+        assertThat(rule.get("name").getAsString()).isEqualTo("WhenThenRequired");
+        assertThat(rule.getAsJsonObject("shortDescription").get("text").getAsString())
+                .startsWith("Every Scenario should contain").endsWith(".");
+        assertThat(rule.getAsJsonObject("defaultConfiguration").get("level").getAsString()).isEqualTo("error");
+        assertThat(first.get("level").getAsString()).isEqualTo("error");
+
+        JsonObject location = first.getAsJsonArray("locations").get(0).getAsJsonObject()
+                .getAsJsonObject("physicalLocation");
+        assertThat(location.getAsJsonObject("artifactLocation").get("uri").getAsString())
+                .isEqualTo("features/my%20login.feature");
+        assertThat(location.getAsJsonObject("artifactLocation").get("uriBaseId").getAsString())
+                .isEqualTo(SarifDiagnosticWriter.SRCROOT);
+        JsonObject region = location.getAsJsonObject("region");
+        assertThat(region.get("startLine").getAsInt()).isEqualTo(3);
+        assertThat(region.get("startColumn").getAsInt()).isEqualTo(3);
+        assertThat(region.get("endColumn").getAsInt()).isEqualTo(11);
+
+        JsonObject second = results.get(1).getAsJsonObject();
+        assertThat(second.get("level").getAsString()).isEqualTo("note");
+        assertThat(second.getAsJsonArray("locations").get(0).getAsJsonObject()
+                .getAsJsonObject("physicalLocation").getAsJsonObject("region").has("endColumn")).isFalse();
+    }
+
+    @Test
+    void shouldKeepTheEndOfMultiLineRegions() throws IOException {
+        StringWriter out = new StringWriter();
+        SarifDiagnosticWriter writer = new SarifDiagnosticWriter(out);
+        writer.begin();
+        writer.fileAnalyzed(Path.of("a.feature"), List.of(
+                diagnostic("when-then-required", DiagnosticSeverity.Error, new Range(new Position(2, 2), new Position(6, 4))),
+                diagnostic("when-then-required", DiagnosticSeverity.Error, new Range(new Position(2, 2), new Position(4, 0)))));
+        writer.end();
+
+        JsonArray results = JsonParser.parseString(out.toString()).getAsJsonObject()
+                .getAsJsonArray("runs").get(0).getAsJsonObject().getAsJsonArray("results");
+        JsonObject region = region(results.get(0).getAsJsonObject());
+        assertThat(region.get("startLine").getAsInt()).isEqualTo(3);
+        assertThat(region.get("endLine").getAsInt()).isEqualTo(7);
+        assertThat(region.get("endColumn").getAsInt()).isEqualTo(5);
+
+        JsonObject toLineStart = region(results.get(1).getAsJsonObject());
+        assertThat(toLineStart.get("endLine").getAsInt()).isEqualTo(5);
+        assertThat(toLineStart.get("endColumn").getAsInt()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldWriteValidLogWithoutResults() throws IOException {
+        StringWriter out = new StringWriter();
+        SarifDiagnosticWriter writer = new SarifDiagnosticWriter(out);
+        writer.begin();
+        writer.end();
+
+        JsonObject run = JsonParser.parseString(out.toString()).getAsJsonObject()
+                .getAsJsonArray("runs").get(0).getAsJsonObject();
+        assertThat(run.getAsJsonArray("results")).isEmpty();
+    }
+
+    private static JsonObject region(JsonObject result) {
+        return result.getAsJsonArray("locations").get(0).getAsJsonObject()
+                .getAsJsonObject("physicalLocation").getAsJsonObject("region");
+    }
+
+    private static Diagnostic diagnostic(String rule, DiagnosticSeverity severity, Range range) {
+        Diagnostic diagnostic = new Diagnostic(range, "Message of " + rule, severity, "gherkin-analyzer");
+        diagnostic.setCode(rule);
+        return diagnostic;
+    }
+}
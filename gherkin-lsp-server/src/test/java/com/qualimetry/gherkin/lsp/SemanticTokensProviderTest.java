@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import com.qualimetry.sonar.gherkin.analyzer.parser.FeatureParser;
+import com.qualimetry.sonar.gherkin.analyzer.parser.model.FeatureFile;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SemanticTokensEdit;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SemanticTokensProviderTest {
+
+    private static final String CONTENT = """
+            # checkout
+            @smoke
+            Feature: Checkout
+              Scenario: Pay
+                Given a cart
+                Then it is paid
+            """;
+
+    @Test
+    void encode_writesTokensRelativeToThePreviousOne() throws IOException {
+        int[] data = SemanticTokensProvider.encode(parse(CONTENT), null);
+
+        assertThat(data).containsExactly(
+                0, 0, 10, 2, 0,
+                1, 0, 6, 1, 0,
+                1, 0, 7, 0, 0,
+                1, 2, 8, 0, 0,
+                1, 4, 5, 0, 0,
+                1, 4, 4, 0, 0);
+    }
+
+    @Test
+    void encode_keepsOnlyTheLinesOfTheRange() throws IOException {
+        Range range = new Range(new Position(2, 0), new Position(3, 0));
+
+        int[] data = SemanticTokensProvider.encode(parse(CONTENT), range);
+
+        assertThat(data).containsExactly(
+                2, 0, 7, 0, 0,
+                1, 2, 8, 0, 0);
+    }
+
+    @Test
+    void encode_returnsNoTokensWithoutTree() {
+        assertThat(SemanticTokensProvider.encode(null, null)).isEmpty();
+    }
+
+    @Test
+    void diff_replacesTheIntegersBetweenCommonPrefixAndSuffix() {
+        int[] previous = {0, 0, 7, 0, 0, 1, 2, 8, 0, 0, 1, 4, 5, 0, 0};
+        int[] current = {0, 0, 7, 0, 0, 1, 2, 4, 0, 0, 1, 4, 5, 0, 0};
+
+        List<SemanticTokensEdit> edits = SemanticTokensProvider.diff(previous, current);
+
+        assertThat(edits).singleElement().satisfies(edit -> {
+            assertThat(edit.getStart()).isEqualTo(7);
+            assertThat(edit.getDeleteCount()).isEqualTo(1);
+            assertThat(edit.getData()).containsExactly(4);
+        });
+    }
+
+    @Test
+    void diff_handlesInsertionsRemovalsAndEqualEncodings() {
+        int[] small = {0, 0, 7, 0, 0};
+        int[] large = {0, 0, 7, 0, 0, 1, 4, 5, 0, 0};
+
+        assertThat(SemanticTokensProvider.diff(small, large)).singleElement().satisfies(edit -> {
+            assertThat(edit.getStart()).isEqualTo(5);
+            assertThat(edit.getDeleteCount()).isZero();
+            assertThat(edit.getData()).containsExactly(1, 4, 5, 0, 0);
+        });
+        assertThat(SemanticTokensProvider.diff(large, small)).singleElement().satisfies(edit -> {
+            assertThat(edit.getStart()).isEqualTo(5);
+            assertThat(edit.getDeleteCount()).isEqualTo(5);
+            assertThat(edit.getData()).isEmpty();
+        });
+        assertThat(SemanticTokensProvider.diff(large, large.clone())).isEmpty();
+    }
+
+    private static FeatureFile parse(String content) throws IOException {
+        return new FeatureParser().parse("file:///checkout.feature", content);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import org.eclipse.lsp4j.PreviousResultId;
+import org.eclipse.lsp4j.ProgressParams;
+import org.eclipse.lsp4j.WorkspaceDiagnosticParams;
+import org.eclipse.lsp4j.WorkspaceDiagnosticReport;
+import org.eclipse.lsp4j.WorkspaceDiagnosticReportPartialResult;
+import org.eclipse.lsp4j.WorkspaceDocumentDiagnosticReport;
+import org.eclipse.lsp4j.WorkspaceFullDocumentDiagnosticReport;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.qualimetry.gherkin.lsp.RecordingClient.feature;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link WorkspaceDiagnostics}: full and unchanged reports,
+ * partial results, and requests held open until the workspace changes.
+ */
+class WorkspaceDiagnosticsTest {
+
+    private static final String URI_A = "file:///ws/a.feature";
+    private static final String URI_B = "file:///ws/b.feature";
+    private static final String URI_OPEN = "file:///ws/open.feature";
+
+    private final Map<String, String> disk = new ConcurrentHashMap<>();
+    private final AnalysisEngine engine = new AnalysisEngine(new RuleConfiguration(null));
+    private final AnalysisExecutor executor = new AnalysisExecutor(new ServerSettings(null));
+    private final WorkspaceDiagnostics diagnostics =
+            new WorkspaceDiagnostics(executor, disk::get, URI_OPEN::equals);
+    private final RecordingClient client = new RecordingClient();
+
+    @AfterEach
+    void tearDown() {
+        diagnostics.close();
+        executor.close();
+    }
+
+    @Test
+    void shouldReportClosedFilesThenOnlyChanges() throws Exception {
+        index(URI_A, feature("Login"));
+        index(URI_B, feature("Login"));
+        index(URI_OPEN, feature("Open"));
+
+        WorkspaceDiagnosticReport first = report(List.of(), null).get(10, TimeUnit.SECONDS);
+
+        assertThat(first.getItems()).extracting(item -> item.getWorkspaceFullDocumentDiagnosticReport().getUri())
+                .containsExactlyInAnyOrder(URI_A, URI_B);
+        WorkspaceFullDocumentDiagnosticReport b = full(first, URI_B);
+        assertThat(b.getItems()).anyMatch(d -> CrossFileIndex.FEATURE_NAME_RULE.equals(d.getCode().getLeft()));
+
+        index(URI_A, feature("Logout"));
+        diagnostics.invalidate();
+        WorkspaceDiagnosticReport second = report(previousIds(first), null).get(10, TimeUnit.SECONDS);
+
+        // Both changed: A's content, and B's cross-file issue went away
+        assertThat(second.getItems()).allMatch(WorkspaceDocumentDiagnosticReport::isWorkspaceFullDocumentDiagnosticReport);
+        assertThat(full(second, URI_B).getItems())
+                .noneMatch(d -> CrossFileIndex.FEATURE_NAME_RULE.equals(d.getCode().getLeft()));
+
+        // Nothing changed since: the request waits for a change
+        CompletableFuture<WorkspaceDiagnosticReport> third = report(previousIds(second), null);
+        Thread.sleep(200);
+        assertThat(third).isNotDone();
+
+        disk.put(URI_B, feature("Other") + "    When it runs\n");
+        engine.indexFile(URI_B, disk.get(URI_B));
+        diagnostics.invalidate();
+        WorkspaceDiagnosticReport changed = third.get(10, TimeUnit.SECONDS);
+
+        assertThat(changed.getItems()).hasSize(2);
+        assertThat(changed.getItems().stream().filter(WorkspaceDocumentDiagnosticReport::isWorkspaceFullDocumentDiagnosticReport)
+                .map(item -> item.getWorkspaceFullDocumentDiagnosticReport().getUri())).containsExactly(URI_B);
+    }
+
+    @Test
+    void shouldStreamPartialResultsAndClearRemovedFiles() throws Exception {
+        index(URI_A, feature("Login"));
+        index(URI_B, feature("Other"));
+
+        WorkspaceDiagnosticReport first = report(List.of(), Either.forLeft("token")).get(10, TimeUnit.SECONDS);
+
+        assertThat(first.getItems()).isEmpty();
+        List<WorkspaceDocumentDiagnosticReport> streamed = new ArrayList<>();
+        for (ProgressParams params : client.progress) {
+            assertThat(params.getToken().getLeft()).isEqualTo("token");
+            streamed.addAll(((WorkspaceDiagnosticReportPartialResult) params.getValue().getRight()).getItems());
+        }
+        assertThat(streamed).hasSize(2);
+
+        disk.remove(URI_B);
+        engine.unindexFile(URI_B);
+        diagnostics.invalidate();
+        WorkspaceDiagnosticReport second = report(previousIds(new WorkspaceDiagnosticReport(streamed)), null)
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(full(second, URI_B).getItems()).isEmpty();
+        assertThat(second.getItems()).filteredOn(item -> item.isWorkspaceUnchangedDocumentDiagnosticReport())
+                .singleElement()
+                .satisfies(item -> assertThat(item.getWorkspaceUnchangedDocumentDiagnosticReport().getUri())
+                        .isEqualTo(URI_A));
+    }
+
+    private CompletableFuture<WorkspaceDiagnosticReport> report(List<PreviousResultId> previous,
+                                                                Either<String, Integer> token) {
+        WorkspaceDiagnosticParams params = new WorkspaceDiagnosticParams(previous);
+        params.setPartialResultToken(token);
+        return diagnostics.report(engine, client, params);
+    }
+
+    private void index(String uri, String content) {
+        disk.put(uri, content);
+        engine.indexFile(uri, content);
+    }
+
+    private static List<PreviousResultId> previousIds(WorkspaceDiagnosticReport report) {
+        List<PreviousResultId> ids = new ArrayList<>();
+        for (WorkspaceDocumentDiagnosticReport item : report.getItems()) {
+            if (item.isWorkspaceFullDocumentDiagnosticReport()) {
+                WorkspaceFullDocumentDiagnosticReport full = item.getWorkspaceFullDocumentDiagnosticReport();
+                ids.add(new PreviousResultId(full.getUri(), full.getResultId()));
+            } else {
+                ids.add(new PreviousResultId(item.getWorkspaceUnchangedDocumentDiagnosticReport().getUri(),
+                        item.getWorkspaceUnchangedDocumentDiagnosticReport().getResultId()));
+            }
+        }
+        return ids;
+    }
+
+    private static WorkspaceFullDocumentDiagnosticReport full(WorkspaceDiagnosticReport report, String uri) {
+        return report.getItems().stream()
+                .filter(WorkspaceDocumentDiagnosticReport::isWorkspaceFullDocumentDiagnosticReport)
+                .map(WorkspaceDocumentDiagnosticReport::getWorkspaceFullDocumentDiagnosticReport)
+                .filter(item -> item.getUri().equals(uri))
+                .findFirst().orElseThrow();
+    }
+}
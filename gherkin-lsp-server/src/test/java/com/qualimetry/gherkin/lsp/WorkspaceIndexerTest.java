@@ -0,0 +1,230 @@
+/*
+ * Copyright 2026 SHAZAM Analytics Ltd
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.qualimetry.gherkin.lsp;
+
+import org.eclipse.lsp4j.FileChangeType;
+import org.eclipse.lsp4j.FileEvent;
+import org.eclipse.lsp4j.MessageType;
+import org.eclipse.lsp4j.WorkDoneProgressBegin;
+import org.eclipse.lsp4j.WorkDoneProgressEnd;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static com.qualimetry.gherkin.lsp.RecordingClient.feature;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link WorkspaceIndexer}: the crawl, open-file precedence,
+ * URI encoding, file event batches and progress reporting.
+ */
+class WorkspaceIndexerTest {
+
+    @TempDir
+    Path root;
+
+    private final AnalysisEngine engine = new AnalysisEngine(new RuleConfiguration(null));
+
+    @Test
+    void shouldIndexUnopenedFilesForCrossFileRules() throws Exception {
+        write("a/one.feature", feature("Login"));
+        write("a/b/two.feature", feature("Login"));
+        write("node_modules/dep/three.feature", feature("Login"));
+        write(".git/four.feature", feature("Login"));
+
+        int indexed = index(null, false);
+
+        assertThat(indexed).isEqualTo(2);
+        assertThat(engine.getIndexedFileCount()).isEqualTo(2);
+        assertThat(engine.getCrossFileDiagnostics()).isNotEmpty().allSatisfy((uri, diagnostics) -> {
+            assertThat(uri).isIn(rootUri() + "/a/one.feature", rootUri() + "/a/b/two.feature");
+            assertThat(diagnostics).anyMatch(d -> CrossFileIndex.FEATURE_NAME_RULE.equals(d.getCode().getLeft()));
+        });
+    }
+
+    @Test
+    void shouldNotOverwriteOpenFiles() throws Exception {
+        write("one.feature", feature("Login"));
+        write("two.feature", feature("Login"));
+        String openUri = rootUri() + "/two.feature";
+        // Open in the editor with different, unsaved content
+        engine.analyzeFile(openUri, feature("Renamed"));
+
+        index(null, false);
+
+        assertThat(engine.getIndexedFileCount()).isEqualTo(2);
+        assertThat(engine.getCrossFileDiagnostics()).isEmpty();
+    }
+
+    @Test
+    void shouldEncodeUrisLikeTheClient() throws Exception {
+        write("a.feature", feature("Login"));
+        write("my specs/a+b #1.feature", feature("Login"));
+
+        try (WorkspaceIndexer indexer = new WorkspaceIndexer(engine, List.of(rootUri() + "/"), 2, () -> { })) {
+            indexer.start(null, false).get(10, TimeUnit.SECONDS);
+
+            String uri = rootUri() + "/my%20specs/a%2Bb%20%231.feature";
+            // Sorted after a.feature, so it holds the duplicate name issue
+            assertThat(engine.getCrossFileDiagnostics()).containsKey(uri);
+            assertThat(indexer.readIndexedFile(uri)).isEqualTo(feature("Login"));
+        }
+        assertThat(WorkspaceIndexer.encodeSegment("plain-name_1.feature")).isEqualTo("plain-name_1.feature");
+        assertThat(WorkspaceIndexer.encodeSegment("caf\u00e9.feature")).isEqualTo("caf%C3%A9.feature");
+    }
+
+    @Test
+    void shouldIndexFromCacheOnNextStart(@TempDir Path storage) throws Exception {
+        write("one.feature", feature("Login"));
+        write("two.feature", feature("Login"));
+        Path cacheFile = storage.resolve("workspace-index.bin");
+        try (WorkspaceIndexer indexer = new WorkspaceIndexer(engine, List.of(rootUri()), 2, () -> { }, cacheFile)) {
+            indexer.start(null, false).get(10, TimeUnit.SECONDS);
+        }
+        write("two.feature", feature("Logout"));
+
+        AnalysisEngine restarted = new AnalysisEngine(new RuleConfiguration(null));
+        try (WorkspaceIndexer indexer = new WorkspaceIndexer(restarted, List.of(rootUri()), 2, () -> { }, cacheFile)) {
+            assertThat(indexer.start(null, false).get(10, TimeUnit.SECONDS)).isEqualTo(2);
+        }
+
+        assertThat(engine.getCrossFileDiagnostics()).isNotEmpty();
+        assertThat(restarted.getIndexedFileCount()).isEqualTo(2);
+        assertThat(restarted.getCrossFileDiagnostics()).isEmpty();
+        try (AnalysisCache cache = AnalysisCache.open(cacheFile, AnalysisCache.factsKey())) {
+            assertThat(cache.getPreviousSize()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void shouldLogCacheFailuresToTheClient(@TempDir Path storage) throws Exception {
+        write("one.feature", feature("Login"));
+        // A file where the cache folder should be
+        Files.writeString(storage.resolve("blocked"), "");
+        Path cacheFile = storage.resolve("blocked/workspace-index.bin");
+        RecordingClient client = new RecordingClient();
+
+        try (WorkspaceIndexer indexer = new WorkspaceIndexer(engine, List.of(rootUri()), 2, () -> { }, cacheFile)) {
+            assertThat(indexer.start(client, false).get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+
+        assertThat(client.logged).singleElement().satisfies(message -> {
+            assertThat(message.getType()).isEqualTo(MessageType.Error);
+            assertThat(message.getMessage())
+                    .startsWith("Gherkin workspace index cache unavailable: ")
+                    .contains("\tat ");
+        });
+    }
+
+    @Test
+    void shouldApplyFileEventsInOneBatch() throws Exception {
+        write("kept.feature", feature("Login"));
+        write("changed.feature", feature("Other"));
+        write("gone.feature", feature("Gone"));
+        write("old/a.feature", feature("A"));
+        write("old/b.feature", feature("B"));
+        Semaphore batches = new Semaphore(0);
+
+        try (WorkspaceIndexer indexer = new WorkspaceIndexer(engine, List.of(rootUri()), 2, batches::release)) {
+            indexer.start(null, false).get(10, TimeUnit.SECONDS);
+            assertThat(batches.tryAcquire(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(engine.getIndexedFileCount()).isEqualTo(5);
+
+            write("changed.feature", feature("Login"));
+            write("new.feature", feature("New"));
+            Files.delete(root.resolve("gone.feature"));
+            Files.delete(root.resolve("old/a.feature"));
+            Files.delete(root.resolve("old/b.feature"));
+            Files.delete(root.resolve("old"));
+            indexer.applyChanges(List.of(
+                    new FileEvent(rootUri() + "/changed.feature", FileChangeType.Changed),
+                    new FileEvent(rootUri() + "/gone.feature", FileChangeType.Deleted)));
+            indexer.applyChanges(List.of(
+                    new FileEvent(rootUri() + "/new.feature", FileChangeType.Created),
+                    new FileEvent(rootUri() + "/old", FileChangeType.Deleted),
+                    new FileEvent(rootUri() + "/changed.feature", FileChangeType.Changed)));
+
+            assertThat(batches.tryAcquire(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(engine.getIndexedUris()).containsExactlyInAnyOrder(
+                    rootUri() + "/kept.feature", rootUri() + "/changed.feature", rootUri() + "/new.feature");
+            assertThat(engine.getCrossFileDiagnostics()).isNotEmpty();
+            // Both calls were coalesced into a single batch
+            assertThat(batches.tryAcquire(300, TimeUnit.MILLISECONDS)).isFalse();
+        }
+    }
+
+    @Test
+    void shouldRetractDeletedFoldersOfABatch() throws Exception {
+        for (String file : List.of("a/one.feature", "a/b/two.feature", "a-kept/three.feature",
+                "b/four.feature", "c/five.feature", "c/d/six.feature")) {
+            write(file, feature(file));
+        }
+        Semaphore batches = new Semaphore(0);
+
+        try (WorkspaceIndexer indexer = new WorkspaceIndexer(engine, List.of(rootUri()), 2, batches::release)) {
+            indexer.start(null, false).get(10, TimeUnit.SECONDS);
+            assertThat(batches.tryAcquire(10, TimeUnit.SECONDS)).isTrue();
+
+            // The nested folder is reported as well as its parent
+            indexer.applyChanges(List.of(
+                    new FileEvent(rootUri() + "/a/b", FileChangeType.Deleted),
+                    new FileEvent(rootUri() + "/a", FileChangeType.Deleted),
+                    new FileEvent(rootUri() + "/c/", FileChangeType.Deleted)));
+
+            assertThat(batches.tryAcquire(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(engine.getIndexedUris()).containsExactlyInAnyOrder(
+                    rootUri() + "/a-kept/three.feature", rootUri() + "/b/four.feature");
+        }
+    }
+
+    @Test
+    void shouldReportProgressWhenSupported() throws Exception {
+        write("one.feature", feature("Login"));
+        RecordingClient client = new RecordingClient();
+
+        index(client, true);
+
+        assertThat(client.progress).first().satisfies(p -> assertThat(p.getValue().getLeft())
+                .isInstanceOf(WorkDoneProgressBegin.class));
+        assertThat(client.progress).last().satisfies(p -> assertThat(p.getValue().getLeft())
+                .isInstanceOf(WorkDoneProgressEnd.class));
+    }
+
+    private int index(LanguageClient client, boolean reportProgress) throws Exception {
+        try (WorkspaceIndexer indexer = new WorkspaceIndexer(engine, List.of(rootUri()), 2, () -> { })) {
+            return indexer.start(client, reportProgress).get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private String rootUri() {
+        String uri = root.toUri().toString();
+        return uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+    }
+
+    private void write(String relative, String content) throws IOException {
+        Path file = root.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+}
@@ -28,7 +28,8 @@ export async function activate(context: vscode.ExtensionContext): Promise<void>
     context.subscriptions.push(
         vscode.commands.registerCommand('gherkin.importRulesFromSonarQube', () =>
             importRulesFromSonarQube(context)
-        )
+        ),
+        vscode.commands.registerCommand('gherkin.showAnalysisStats', showAnalysisStats)
     );
 
     const config = getConfiguration();
@@ -78,6 +79,13 @@ export async function activate(context: vscode.ExtensionContext): Promise<void>
         synchronize: {
             configurationSection: 'gherkinAnalyzer',
         },
+        // Settings needed before the first configuration push, such as
+        // analysis.indexWorkspace, which the server reads when initialized,
+        // and the folder where the server caches the workspace index.
+        initializationOptions: () => ({
+            ...JSON.parse(JSON.stringify(vscode.workspace.getConfiguration('gherkinAnalyzer'))),
+            storagePath: context.storageUri?.fsPath,
+        }),
         outputChannel,
     };
 
@@ -107,6 +115,19 @@ export async function activate(context: vscode.ExtensionContext): Promise<void>
     context.subscriptions.push({ dispose: () => client?.stop() });
 }
 
+async function showAnalysisStats(): Promise<void> {
+    if (!client) {
+        vscode.window.showWarningMessage('Gherkin Analyzer: the language server is not running.');
+        return;
+    }
+    const stats = await client.sendRequest('gherkin/stats');
+    const document = await vscode.workspace.openTextDocument({
+        language: 'json',
+        content: JSON.stringify(stats, null, 2),
+    });
+    await vscode.window.showTextDocument(document);
+}
+
 const SONAR_LAST_URL_KEY = 'gherkin.sonar.lastServerUrl';
 const SONAR_LAST_PROFILE_KEY = 'gherkin.sonar.lastProfile';
 